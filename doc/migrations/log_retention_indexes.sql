@@ -0,0 +1,37 @@
+--
+-- The MIT License
+-- Copyright © 2024 LastProject-ESIEE
+--
+-- Permission is hereby granted, free of charge, to any person obtaining a copy
+-- of this software and associated documentation files (the "Software"), to deal
+-- in the Software without restriction, including without limitation the rights
+-- to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+-- copies of the Software, and to permit persons to whom the Software is
+-- furnished to do so, subject to the following conditions:
+--
+-- The above copyright notice and this permission notice shall be included in
+-- all copies or substantial portions of the Software.
+--
+-- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+-- FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+-- AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+-- LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+-- OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+-- THE SOFTWARE.
+--
+
+-- Indexes of the log retention job, which deletes the logs day by day, by batches of ids,
+-- and looks for the oldest log of each level.
+--
+-- The tables are not partitioned by date. The retention depends on the level and on the
+-- component, so a partition holding a day of logs could not be dropped as a whole, and MySQL
+-- does not support foreign keys, which business_logs has, on partitioned tables.
+
+ALTER TABLE technical_logs
+  ADD INDEX idx_technical_logs_date (date),
+  ADD INDEX idx_technical_logs_retention (component, level, date);
+
+ALTER TABLE business_logs
+  ADD INDEX idx_business_logs_date (date),
+  ADD INDEX idx_business_logs_retention (level, date);
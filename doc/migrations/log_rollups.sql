@@ -0,0 +1,70 @@
+--
+-- The MIT License
+-- Copyright © 2024 LastProject-ESIEE
+--
+-- Permission is hereby granted, free of charge, to any person obtaining a copy
+-- of this software and associated documentation files (the "Software"), to deal
+-- in the Software without restriction, including without limitation the rights
+-- to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+-- copies of the Software, and to permit persons to whom the Software is
+-- furnished to do so, subject to the following conditions:
+--
+-- The above copyright notice and this permission notice shall be included in
+-- all copies or substantial portions of the Software.
+--
+-- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+-- FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+-- AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+-- LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+-- OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+-- THE SOFTWARE.
+--
+
+-- Rollup tables of the log histograms, filled from the logs already stored.
+-- Run it before starting the version which maintains the rollups, so no log is counted twice.
+
+CREATE TABLE technical_log_rollups (
+  id INT NOT NULL AUTO_INCREMENT,
+  granularity ENUM('MINUTE', 'HOUR', 'DAY') NOT NULL,
+  bucket DATETIME(6) NOT NULL,
+  component ENUM('BACKEND', 'FRONTEND', 'WEBSOCKET', 'DATABASE') NOT NULL,
+  level VARCHAR(255) NOT NULL,
+  total BIGINT NOT NULL,
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_technical_log_rollups (granularity, bucket, component, level)
+);
+
+CREATE TABLE business_log_rollups (
+  id INT NOT NULL AUTO_INCREMENT,
+  granularity ENUM('MINUTE', 'HOUR', 'DAY') NOT NULL,
+  bucket DATETIME(6) NOT NULL,
+  category ENUM('LOGIN', 'STATUS', 'FIRM', 'CONFIG') NOT NULL,
+  chargepoint_id INT NULL,
+  level VARCHAR(255) NOT NULL,
+  total BIGINT NOT NULL,
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_business_log_rollups (granularity, bucket, category, chargepoint_id, level)
+);
+
+INSERT INTO technical_log_rollups (granularity, bucket, component, level, total)
+SELECT 'HOUR', DATE_FORMAT(date, '%Y-%m-%d %H:00:00'), component, level, COUNT(*)
+FROM technical_logs
+GROUP BY DATE_FORMAT(date, '%Y-%m-%d %H:00:00'), component, level;
+
+INSERT INTO technical_log_rollups (granularity, bucket, component, level, total)
+SELECT 'MINUTE', DATE_FORMAT(date, '%Y-%m-%d %H:%i:00'), component, level, COUNT(*)
+FROM technical_logs
+WHERE date >= NOW() - INTERVAL 7 DAY
+GROUP BY DATE_FORMAT(date, '%Y-%m-%d %H:%i:00'), component, level;
+
+INSERT INTO business_log_rollups (granularity, bucket, category, chargepoint_id, level, total)
+SELECT 'HOUR', DATE_FORMAT(date, '%Y-%m-%d %H:00:00'), category, chargepoint_id, level, COUNT(*)
+FROM business_logs
+GROUP BY DATE_FORMAT(date, '%Y-%m-%d %H:00:00'), category, chargepoint_id, level;
+
+INSERT INTO business_log_rollups (granularity, bucket, category, chargepoint_id, level, total)
+SELECT 'MINUTE', DATE_FORMAT(date, '%Y-%m-%d %H:%i:00'), category, chargepoint_id, level, COUNT(*)
+FROM business_logs
+WHERE date >= NOW() - INTERVAL 7 DAY
+GROUP BY DATE_FORMAT(date, '%Y-%m-%d %H:%i:00'), category, chargepoint_id, level;
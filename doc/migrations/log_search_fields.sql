@@ -0,0 +1,41 @@
+--
+-- The MIT License
+-- Copyright © 2024 LastProject-ESIEE
+--
+-- Permission is hereby granted, free of charge, to any person obtaining a copy
+-- of this software and associated documentation files (the "Software"), to deal
+-- in the Software without restriction, including without limitation the rights
+-- to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+-- copies of the Software, and to permit persons to whom the Software is
+-- furnished to do so, subject to the following conditions:
+--
+-- The above copyright notice and this permission notice shall be included in
+-- all copies or substantial portions of the Software.
+--
+-- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+-- FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+-- AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+-- LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+-- OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+-- THE SOFTWARE.
+--
+
+-- Structured fields of the logs, searched through their own indexes
+-- instead of a LIKE on the complete logs.
+
+ALTER TABLE technical_logs
+  ADD COLUMN chargepoint_id INT NULL,
+  ADD COLUMN session_id VARCHAR(255) NULL,
+  ADD COLUMN ocpp_action VARCHAR(255) NULL,
+  ADD COLUMN message_id BIGINT NULL,
+  ADD COLUMN direction ENUM('INBOUND', 'OUTBOUND') NULL,
+  ADD COLUMN duration_ms BIGINT NULL,
+  ADD INDEX idx_technical_logs_chargepoint (chargepoint_id, date),
+  ADD INDEX idx_technical_logs_session (session_id, date),
+  ADD INDEX idx_technical_logs_action (ocpp_action, date);
+
+ALTER TABLE business_logs
+  ADD COLUMN ocpp_action VARCHAR(255) NULL,
+  ADD INDEX idx_business_logs_chargepoint (chargepoint_id, date),
+  ADD INDEX idx_business_logs_action (ocpp_action, date);
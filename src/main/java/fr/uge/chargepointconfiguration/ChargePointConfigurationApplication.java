@@ -22,14 +22,19 @@
  */
 package fr.uge.chargepointconfiguration;
 
+import fr.uge.chargepointconfiguration.shared.SliceRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * The main entry point to the application.<br>
  * It implements CommandLineRunner.
  */
 @SpringBootApplication
+@EnableScheduling
+@EnableJpaRepositories(repositoryBaseClass = SliceRepository.class)
 public class ChargePointConfigurationApplication {
   /**
    * Launches the server by instantiating the application and running it.
@@ -22,6 +22,8 @@
  */
 package fr.uge.chargepointconfiguration;
 
+import fr.uge.chargepointconfiguration.chargepointwebsocket.OcppHandshakeHandler;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.OcppHandshakeInterceptor;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.OcppWebSocketHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
@@ -37,14 +39,29 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 public class WebSocketConfig implements WebSocketConfigurer {
 
   private final OcppWebSocketHandler ocppWebSocketHandler;
+  private final OcppHandshakeInterceptor ocppHandshakeInterceptor;
+  private final OcppHandshakeHandler ocppHandshakeHandler;
   private final FrontWebSocketHandler frontWebSocketHandler;
   private final String websocketPath;
 
+  /**
+   * WebSocketConfig's constructor.
+   *
+   * @param ocppWebSocketHandler     The handler of the chargepoints.
+   * @param ocppHandshakeInterceptor The identification of the chargepoints at handshake.
+   * @param ocppHandshakeHandler     The negotiation of the chargepoint connections.
+   * @param frontWebSocketHandler    The handler of the front notifications.
+   * @param frontWebSocketPath       The path of the front websocket.
+   */
   public WebSocketConfig(
       OcppWebSocketHandler ocppWebSocketHandler,
+      OcppHandshakeInterceptor ocppHandshakeInterceptor,
+      OcppHandshakeHandler ocppHandshakeHandler,
       FrontWebSocketHandler frontWebSocketHandler,
       @Value("${websocket.path}") String frontWebSocketPath) {
     this.ocppWebSocketHandler = ocppWebSocketHandler;
+    this.ocppHandshakeInterceptor = ocppHandshakeInterceptor;
+    this.ocppHandshakeHandler = ocppHandshakeHandler;
     this.frontWebSocketHandler = frontWebSocketHandler;
     this.websocketPath = frontWebSocketPath;
   }
@@ -58,7 +75,9 @@ public class WebSocketConfig implements WebSocketConfigurer {
   public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
     registry
         .addHandler(ocppWebSocketHandler, "/ocpp/**")
-        .addHandler(frontWebSocketHandler, websocketPath)
+        .setHandshakeHandler(ocppHandshakeHandler)
+        .addInterceptors(ocppHandshakeInterceptor)
         .setAllowedOrigins("*"); // TODO: maybe check CORS
+    registry.addHandler(frontWebSocketHandler, websocketPath).setAllowedOrigins("*");
   }
 }
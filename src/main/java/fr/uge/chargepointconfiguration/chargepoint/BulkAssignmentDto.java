@@ -0,0 +1,35 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepoint;
+
+import java.util.List;
+
+/**
+ * DTO to assign a configuration to several chargepoints at once.<br>
+ * The chargepoints are selected either by a request or by their ids.
+ *
+ * @param request       The request selecting the chargepoints, with the search syntax.
+ * @param ids           The ids of the chargepoints, used when there is no request.
+ * @param configuration The id of the assigned configuration, -1 to remove the configuration.
+ */
+public record BulkAssignmentDto(String request, List<Integer> ids, int configuration) {}
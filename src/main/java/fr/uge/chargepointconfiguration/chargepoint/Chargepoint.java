@@ -24,12 +24,16 @@ package fr.uge.chargepointconfiguration.chargepoint;
 
 import fr.uge.chargepointconfiguration.configuration.Configuration;
 import fr.uge.chargepointconfiguration.firmware.Firmware;
+import fr.uge.chargepointconfiguration.shared.CountingEntityListener;
+import fr.uge.chargepointconfiguration.shared.FieldSelection;
 import fr.uge.chargepointconfiguration.status.StatusDto;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -48,6 +52,7 @@ import org.hibernate.annotations.CreationTimestamp;
  */
 @Entity
 @Table(name = "chargepoint")
+@EntityListeners({CountingEntityListener.class, ChargepointIdentityListener.class})
 public class Chargepoint {
 
   /**
@@ -115,7 +120,7 @@ public class Chargepoint {
   @Enumerated(EnumType.STRING)
   private StatusProcess status = StatusProcess.PENDING;
 
-  @ManyToOne(cascade = CascadeType.ALL)
+  @ManyToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   @JoinColumn(name = "id_configuration", referencedColumnName = "id_configuration")
   private Configuration configuration;
 
@@ -338,6 +343,17 @@ public class Chargepoint {
   }
 
   public ChargepointDto toDto() {
+    return toDto(FieldSelection.ALL);
+  }
+
+  /**
+   * Converts the chargepoint into its DTO.<br>
+   * The configuration is left null, and not loaded, when it is not selected.
+   *
+   * @param fields the properties requested.
+   * @return the {@link ChargepointDto}.
+   */
+  public ChargepointDto toDto(FieldSelection fields) {
     var statusDto = new StatusDto(Timestamp.valueOf(lastUpdate), error, state, step, status);
     return new ChargepointDto(
         id,
@@ -345,7 +361,7 @@ public class Chargepoint {
         type,
         constructor,
         clientId,
-        configuration != null ? configuration.toDto() : null,
+        configuration != null && fields.includes("configuration") ? configuration.toDto() : null,
         statusDto);
   }
 }
@@ -22,7 +22,14 @@
  */
 package fr.uge.chargepointconfiguration.chargepoint;
 
+import fr.uge.chargepointconfiguration.shared.EntityExporter;
+import fr.uge.chargepointconfiguration.shared.ExportColumn;
+import fr.uge.chargepointconfiguration.shared.ExportFormat;
+import fr.uge.chargepointconfiguration.shared.FieldSelection;
+import fr.uge.chargepointconfiguration.shared.ImportReportDto;
+import fr.uge.chargepointconfiguration.shared.JobStatusDto;
 import fr.uge.chargepointconfiguration.shared.PageDto;
+import fr.uge.chargepointconfiguration.shared.TotalMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -31,6 +38,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.InputStream;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
@@ -46,6 +54,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * A controller for the Chargepoint entity.
@@ -55,16 +64,44 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Chargepoint", description = "The chargepoint API")
 public class ChargepointController {
 
+  private static final List<ExportColumn<Chargepoint>> EXPORT_COLUMNS = List.of(
+      new ExportColumn<>("id", Chargepoint::getId),
+      new ExportColumn<>("serialNumber", Chargepoint::getSerialNumberChargePoint),
+      new ExportColumn<>("type", Chargepoint::getType),
+      new ExportColumn<>("constructor", Chargepoint::getConstructor),
+      new ExportColumn<>("clientId", Chargepoint::getClientId),
+      new ExportColumn<>(
+          "configuration",
+          chargepoint -> chargepoint.getConfiguration() == null
+              ? null
+              : chargepoint.getConfiguration().getId()),
+      new ExportColumn<>("lastUpdate", Chargepoint::getLastUpdate),
+      new ExportColumn<>("error", Chargepoint::getError),
+      new ExportColumn<>("state", Chargepoint::isState),
+      new ExportColumn<>("step", Chargepoint::getStep),
+      new ExportColumn<>("status", Chargepoint::getStatus));
+
   private final ChargepointService chargepointService;
 
+  private final EntityExporter entityExporter;
+
+  private final ChargepointImporter chargepointImporter;
+
   /**
    * ChargepointController's constructor.
    *
    * @param chargepointService   A ChargePointService.
+   * @param entityExporter       An EntityExporter.
+   * @param chargepointImporter  A ChargepointImporter.
    */
   @Autowired
-  public ChargepointController(ChargepointService chargepointService) {
+  public ChargepointController(
+      ChargepointService chargepointService,
+      EntityExporter entityExporter,
+      ChargepointImporter chargepointImporter) {
     this.chargepointService = chargepointService;
+    this.entityExporter = entityExporter;
+    this.chargepointImporter = chargepointImporter;
   }
 
   /**
@@ -83,9 +120,13 @@ public class ChargepointController {
       })
   @GetMapping(value = "/all")
   @PreAuthorize("hasRole('VISUALIZER')")
-  public List<ChargepointDto> getAllChargepoints() {
-    return chargepointService.getAllChargepoints().stream()
-        .map(Chargepoint::toDto)
+  public List<ChargepointDto> getAllChargepoints(
+      @Parameter(description = "Comma-separated properties to return, all of them if empty.")
+          @RequestParam(required = false, defaultValue = "")
+          String fields) {
+    var selection = FieldSelection.parse(fields, ChargepointDto.class);
+    return chargepointService.getAllChargepoints(selection).stream()
+        .map(chargepoint -> chargepoint.toDto(selection))
         .toList();
   }
 
@@ -153,15 +194,26 @@ public class ChargepointController {
           String order,
       @Parameter(description = "The request used to search.")
           @RequestParam(required = false, defaultValue = "")
-          String request) {
-    var total = chargepointService.countTotalWithFilter(request);
+          String request,
+      @Parameter(description = "How the total must be computed : EXACT, ESTIMATED or NONE.")
+          @RequestParam(required = false, defaultValue = "EXACT")
+          TotalMode totalMode,
+      @Parameter(description = "Comma-separated properties to return, all of them if empty.")
+          @RequestParam(required = false, defaultValue = "")
+          String fields) {
+    var selection = FieldSelection.parse(fields, ChargepointDto.class);
+    var total = totalMode.resolve(
+        () -> chargepointService.countTotalWithFilter(request),
+        () -> chargepointService.estimateTotalWithFilter(request));
     var totalElement = chargepointService.count();
 
     var data = chargepointService
         .search(
-            request, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(order), sortBy)))
+            request,
+            PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(order), sortBy)),
+            selection)
         .stream()
-        .map(Chargepoint::toDto)
+        .map(chargepoint -> chargepoint.toDto(selection))
         .toList();
 
     return new PageDto<>(total, totalElement, page, size, data);
@@ -238,4 +290,142 @@ public class ChargepointController {
       @RequestBody CreateChargepointDto createChargepointDto) {
     return chargepointService.update(id, createChargepointDto).toDto();
   }
+
+  /**
+   * Assigns a configuration to several chargepoints and restarts their process.<br>
+   * A large selection is updated in background, its status is given by the bulk endpoint.
+   *
+   * @param bulkAssignmentDto The selected chargepoints and their new configuration.
+   * @return the status of the update, accepted if it runs in background.
+   */
+  @Operation(summary = "Assign a configuration to several chargepoints")
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "The chargepoints are updated",
+        content = {
+          @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = JobStatusDto.class))
+        }),
+    @ApiResponse(
+        responseCode = "202",
+        description = "The chargepoints are updated in background",
+        content = {
+          @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = JobStatusDto.class))
+        })
+  })
+  @PostMapping("/bulk/configuration")
+  @PreAuthorize("hasRole('EDITOR')")
+  public ResponseEntity<JobStatusDto> assignConfiguration(
+      @io.swagger.v3.oas.annotations.parameters.RequestBody(
+              description = "The selected chargepoints, by request or by ids.",
+              required = true,
+              content =
+                  @Content(
+                      examples =
+                          @ExampleObject(
+                              """
+                  {
+                    "request": "type:`Single`",
+                    "ids": null,
+                    "configuration": 1
+                  }
+                  """)))
+          @RequestBody
+          BulkAssignmentDto bulkAssignmentDto) {
+    var status = chargepointService.assignConfiguration(bulkAssignmentDto);
+    return new ResponseEntity<>(
+        status,
+        status.state() == JobStatusDto.State.DONE ? HttpStatus.OK : HttpStatus.ACCEPTED);
+  }
+
+  /**
+   * Returns the status of a bulk update.
+   *
+   * @param id The id of the job.
+   * @return the status of the job.
+   */
+  @Operation(summary = "Get the status of a bulk update")
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "The status of the update",
+        content = {
+          @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = JobStatusDto.class))
+        }),
+    @ApiResponse(
+        responseCode = "404",
+        description = "This job does not exist or is too old",
+        content = @Content)
+  })
+  @GetMapping("/bulk/{id}")
+  @PreAuthorize("hasRole('EDITOR')")
+  public JobStatusDto bulkStatus(
+      @Parameter(description = "Id of the job you are looking for.") @PathVariable String id) {
+    return chargepointService.bulkStatus(id);
+  }
+
+  /**
+   * Imports chargepoints in bulk, the rejected rows are reported without stopping the import.
+   *
+   * @param format The format of the request body.
+   * @param body   The NDJSON or CSV content, read while it is received.
+   * @return the amount of imported chargepoints and the rejected rows.
+   */
+  @Operation(summary = "Import chargepoints in bulk")
+  @ApiResponse(
+      responseCode = "200",
+      description = "The chargepoints are imported",
+      content =
+          @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ImportReportDto.class)))
+  @PostMapping("/import")
+  @PreAuthorize("hasRole('EDITOR')")
+  public ImportReportDto importChargepoints(
+      @Parameter(description = "The format of the import : NDJSON or CSV.")
+          @RequestParam(required = false, defaultValue = "NDJSON")
+          ExportFormat format,
+      InputStream body) {
+    return chargepointImporter.importChargepoints(body, format);
+  }
+
+  /**
+   * Exports the chargepoints matching the request, without loading them all in memory.
+   *
+   * @param format  The format of the export.
+   * @param gzip    Whether the export is compressed.
+   * @param request The request used to filter.
+   * @return the streamed export.
+   */
+  @Operation(summary = "Export the chargepoints")
+  @ApiResponse(responseCode = "200", description = "The chargepoints are streamed")
+  @GetMapping(value = "/export")
+  @PreAuthorize("hasRole('VISUALIZER')")
+  public ResponseEntity<StreamingResponseBody> export(
+      @Parameter(description = "The format of the export : NDJSON or CSV.")
+          @RequestParam(required = false, defaultValue = "NDJSON")
+          ExportFormat format,
+      @Parameter(description = "Whether the export is compressed with gzip.")
+          @RequestParam(required = false, defaultValue = "false")
+          boolean gzip,
+      @Parameter(description = "The request used to filter.")
+          @RequestParam(required = false, defaultValue = "")
+          String request) {
+    return entityExporter.export(
+        "chargepoints",
+        Chargepoint.class,
+        chargepointService.specification(request),
+        format,
+        gzip,
+        EXPORT_COLUMNS,
+        Chargepoint::toDto,
+        "configuration",
+        "configuration.firmware");
+  }
 }
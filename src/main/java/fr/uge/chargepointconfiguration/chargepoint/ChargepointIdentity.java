@@ -0,0 +1,41 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepoint;
+
+/**
+ * The identity of a chargepoint, as known by the {@link ChargepointIdentityIndex}.
+ *
+ * @param id              The id of the chargepoint.
+ * @param serialNumber    The serial number, used by the chargepoint as its OCPP identity.
+ * @param clientId        The client id, pushed as its OCPP identity once it is configured.
+ * @param constructor     The constructor of the chargepoint.
+ * @param type            The type, or model, of the chargepoint.
+ * @param configurationId The id of the configuration of the chargepoint, null if there is none.
+ */
+public record ChargepointIdentity(
+    int id,
+    String serialNumber,
+    String clientId,
+    String constructor,
+    String type,
+    Integer configurationId) {}
@@ -0,0 +1,188 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepoint;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory index of the identities of the chargepoints, keyed by the names they may use
+ * to connect : their serial number, then their client id once it is pushed by
+ * the configuration.<br>
+ * It lets the OCPP handshake tell a known chargepoint from an unknown one without querying
+ * the database. The index is loaded on first use, kept up to date by
+ * {@link ChargepointIdentityListener} and reloaded after the statements bypassing JPA.
+ */
+@Component
+public class ChargepointIdentityIndex {
+
+  private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+  private volatile Snapshot snapshot;
+
+  private record Snapshot(
+      Map<String, Set<Integer>> idsByName, Map<Integer, ChargepointIdentity> byId) {
+
+    void add(ChargepointIdentity identity) {
+      byId.put(identity.id(), identity);
+      for (var name : names(identity)) {
+        idsByName.computeIfAbsent(name, n -> ConcurrentHashMap.newKeySet()).add(identity.id());
+      }
+    }
+
+    void forgetOldNames(ChargepointIdentity previous, ChargepointIdentity identity) {
+      var names = names(identity);
+      for (var name : names(previous)) {
+        if (names.contains(name)) {
+          continue;
+        }
+        idsByName.computeIfPresent(name, (n, ids) -> {
+          ids.remove(previous.id());
+          return ids.isEmpty() ? null : ids;
+        });
+      }
+    }
+
+    private static List<String> names(ChargepointIdentity identity) {
+      return Stream.of(identity.serialNumber(), identity.clientId())
+          .filter(Objects::nonNull)
+          .distinct()
+          .toList();
+    }
+  }
+
+  /**
+   * ChargepointIdentityIndex's constructor.
+   *
+   * @param jdbcTemplate The JdbcTemplate reading the chargepoint table, resolved on first use
+   *                     because the JPA listeners are created with the entity manager.
+   */
+  @Autowired
+  public ChargepointIdentityIndex(ObjectProvider<JdbcTemplate> jdbcTemplate) {
+    this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate);
+  }
+
+  /**
+   * Returns the chargepoint connecting with the given name.<br>
+   * As the serial numbers are only unique for a constructor, a name may be used by several
+   * chargepoints : none of them is returned, the BootNotification will tell which one it is.
+   *
+   * @param name The serial number or the client id used by the chargepoint.
+   * @return the identity of the chargepoint, empty if the name is unknown or ambiguous.
+   */
+  public Optional<ChargepointIdentity> find(String name) {
+    Objects.requireNonNull(name);
+    var current = snapshot();
+    var ids = current.idsByName().get(name);
+    if (ids == null || ids.size() != 1) {
+      return Optional.empty();
+    }
+    return ids.stream().findFirst().map(current.byId()::get);
+  }
+
+  /**
+   * Tells whether at least one chargepoint may connect with the given name.
+   *
+   * @param name The serial number or the client id used by the chargepoint.
+   * @return true if the name is known, even if several chargepoints use it.
+   */
+  public boolean isKnown(String name) {
+    Objects.requireNonNull(name);
+    var ids = snapshot().idsByName().get(name);
+    return ids != null && !ids.isEmpty();
+  }
+
+  /**
+   * Records the insertion or the update of a chargepoint.
+   *
+   * @param chargepoint The saved chargepoint.
+   */
+  public synchronized void onSave(Chargepoint chargepoint) {
+    var current = snapshot;
+    if (current == null) {
+      return;
+    }
+    var configuration = chargepoint.getConfiguration();
+    var identity = new ChargepointIdentity(
+        chargepoint.getId(),
+        chargepoint.getSerialNumberChargePoint(),
+        chargepoint.getClientId(),
+        chargepoint.getConstructor(),
+        chargepoint.getType(),
+        configuration == null ? null : configuration.getId());
+    // The new names are known before the old ones are forgotten, so a lookup never misses it
+    var previous = current.byId().get(identity.id());
+    current.add(identity);
+    if (previous != null) {
+      current.forgetOldNames(previous, identity);
+    }
+  }
+
+  /**
+   * Forgets the whole index, it is reloaded by the next lookup.<br>
+   * Must be called after the statements modifying the chargepoints without JPA
+   * and after each deletion.
+   */
+  public synchronized void invalidate() {
+    snapshot = null;
+  }
+
+  private Snapshot snapshot() {
+    var current = snapshot;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (snapshot == null) {
+        snapshot = load();
+      }
+      return snapshot;
+    }
+  }
+
+  private Snapshot load() {
+    var loaded = new Snapshot(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    jdbcTemplate.getObject().query(
+        "SELECT id_chargepoint, serial_number_chargepoint, client_id, constructor, type, "
+            + "id_configuration FROM chargepoint",
+        resultSet -> {
+          var configurationId = resultSet.getInt(6);
+          loaded.add(new ChargepointIdentity(
+              resultSet.getInt(1),
+              resultSet.getString(2),
+              resultSet.getString(3),
+              resultSet.getString(4),
+              resultSet.getString(5),
+              resultSet.wasNull() ? null : configurationId));
+        });
+    return loaded;
+  }
+}
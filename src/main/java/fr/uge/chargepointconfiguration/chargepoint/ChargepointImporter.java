@@ -0,0 +1,362 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepoint;
+
+import static fr.uge.chargepointconfiguration.configuration.Configuration.NO_CONFIG_ID;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
+import fr.uge.chargepointconfiguration.logs.CustomLogger;
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLog;
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.shared.CsvReader;
+import fr.uge.chargepointconfiguration.shared.EntityCountRegistry;
+import fr.uge.chargepointconfiguration.shared.ExportFormat;
+import fr.uge.chargepointconfiguration.shared.ImportErrorDto;
+import fr.uge.chargepointconfiguration.shared.ImportReportDto;
+import fr.uge.chargepointconfiguration.user.UserService;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports chargepoints in bulk from a NDJSON or CSV content.<br>
+ * The content is parsed while it is received, the duplicates are checked against the
+ * (serial number, constructor) pairs loaded once at the beginning and the rows are inserted
+ * with JDBC batches, one transaction per batch.<br>
+ * A rejected row is reported with its line and does not stop the import, a single business
+ * log summing up the whole import.<br>
+ * With MySQL, the JDBC url must contain <code>rewriteBatchedStatements=true</code> for the
+ * driver to send a batch as a single statement.
+ */
+@Component
+public class ChargepointImporter {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_LENGTH = 45;
+  private static final List<String> CSV_COLUMNS =
+      List.of("serialNumber", "type", "constructor", "clientId", "configuration");
+  private static final String INSERT = """
+      INSERT INTO chargepoint (serial_number_chargepoint, type, constructor, client_id,
+        id_configuration, last_update, error, state, step, step_status)
+      VALUES (?, ?, ?, ?, ?, ?, '', false, 'FIRMWARE', 'PENDING')""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectReader chargepointReader;
+  private final EntityCountRegistry entityCountRegistry;
+  private final ChargepointIdentityIndex chargepointIdentityIndex;
+  private final UserService userService;
+  private final CustomLogger logger;
+  private final int batchSize;
+
+  /**
+   * ChargepointImporter's constructor.
+   *
+   * @param jdbcTemplate        The template running the batches.
+   * @param transactionManager  The transaction manager of the batches.
+   * @param objectMapper        The mapper reading the NDJSON lines.
+   * @param entityCountRegistry The in-memory counts of the entities.
+   * @param chargepointIdentityIndex The in-memory index of the chargepoint identities.
+   * @param userService         The service giving the user running the import.
+   * @param logger              The logger of the import summary.
+   * @param batchSize           The amount of rows inserted by each batch.
+   */
+  @Autowired
+  public ChargepointImporter(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper,
+      EntityCountRegistry entityCountRegistry,
+      ChargepointIdentityIndex chargepointIdentityIndex,
+      UserService userService,
+      CustomLogger logger,
+      @Value("${import.batch-size:1000}") int batchSize) {
+    this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chargepointReader = objectMapper.readerFor(CreateChargepointDto.class);
+    this.entityCountRegistry = Objects.requireNonNull(entityCountRegistry);
+    this.chargepointIdentityIndex = Objects.requireNonNull(chargepointIdentityIndex);
+    this.userService = Objects.requireNonNull(userService);
+    this.logger = Objects.requireNonNull(logger);
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("The batch size must be positive.");
+    }
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Imports the chargepoints of the given content.<br>
+   * The CSV format requires a header line with the columns serialNumber, type, constructor,
+   * clientId and configuration, an empty configuration meaning no configuration.
+   *
+   * @param input  The imported content, encoded in UTF-8.
+   * @param format The format of the content.
+   * @return the report of the import.
+   */
+  public ImportReportDto importChargepoints(InputStream input, ExportFormat format) {
+    Objects.requireNonNull(input);
+    Objects.requireNonNull(format);
+    var reader = new BufferedReader(
+        new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE);
+    var run = new ImportRun(existingChargepoints(), existingConfigurations());
+    try {
+      switch (format) {
+        case NDJSON -> readNdjson(reader, run);
+        case CSV -> readCsv(reader, run);
+        default -> throw new IllegalStateException("Unknown import format : " + format);
+      }
+      run.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      if (run.imported != 0) {
+        entityCountRegistry.invalidate(Chargepoint.class);
+        chargepointIdentityIndex.invalidate();
+      }
+    }
+    var report = run.report();
+    logger.info(new BusinessLog(
+        userService.getAuthenticatedUser(),
+        null,
+        BusinessLogEntity.Category.CONFIG,
+        "Import of " + report.imported() + " chargepoints (" + report.errors().size()
+            + " rows rejected)"));
+    return report;
+  }
+
+  private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+    var line = 0L;
+    for (var text = reader.readLine(); text != null; text = reader.readLine()) {
+      line++;
+      if (text.isBlank()) {
+        continue;
+      }
+      CreateChargepointDto chargepoint;
+      try {
+        chargepoint = chargepointReader.readValue(text);
+      } catch (JsonProcessingException e) {
+        run.reject(line, "JSON invalide : " + e.getOriginalMessage());
+        continue;
+      }
+      run.accept(line, chargepoint);
+    }
+  }
+
+  private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+    var csv = new CsvReader(reader);
+    var header = csv.next();
+    if (header == null) {
+      return;
+    }
+    // Spreadsheets may start the content with a byte order mark
+    header.set(0, header.get(0).replace("\uFEFF", ""));
+    var missing = CSV_COLUMNS.stream().filter(column -> !header.contains(column)).toList();
+    if (!missing.isEmpty()) {
+      throw new BadRequestException("Colonnes manquantes pour l'import : " + missing);
+    }
+    var indexes = CSV_COLUMNS.stream().mapToInt(header::indexOf).toArray();
+    for (var values = csv.next(); values != null; values = csv.next()) {
+      if (values.size() == 1 && values.get(0).isBlank()) {
+        continue;
+      }
+      if (values.size() != header.size()) {
+        run.reject(csv.line(), "Nombre de colonnes invalide : " + values.size()
+            + " au lieu de " + header.size());
+        continue;
+      }
+      var configuration = values.get(indexes[4]).strip();
+      int configurationId;
+      try {
+        configurationId = configuration.isEmpty() ? NO_CONFIG_ID : Integer.parseInt(configuration);
+      } catch (NumberFormatException e) {
+        run.reject(csv.line(), "Identifiant de configuration invalide : " + configuration);
+        continue;
+      }
+      run.accept(csv.line(), new CreateChargepointDto(
+          values.get(indexes[0]),
+          values.get(indexes[1]),
+          values.get(indexes[2]),
+          values.get(indexes[3]),
+          configurationId));
+    }
+  }
+
+  private Set<ChargepointKey> existingChargepoints() {
+    var keys = new HashSet<ChargepointKey>();
+    jdbcTemplate.query(
+        "SELECT serial_number_chargepoint, constructor FROM chargepoint",
+        (RowCallbackHandler) row ->
+            keys.add(new ChargepointKey(row.getString(1), row.getString(2))));
+    return keys;
+  }
+
+  private Set<Integer> existingConfigurations() {
+    return new HashSet<>(
+        jdbcTemplate.queryForList("SELECT id_configuration FROM configuration", Integer.class));
+  }
+
+  private record ChargepointKey(String serialNumber, String constructor) {
+    private static ChargepointKey of(CreateChargepointDto chargepoint) {
+      return new ChargepointKey(chargepoint.serialNumberChargepoint(), chargepoint.constructor());
+    }
+  }
+
+  private record Row(long line, CreateChargepointDto chargepoint) {}
+
+  /**
+   * The state of an import, the rows waiting for the next batch and the report.
+   */
+  private final class ImportRun {
+    private final Set<ChargepointKey> chargepoints;
+    private final Set<Integer> configurations;
+    private final ArrayList<Row> pending = new ArrayList<>();
+    private final Set<ChargepointKey> pendingKeys = new HashSet<>();
+    private final ArrayList<ImportErrorDto> errors = new ArrayList<>();
+    private int imported;
+
+    private ImportRun(Set<ChargepointKey> chargepoints, Set<Integer> configurations) {
+      this.chargepoints = chargepoints;
+      this.configurations = configurations;
+    }
+
+    private void accept(long line, CreateChargepointDto chargepoint) {
+      var error = check(chargepoint);
+      if (error != null) {
+        reject(line, error);
+        return;
+      }
+      var key = ChargepointKey.of(chargepoint);
+      if (pendingKeys.contains(key)) {
+        // A key only becomes a duplicate once its first row is actually inserted
+        flush();
+      }
+      if (chargepoints.contains(key)) {
+        reject(line, "Une borne utilise déjà ce numéro de série et constructeur : "
+            + chargepoint.serialNumberChargepoint() + ", " + chargepoint.constructor());
+        return;
+      }
+      pending.add(new Row(line, chargepoint));
+      pendingKeys.add(key);
+      if (pending.size() == batchSize) {
+        flush();
+      }
+    }
+
+    private String check(CreateChargepointDto chargepoint) {
+      var fields = Stream.of(
+              chargepoint.serialNumberChargepoint(),
+              chargepoint.type(),
+              chargepoint.constructor(),
+              chargepoint.clientId())
+          .map(value -> value == null ? "" : value)
+          .toList();
+      if (fields.stream().anyMatch(String::isBlank)) {
+        return "Constructeur, numéro de série, type et identifiant client sont requis";
+      }
+      if (fields.stream().anyMatch(value -> value.length() > MAX_LENGTH)) {
+        return "Les champs ne doivent pas dépasser " + MAX_LENGTH + " caractères";
+      }
+      var configuration = chargepoint.configuration();
+      if (configuration != NO_CONFIG_ID && !configurations.contains(configuration)) {
+        return "Aucune configuration avec l'id " + configuration;
+      }
+      return null;
+    }
+
+    private void reject(long line, String message) {
+      errors.add(new ImportErrorDto(line, message));
+    }
+
+    private void flush() {
+      if (pending.isEmpty()) {
+        return;
+      }
+      var rows = List.copyOf(pending);
+      pending.clear();
+      pendingKeys.clear();
+      try {
+        transactionTemplate.executeWithoutResult(status -> insert(rows));
+        imported += rows.size();
+        rows.forEach(row -> chargepoints.add(ChargepointKey.of(row.chargepoint())));
+      } catch (DataAccessException e) {
+        // Retries the rows one by one to only reject the faulty ones
+        for (var row : rows) {
+          try {
+            transactionTemplate.executeWithoutResult(status -> insert(List.of(row)));
+            imported++;
+            chargepoints.add(ChargepointKey.of(row.chargepoint()));
+          } catch (DataAccessException rowException) {
+            reject(row.line(), "Insertion impossible : "
+                + rowException.getMostSpecificCause().getMessage());
+          }
+        }
+      }
+    }
+
+    private void insert(List<Row> rows) {
+      var now = Timestamp.valueOf(LocalDateTime.now());
+      jdbcTemplate.batchUpdate(INSERT, rows, rows.size(), (statement, row) -> {
+        var chargepoint = row.chargepoint();
+        statement.setString(1, chargepoint.serialNumberChargepoint());
+        statement.setString(2, chargepoint.type());
+        statement.setString(3, chargepoint.constructor());
+        statement.setString(4, chargepoint.clientId());
+        if (chargepoint.configuration() == NO_CONFIG_ID) {
+          statement.setNull(5, Types.INTEGER);
+        } else {
+          statement.setInt(5, chargepoint.configuration());
+        }
+        statement.setTimestamp(6, now);
+      });
+    }
+
+    private ImportReportDto report() {
+      errors.sort(Comparator.comparingLong(ImportErrorDto::line));
+      return new ImportReportDto(imported, List.copyOf(errors));
+    }
+  }
+}
@@ -22,9 +22,11 @@
  */
 package fr.uge.chargepointconfiguration.chargepoint;
 
+import fr.uge.chargepointconfiguration.shared.SliceSpecificationExecutor;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
@@ -37,10 +39,12 @@ import org.springframework.stereotype.Repository;
 public interface ChargepointRepository
     extends CrudRepository<Chargepoint, Integer>,
         PagingAndSortingRepository<Chargepoint, Integer>,
-        JpaSpecificationExecutor<Chargepoint> {
+        JpaSpecificationExecutor<Chargepoint>,
+        SliceSpecificationExecutor<Chargepoint> {
 
   /**
-   * Returns a Chargepoint from the database according to the serial number and vendor.
+   * Returns a Chargepoint from the database according to the serial number and vendor.<br>
+   * The configuration is lazy, the websocket takes it from the ReferenceDataCache.
    *
    * @param serialNumber Chargepoint's unique serial number.
    * @param constructor Chargepoint's vendor.
@@ -48,11 +52,23 @@ public interface ChargepointRepository
    */
   Chargepoint findBySerialNumberChargePointAndConstructor(String serialNumber, String constructor);
 
+  /**
+   * Returns a Chargepoint with its whole configuration, firmware and compatibility graph,
+   * fetched in the same query, for the websocket when the configuration is not cached.
+   *
+   * @param id Chargepoint's id.
+   * @return The Chargepoint or null if the chargepoint couldn't be found.
+   */
+  @EntityGraph(attributePaths = {
+      "configuration", "configuration.firmware", "configuration.firmware.typesAllowed"})
+  Chargepoint findWithConfigurationById(int id);
+
   /**
    * Return a list of registered Chargepoints from database.
    *
    * @return A list of Chargepoints or an empty list if no chargepoints are registered.
    */
+  @EntityGraph(attributePaths = {"configuration", "configuration.firmware"})
   List<Chargepoint> findAllByOrderByIdDesc();
 
   Page<Chargepoint> findAllByClientIdContainingIgnoreCaseOrderByIdDesc(
@@ -29,11 +29,29 @@ import fr.uge.chargepointconfiguration.configuration.ConfigurationRepository;
 import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
 import fr.uge.chargepointconfiguration.errors.exceptions.EntityAlreadyExistingException;
 import fr.uge.chargepointconfiguration.errors.exceptions.EntityNotFoundException;
+import fr.uge.chargepointconfiguration.logs.CustomLogger;
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLog;
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.shared.BackgroundJobs;
+import fr.uge.chargepointconfiguration.shared.EntityCountRegistry;
+import fr.uge.chargepointconfiguration.shared.FieldSelection;
+import fr.uge.chargepointconfiguration.shared.JobStatusDto;
+import fr.uge.chargepointconfiguration.shared.SearchCriteria;
 import fr.uge.chargepointconfiguration.shared.SearchUtils;
+import fr.uge.chargepointconfiguration.user.UserService;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.LongSupplier;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * A ChargepointService doing database manipulations.
@@ -41,22 +59,66 @@ import org.springframework.stereotype.Service;
 @Service
 public class ChargepointService {
 
+  // Bounds the IN list of an UPDATE by ids
+  private static final int BULK_IDS_PER_UPDATE = 1000;
+
   private final ChargepointRepository chargepointRepository;
 
   private final ConfigurationRepository configurationRepository;
 
+  private final EntityCountRegistry entityCountRegistry;
+
+  private final ChargepointIdentityIndex chargepointIdentityIndex;
+
+  private final EntityManager entityManager;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final BackgroundJobs backgroundJobs;
+
+  private final UserService userService;
+
+  private final CustomLogger logger;
+
+  private final int bulkSyncLimit;
+
   /**
    * ChargepointService's constructor.
    *
    * @param chargepointRepository   A ChargepointRepository accessing to database.
    * @param configurationRepository A ConfigurationRepository accessing to database.
+   * @param entityCountRegistry     The in-memory counts of the entities.
+   * @param chargepointIdentityIndex The in-memory index of the chargepoint identities.
+   * @param entityManager           The entity manager running the bulk updates.
+   * @param transactionManager      The transaction manager of the bulk updates.
+   * @param backgroundJobs          The jobs running the large bulk updates.
+   * @param userService             A UserService.
+   * @param logger                  A CustomLogger.
+   * @param bulkSyncLimit           The amount of chargepoints above which a bulk update
+   *                                is run in background.
    */
   @Autowired
   public ChargepointService(
       ChargepointRepository chargepointRepository,
-      ConfigurationRepository configurationRepository) {
+      ConfigurationRepository configurationRepository,
+      EntityCountRegistry entityCountRegistry,
+      ChargepointIdentityIndex chargepointIdentityIndex,
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager,
+      BackgroundJobs backgroundJobs,
+      UserService userService,
+      CustomLogger logger,
+      @Value("${bulk.sync-limit:1000}") int bulkSyncLimit) {
     this.chargepointRepository = chargepointRepository;
     this.configurationRepository = configurationRepository;
+    this.entityCountRegistry = entityCountRegistry;
+    this.chargepointIdentityIndex = chargepointIdentityIndex;
+    this.entityManager = entityManager;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.backgroundJobs = backgroundJobs;
+    this.userService = userService;
+    this.logger = logger;
+    this.bulkSyncLimit = bulkSyncLimit;
   }
 
   /**
@@ -98,8 +160,18 @@ public class ChargepointService {
     }
   }
 
-  public List<Chargepoint> getAllChargepoints() {
-    return chargepointRepository.findAllByOrderByIdDesc().stream().toList();
+  /**
+   * Get all the chargepoints, the most recent first.
+   *
+   * @param fields the properties requested, the configuration is only joined if selected
+   * @return the list of all the chargepoints
+   */
+  public List<Chargepoint> getAllChargepoints(FieldSelection fields) {
+    if (fields.includes("configuration")) {
+      return chargepointRepository.findAllByOrderByIdDesc();
+    }
+    return Streamable.of(chargepointRepository.findAll(Sort.by(Sort.Direction.DESC, "id")))
+        .toList();
   }
 
   public Chargepoint getChargepointById(int id) {
@@ -113,12 +185,28 @@ public class ChargepointService {
    *
    * @param request  the request used to search
    * @param pageable The page requested
+   * @param fields   the properties requested, the configuration is only joined if selected
    * @return the list of corresponding chargepoint
    */
-  public List<Chargepoint> search(String request, PageRequest pageable) {
+  public List<Chargepoint> search(String request, PageRequest pageable, FieldSelection fields) {
+    SearchUtils.checkSort(pageable.getSort(), Chargepoint.class);
+    var fetches = fields.includes("configuration")
+        ? new String[] {"configuration", "configuration.firmware"}
+        : new String[0];
+    return chargepointRepository
+        .findSlice(specification(request), pageable, fetches)
+        .getContent();
+  }
+
+  /**
+   * Computes the JPA specification of the given request.
+   *
+   * @param request the request used to search
+   * @return the specification matching the entities with the constraint of the given request
+   */
+  public Specification<Chargepoint> specification(String request) {
     try {
-      var condition = SearchUtils.computeSpecification(request, Chargepoint.class);
-      return chargepointRepository.findAll(condition, pageable).stream().toList();
+      return SearchUtils.computeSpecification(request, Chargepoint.class);
     } catch (IllegalArgumentException e) {
       throw new BadRequestException("Requête invalide pour les filtres : " + request, e);
     }
@@ -131,16 +219,28 @@ public class ChargepointService {
    * @return the amount of entities with the constraint of the given request
    */
   public long countTotalWithFilter(String request) {
-    try {
-      var condition = SearchUtils.computeSpecification(request, Chargepoint.class);
-      return chargepointRepository.count(condition);
-    } catch (IllegalArgumentException e) {
-      throw new BadRequestException("Requête invalide pour les filtres : " + request, e);
-    }
+    return entityCountRegistry.countWithFilter(
+        Chargepoint.class, request, () -> countInDatabase(request));
+  }
+
+  /**
+   * Estimate the number of entities with the constraint of the given request.<br>
+   * The last known count is reused, even if entities were created since then.
+   *
+   * @param request the request used to search
+   * @return the estimated amount of entities with the constraint of the given request
+   */
+  public long estimateTotalWithFilter(String request) {
+    return entityCountRegistry.estimateWithFilter(
+        Chargepoint.class, request, () -> countInDatabase(request));
+  }
+
+  private long countInDatabase(String request) {
+    return chargepointRepository.count(specification(request));
   }
 
   public long count() {
-    return chargepointRepository.count();
+    return entityCountRegistry.count(Chargepoint.class, chargepointRepository::count);
   }
 
   /**
@@ -188,6 +288,139 @@ public class ChargepointService {
     return chargepointRepository.save(chargepoint);
   }
 
+  /**
+   * Assigns a configuration to the selected chargepoints and restarts their process,
+   * with a single UPDATE statement.<br>
+   * The update is run at once if it selects at most bulk.sync-limit chargepoints,
+   * otherwise it is run in background and its status must be polled.
+   *
+   * @param assignment the selected chargepoints and their new configuration
+   * @return the status of the update
+   */
+  public JobStatusDto assignConfiguration(BulkAssignmentDto assignment) {
+    var selection = selection(assignment);
+    var configurationId = assignment.configuration();
+    if (configurationId != NO_CONFIG_ID && !configurationRepository.existsById(configurationId)) {
+      throw new EntityNotFoundException("Aucune configuration avec l'id " + configurationId);
+    }
+    // The user must be read before leaving the request thread
+    var user = userService.getAuthenticatedUser();
+    var description = assignment.ids() == null
+        ? "request " + assignment.request()
+        : assignment.ids().size() + " ids";
+    var byIds = joinsAssociations(assignment);
+    LongSupplier task = () -> {
+      var updated = updateConfiguration(selection, byIds, configurationId);
+      logger.info(new BusinessLog(
+          user,
+          null,
+          BusinessLogEntity.Category.CONFIG,
+          "Configuration " + configurationId + " assigned to " + updated
+              + " chargepoints (" + description + ")"));
+      return updated;
+    };
+    if (chargepointRepository.count(selection) <= bulkSyncLimit) {
+      return backgroundJobs.run(task);
+    }
+    return backgroundJobs.submit(task);
+  }
+
+  /**
+   * Returns the status of a bulk update.
+   *
+   * @param id the id of the job running the update
+   * @return the status of the update
+   */
+  public JobStatusDto bulkStatus(String id) {
+    return backgroundJobs.status(id)
+        .orElseThrow(() -> new EntityNotFoundException("Pas de tâche avec l'id : " + id));
+  }
+
+  private Specification<Chargepoint> selection(BulkAssignmentDto assignment) {
+    var ids = assignment.ids();
+    var request = assignment.request();
+    if (ids != null && request != null && !request.isBlank()) {
+      throw new BadRequestException(
+          "Un filtre ou une liste d'identifiants est attendu, pas les deux");
+    }
+    if (ids != null) {
+      if (ids.isEmpty()) {
+        throw new BadRequestException("La liste d'identifiants est vide");
+      }
+      var copy = List.copyOf(ids);
+      return (root, query, builder) -> root.get("id").in(copy);
+    }
+    if (request == null || request.isBlank()) {
+      throw new BadRequestException("Un filtre ou une liste d'identifiants est requis");
+    }
+    // A malformed filter has no criteria, so it would select the whole fleet
+    var criteria = SearchUtils.parseCriteria(request);
+    if (criteria.isEmpty() || criteria.stream()
+        .anyMatch(c -> c.operation() == SearchCriteria.Operation.UNKNOWN)) {
+      throw new BadRequestException("Aucun critère valide dans le filtre : " + request);
+    }
+    return specification(request);
+  }
+
+  // Hibernate emulates an UPDATE through an association with a MERGE, which the database
+  // rejects, so the chargepoints selected through an association are resolved first
+  private static boolean joinsAssociations(BulkAssignmentDto assignment) {
+    var request = assignment.request();
+    return assignment.ids() == null
+        && SearchUtils.parseCriteria(request).stream()
+            .anyMatch(criteria -> criteria.key().contains("."));
+  }
+
+  private long updateConfiguration(
+      Specification<Chargepoint> selection, boolean byIds, int configurationId) {
+    var updated = transactionTemplate.execute(status -> {
+      if (!byIds) {
+        return updateConfiguration(selection, configurationId);
+      }
+      var ids = selectIds(selection);
+      var total = 0;
+      for (var from = 0; from < ids.size(); from += BULK_IDS_PER_UPDATE) {
+        var batch = ids.subList(from, Math.min(ids.size(), from + BULK_IDS_PER_UPDATE));
+        total += updateConfiguration(
+            (root, query, builder) -> root.get("id").in(batch), configurationId);
+      }
+      return total;
+    });
+    entityCountRegistry.invalidate(Chargepoint.class);
+    chargepointIdentityIndex.invalidate();
+    return updated == null ? 0 : updated;
+  }
+
+  private int updateConfiguration(Specification<Chargepoint> selection, int configurationId) {
+    var builder = entityManager.getCriteriaBuilder();
+    var update = builder.createCriteriaUpdate(Chargepoint.class);
+    var root = update.from(Chargepoint.class);
+    update.set(
+        root.<Configuration>get("configuration"),
+        configurationId == NO_CONFIG_ID
+            ? null
+            : entityManager.getReference(Configuration.class, configurationId));
+    update.set(root.get("step"), Chargepoint.Step.FIRMWARE);
+    update.set(root.get("status"), Chargepoint.StatusProcess.PENDING);
+    update.set(root.get("error"), "");
+    update.set(root.get("lastUpdate"), LocalDateTime.now());
+    // The specifications of the searches only use the root and the builder
+    var predicate = selection.toPredicate(root, null, builder);
+    if (predicate == null) {
+      throw new IllegalStateException("The selection of the chargepoints has no predicate");
+    }
+    update.where(predicate);
+    return entityManager.createQuery(update).executeUpdate();
+  }
+
+  private List<Integer> selectIds(Specification<Chargepoint> selection) {
+    var builder = entityManager.getCriteriaBuilder();
+    var query = builder.createQuery(Integer.class);
+    var root = query.from(Chargepoint.class);
+    query.select(root.get("id")).where(selection.toPredicate(root, query, builder));
+    return entityManager.createQuery(query).getResultList();
+  }
+
   private static void checkFieldsChargepoint(CreateChargepointDto newValues) {
     if (newValues.serialNumberChargepoint().isBlank()
         || newValues.constructor().isBlank()
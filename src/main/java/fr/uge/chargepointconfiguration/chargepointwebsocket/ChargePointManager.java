@@ -26,15 +26,19 @@ import fr.uge.chargepointconfiguration.chargepoint.Chargepoint;
 import fr.uge.chargepointconfiguration.chargepoint.ChargepointRepository;
 import fr.uge.chargepointconfiguration.chargepoint.notification.Notification;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.MessageType;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppActionRegistry;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppMessage;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppMessageParser;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppObserver;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppVersion;
-import fr.uge.chargepointconfiguration.firmware.FirmwareRepository;
+import fr.uge.chargepointconfiguration.configuration.ReferenceDataCache;
 import fr.uge.chargepointconfiguration.logs.CustomLogger;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
+import org.apache.logging.log4j.Level;
 import org.springframework.context.ApplicationEventPublisher;
 
 /**
@@ -45,10 +49,32 @@ public class ChargePointManager {
   private final OcppMessageParser ocppMessageParser;
   private final ChargepointRepository chargepointRepository;
   private final OcppObserver ocppObserver;
+  private final CustomLogger logger;
   private long currentId = 1;
-  private WebSocketMessage pendingRequest = null;
+  // Read by the supervision endpoints while the session thread updates it
+  private volatile PendingRequest pendingRequest = null;
   private Chargepoint currentChargepoint = null;
 
+  /**
+   * A request sent to the chargepoint and waiting for its response.<br>
+   * Only what the response needs is kept: the payload of the request is dropped once sent.
+   *
+   * @param messageId The id of the request.
+   * @param action    The name of the action, shared with the {@link OcppActionRegistry}.
+   * @param sentAt    The {@link System#nanoTime()} when the request was sent.
+   */
+  public record PendingRequest(long messageId, String action, long sentAt) {
+
+    /**
+     * Returns the time elapsed since the request was sent.
+     *
+     * @return The age of the request.
+     */
+    public Duration age() {
+      return Duration.ofNanos(System.nanoTime() - sentAt);
+    }
+  }
+
   /**
    * ChargePointManager's constructor.
    *
@@ -61,17 +87,18 @@ public class ChargePointManager {
       OcppVersion ocppVersion,
       OcppMessageSender ocppMessageSender,
       ChargepointRepository chargepointRepository,
-      FirmwareRepository firmwareRepository,
+      ReferenceDataCache referenceDataCache,
       CustomLogger logger) {
     this.applicationEventPublisher = Objects.requireNonNull(applicationEventPublisher);
     this.ocppMessageParser = OcppMessageParser.instantiateFromVersion(ocppVersion);
     this.chargepointRepository = Objects.requireNonNull(chargepointRepository);
+    this.logger = Objects.requireNonNull(logger);
     this.ocppObserver = OcppObserver.instantiateFromVersion(
         Objects.requireNonNull(ocppVersion),
         this,
         ocppMessageSender,
         chargepointRepository,
-        Objects.requireNonNull(firmwareRepository),
+        Objects.requireNonNull(referenceDataCache),
         Objects.requireNonNull(logger));
   }
 
@@ -92,7 +119,17 @@ public class ChargePointManager {
    * @param pendingRequest The {@link WebSocketMessage} request sent to the chargepoint.
    */
   public void setPendingRequest(WebSocketMessage pendingRequest) {
-    this.pendingRequest = pendingRequest;
+    this.pendingRequest = new PendingRequest(
+        pendingRequest.messageId(), pendingRequest.messageName(), System.nanoTime());
+  }
+
+  /**
+   * Returns the request sent to the chargepoint and waiting for its response.
+   *
+   * @return The {@link PendingRequest}, null if there is none.
+   */
+  public PendingRequest getPendingRequest() {
+    return pendingRequest;
   }
 
   public Chargepoint getCurrentChargepoint() {
@@ -103,6 +140,16 @@ public class ChargePointManager {
     this.currentChargepoint = currentChargepoint;
   }
 
+  /**
+   * Writes the OCPP message to send to the chargepoint.
+   *
+   * @param ocppMessage The {@link OcppMessage} to send.
+   * @return The payload of the message, with the writer of its action.
+   */
+  public String transform(OcppMessage ocppMessage) {
+    return ocppMessageParser.transform(ocppMessage);
+  }
+
   /**
    * Processes the received websocket message according to the OCPP protocol.
    *
@@ -111,12 +158,27 @@ public class ChargePointManager {
   public Optional<OcppMessage> processMessage(WebSocketMessage webSocketMessage)
       throws IOException {
     Objects.requireNonNull(webSocketMessage);
-    Optional<OcppMessage> message;
+    String action;
     if (webSocketMessage.isRequest()) {
-      message = ocppMessageParser.parseRequestMessage(webSocketMessage);
+      action = webSocketMessage.messageName();
     } else {
-      message = ocppMessageParser.parseResponseMessage(pendingRequest, webSocketMessage);
+      var request = pendingRequest;
       pendingRequest = null;
+      action = request == null ? null : request.action();
+    }
+    Optional<OcppMessage> message;
+    try {
+      message = webSocketMessage.isRequest()
+          ? ocppMessageParser.parseRequestMessage(webSocketMessage, ocppObserver::handles)
+          : ocppMessageParser.parseResponseMessage(
+              action, webSocketMessage, ocppObserver::handles);
+    } catch (IllegalArgumentException e) {
+      // A vendor field or value the schema does not know, the message is dropped
+      logger.log(
+          Level.WARN, TechnicalLogEntity.Component.BACKEND,
+          "ignored {} message {} which does not fit its schema",
+          action, webSocketMessage.messageId());
+      return Optional.empty();
     }
     if (message.isEmpty()) {
       return Optional.empty();
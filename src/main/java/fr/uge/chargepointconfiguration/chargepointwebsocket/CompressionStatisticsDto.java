@@ -0,0 +1,47 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+/**
+ * Compression statistics of a chargepoint session.
+ *
+ * @param sessionId          the id of the websocket session
+ * @param identity           the identity of the chargepoint, empty if it is unknown
+ * @param model              the type of the chargepoint, empty if it is unknown
+ * @param negotiated         whether permessage-deflate was negotiated with the chargepoint
+ * @param messages           the number of messages received and sent
+ * @param bytes              the uncompressed size of these messages
+ * @param sampledMessages    the number of messages compressed to measure the compression
+ * @param ratio              the compressed size divided by the uncompressed size of the samples
+ * @param nanosPerMessage    the average time spent compressing a sample, in nanoseconds
+ */
+public record CompressionStatisticsDto(
+    String sessionId,
+    String identity,
+    String model,
+    boolean negotiated,
+    long messages,
+    long bytes,
+    long sampledMessages,
+    double ratio,
+    long nanosPerMessage) {}
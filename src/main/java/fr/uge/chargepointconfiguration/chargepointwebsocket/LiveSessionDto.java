@@ -0,0 +1,67 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import fr.uge.chargepointconfiguration.chargepoint.Chargepoint;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppVersion;
+import java.time.Instant;
+
+/**
+ * A live chargepoint session, as known by the websocket handler.
+ *
+ * @param sessionId           the id of the websocket session
+ * @param chargepointId       the id of the chargepoint, null if it is unknown
+ * @param serialNumber        the serial number of the chargepoint, null if it is unknown
+ * @param ocppVersion         the OCPP version negotiated with the chargepoint
+ * @param remoteAddress       the address of the chargepoint
+ * @param connectedSince      when the session was opened
+ * @param messagesIn          the number of messages received from the chargepoint
+ * @param messagesOut         the number of messages sent to the chargepoint
+ * @param bytesIn             the size of the messages received, encoded in UTF-8
+ * @param bytesOut            the size of the messages sent, encoded in UTF-8
+ * @param lastMessageAt       when the last message was received or sent, null if none was
+ * @param pendingAction       the action of the request waiting for its response, null if none
+ * @param pendingRequestAgeMs the time elapsed since the pending request was sent, in ms
+ * @param step                the current step of the chargepoint, null before its boot
+ * @param status              the status of the current step, null before its boot
+ * @param rttP50Micros        the median round-trip time of the pings, null before the first pong
+ * @param rttP99Micros        the 99th percentile of the round-trip time, null before the first pong
+ */
+public record LiveSessionDto(
+    String sessionId,
+    Integer chargepointId,
+    String serialNumber,
+    OcppVersion ocppVersion,
+    String remoteAddress,
+    Instant connectedSince,
+    long messagesIn,
+    long messagesOut,
+    long bytesIn,
+    long bytesOut,
+    Instant lastMessageAt,
+    String pendingAction,
+    Long pendingRequestAgeMs,
+    Chargepoint.Step step,
+    Chargepoint.StatusProcess status,
+    Long rttP50Micros,
+    Long rttP99Micros) {}
@@ -0,0 +1,305 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppAction;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppActionRegistry;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppMessage;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppVersion;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validates the messages exchanged with the chargepoints.<br>
+ * The constraints of each class are read once from the {@link Validator} metadata and compiled
+ * into a list of checks calling the getters directly, so validating a message does not walk
+ * its annotations. The constraints which cannot be compiled are delegated to the
+ * {@link Validator}.<br>
+ * The messages sent by the server are built by the server itself, so they are only validated
+ * when <code>ocpp.validation.outbound</code> is enabled, to debug the observers.
+ */
+@Component
+public class MessageValidator {
+  private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+  private final Validator validator;
+  private final boolean validateOutbound;
+  private final ClassValue<List<Check>> checks = new ClassValue<>() {
+    @Override
+    protected List<Check> computeValue(Class<?> type) {
+      return compile(type);
+    }
+  };
+
+  /**
+   * A compiled constraint, adding its violations to the list.
+   */
+  @FunctionalInterface
+  private interface Check {
+    void check(Object bean, String path, List<String> violations);
+  }
+
+  /**
+   * MessageValidator's constructor, compiling the checks of every OCPP message.
+   *
+   * @param validator        The validator giving the constraints of the classes.
+   * @param validateOutbound Whether the messages sent by the server are validated.
+   */
+  public MessageValidator(
+      Validator validator, @Value("${ocpp.validation.outbound:false}") boolean validateOutbound) {
+    this.validator = Objects.requireNonNull(validator);
+    this.validateOutbound = validateOutbound;
+    for (var ocppVersion : OcppVersion.values()) {
+      for (var action : OcppActionRegistry.of(ocppVersion).actions()) {
+        compileAction(action);
+      }
+    }
+  }
+
+  /**
+   * Validates a message.
+   *
+   * @param message The message received or sent.
+   * @return the violations of the message, empty if the message is valid.
+   */
+  public List<String> validate(Object message) {
+    Objects.requireNonNull(message);
+    var violations = new ArrayList<String>();
+    validate(message, "", violations);
+    return violations;
+  }
+
+  private void validate(Object bean, String path, List<String> violations) {
+    for (var check : checks.get(bean.getClass())) {
+      check.check(bean, path, violations);
+    }
+  }
+
+  /**
+   * Validates a message sent by the server, if the outbound validation is enabled.
+   *
+   * @param message The {@link OcppMessage} to send.
+   * @return the violations of the message, always empty if the outbound validation is disabled.
+   */
+  public List<String> validateOutbound(OcppMessage message) {
+    Objects.requireNonNull(message);
+    return validateOutbound ? validate(message) : List.of();
+  }
+
+  private void compileAction(OcppAction action) {
+    if (action.request() != null) {
+      checks.get(action.request());
+    }
+    if (action.response() != null) {
+      checks.get(action.response());
+    }
+  }
+
+  private List<Check> compile(Class<?> type) {
+    var descriptor = validator.getConstraintsForClass(type);
+    if (!descriptor.getConstraintDescriptors().isEmpty()) {
+      // Class level constraints, keep the whole class to the validator
+      return List.of(delegate());
+    }
+    var compiled = new ArrayList<Check>();
+    for (var property : descriptor.getConstrainedProperties()) {
+      var name = property.getPropertyName();
+      var getter = getter(type, name);
+      var elementConstraints = property.getConstrainedContainerElementTypes().stream()
+          .anyMatch(element -> !element.getConstraintDescriptors().isEmpty()
+              || !element.getConstrainedContainerElementTypes().isEmpty());
+      if (getter == null || elementConstraints) {
+        // No getter to call or constraints on the elements, keep the class to the validator
+        return List.of(delegate());
+      }
+      for (var constraint : property.getConstraintDescriptors()) {
+        compiled.add(compile(name, getter, constraint));
+      }
+      if (property.isCascaded()) {
+        compiled.add(cascade(name, getter));
+      }
+    }
+    return List.copyOf(compiled);
+  }
+
+  private Check compile(
+      String name, Function<Object, Object> getter, ConstraintDescriptor<?> constraint) {
+    return switch (constraint.getAnnotation()) {
+      case NotNull ignored -> (bean, path, violations) -> {
+        if (getter.apply(bean) == null) {
+          violations.add(path + name + ": must not be null");
+        }
+      };
+      case Size size -> {
+        var min = size.min();
+        var max = size.max();
+        yield (bean, path, violations) -> {
+          var value = getter.apply(bean);
+          if (value == null) {
+            return;
+          }
+          var length = length(value);
+          if (length < min || length > max) {
+            violations.add(path + name + ": size must be between " + min + " and " + max);
+          }
+        };
+      }
+      case DecimalMin decimalMin -> {
+        var bound = new BigDecimal(decimalMin.value());
+        var inclusive = decimalMin.inclusive();
+        yield (bean, path, violations) -> {
+          if (getter.apply(bean) instanceof Number number) {
+            var comparison = decimal(number).compareTo(bound);
+            if (comparison < 0 || (comparison == 0 && !inclusive)) {
+              violations.add(path + name + ": must be greater than " + bound);
+            }
+          }
+        };
+      }
+      case DecimalMax decimalMax -> {
+        var bound = new BigDecimal(decimalMax.value());
+        var inclusive = decimalMax.inclusive();
+        yield (bean, path, violations) -> {
+          if (getter.apply(bean) instanceof Number number) {
+            var comparison = decimal(number).compareTo(bound);
+            if (comparison > 0 || (comparison == 0 && !inclusive)) {
+              violations.add(path + name + ": must be less than " + bound);
+            }
+          }
+        };
+      }
+      default -> delegate(name);
+    };
+  }
+
+  private Check cascade(String name, Function<Object, Object> getter) {
+    return (bean, path, violations) -> {
+      switch (getter.apply(bean)) {
+        case null -> {
+          // Nothing to validate
+        }
+        case Iterable<?> elements -> {
+          var index = 0;
+          for (var element : elements) {
+            if (element != null) {
+              validate(element, path + name + "[" + index + "].", violations);
+            }
+            index++;
+          }
+        }
+        case Map<?, ?> map -> map.forEach((key, element) -> {
+          if (element != null) {
+            validate(element, path + name + "[" + key + "].", violations);
+          }
+        });
+        case Object value -> validate(value, path + name + ".", violations);
+      }
+    };
+  }
+
+  private Check delegate() {
+    return (bean, path, violations) -> {
+      for (var violation : validator.validate(bean)) {
+        violations.add(path + violation.getPropertyPath() + ": " + violation.getMessage());
+      }
+    };
+  }
+
+  private Check delegate(String name) {
+    return (bean, path, violations) -> {
+      for (var violation : validator.validateProperty(bean, name)) {
+        violations.add(path + violation.getPropertyPath() + ": " + violation.getMessage());
+      }
+    };
+  }
+
+  private static int length(Object value) {
+    return switch (value) {
+      case CharSequence sequence -> sequence.length();
+      case Collection<?> collection -> collection.size();
+      case Map<?, ?> map -> map.size();
+      default -> Array.getLength(value);
+    };
+  }
+
+  private static BigDecimal decimal(Number number) {
+    return number instanceof BigDecimal decimal ? decimal : new BigDecimal(number.toString());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> getter(Class<?> type, String name) {
+    var method = method(type, name);
+    if (method == null) {
+      return null;
+    }
+    try {
+      var handle = lookup.unreflect(method);
+      var site = LambdaMetafactory.metafactory(
+          lookup,
+          "apply",
+          MethodType.methodType(Function.class),
+          MethodType.methodType(Object.class, Object.class),
+          handle,
+          MethodType.methodType(method.getReturnType(), type));
+      return (Function<Object, Object>) site.getTarget().invoke();
+    } catch (Throwable e) {
+      // The getter cannot be linked, the property is left to the validator
+      return null;
+    }
+  }
+
+  private static Method method(Class<?> type, String name) {
+    var capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    for (var prefix : List.of("get", "is")) {
+      for (var candidate : List.of(prefix + capitalized, prefix + name)) {
+        try {
+          var method = type.getMethod(candidate);
+          if (method.getReturnType() != void.class) {
+            return method;
+          }
+        } catch (NoSuchMethodException e) {
+          // Try the next name
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides how the RFC 7692 permessage-deflate extension offered by a chargepoint is
+ * negotiated.<br>
+ * The compression itself is done by the websocket container, this policy rewrites the
+ * offer of the chargepoint before the negotiation : it removes the offer when the
+ * compression is disabled for the model of the chargepoint, and asks for no context
+ * takeover when the sliding windows must not be kept between the messages.
+ */
+@Component
+public class OcppCompressionPolicy {
+
+  /**
+   * The name of the extension.
+   */
+  public static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+  private static final String SERVER_NO_CONTEXT_TAKEOVER = "server_no_context_takeover";
+  private static final String CLIENT_NO_CONTEXT_TAKEOVER = "client_no_context_takeover";
+
+  private final boolean enabled;
+  private final boolean contextTakeover;
+  private final Set<String> disabledModels;
+
+  /**
+   * OcppCompressionPolicy's constructor.
+   *
+   * @param enabled         Whether the compression can be negotiated.
+   * @param contextTakeover Whether the compression context is kept between the messages,
+   *                        which compresses better but keeps 64 KiB per session and direction.
+   * @param disabledModels  The types of chargepoint which never use the compression.
+   */
+  @Autowired
+  public OcppCompressionPolicy(
+      @Value("${ocpp.compression.enabled:true}") boolean enabled,
+      @Value("${ocpp.compression.context-takeover:true}") boolean contextTakeover,
+      @Value("${ocpp.compression.disabled-models:}") List<String> disabledModels) {
+    this.enabled = enabled;
+    this.contextTakeover = contextTakeover;
+    this.disabledModels = disabledModels.stream()
+        .map(String::strip)
+        .filter(model -> !model.isEmpty())
+        .map(String::toLowerCase)
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  /**
+   * Returns whether the compression can be used by the given model of chargepoint.
+   *
+   * @param model The type of the chargepoint, null if the chargepoint is unknown.
+   * @return true if the compression can be negotiated.
+   */
+  public boolean isEnabledFor(String model) {
+    return enabled && (model == null || !disabledModels.contains(model.toLowerCase()));
+  }
+
+  /**
+   * Rewrites the extensions offered by a chargepoint.<br>
+   * The parameters are kept verbatim, the flags without value such as
+   * client_max_window_bits are meaningful for the negotiation.
+   *
+   * @param offered The values of the Sec-WebSocket-Extensions headers of the handshake.
+   * @param model   The type of the chargepoint, null if the chargepoint is unknown.
+   * @return the values of the headers to negotiate.
+   */
+  public List<String> rewriteOffer(List<String> offered, String model) {
+    Objects.requireNonNull(offered);
+    var compression = isEnabledFor(model);
+    var extensions = new ArrayList<String>();
+    for (var value : offered) {
+      for (var extension : value.split(",")) {
+        var tokens = new ArrayList<String>();
+        for (var token : extension.split(";")) {
+          if (!token.isBlank()) {
+            tokens.add(token.strip());
+          }
+        }
+        if (tokens.isEmpty()) {
+          continue;
+        }
+        if (PERMESSAGE_DEFLATE.equalsIgnoreCase(tokens.getFirst())) {
+          if (!compression) {
+            continue;
+          }
+          if (!contextTakeover) {
+            addIfAbsent(tokens, SERVER_NO_CONTEXT_TAKEOVER);
+            addIfAbsent(tokens, CLIENT_NO_CONTEXT_TAKEOVER);
+          }
+        }
+        extensions.add(String.join("; ", tokens));
+      }
+    }
+    return extensions.isEmpty() ? List.of() : List.of(String.join(", ", extensions));
+  }
+
+  private static void addIfAbsent(List<String> tokens, String parameter) {
+    if (tokens.stream().noneMatch(token -> token.equalsIgnoreCase(parameter))) {
+      tokens.add(parameter);
+    }
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointIdentity;
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointIdentityIndex;
+import fr.uge.chargepointconfiguration.configuration.ReferenceDataCache;
+import fr.uge.chargepointconfiguration.logs.CustomLogger;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLog;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Identifies the chargepoint connecting on /ocpp/{identity} before the upgrade of the
+ * connection.<br>
+ * A request without identity, or with a malformed one, is rejected with a 400.
+ * The identity is the serial number of the chargepoint, or its client id once the
+ * configuration pushed it. An unknown chargepoint is rejected with a plain HTTP status,
+ * before any websocket session is allocated, if ocpp.handshake.reject-unknown is set ; it is
+ * only logged otherwise. For a chargepoint known without ambiguity, the configuration and the
+ * firmwares it will ask for are loaded in the {@link ReferenceDataCache}, and its identity is
+ * kept in the session attributes. The other ones are identified by their BootNotification,
+ * as a connection without identity.
+ */
+@Component
+public class OcppHandshakeInterceptor implements HandshakeInterceptor {
+
+  /**
+   * The session attribute holding the {@link ChargepointIdentity} of the connected chargepoint.
+   */
+  public static final String IDENTITY_ATTRIBUTE = "chargepointIdentity";
+
+  private static final String PATH_PREFIX = "/ocpp/";
+
+  private final ChargepointIdentityIndex chargepointIdentityIndex;
+  private final ReferenceDataCache referenceDataCache;
+  private final CustomLogger logger;
+  private final boolean rejectUnknown;
+
+  /**
+   * OcppHandshakeInterceptor's constructor.
+   *
+   * @param chargepointIdentityIndex The in-memory index of the chargepoint identities.
+   * @param referenceDataCache       The cache of the configurations and firmwares.
+   * @param logger                   A CustomLogger.
+   * @param rejectUnknown            Whether the unknown chargepoints are rejected.
+   */
+  @Autowired
+  public OcppHandshakeInterceptor(
+      ChargepointIdentityIndex chargepointIdentityIndex,
+      ReferenceDataCache referenceDataCache,
+      CustomLogger logger,
+      @Value("${ocpp.handshake.reject-unknown:true}") boolean rejectUnknown) {
+    this.chargepointIdentityIndex = Objects.requireNonNull(chargepointIdentityIndex);
+    this.referenceDataCache = Objects.requireNonNull(referenceDataCache);
+    this.logger = Objects.requireNonNull(logger);
+    this.rejectUnknown = rejectUnknown;
+  }
+
+  @Override
+  public boolean beforeHandshake(
+      ServerHttpRequest request,
+      ServerHttpResponse response,
+      WebSocketHandler wsHandler,
+      Map<String, Object> attributes) {
+    var decoded = identity(request.getURI().getRawPath());
+    if (decoded.isEmpty()) {
+      logger.warn(new TechnicalLog(
+          TechnicalLogEntity.Component.BACKEND,
+          "handshake refused for " + request.getRemoteAddress() + " : invalid identity in "
+              + request.getURI().getRawPath()));
+      response.setStatusCode(HttpStatus.BAD_REQUEST);
+      return false;
+    }
+    var identity = decoded.orElseThrow();
+    var chargepoint = chargepointIdentityIndex.find(identity);
+    if (chargepoint.isPresent()) {
+      attributes.put(IDENTITY_ATTRIBUTE, chargepoint.orElseThrow());
+      prepare(chargepoint.orElseThrow());
+      return true;
+    }
+    if (chargepointIdentityIndex.isKnown(identity)) {
+      // Several constructors use this serial number
+      return true;
+    }
+    return reject(response, HttpStatus.NOT_FOUND, "unknown chargepoint " + identity, request);
+  }
+
+  @Override
+  public void afterHandshake(
+      ServerHttpRequest request,
+      ServerHttpResponse response,
+      WebSocketHandler wsHandler,
+      Exception exception) {
+    // nothing to do
+  }
+
+  /**
+   * Extracts the identity from the path of the handshake request.
+   *
+   * @param path The raw path of the request.
+   * @return the decoded identity, empty if there is none or if it is malformed.
+   */
+  static Optional<String> identity(String path) {
+    if (path == null) {
+      return Optional.empty();
+    }
+    var start = path.indexOf(PATH_PREFIX);
+    if (start < 0) {
+      return Optional.empty();
+    }
+    var identity = path.substring(start + PATH_PREFIX.length());
+    var slash = identity.indexOf('/');
+    if (slash >= 0) {
+      identity = identity.substring(0, slash);
+    }
+    try {
+      // Path decoding, a '+' is kept as is
+      identity = UriUtils.decode(identity, StandardCharsets.UTF_8).strip();
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+    return identity.isEmpty() ? Optional.empty() : Optional.of(identity);
+  }
+
+  private boolean reject(
+      ServerHttpResponse response, HttpStatus status, String reason, ServerHttpRequest request) {
+    logger.warn(new TechnicalLog(
+        TechnicalLogEntity.Component.BACKEND,
+        "handshake " + (rejectUnknown ? "refused" : "accepted") + " for "
+            + request.getRemoteAddress() + " : " + reason));
+    if (!rejectUnknown) {
+      return true;
+    }
+    response.setStatusCode(status);
+    return false;
+  }
+
+  private void prepare(ChargepointIdentity chargepoint) {
+    if (chargepoint.configurationId() == null) {
+      return;
+    }
+    var configuration = referenceDataCache.configuration(chargepoint.configurationId());
+    if (configuration == null || configuration.getFirmware() == null) {
+      return;
+    }
+    configuration.getFirmware().getTypesAllowed()
+        .forEach(referenceDataCache::firmwaresCompatibleWith);
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppVersion;
+import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Endpoint for the supervision of the chargepoint sessions.
+ */
+@RestController
+@RequestMapping("/api/session")
+@Tag(name = "Session", description = "The chargepoint sessions API")
+public class OcppSessionController {
+
+  private final OcppWebSocketHandler ocppWebSocketHandler;
+
+  @Autowired
+  public OcppSessionController(OcppWebSocketHandler ocppWebSocketHandler) {
+    this.ocppWebSocketHandler = Objects.requireNonNull(ocppWebSocketHandler);
+  }
+
+  /**
+   * Returns the statistics of the messages sent to the chargepoints.
+   *
+   * @return the buffered bytes, the sent messages and the overflows.
+   */
+  @Operation(summary = "Get the statistics of the messages sent to the chargepoints")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Found the statistics of the outbound messages.",
+      content =
+          @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = OutboundStatisticsDto.class)))
+  @GetMapping(value = "/outbound")
+  @PreAuthorize("hasRole('ADMINISTRATOR')")
+  public OutboundStatisticsDto getOutboundStatistics() {
+    return ocppWebSocketHandler.outboundStatistics();
+  }
+
+  /**
+   * Returns the compression statistics of the open chargepoint sessions.
+   *
+   * @return the estimated compression ratio and time of each session.
+   */
+  @Operation(summary = "Get the compression statistics of the chargepoint sessions")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Found the compression statistics of the open sessions.",
+      content =
+          @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = CompressionStatisticsDto.class)))
+  @GetMapping(value = "/compression")
+  @PreAuthorize("hasRole('ADMINISTRATOR')")
+  public List<CompressionStatisticsDto> getCompressionStatistics() {
+    return ocppWebSocketHandler.compressionStatistics();
+  }
+
+  /**
+   * Returns the live chargepoint sessions, without querying the database.
+   *
+   * @param filter      A text searched in the serial number and the remote address.
+   * @param ocppVersion The OCPP version of the sessions, every version if empty.
+   * @param sortBy      The property the sessions are sorted by.
+   * @param order       The order of the sort, "asc" or "desc".
+   * @return the traffic, the pending request and the step of each session.
+   */
+  @Operation(summary = "Get the live chargepoint sessions")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Found the live sessions.",
+      content =
+          @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = LiveSessionDto.class)))
+  @ApiResponse(
+      responseCode = "400",
+      description = "The sessions cannot be sorted by this property.",
+      content = @Content)
+  @GetMapping(value = "/live")
+  @PreAuthorize("hasRole('ADMINISTRATOR')")
+  public List<LiveSessionDto> getLiveSessions(
+      @Parameter(description = "A text searched in the serial number and the remote address.")
+          @RequestParam(required = false, defaultValue = "")
+          String filter,
+      @Parameter(description = "The OCPP version of the sessions : V1_6 or V2_0_1.")
+          @RequestParam(required = false)
+          OcppVersion ocppVersion,
+      @Parameter(description = "The property you want to sort by.")
+          @RequestParam(required = false, defaultValue = "connectedSince")
+          String sortBy,
+      @Parameter(description = "The order of the sort. must be \"asc\" or \"desc\"")
+          @RequestParam(required = false, defaultValue = "asc")
+          String order) {
+    try {
+      return ocppWebSocketHandler.liveSessions(
+          filter, ocppVersion, sortBy, "desc".equalsIgnoreCase(order));
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Impossible de trier les sessions par : " + sortBy, e);
+    }
+  }
+
+  /**
+   * Returns the round-trip times of the pings sent to the chargepoints.
+   *
+   * @return the percentiles of the round-trip time and the sessions closed for silence.
+   */
+  @Operation(summary = "Get the round-trip times of the chargepoint sessions")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Found the round-trip times of the pings.",
+      content =
+          @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = RoundTripStatisticsDto.class)))
+  @GetMapping(value = "/rtt")
+  @PreAuthorize("hasRole('ADMINISTRATOR')")
+  public RoundTripStatisticsDto getRoundTripStatistics() {
+    return ocppWebSocketHandler.roundTripStatistics();
+  }
+}
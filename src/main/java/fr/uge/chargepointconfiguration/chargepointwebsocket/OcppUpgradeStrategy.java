@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointIdentity;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.server.standard.StandardWebSocketUpgradeStrategy;
+
+/**
+ * Upgrade strategy of the chargepoint connections applying the {@link OcppCompressionPolicy}.
+ * <br>The websocket container negotiates the extensions from the headers of the request,
+ * so the request is wrapped to expose the rewritten offer of the chargepoint.<br>
+ * The model of the chargepoint is read from the identity the {@link OcppHandshakeInterceptor}
+ * put in the handshake attributes.
+ */
+class OcppUpgradeStrategy extends StandardWebSocketUpgradeStrategy {
+
+  private final OcppCompressionPolicy compressionPolicy;
+
+  OcppUpgradeStrategy(OcppCompressionPolicy compressionPolicy) {
+    this.compressionPolicy = Objects.requireNonNull(compressionPolicy);
+  }
+
+  @Override
+  public void upgrade(
+      ServerHttpRequest request,
+      ServerHttpResponse response,
+      String selectedProtocol,
+      List<WebSocketExtension> selectedExtensions,
+      Principal user,
+      WebSocketHandler wsHandler,
+      Map<String, Object> attributes) {
+    var identity =
+        (ChargepointIdentity) attributes.get(OcppHandshakeInterceptor.IDENTITY_ATTRIBUTE);
+    var model = identity == null ? null : identity.type();
+    var servletRequest = getHttpServletRequest(request);
+    var offer = compressionPolicy.rewriteOffer(
+        Collections.list(servletRequest.getHeaders(WebSocketHttpHeaders.SEC_WEBSOCKET_EXTENSIONS)),
+        model);
+    super.upgrade(
+        new ServletServerHttpRequest(new OfferRewritingRequest(servletRequest, offer)),
+        response, selectedProtocol, selectedExtensions, user, wsHandler, attributes);
+  }
+
+  private static final class OfferRewritingRequest extends HttpServletRequestWrapper {
+    private final List<String> offer;
+
+    private OfferRewritingRequest(HttpServletRequest request, List<String> offer) {
+      super(request);
+      this.offer = offer;
+    }
+
+    @Override
+    public String getHeader(String name) {
+      if (WebSocketHttpHeaders.SEC_WEBSOCKET_EXTENSIONS.equalsIgnoreCase(name)) {
+        return offer.isEmpty() ? null : offer.getFirst();
+      }
+      return super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+      if (WebSocketHttpHeaders.SEC_WEBSOCKET_EXTENSIONS.equalsIgnoreCase(name)) {
+        return Collections.enumeration(offer);
+      }
+      return super.getHeaders(name);
+    }
+  }
+}
@@ -22,49 +22,244 @@
  */
 package fr.uge.chargepointconfiguration.chargepointwebsocket;
 
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointIdentity;
 import fr.uge.chargepointconfiguration.chargepoint.ChargepointRepository;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.MessageType;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppActionRegistry;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppMessage;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppVersion;
-import fr.uge.chargepointconfiguration.firmware.FirmwareRepository;
+import fr.uge.chargepointconfiguration.configuration.ReferenceDataCache;
 import fr.uge.chargepointconfiguration.logs.CustomLogger;
+import fr.uge.chargepointconfiguration.logs.sealed.LogContext;
 import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLog;
 import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
-import fr.uge.chargepointconfiguration.tools.JsonParser;
-import jakarta.validation.Validator;
 import java.io.EOFException;
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.Level;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+/**
+ * Handles the websocket connections of the chargepoints.<br>
+ * Every session is wrapped in a {@link ConcurrentWebSocketSessionDecorator}: the frames sent
+ * while another thread is writing are buffered and written together by that thread, and a
+ * session whose buffer or send time exceeds the configured limits is closed instead of
+ * blocking the threads sending to it.
+ */
 @Component
 public class OcppWebSocketHandler extends TextWebSocketHandler {
-  private static final JsonParser jsonParser = new JsonParser();
+  private static final long MAX_ROUND_TRIP = Duration.ofHours(1).toNanos();
+  private static final Map<String, Comparator<LiveSessionDto>> LIVE_SESSION_ORDERS = Map.of(
+      "connectedSince", Comparator.comparing(LiveSessionDto::connectedSince),
+      "serialNumber", Comparator.comparing(
+          LiveSessionDto::serialNumber, Comparator.nullsLast(Comparator.naturalOrder())),
+      "remoteAddress", Comparator.comparing(
+          LiveSessionDto::remoteAddress, Comparator.nullsLast(Comparator.naturalOrder())),
+      "messagesIn", Comparator.comparingLong(LiveSessionDto::messagesIn),
+      "messagesOut", Comparator.comparingLong(LiveSessionDto::messagesOut),
+      "bytesIn", Comparator.comparingLong(LiveSessionDto::bytesIn),
+      "bytesOut", Comparator.comparingLong(LiveSessionDto::bytesOut),
+      "lastMessageAt", Comparator.comparing(
+          LiveSessionDto::lastMessageAt, Comparator.nullsFirst(Comparator.naturalOrder())),
+      "pendingRequestAgeMs", Comparator.comparing(
+          LiveSessionDto::pendingRequestAgeMs, Comparator.nullsFirst(Comparator.naturalOrder())));
 
   private final ChargepointRepository chargepointRepository;
-  private final FirmwareRepository firmwareRepository;
-  private final Validator validator;
+  private final ReferenceDataCache referenceDataCache;
+  private final MessageValidator validator;
   private final CustomLogger logger;
-  private final Map<String, ChargePointManager> chargePoints = new HashMap<>();
+  private final Map<String, ChargePointManager> chargePoints = new ConcurrentHashMap<>();
+  private final Map<String, ConcurrentWebSocketSessionDecorator> sessions =
+      new ConcurrentHashMap<>();
+  private final Map<String, SessionCompression> compressions = new ConcurrentHashMap<>();
+  private final Map<String, SessionStatistics> statistics = new ConcurrentHashMap<>();
   private final ApplicationEventPublisher applicationEventPublisher;
+  private final int sendTimeLimit;
+  private final int bufferSizeLimit;
+  private final int compressionSampleEvery;
+  private final LongAdder sentMessages = new LongAdder();
+  private final LongAdder overflows = new LongAdder();
+  private final long idleTimeout;
+  private final RoundTripHistogram roundTrips = new RoundTripHistogram(2);
+  private final LongAdder pings = new LongAdder();
+  private final LongAdder reapedSessions = new LongAdder();
 
+  /**
+   * OcppWebSocketHandler's constructor.
+   *
+   * @param applicationEventPublisher The publisher of the notifications.
+   * @param chargepointRepository     The chargepoint's repository.
+   * @param referenceDataCache        The cache of the configurations and firmwares.
+   * @param validator                 The validator of the messages.
+   * @param logger                    A CustomLogger.
+   * @param sendTimeLimit             The maximum time spent sending to a session.
+   * @param bufferSizeLimit           The maximum amount of bytes waiting to be sent
+   *                                  to a session.
+   * @param compressionSampleEvery    One message out of this amount is compressed to measure
+   *                                  the compression, zero disables the measure.
+   * @param idleTimeout               The time after which a chargepoint which sent nothing,
+   *                                  not even a pong, is disconnected, zero disables it.
+   */
   public OcppWebSocketHandler(
       ApplicationEventPublisher applicationEventPublisher,
       ChargepointRepository chargepointRepository,
-      FirmwareRepository firmwareRepository,
-      Validator validator,
-      CustomLogger logger) {
+      ReferenceDataCache referenceDataCache,
+      MessageValidator validator,
+      CustomLogger logger,
+      @Value("${ocpp.send.time-limit:PT10S}") Duration sendTimeLimit,
+      @Value("${ocpp.send.buffer-size-limit:65536}") int bufferSizeLimit,
+      @Value("${ocpp.compression.sample-every:10}") int compressionSampleEvery,
+      @Value("${ocpp.keep-alive.idle-timeout:PT2M}") Duration idleTimeout) {
     this.applicationEventPublisher = Objects.requireNonNull(applicationEventPublisher);
     this.chargepointRepository = Objects.requireNonNull(chargepointRepository);
-    this.firmwareRepository = Objects.requireNonNull(firmwareRepository);
-    this.validator = validator;
+    this.referenceDataCache = Objects.requireNonNull(referenceDataCache);
+    this.validator = Objects.requireNonNull(validator);
     this.logger = Objects.requireNonNull(logger);
+    this.sendTimeLimit = Math.toIntExact(sendTimeLimit.toMillis());
+    if (bufferSizeLimit <= 0) {
+      throw new IllegalArgumentException("The buffer size limit must be positive.");
+    }
+    this.bufferSizeLimit = bufferSizeLimit;
+    this.compressionSampleEvery = compressionSampleEvery;
+    if (idleTimeout.isNegative()) {
+      throw new IllegalArgumentException("The idle timeout must not be negative.");
+    }
+    this.idleTimeout = idleTimeout.toNanos();
+  }
+
+  /**
+   * Returns the compression statistics of the open chargepoint sessions.
+   *
+   * @return the list of the {@link CompressionStatisticsDto}.
+   */
+  public List<CompressionStatisticsDto> compressionStatistics() {
+    return compressions.values().stream().map(SessionCompression::toDto).toList();
+  }
+
+  /**
+   * Returns the live chargepoint sessions, filtered and sorted in memory.<br>
+   * Only the sessions known by the handler are read, the database is never queried.
+   *
+   * @param filter      A text searched in the serial number and the remote address,
+   *                    every session is kept if it is empty.
+   * @param ocppVersion The OCPP version of the sessions to keep, every version if null.
+   * @param sortBy      The property the sessions are sorted by.
+   * @param descending  Whether the sessions are sorted in descending order.
+   * @return the list of the {@link LiveSessionDto}.
+   * @throws IllegalArgumentException if the sessions cannot be sorted by this property.
+   */
+  public List<LiveSessionDto> liveSessions(
+      String filter, OcppVersion ocppVersion, String sortBy, boolean descending) {
+    Objects.requireNonNull(filter);
+    var comparator = LIVE_SESSION_ORDERS.get(Objects.requireNonNull(sortBy));
+    if (comparator == null) {
+      throw new IllegalArgumentException("Unknown sort property : " + sortBy);
+    }
+    var needle = filter.toLowerCase(Locale.ROOT);
+    return statistics.values().stream()
+        .map(session -> session.toDto(chargePoints.get(session.sessionId())))
+        .filter(session -> ocppVersion == null || session.ocppVersion() == ocppVersion)
+        .filter(session -> needle.isEmpty()
+            || contains(session.serialNumber(), needle)
+            || contains(session.remoteAddress(), needle))
+        .sorted(descending ? comparator.reversed() : comparator)
+        .toList();
+  }
+
+  private static boolean contains(String text, String needle) {
+    return text != null && text.toLowerCase(Locale.ROOT).contains(needle);
+  }
+
+  /**
+   * Returns the statistics of the messages sent to the chargepoints.
+   *
+   * @return the {@link OutboundStatisticsDto}.
+   */
+  public OutboundStatisticsDto outboundStatistics() {
+    var buffered = 0L;
+    var maxBuffered = 0;
+    for (var session : sessions.values()) {
+      var size = session.getBufferSize();
+      buffered += size;
+      maxBuffered = Math.max(maxBuffered, size);
+    }
+    return new OutboundStatisticsDto(
+        sessions.size(),
+        buffered,
+        maxBuffered,
+        bufferSizeLimit,
+        sentMessages.sum(),
+        overflows.sum());
+  }
+
+  /**
+   * Returns the round-trip times of the pings sent to every chargepoint since the start.
+   *
+   * @return the {@link RoundTripStatisticsDto}.
+   */
+  public RoundTripStatisticsDto roundTripStatistics() {
+    return new RoundTripStatisticsDto(
+        sessions.size(),
+        pings.sum(),
+        roundTrips.samples(),
+        roundTrips.percentileMicros(0.5),
+        roundTrips.percentileMicros(0.9),
+        roundTrips.percentileMicros(0.99),
+        roundTrips.maxMicros(),
+        reapedSessions.sum());
+  }
+
+  /**
+   * Pings the chargepoints and disconnects the ones which stayed silent for longer than the
+   * property ocpp.keep-alive.idle-timeout, at the rate given by ocpp.keep-alive.interval.<br>
+   * A chargepoint which lost its power or its network never closes its connection: without
+   * this, its session and its buffers are kept until the system times the connection out.
+   */
+  @Scheduled(
+      initialDelayString = "${ocpp.keep-alive.interval:PT30S}",
+      fixedDelayString = "${ocpp.keep-alive.interval:PT30S}")
+  public void keepAlive() {
+    keepAlive(System.nanoTime());
+  }
+
+  /**
+   * Pings the chargepoints and disconnects the silent ones, as if it was the given time.
+   *
+   * @param now The current {@link System#nanoTime()}.
+   */
+  void keepAlive(long now) {
+    for (var entry : statistics.entrySet()) {
+      var session = sessions.get(entry.getKey());
+      if (session == null) {
+        continue;
+      }
+      if (idleTimeout > 0 && entry.getValue().idleNanos(now) > idleTimeout) {
+        reap(session);
+      } else {
+        ping(session);
+      }
+    }
   }
 
   @Override
@@ -75,7 +270,22 @@ public class OcppWebSocketHandler extends TextWebSocketHandler {
     var ocppVersion =
         OcppVersion.parse(session.getHandshakeHeaders().getFirst("Sec-Websocket-Protocol"));
     if (ocppVersion.isPresent()) {
-      chargePoints.putIfAbsent(session.getId(), instantiate(ocppVersion.orElseThrow(), session));
+      var outbound = new ConcurrentWebSocketSessionDecorator(
+          session, sendTimeLimit, bufferSizeLimit, OverflowStrategy.TERMINATE);
+      sessions.put(session.getId(), outbound);
+      var negotiated = session.getExtensions().stream()
+          .anyMatch(e -> OcppCompressionPolicy.PERMESSAGE_DEFLATE.equals(e.getName()));
+      var identity = (ChargepointIdentity) session.getAttributes()
+          .get(OcppHandshakeInterceptor.IDENTITY_ATTRIBUTE);
+      compressions.put(session.getId(), new SessionCompression(
+          session.getId(), identity, negotiated, compressionSampleEvery));
+      statistics.put(session.getId(), new SessionStatistics(
+          session.getId(),
+          identity,
+          ocppVersion.orElseThrow(),
+          session.getRemoteAddress(),
+          Instant.now()));
+      chargePoints.putIfAbsent(session.getId(), instantiate(ocppVersion.orElseThrow(), outbound));
     } else {
       logger.info(new TechnicalLog(TechnicalLogEntity.Component.BACKEND, "Unknown OCPP version !"));
     }
@@ -85,31 +295,49 @@ public class OcppWebSocketHandler extends TextWebSocketHandler {
   protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
     super.handleTextMessage(session, message);
     var remote = session.getRemoteAddress();
+    record(session, message, true);
     var webSocketMessage = WebSocketMessage.parse(message.getPayload());
     if (webSocketMessage.isEmpty()) {
-      logger.warn(new TechnicalLog(
-          TechnicalLogEntity.Component.BACKEND, "failed to parse message from " + remote));
+      logger.log(
+          Level.WARN, TechnicalLogEntity.Component.BACKEND, "failed to parse message from {}",
+          remote);
       return;
     }
-    if (webSocketMessage.get().isRequest()) {
-      logger.info(new TechnicalLog(
-          TechnicalLogEntity.Component.BACKEND,
-          "received request from " + remote + ": " + message.getPayload()));
-    } else {
-      logger.info(new TechnicalLog(
-          TechnicalLogEntity.Component.BACKEND,
-          "received response from " + remote + ": " + message.getPayload()));
+    if (logger.isEnabled(Level.INFO, TechnicalLogEntity.Component.BACKEND)) {
+      var context = inboundContext(session, webSocketMessage.get());
+      var template = webSocketMessage.get().isRequest()
+          ? "received request from {}: {}"
+          : "received response from {}: {}";
+      logger.log(
+          Level.INFO, TechnicalLogEntity.Component.BACKEND, context, template,
+          remote, message.getPayload());
     }
     var violations = validator.validate(webSocketMessage.get());
     if (!violations.isEmpty()) {
-      logger.warn(new TechnicalLog(
-          TechnicalLogEntity.Component.BACKEND,
-          "message from " + remote + " is invalid: " + violations));
+      logger.log(
+          Level.WARN, TechnicalLogEntity.Component.BACKEND, "message from {} is invalid: {}",
+          remote, violations);
       return;
     }
     chargePoints.get(session.getId()).processMessage(webSocketMessage.get());
   }
 
+  @Override
+  protected void handlePongMessage(WebSocketSession session, PongMessage message) {
+    var payload = message.getPayload();
+    var sessionStatistics = statistics.get(session.getId());
+    // Only the pongs answering our pings carry the time they were sent at
+    if (sessionStatistics == null || payload.remaining() != Long.BYTES) {
+      return;
+    }
+    var roundTrip = System.nanoTime() - payload.getLong(payload.position());
+    if (roundTrip < 0 || roundTrip > MAX_ROUND_TRIP) {
+      return;
+    }
+    sessionStatistics.recordPong(roundTrip);
+    roundTrips.record(roundTrip);
+  }
+
   @Override
   public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
     super.handleTransportError(session, exception);
@@ -139,12 +367,51 @@ public class OcppWebSocketHandler extends TextWebSocketHandler {
             + session
             + " additional info: "
             + status.getReason()));
-    var chargepoint = chargePoints.getOrDefault(session.getId(), null);
+    disconnect(session.getId());
+    session.close();
+  }
+
+  /**
+   * Forgets the session, once: a reaped session is closed again by the container.
+   */
+  private void disconnect(String sessionId) {
+    sessions.remove(sessionId);
+    compressions.remove(sessionId);
+    statistics.remove(sessionId);
+    var chargepoint = chargePoints.remove(sessionId);
     if (chargepoint != null) {
       chargepoint.onDisconnection();
     }
-    chargePoints.remove(session.getId());
-    session.close();
+  }
+
+  private void ping(WebSocketSession session) {
+    try {
+      session.sendMessage(
+          new PingMessage(ByteBuffer.allocate(Long.BYTES).putLong(0, System.nanoTime())));
+      pings.increment();
+    } catch (SessionLimitExceededException e) {
+      overflows.increment();
+      reap(session);
+    } catch (IOException e) {
+      logger.warn(new TechnicalLog(
+          TechnicalLogEntity.Component.BACKEND,
+          "failed to ping " + session.getRemoteAddress() + " : " + e.getMessage()));
+    }
+  }
+
+  private void reap(WebSocketSession session) {
+    reapedSessions.increment();
+    logger.warn(new TechnicalLog(
+        TechnicalLogEntity.Component.BACKEND,
+        "closing " + session.getRemoteAddress() + " : the chargepoint stopped answering"));
+    disconnect(session.getId());
+    try {
+      session.close(CloseStatus.SESSION_NOT_RELIABLE);
+    } catch (IOException e) {
+      logger.warn(new TechnicalLog(
+          TechnicalLogEntity.Component.BACKEND,
+          "failed to close " + session.getRemoteAddress() + " : " + e.getMessage()));
+    }
   }
 
   private ChargePointManager instantiate(OcppVersion ocppVersion, WebSocketSession session) {
@@ -152,10 +419,11 @@ public class OcppWebSocketHandler extends TextWebSocketHandler {
         applicationEventPublisher,
         ocppVersion,
         (ocppMessage, chargePointManager) -> {
-          var violations = validator.validate(ocppMessage);
+          var violations = validator.validateOutbound(ocppMessage);
           if (!violations.isEmpty()) {
-            logger.warn(new TechnicalLog(
-                TechnicalLogEntity.Component.BACKEND, "message is invalid: " + violations));
+            logger.log(
+                Level.WARN, TechnicalLogEntity.Component.BACKEND, "message is invalid: {}",
+                violations);
             return;
           }
           switch (OcppMessage.ocppMessageToMessageType(ocppMessage)) {
@@ -163,23 +431,31 @@ public class OcppWebSocketHandler extends TextWebSocketHandler {
               var request = new WebSocketRequestMessage(
                   MessageType.REQUEST.getCallType(),
                   chargePointManager.getCurrentId(),
-                  WebSocketMessage.MessageTypeRequest.ocppMessageToEnum(ocppMessage),
-                  jsonParser.objectToJsonString(ocppMessage));
+                  OcppActionRegistry.actionName(ocppMessage),
+                  chargePointManager.transform(ocppMessage));
               chargePointManager.setPendingRequest(request);
-              session.sendMessage(new TextMessage(request.toString()));
-              logger.info(new TechnicalLog(
-                  TechnicalLogEntity.Component.BACKEND,
-                  "sent request to " + session.getRemoteAddress() + " : " + request));
+              send(session, new TextMessage(request.toString()));
+              if (logger.isEnabled(Level.INFO, TechnicalLogEntity.Component.BACKEND)) {
+                logger.log(
+                    Level.INFO, TechnicalLogEntity.Component.BACKEND,
+                    LogContext.outbound(chargepointId(session), session.getId(),
+                        request.messageName(), request.messageId()),
+                    "sent request to {} : {}", session.getRemoteAddress(), request);
+              }
             }
             case RESPONSE -> {
               var response = new WebSocketResponseMessage(
                   MessageType.RESPONSE.getCallType(),
                   chargePointManager.getCurrentId(),
-                  jsonParser.objectToJsonString(ocppMessage));
-              session.sendMessage(new TextMessage(response.toString()));
-              logger.info(new TechnicalLog(
-                  TechnicalLogEntity.Component.BACKEND,
-                  "sent response to " + session.getRemoteAddress() + " : " + response));
+                  chargePointManager.transform(ocppMessage));
+              send(session, new TextMessage(response.toString()));
+              if (logger.isEnabled(Level.INFO, TechnicalLogEntity.Component.BACKEND)) {
+                logger.log(
+                    Level.INFO, TechnicalLogEntity.Component.BACKEND,
+                    LogContext.outbound(chargepointId(session), session.getId(),
+                        OcppActionRegistry.actionName(ocppMessage), response.messageId()),
+                    "sent response to {} : {}", session.getRemoteAddress(), response);
+              }
             }
             default -> // ignore
             logger.error(new TechnicalLog(
@@ -187,7 +463,65 @@ public class OcppWebSocketHandler extends TextWebSocketHandler {
           }
         },
         chargepointRepository,
-        firmwareRepository,
+        referenceDataCache,
         logger);
   }
+
+  /**
+   * Sends a message through the buffered session.<br>
+   * When the limits of the session are exceeded, the connection is closed: the chargepoint
+   * will reconnect and restart its process.
+   */
+  private void send(WebSocketSession session, TextMessage message) throws IOException {
+    try {
+      // Counted first, the chargepoint may answer before sendMessage returns
+      record(session, message, false);
+      session.sendMessage(message);
+      sentMessages.increment();
+    } catch (SessionLimitExceededException e) {
+      overflows.increment();
+      logger.warn(new TechnicalLog(
+          TechnicalLogEntity.Component.BACKEND,
+          "closing " + session.getRemoteAddress() + " : " + e.getMessage()));
+      session.close(e.getStatus());
+    }
+  }
+
+  private static Integer chargepointId(WebSocketSession session) {
+    var identity = (ChargepointIdentity) session.getAttributes()
+        .get(OcppHandshakeInterceptor.IDENTITY_ATTRIBUTE);
+    return identity == null ? null : identity.id();
+  }
+
+  private LogContext inboundContext(WebSocketSession session, WebSocketMessage message) {
+    var chargepointId = chargepointId(session);
+    if (message.isRequest()) {
+      return LogContext.inbound(
+          chargepointId, session.getId(), message.messageName(), message.messageId());
+    }
+    // A response answers the pending request of the chargepoint
+    var chargePointManager = chargePoints.get(session.getId());
+    var pendingRequest = chargePointManager == null ? null : chargePointManager.getPendingRequest();
+    if (pendingRequest == null) {
+      return LogContext.inbound(chargepointId, session.getId(), null, message.messageId());
+    }
+    return LogContext.inbound(
+            chargepointId, session.getId(), pendingRequest.action(), message.messageId())
+        .withDuration(pendingRequest.age().toMillis());
+  }
+
+  private void record(WebSocketSession session, TextMessage message, boolean inbound) {
+    var compression = compressions.get(session.getId());
+    if (compression != null) {
+      compression.record(message.getPayload());
+    }
+    var sessionStatistics = statistics.get(session.getId());
+    if (sessionStatistics != null) {
+      if (inbound) {
+        sessionStatistics.recordInbound(message.getPayload());
+      } else {
+        sessionStatistics.recordOutbound(message.getPayload());
+      }
+    }
+  }
 }
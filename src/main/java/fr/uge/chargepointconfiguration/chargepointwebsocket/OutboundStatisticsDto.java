@@ -0,0 +1,41 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+/**
+ * Statistics of the messages sent to the chargepoints, since the start of the application.
+ *
+ * @param sessions           the number of open chargepoint sessions
+ * @param bufferedBytes      the amount of bytes waiting to be sent, over all the sessions
+ * @param maxBufferedBytes   the amount of bytes waiting to be sent to the most late session
+ * @param bufferSizeLimit    the amount of buffered bytes above which a session is closed
+ * @param sentMessages       the number of messages sent or buffered
+ * @param overflows          the number of sessions closed because they exceeded their limits
+ */
+public record OutboundStatisticsDto(
+    int sessions,
+    long bufferedBytes,
+    int maxBufferedBytes,
+    int bufferSizeLimit,
+    long sentMessages,
+    long overflows) {}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * A lock-free histogram of round-trip times.<br>
+ * The durations are counted in microseconds, each power of two being split in
+ * 2<sup>precision</sup> buckets: with a precision of 2, the percentiles are known within 25%
+ * whatever the magnitude, with a precision of 0 within 100% but with 4 times less memory.
+ * The durations longer than about two minutes share the last bucket.
+ */
+final class RoundTripHistogram {
+  static final int MAX_EXPONENT = 27;
+
+  private final int precision;
+  private final AtomicLongArray counts;
+  private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+  /**
+   * {@link RoundTripHistogram}'s constructor.
+   *
+   * @param precision The binary logarithm of the number of buckets per power of two.
+   */
+  RoundTripHistogram(int precision) {
+    if (precision < 0 || precision > 4) {
+      throw new IllegalArgumentException("The precision must be between 0 and 4.");
+    }
+    this.precision = precision;
+    counts = new AtomicLongArray((MAX_EXPONENT + 1 - precision) << precision);
+  }
+
+  /**
+   * Returns the amount of buckets of the histogram.
+   *
+   * @return the amount of buckets.
+   */
+  int buckets() {
+    return counts.length();
+  }
+
+  /**
+   * Records a round trip.
+   *
+   * @param nanos The duration of the round trip, in nanoseconds.
+   */
+  void record(long nanos) {
+    var micros = Math.max(0, nanos / 1000);
+    counts.incrementAndGet(bucket(micros));
+    max.accumulate(micros);
+  }
+
+  /**
+   * Returns the amount of recorded round trips.
+   *
+   * @return the amount of samples.
+   */
+  long samples() {
+    var samples = 0L;
+    for (var i = 0; i < counts.length(); i++) {
+      samples += counts.get(i);
+    }
+    return samples;
+  }
+
+  /**
+   * Returns the longest recorded round trip.
+   *
+   * @return the maximum, in microseconds.
+   */
+  long maxMicros() {
+    return max.get();
+  }
+
+  /**
+   * Returns the upper bound of the bucket holding the given percentile.
+   *
+   * @param percentile The percentile, between 0 and 1.
+   * @return the percentile in microseconds, 0 if nothing was recorded.
+   */
+  long percentileMicros(double percentile) {
+    var samples = samples();
+    if (samples == 0) {
+      return 0;
+    }
+    var rank = Math.max(1, (long) Math.ceil(percentile * samples));
+    var seen = 0L;
+    for (var i = 0; i < counts.length(); i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        // The bucket bound may exceed the samples, the maximum is exact
+        return Math.min(lowerBound(i + 1) - 1, max.get());
+      }
+    }
+    return max.get();
+  }
+
+  int bucket(long micros) {
+    var split = 1 << precision;
+    if (micros < split) {
+      return (int) micros;
+    }
+    var exponent = 63 - Long.numberOfLeadingZeros(micros);
+    var part = (int) (micros >>> (exponent - precision)) & (split - 1);
+    return Math.min(counts.length() - 1, ((exponent - precision + 1) << precision) + part);
+  }
+
+  long lowerBound(int bucket) {
+    var split = 1 << precision;
+    if (bucket < split) {
+      return bucket;
+    }
+    return ((long) split + (bucket & (split - 1))) << ((bucket >> precision) - 1);
+  }
+}
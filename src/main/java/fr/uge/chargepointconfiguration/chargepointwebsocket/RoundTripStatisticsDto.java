@@ -0,0 +1,45 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+/**
+ * Round-trip times of the websocket pings sent to every chargepoint since the start.
+ *
+ * @param sessions       the number of open sessions
+ * @param pings          the number of pings sent
+ * @param samples        the number of pongs received
+ * @param p50Micros      the median round-trip time, in microseconds
+ * @param p90Micros      the 90th percentile of the round-trip time, in microseconds
+ * @param p99Micros      the 99th percentile of the round-trip time, in microseconds
+ * @param maxMicros      the longest round-trip time, in microseconds
+ * @param reapedSessions the number of sessions closed because they stayed silent
+ */
+public record RoundTripStatisticsDto(
+    int sessions,
+    long pings,
+    long samples,
+    long p50Micros,
+    long p90Micros,
+    long p99Micros,
+    long maxMicros,
+    long reapedSessions) {}
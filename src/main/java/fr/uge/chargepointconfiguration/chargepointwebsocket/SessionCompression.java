@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointIdentity;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+/**
+ * Measures the compression of the messages of a chargepoint session.<br>
+ * The websocket container does not expose the size of the compressed frames, so one message
+ * out of {@code sampleEvery} is compressed again with the same algorithm to estimate the
+ * compression ratio and the time spent compressing.
+ */
+final class SessionCompression {
+  private static final int CHUNK_SIZE = 4096;
+
+  private final String sessionId;
+  private final ChargepointIdentity identity;
+  private final boolean negotiated;
+  private final int sampleEvery;
+  private long messages;
+  private long bytes;
+  private long sampledMessages;
+  private long sampledBytes;
+  private long sampledCompressedBytes;
+  private long sampledNanos;
+
+  SessionCompression(
+      String sessionId, ChargepointIdentity identity, boolean negotiated, int sampleEvery) {
+    this.sessionId = sessionId;
+    this.identity = identity;
+    this.negotiated = negotiated;
+    this.sampleEvery = sampleEvery;
+  }
+
+  /**
+   * Records a message received or sent through the session.
+   *
+   * @param payload The text of the message.
+   */
+  void record(String payload) {
+    var length = SessionStatistics.utf8Length(payload);
+    boolean sample;
+    synchronized (this) {
+      messages++;
+      bytes += length;
+      sample = negotiated && sampleEvery > 0 && messages % sampleEvery == 0;
+    }
+    if (sample) {
+      sample(payload.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private void sample(byte[] input) {
+    var start = System.nanoTime();
+    var deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    var compressed = 0L;
+    try {
+      deflater.setInput(input);
+      deflater.finish();
+      var chunk = new byte[CHUNK_SIZE];
+      while (!deflater.finished()) {
+        compressed += deflater.deflate(chunk);
+      }
+    } finally {
+      deflater.end();
+    }
+    var elapsed = System.nanoTime() - start;
+    synchronized (this) {
+      sampledMessages++;
+      sampledBytes += input.length;
+      sampledCompressedBytes += compressed;
+      sampledNanos += elapsed;
+    }
+  }
+
+  synchronized CompressionStatisticsDto toDto() {
+    return new CompressionStatisticsDto(
+        sessionId,
+        identity == null ? "" : identity.serialNumber(),
+        identity == null ? "" : identity.type(),
+        negotiated,
+        messages,
+        bytes,
+        sampledMessages,
+        sampledBytes == 0 ? 1.0 : (double) sampledCompressedBytes / sampledBytes,
+        sampledMessages == 0 ? 0 : sampledNanos / sampledMessages);
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointIdentity;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppVersion;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * The traffic of a live chargepoint session.<br>
+ * The counters are updated by the threads receiving and sending the frames without taking any
+ * lock, and read without stopping them: a snapshot may be slightly behind the frames in flight.
+ * They are plain fields updated atomically, rather than adders, as a server keeps one of these
+ * per connected chargepoint and the frames of a session are rarely written concurrently.
+ */
+final class SessionStatistics {
+  private static final VarHandle MESSAGES_IN = counter("messagesIn");
+  private static final VarHandle MESSAGES_OUT = counter("messagesOut");
+  private static final VarHandle BYTES_IN = counter("bytesIn");
+  private static final VarHandle BYTES_OUT = counter("bytesOut");
+
+  private final String sessionId;
+  private final ChargepointIdentity identity;
+  private final OcppVersion ocppVersion;
+  private final InetSocketAddress remoteAddress;
+  private final long connectedSince;
+  // The session only needs its median and worst round trips, coarse buckets are enough
+  private final RoundTripHistogram roundTrips = new RoundTripHistogram(0);
+  private volatile long messagesIn;
+  private volatile long messagesOut;
+  private volatile long bytesIn;
+  private volatile long bytesOut;
+  private volatile long lastMessageAt;
+  private volatile long lastReceivedNanos = System.nanoTime();
+
+  SessionStatistics(
+      String sessionId,
+      ChargepointIdentity identity,
+      OcppVersion ocppVersion,
+      InetSocketAddress remoteAddress,
+      Instant connectedSince) {
+    this.sessionId = sessionId;
+    this.identity = identity;
+    this.ocppVersion = ocppVersion;
+    this.remoteAddress = remoteAddress;
+    this.connectedSince = connectedSince.toEpochMilli();
+  }
+
+  private static VarHandle counter(String name) {
+    try {
+      return MethodHandles.lookup().findVarHandle(SessionStatistics.class, name, long.class);
+    } catch (NoSuchFieldException | IllegalAccessException e) {
+      throw new LinkageError("No counter " + name, e);
+    }
+  }
+
+  String sessionId() {
+    return sessionId;
+  }
+
+  /**
+   * Records a message received from the chargepoint.
+   *
+   * @param payload The text of the message.
+   */
+  void recordInbound(String payload) {
+    MESSAGES_IN.getAndAdd(this, 1L);
+    BYTES_IN.getAndAdd(this, utf8Length(payload));
+    lastMessageAt = System.currentTimeMillis();
+    lastReceivedNanos = System.nanoTime();
+  }
+
+  /**
+   * Records the answer of the chargepoint to a ping.
+   *
+   * @param roundTripNanos The time elapsed since the ping was sent, in nanoseconds.
+   */
+  void recordPong(long roundTripNanos) {
+    roundTrips.record(roundTripNanos);
+    lastReceivedNanos = System.nanoTime();
+  }
+
+  /**
+   * Returns the time elapsed since the chargepoint sent a frame, a message or a pong.<br>
+   * The frames sent to the chargepoint are not counted: a half-open connection accepts them.
+   *
+   * @param now The current {@link System#nanoTime()}.
+   * @return the idle time, in nanoseconds.
+   */
+  long idleNanos(long now) {
+    return now - lastReceivedNanos;
+  }
+
+  /**
+   * Records a message sent to the chargepoint.
+   *
+   * @param payload The text of the message.
+   */
+  void recordOutbound(String payload) {
+    MESSAGES_OUT.getAndAdd(this, 1L);
+    BYTES_OUT.getAndAdd(this, utf8Length(payload));
+    lastMessageAt = System.currentTimeMillis();
+  }
+
+  /**
+   * Returns a snapshot of the session.
+   *
+   * @param manager The manager of the chargepoint, null if it is already gone.
+   * @return the {@link LiveSessionDto}.
+   */
+  LiveSessionDto toDto(ChargePointManager manager) {
+    var last = lastMessageAt;
+    var pendingRequest = manager == null ? null : manager.getPendingRequest();
+    var chargepoint = manager == null ? null : manager.getCurrentChargepoint();
+    return new LiveSessionDto(
+        sessionId,
+        identity == null ? null : identity.id(),
+        identity == null ? null : identity.serialNumber(),
+        ocppVersion,
+        Objects.toString(remoteAddress, null),
+        Instant.ofEpochMilli(connectedSince),
+        messagesIn,
+        messagesOut,
+        bytesIn,
+        bytesOut,
+        last == 0 ? null : Instant.ofEpochMilli(last),
+        pendingRequest == null ? null : pendingRequest.action(),
+        pendingRequest == null ? null : pendingRequest.age().toMillis(),
+        chargepoint == null ? null : chargepoint.getStep(),
+        chargepoint == null ? null : chargepoint.getStatus(),
+        roundTrips.samples() == 0 ? null : roundTrips.percentileMicros(0.5),
+        roundTrips.samples() == 0 ? null : roundTrips.percentileMicros(0.99));
+  }
+
+  /**
+   * Counts the bytes of the text encoded in UTF-8, without encoding it.
+   */
+  static long utf8Length(String text) {
+    var length = 0L;
+    for (var i = 0; i < text.length(); i++) {
+      var c = text.charAt(i);
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < text.length()
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+}
@@ -23,14 +23,6 @@
 package fr.uge.chargepointconfiguration.chargepointwebsocket;
 
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.MessageType;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppMessage;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.BootNotification;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.ChangeConfiguration;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.FirmwareStatusNotification;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.Reset;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.UpdateFirmware;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.BootNotificationRequest;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.SetVariablesRequest;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -50,12 +42,12 @@ public interface WebSocketMessage {
   String data();
 
   /**
-   * Returns the message's type.<br>
+   * Returns the name of the message's action, as written in the OCPP-J messages.<br>
    * By default, it returns null when the message is not a request.
    *
-   * @return {@link MessageTypeRequest}.
+   * @return The name of the action.
    */
-  default MessageTypeRequest messageName() {
+  default String messageName() {
     return null;
   }
 
@@ -75,81 +67,6 @@ public interface WebSocketMessage {
    */
   boolean isRequest();
 
-  /**
-   * Defines the request message type for OCPP 1.6 and OCPP 2.0.1 protocols.<br>
-   * These enums can be sent by the chargepoint (BootNotification, StatusFirmware)
-   * or the server (ChangeConfiguration, SetVariables).<br>
-   * By default, if the packet is unknown, we set to other.
-   */
-  enum MessageTypeRequest {
-    BOOT_NOTIFICATION_REQUEST("BootNotification"),
-    STATUS_FIRMWARE_REQUEST("FirmwareStatusNotification"),
-    UPDATE_FIRMWARE_REQUEST("UpdateFirmware"),
-    CHANGE_CONFIGURATION_REQUEST("ChangeConfiguration"),
-    SET_VARIABLES_REQUEST("SetVariables"),
-    RESET_REQUEST("Reset"),
-    OTHER("Other");
-
-    private final String name;
-
-    /**
-     * MessageTypeReceived's constructor.
-     *
-     * @param name The correct packet name.
-     */
-    MessageTypeRequest(String name) {
-      this.name = Objects.requireNonNull(name);
-    }
-
-    /**
-     * Returns the corresponding packet's name.
-     *
-     * @return The packet's name.
-     */
-    public String getName() {
-      return name;
-    }
-
-    /**
-     * Converts the OCPP message type into the enum.
-     *
-     * @param ocppMessage The OCPP message received by the server.
-     * @return The correct enum if found, an OTHER by default.
-     */
-    public static MessageTypeRequest ocppMessageToEnum(OcppMessage ocppMessage) {
-      Objects.requireNonNull(ocppMessage);
-      return switch (ocppMessage) {
-        case BootNotification ignored -> BOOT_NOTIFICATION_REQUEST;
-        case BootNotificationRequest ignored -> BOOT_NOTIFICATION_REQUEST;
-        case ChangeConfiguration ignored -> CHANGE_CONFIGURATION_REQUEST;
-        case UpdateFirmware ignored -> UPDATE_FIRMWARE_REQUEST;
-        case SetVariablesRequest ignored -> SET_VARIABLES_REQUEST;
-        case Reset ignored -> RESET_REQUEST;
-        case FirmwareStatusNotification ignored -> STATUS_FIRMWARE_REQUEST;
-        default -> OTHER;
-      };
-    }
-
-    /**
-     * Converts the message name into an enum to make the process
-     * message easier.
-     *
-     * @param messageName The message type received from the remote.
-     * @return The correct enum if found, an OTHER by default.
-     */
-    public static MessageTypeRequest nameToEnum(String messageName) {
-      Objects.requireNonNull(messageName);
-      return switch (messageName) {
-        case "BootNotification" -> BOOT_NOTIFICATION_REQUEST;
-        case "FirmwareStatusNotification" -> STATUS_FIRMWARE_REQUEST;
-        case "UpdateFirmware" -> UPDATE_FIRMWARE_REQUEST;
-        case "ChangeConfiguration" -> CHANGE_CONFIGURATION_REQUEST;
-        case "Reset" -> RESET_REQUEST;
-        default -> OTHER;
-      };
-    }
-  }
-
   /**
    * Parse string message received from the web socket.
    *
@@ -175,8 +92,7 @@ public interface WebSocketMessage {
       case REQUEST -> {
         try {
           var messageId = Long.parseLong(array[1].replaceAll("\"", ""));
-          var messageName =
-              MessageTypeRequest.nameToEnum(array[2].substring(1, array[2].length() - 1));
+          var messageName = array[2].substring(1, array[2].length() - 1);
           yield Optional.of(
               new WebSocketRequestMessage(callType, messageId, messageName, array[3]));
         } catch (NumberFormatException n) {
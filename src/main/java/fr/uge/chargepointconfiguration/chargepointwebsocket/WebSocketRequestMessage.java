@@ -23,6 +23,7 @@
 package fr.uge.chargepointconfiguration.chargepointwebsocket;
 
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.MessageType;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppActionRegistry;
 import java.util.Objects;
 
 /**
@@ -31,11 +32,11 @@ import java.util.Objects;
  *
  * @param callType    The type of call defined by {@link MessageType}.
  * @param messageId   The message's id.
- * @param messageName {@link MessageTypeRequest}.
+ * @param messageName The name of the action, see {@link OcppActionRegistry}.
  * @param data        The data given by the message, it is in Json format.
  */
 public record WebSocketRequestMessage(
-    int callType, long messageId, WebSocketMessage.MessageTypeRequest messageName, String data)
+    int callType, long messageId, String messageName, String data)
     implements WebSocketMessage {
 
   /**
@@ -43,7 +44,7 @@ public record WebSocketRequestMessage(
    *
    * @param callType    The type of call defined by {@link MessageType}.
    * @param messageId   The message's id.
-   * @param messageName {@link MessageTypeRequest}.
+   * @param messageName The name of the action, see {@link OcppActionRegistry}.
    * @param data        The data given by the message, it is in Json format.
    */
   public WebSocketRequestMessage {
@@ -58,7 +59,6 @@ public record WebSocketRequestMessage(
 
   @Override
   public String toString() {
-    return "[" + callType + ",\"" + messageId + "\",\"" + messageName.getName() + "\"," + data
-        + "]";
+    return "[" + callType + ",\"" + messageId + "\",\"" + messageName + "\"," + data + "]";
   }
 }
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import fr.uge.chargepointconfiguration.tools.JsonParser;
+import java.util.Objects;
+
+/**
+ * An OCPP action : the name of the action, the classes of its request and its response, and
+ * their readers and writers.<br>
+ * The readers and writers are prepared once per action, so a message no longer looks up the
+ * deserializer or the serializer of its class in the shared mapper.
+ *
+ * @param name           The name of the action, as written in the OCPP-J messages.
+ * @param request        The class of the request, null if there is no schema for it.
+ * @param response       The class of the response, null if there is no schema for it.
+ * @param requestReader  The reader of the request, null if there is no schema for it.
+ * @param responseReader The reader of the response, null if there is no schema for it.
+ * @param requestWriter  The writer of the request, null if there is no schema for it.
+ * @param responseWriter The writer of the response, null if there is no schema for it.
+ */
+public record OcppAction(
+    String name,
+    Class<? extends OcppMessage> request,
+    Class<? extends OcppMessage> response,
+    ObjectReader requestReader,
+    ObjectReader responseReader,
+    ObjectWriter requestWriter,
+    ObjectWriter responseWriter) {
+
+  /**
+   * Creates the action and prepares the readers and writers of its classes.
+   *
+   * @param name     The name of the action, as written in the OCPP-J messages.
+   * @param request  The class of the request, null if there is no schema for it.
+   * @param response The class of the response, null if there is no schema for it.
+   * @return the {@link OcppAction}.
+   */
+  public static OcppAction of(
+      String name,
+      Class<? extends OcppMessage> request,
+      Class<? extends OcppMessage> response) {
+    Objects.requireNonNull(name);
+    return new OcppAction(
+        name,
+        request,
+        response,
+        request == null ? null : JsonParser.readerFor(request),
+        response == null ? null : JsonParser.readerFor(response),
+        request == null ? null : JsonParser.writerFor(request),
+        response == null ? null : JsonParser.writerFor(response));
+  }
+
+  /**
+   * Returns the writer of the given message of the action.
+   *
+   * @param message {@link OcppMessage}, the request or the response of the action.
+   * @return the {@link ObjectWriter} of the class of the message.
+   */
+  public ObjectWriter writer(OcppMessage message) {
+    Objects.requireNonNull(message);
+    return message.getClass() == request ? requestWriter : responseWriter;
+  }
+}
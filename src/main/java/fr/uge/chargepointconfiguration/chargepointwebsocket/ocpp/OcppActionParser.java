@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.WebSocketMessage;
+import fr.uge.chargepointconfiguration.tools.JsonParser;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Parses the OCPP messages of a version with the classes of its {@link OcppActionRegistry}.
+ */
+final class OcppActionParser implements OcppMessageParser {
+  private static final Map<OcppVersion, OcppActionParser> PARSERS = new ConcurrentHashMap<>();
+  private static final String EMPTY_PAYLOAD = "{}";
+
+  // A message without properties carries nothing to read, whatever the chargepoint sends
+  private static final ClassValue<Boolean> withoutProperties = new ClassValue<>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      return Arrays.stream(type.getDeclaredFields())
+          .allMatch(field -> Modifier.isStatic(field.getModifiers()));
+    }
+  };
+
+  private final OcppActionRegistry registry;
+  private final JsonParser jsonParser = new JsonParser();
+
+  /**
+   * {@link OcppActionParser}'s constructor.
+   *
+   * @param ocppVersion {@link OcppVersion}.
+   */
+  private OcppActionParser(OcppVersion ocppVersion) {
+    registry = OcppActionRegistry.of(ocppVersion);
+  }
+
+  /**
+   * Returns the parser of the OCPP version, created on the first call.
+   *
+   * @param ocppVersion {@link OcppVersion}.
+   * @return the shared {@link OcppActionParser}.
+   */
+  static OcppActionParser of(OcppVersion ocppVersion) {
+    return PARSERS.computeIfAbsent(ocppVersion, OcppActionParser::new);
+  }
+
+  @Override
+  public Optional<OcppMessage> parseRequestMessage(
+      WebSocketMessage webSocketMessage, Predicate<Class<? extends OcppMessage>> accepted) {
+    Objects.requireNonNull(webSocketMessage);
+    Objects.requireNonNull(accepted);
+    return registry.find(webSocketMessage.messageName())
+        .filter(action -> action.request() != null && accepted.test(action.request()))
+        .map(action ->
+            parse(action.request(), action.requestReader(), webSocketMessage.data()));
+  }
+
+  @Override
+  public Optional<OcppMessage> parseResponseMessage(
+      String requestAction,
+      WebSocketMessage responseMessage,
+      Predicate<Class<? extends OcppMessage>> accepted) {
+    Objects.requireNonNull(responseMessage);
+    Objects.requireNonNull(accepted);
+    if (requestAction == null) {
+      return Optional.empty();
+    }
+    return registry.find(requestAction)
+        .filter(action -> action.response() != null && accepted.test(action.response()))
+        .map(action ->
+            parse(action.response(), action.responseReader(), responseMessage.data()));
+  }
+
+  private OcppMessage parse(
+      Class<? extends OcppMessage> type, ObjectReader reader, String data) {
+    return jsonParser.read(reader, withoutProperties.get(type) ? EMPTY_PAYLOAD : data);
+  }
+
+  @Override
+  public String transform(OcppMessage message) {
+    Objects.requireNonNull(message);
+    return jsonParser.write(OcppActionRegistry.action(message).writer(message), message);
+  }
+}
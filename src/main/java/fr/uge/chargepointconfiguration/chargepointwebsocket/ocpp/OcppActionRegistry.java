@@ -0,0 +1,195 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+/**
+ * The OCPP actions of a version of the protocol, built from the JSON schemas the message
+ * classes are generated from.<br>
+ * Each schema src/main/resources/schemas/ocpp/{version}/{Class}.json gives the class of a
+ * request, or of a response when its name ends with "Response". Supporting a new message
+ * only requires adding its schema.
+ */
+public final class OcppActionRegistry {
+  private static final String SCHEMAS = "schemas/ocpp/";
+  private static final String BASE_PACKAGE =
+      "fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.";
+  private static final String REQUEST_SUFFIX = "Request";
+  private static final String RESPONSE_SUFFIX = "Response";
+
+  private static final Map<OcppVersion, OcppActionRegistry> registries =
+      new EnumMap<>(OcppVersion.class);
+
+  private static final ClassValue<OcppAction> actionsByClass = new ClassValue<>() {
+    @Override
+    protected OcppAction computeValue(Class<?> type) {
+      for (var version : OcppVersion.values()) {
+        var registry = of(version);
+        var name = registry.namesByClass.get(type);
+        if (name != null) {
+          return registry.actions.get(name);
+        }
+      }
+      throw new IllegalArgumentException("No OCPP action for " + type.getName());
+    }
+  };
+
+  private final Map<String, OcppAction> actions;
+  private final Map<Class<?>, String> namesByClass;
+
+  private OcppActionRegistry(Map<String, OcppAction> actions) {
+    this.actions = Map.copyOf(actions);
+    var names = new HashMap<Class<?>, String>();
+    for (var action : actions.values()) {
+      if (action.request() != null) {
+        names.put(action.request(), action.name());
+      }
+      if (action.response() != null) {
+        names.put(action.response(), action.name());
+      }
+    }
+    this.namesByClass = Map.copyOf(names);
+  }
+
+  /**
+   * Returns the actions of the given version.
+   *
+   * @param ocppVersion {@link OcppVersion}.
+   * @return the {@link OcppActionRegistry} of the version.
+   */
+  public static OcppActionRegistry of(OcppVersion ocppVersion) {
+    Objects.requireNonNull(ocppVersion);
+    synchronized (registries) {
+      return registries.computeIfAbsent(ocppVersion, OcppActionRegistry::load);
+    }
+  }
+
+  /**
+   * Returns the name of the action of the given message.
+   *
+   * @param ocppMessage {@link OcppMessage}.
+   * @return The name of the action, as written in the OCPP-J messages.
+   */
+  public static String actionName(OcppMessage ocppMessage) {
+    return action(ocppMessage).name();
+  }
+
+  /**
+   * Returns the action of the given message.
+   *
+   * @param ocppMessage {@link OcppMessage}.
+   * @return The {@link OcppAction} the message is the request or the response of.
+   */
+  public static OcppAction action(OcppMessage ocppMessage) {
+    Objects.requireNonNull(ocppMessage);
+    return actionsByClass.get(ocppMessage.getClass());
+  }
+
+  /**
+   * Returns the action with the given name.
+   *
+   * @param name The name of the action, as written in the OCPP-J messages.
+   * @return The {@link OcppAction}, empty if the version has no such action.
+   */
+  public Optional<OcppAction> find(String name) {
+    Objects.requireNonNull(name);
+    return Optional.ofNullable(actions.get(name));
+  }
+
+  /**
+   * Returns the actions of the version.
+   *
+   * @return the {@link OcppAction} of the version.
+   */
+  public Collection<OcppAction> actions() {
+    return actions.values();
+  }
+
+  /**
+   * Returns the number of actions of the version.
+   *
+   * @return the number of actions.
+   */
+  public int size() {
+    return actions.size();
+  }
+
+  private static OcppActionRegistry load(OcppVersion ocppVersion) {
+    var directory = directory(ocppVersion);
+    var requests = new TreeMap<String, Class<? extends OcppMessage>>();
+    var responses = new TreeMap<String, Class<? extends OcppMessage>>();
+    try {
+      var schemas = new PathMatchingResourcePatternResolver()
+          .getResources("classpath*:" + SCHEMAS + directory + "/*.json");
+      for (var schema : schemas) {
+        var fileName = Objects.requireNonNull(schema.getFilename());
+        var className = fileName.substring(0, fileName.length() - ".json".length());
+        var type = messageClass(BASE_PACKAGE + directory + "." + className);
+        if (className.endsWith(RESPONSE_SUFFIX)) {
+          responses.put(strip(className, RESPONSE_SUFFIX), type);
+        } else {
+          requests.put(strip(className, REQUEST_SUFFIX), type);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    var actions = new HashMap<String, OcppAction>();
+    requests.forEach((name, request) ->
+        actions.put(name, OcppAction.of(name, request, responses.get(name))));
+    responses.forEach((name, response) ->
+        actions.putIfAbsent(name, OcppAction.of(name, null, response)));
+    return new OcppActionRegistry(actions);
+  }
+
+  private static String directory(OcppVersion ocppVersion) {
+    return switch (ocppVersion) {
+      case V1_6 -> "v16";
+      case V2_0_1 -> "v201";
+    };
+  }
+
+  private static String strip(String className, String suffix) {
+    return className.endsWith(suffix)
+        ? className.substring(0, className.length() - suffix.length())
+        : className;
+  }
+
+  private static Class<? extends OcppMessage> messageClass(String className) {
+    try {
+      return Class.forName(className).asSubclass(OcppMessage.class);
+    } catch (ClassNotFoundException | ClassCastException e) {
+      throw new IllegalStateException("No OCPP message class generated for " + className, e);
+    }
+  }
+}
@@ -23,14 +23,12 @@
 package fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp;
 
 import fr.uge.chargepointconfiguration.chargepointwebsocket.WebSocketMessage;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.OcppMessageParser16;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.OcppMessageParser201;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
- * Interface used to define an OCPP message parser.<br>
- * TODO : We could use an Observer to avoid redundancy.
+ * Interface used to define an OCPP message parser.
  */
 public interface OcppMessageParser {
 
@@ -41,8 +39,24 @@ public interface OcppMessageParser {
    *
    * @param webSocketMessage {@link WebSocketMessage}.
    * @return An optional of an {@link OcppMessage}.
+   * @throws IllegalArgumentException if the payload does not fit the class of the message.
    */
-  Optional<OcppMessage> parseRequestMessage(WebSocketMessage webSocketMessage);
+  default Optional<OcppMessage> parseRequestMessage(WebSocketMessage webSocketMessage) {
+    return parseRequestMessage(webSocketMessage, type -> true);
+  }
+
+  /**
+   * Parses the request web socket message sent by the chargepoint
+   * into an OCPP message, if its class is accepted.<br>
+   * Returns an empty optional if the packet is unknown or not accepted: its payload is not read.
+   *
+   * @param webSocketMessage {@link WebSocketMessage}.
+   * @param accepted         Whether a message of the given class should be parsed.
+   * @return An optional of an {@link OcppMessage}.
+   * @throws IllegalArgumentException if the payload does not fit the class of the message.
+   */
+  Optional<OcppMessage> parseRequestMessage(
+      WebSocketMessage webSocketMessage, Predicate<Class<? extends OcppMessage>> accepted);
 
   /**
    * Parses the request web socket message sent by the server
@@ -50,12 +64,33 @@ public interface OcppMessageParser {
    * This method should be called after the server sent a request to the chargepoint.<br>
    * Returns an empty optional if the packet is unknown.
    *
-   * @param requestMessage The {@link WebSocketMessage} the server sent to the chargepoint.
+   * @param requestAction   The action of the request the server sent to the chargepoint,
+   *                        null if there is none.
+   * @param responseMessage The {@link WebSocketMessage} response sent by the chargepoint.
+   * @return An optional of an {@link OcppMessage}.
+   * @throws IllegalArgumentException if the payload does not fit the class of the message.
+   */
+  default Optional<OcppMessage> parseResponseMessage(
+      String requestAction, WebSocketMessage responseMessage) {
+    return parseResponseMessage(requestAction, responseMessage, type -> true);
+  }
+
+  /**
+   * Parses the response web socket message sent by the chargepoint
+   * into an OCPP message, if its class is accepted.<br>
+   * Returns an empty optional if the packet is unknown or not accepted: its payload is not read.
+   *
+   * @param requestAction   The action of the request the server sent to the chargepoint,
+   *                        null if there is none.
    * @param responseMessage The {@link WebSocketMessage} response sent by the chargepoint.
+   * @param accepted        Whether a message of the given class should be parsed.
    * @return An optional of an {@link OcppMessage}.
+   * @throws IllegalArgumentException if the payload does not fit the class of the message.
    */
   Optional<OcppMessage> parseResponseMessage(
-      WebSocketMessage requestMessage, WebSocketMessage responseMessage);
+      String requestAction,
+      WebSocketMessage responseMessage,
+      Predicate<Class<? extends OcppMessage>> accepted);
 
   /**
    * Parses the OCPP message into a String.
@@ -66,16 +101,14 @@ public interface OcppMessageParser {
   String transform(OcppMessage message);
 
   /**
-   * Instantiate the correct parser according to the OCPP version.
+   * Returns the parser of the OCPP version.<br>
+   * The parsers hold no state, one of them is shared by the chargepoints of each version.
    *
    * @param ocppVersion {@link OcppVersion}.
    * @return {@link OcppMessageParser}.
    */
   static OcppMessageParser instantiateFromVersion(OcppVersion ocppVersion) {
     Objects.requireNonNull(ocppVersion);
-    return switch (ocppVersion) {
-      case V1_6 -> new OcppMessageParser16();
-      case V2_0_1 -> new OcppMessageParser201();
-    };
+    return OcppActionParser.of(ocppVersion);
   }
 }
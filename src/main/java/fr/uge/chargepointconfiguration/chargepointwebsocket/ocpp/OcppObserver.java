@@ -27,7 +27,7 @@ import fr.uge.chargepointconfiguration.chargepointwebsocket.ChargePointManager;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.OcppMessageSender;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.OcppConfigurationObserver16;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.OcppConfigurationObserver201;
-import fr.uge.chargepointconfiguration.firmware.FirmwareRepository;
+import fr.uge.chargepointconfiguration.configuration.ReferenceDataCache;
 import fr.uge.chargepointconfiguration.logs.CustomLogger;
 import java.io.IOException;
 import java.util.Objects;
@@ -46,7 +46,7 @@ public interface OcppObserver {
    * @param chargePointManager {@link ChargePointManager}.
    * @param ocppMessageSender {@link OcppMessageSender}.
    * @param chargepointRepository {@link ChargepointRepository}.
-   * @param firmwareRepository {@link FirmwareRepository}.
+   * @param referenceDataCache {@link ReferenceDataCache}.
    * @param logger {@link CustomLogger}.
    * @return {@link OcppObserver}.
    */
@@ -55,22 +55,32 @@ public interface OcppObserver {
       ChargePointManager chargePointManager,
       OcppMessageSender ocppMessageSender,
       ChargepointRepository chargepointRepository,
-      FirmwareRepository firmwareRepository,
+      ReferenceDataCache referenceDataCache,
       CustomLogger logger) {
     Objects.requireNonNull(ocppVersion);
     Objects.requireNonNull(chargePointManager);
     Objects.requireNonNull(ocppMessageSender);
     Objects.requireNonNull(chargepointRepository);
-    Objects.requireNonNull(firmwareRepository);
+    Objects.requireNonNull(referenceDataCache);
     Objects.requireNonNull(logger);
     return switch (ocppVersion) {
       case V1_6 -> new OcppConfigurationObserver16(
-          ocppMessageSender, chargePointManager, chargepointRepository, firmwareRepository, logger);
+          ocppMessageSender, chargePointManager, chargepointRepository, referenceDataCache, logger);
       case V2_0_1 -> new OcppConfigurationObserver201(
-          ocppMessageSender, chargePointManager, chargepointRepository);
+          ocppMessageSender, chargePointManager, chargepointRepository, referenceDataCache);
     };
   }
 
+  /**
+   * Returns whether the observer processes the messages of the given class.<br>
+   * The other messages are not parsed, so a payload the observer would ignore anyway
+   * never fails the session.
+   *
+   * @param type The class of the message.
+   * @return true if {@link #onMessage(OcppMessage)} processes the messages of this class.
+   */
+  boolean handles(Class<? extends OcppMessage> type);
+
   /**
    * Does something when receiving a message.
    *
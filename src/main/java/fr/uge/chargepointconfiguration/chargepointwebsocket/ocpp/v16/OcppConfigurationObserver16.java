@@ -24,23 +24,24 @@ package fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16;
 
 import static fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.Reset.Type.HARD;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import fr.uge.chargepointconfiguration.chargepoint.Chargepoint;
 import fr.uge.chargepointconfiguration.chargepoint.ChargepointRepository;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ChargePointManager;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.OcppMessageSender;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppActionRegistry;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppMessage;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppObserver;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.BootNotificationResponse.BootNotificationResponseBuilder;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.ChangeConfiguration.ChangeConfigurationBuilder;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.Reset.ResetBuilder;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.UpdateFirmware.UpdateFirmwareBuilder;
+import fr.uge.chargepointconfiguration.configuration.ConfigurationDocument;
 import fr.uge.chargepointconfiguration.configuration.ConfigurationTranscriptor;
-import fr.uge.chargepointconfiguration.firmware.FirmwareRepository;
+import fr.uge.chargepointconfiguration.configuration.ReferenceDataCache;
 import fr.uge.chargepointconfiguration.logs.CustomLogger;
 import fr.uge.chargepointconfiguration.logs.sealed.BusinessLog;
 import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.logs.sealed.LogContext;
 import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLog;
 import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
 import fr.uge.chargepointconfiguration.typeallowed.TypeAllowed;
@@ -48,11 +49,14 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Queue;
+import java.util.Set;
+import org.apache.logging.log4j.Level;
 import org.springframework.lang.Nullable;
 
 /**
@@ -60,16 +64,25 @@ import org.springframework.lang.Nullable;
  * An observer is defined by the interface {@link OcppObserver}.
  */
 public class OcppConfigurationObserver16 implements OcppObserver {
+  private static final Set<Class<? extends OcppMessage>> HANDLED_MESSAGES = Set.of(
+      BootNotification.class,
+      ChangeConfigurationResponse.class,
+      ResetResponse.class,
+      FirmwareStatusNotification.class,
+      UpdateFirmwareResponse.class);
   private final OcppMessageSender sender;
   private final ChargePointManager chargePointManager;
   private final ChargepointRepository chargepointRepository;
-  private final FirmwareRepository firmwareRepository;
-  private final Queue<ChangeConfiguration> queue = new LinkedList<>();
+  private final ReferenceDataCache referenceDataCache;
   private final CustomLogger logger;
   private String firmwareVersion;
   private String targetFirmwareVersion;
   private boolean loaded = false;
   private boolean lastOrderModeOn = false;
+  // The changes left are the end of this list: the entries of the shared configuration
+  // document, then the last orders, the messages are only built when sent.
+  private List<Map.Entry<ConfigurationTranscriptor, String>> changes = List.of();
+  private int nextChange;
 
   /**
    * {@link OcppConfigurationObserver16}'s constructor.
@@ -77,22 +90,27 @@ public class OcppConfigurationObserver16 implements OcppObserver {
    * @param sender                {@link OcppMessageSender}.
    * @param chargePointManager    {@link ChargePointManager}.
    * @param chargepointRepository {@link ChargepointRepository}.
-   * @param firmwareRepository    {@link FirmwareRepository}.
+   * @param referenceDataCache    {@link ReferenceDataCache}.
    * @param logger                {@link CustomLogger}.
    */
   public OcppConfigurationObserver16(
       OcppMessageSender sender,
       ChargePointManager chargePointManager,
       ChargepointRepository chargepointRepository,
-      FirmwareRepository firmwareRepository,
+      ReferenceDataCache referenceDataCache,
       CustomLogger logger) {
     this.sender = Objects.requireNonNull(sender);
     this.chargePointManager = Objects.requireNonNull(chargePointManager);
     this.chargepointRepository = Objects.requireNonNull(chargepointRepository);
-    this.firmwareRepository = Objects.requireNonNull(firmwareRepository);
+    this.referenceDataCache = Objects.requireNonNull(referenceDataCache);
     this.logger = Objects.requireNonNull(logger);
   }
 
+  @Override
+  public boolean handles(Class<? extends OcppMessage> type) {
+    return HANDLED_MESSAGES.contains(type);
+  }
+
   @Override
   public Optional<OcppMessage> onMessage(OcppMessage ocppMessage) throws IOException {
     if (ocppMessage == null) {
@@ -103,7 +121,8 @@ public class OcppConfigurationObserver16 implements OcppObserver {
       case ChangeConfigurationResponse c -> processConfigurationResponse(c);
       case ResetResponse ignored -> processResetResponse();
       case FirmwareStatusNotification f -> processFirmwareStatusResponse(f);
-      default -> processDefaultMessage();
+      case UpdateFirmwareResponse ignored -> processDefaultMessage();
+      default -> Optional.empty();
     };
   }
 
@@ -133,10 +152,10 @@ public class OcppConfigurationObserver16 implements OcppObserver {
       throws IOException {
     firmwareVersion = bootNotificationRequest16.getFirmwareVersion();
     // Get charge point from database
-    chargePointManager.setCurrentChargepoint(
+    chargePointManager.setCurrentChargepoint(referenceDataCache.attachConfiguration(
         chargepointRepository.findBySerialNumberChargePointAndConstructor(
             bootNotificationRequest16.getChargePointSerialNumber(),
-            bootNotificationRequest16.getChargePointVendor()));
+            bootNotificationRequest16.getChargePointVendor())));
     // If charge point is not found then skip it
     var currentChargepoint = chargePointManager.getCurrentChargepoint();
     if (currentChargepoint == null) {
@@ -204,7 +223,7 @@ public class OcppConfigurationObserver16 implements OcppObserver {
    */
   private Optional<OcppMessage> processConfigurationRequest() throws IOException {
     var currentChargepoint = chargePointManager.getCurrentChargepoint();
-    if (queue.isEmpty() && !loaded) {
+    if (nextChange >= changes.size() && !loaded) {
       loadKeyValue();
       loaded = true;
     }
@@ -212,7 +231,7 @@ public class OcppConfigurationObserver16 implements OcppObserver {
     chargepointRepository.save(currentChargepoint);
     // Dispatch information to users
     chargePointManager.notifyStatusUpdate();
-    var config = queue.poll();
+    var config = pollChange();
     if (config == null && (loaded && !lastOrderModeOn)) {
       prepareLastOrder();
       lastOrderModeOn = true;
@@ -251,20 +270,24 @@ public class OcppConfigurationObserver16 implements OcppObserver {
     return switch (response.getStatus()) {
       case ACCEPTED, REBOOT_REQUIRED -> processConfigurationRequest();
       default -> {
-        logger.warn(new BusinessLog(
-            null,
-            currentChargepoint,
-            BusinessLogEntity.Category.CONFIG,
-            "configuration for the chargepoint ("
-                + currentChargepoint.getSerialNumberChargePoint()
-                + ") has failed, see its status ! "));
+        logger.log(
+            Level.WARN,
+            new BusinessLog(
+                null,
+                currentChargepoint,
+                BusinessLogEntity.Category.CONFIG,
+                "configuration for the chargepoint ("
+                    + currentChargepoint.getSerialNumberChargePoint()
+                    + ") has failed, see its status ! "),
+            LogContext.action(OcppActionRegistry.actionName(response)));
         currentChargepoint.setStatus(Chargepoint.StatusProcess.FAILED);
         currentChargepoint.setError(response.getStatus().name());
         chargepointRepository.save(currentChargepoint);
         // Dispatch information to users
         chargePointManager.notifyStatusUpdate();
         chargePointManager.notifyProcess();
-        queue.clear();
+        changes = List.of();
+        nextChange = 0;
         yield Optional.empty();
       }
     };
@@ -279,27 +302,38 @@ public class OcppConfigurationObserver16 implements OcppObserver {
         "configuration for the chargepoint ("
             + currentChargepoint.getSerialNumberChargePoint()
             + ") is almost done, sending last order ! "));
-    var clientId = currentChargepoint.getClientId();
-    var changeConfig = new ChangeConfigurationBuilder()
-        .withKey(ConfigurationTranscriptor.CHARGEPOINT_IDENTITY
-            .getOcpp16Key()
-            .getFirmwareKeyAccordingToVersion(firmwareVersion))
-        .withValue(clientId)
-        .build();
-    queue.add(changeConfig);
+    var lastOrders = new ArrayList<Map.Entry<ConfigurationTranscriptor, String>>();
+    lastOrders.add(new AbstractMap.SimpleImmutableEntry<>(
+        ConfigurationTranscriptor.CHARGEPOINT_IDENTITY, currentChargepoint.getClientId()));
     var finalServerAddress = System.getenv("FINAL_WS_SERVER_ADDRESS");
     if (finalServerAddress != null) {
-      changeConfig = new ChangeConfigurationBuilder()
-          .withKey(ConfigurationTranscriptor.NETWORK_PROFILE
-              .getOcpp16Key()
-              .getFirmwareKeyAccordingToVersion(firmwareVersion))
-          .withValue(ConfigurationTranscriptor.NETWORK_PROFILE
+      lastOrders.add(new AbstractMap.SimpleImmutableEntry<>(
+          ConfigurationTranscriptor.NETWORK_PROFILE,
+          ConfigurationTranscriptor.NETWORK_PROFILE
               .getOcpp16Key()
               .getValueFormatAccordingToVersion(firmwareVersion)
-              .formatted(finalServerAddress))
-          .build();
-      queue.add(changeConfig);
+              .formatted(finalServerAddress)));
     }
+    changes = lastOrders;
+    nextChange = 0;
+  }
+
+  /**
+   * Returns the next change to send, null if there is none left.
+   */
+  private ChangeConfiguration pollChange() {
+    if (nextChange >= changes.size()) {
+      return null;
+    }
+    return changeConfiguration(changes.get(nextChange++));
+  }
+
+  private ChangeConfiguration changeConfiguration(
+      Map.Entry<ConfigurationTranscriptor, String> change) {
+    return new ChangeConfigurationBuilder()
+        .withKey(change.getKey().getOcpp16Key().getFirmwareKeyAccordingToVersion(firmwareVersion))
+        .withValue(change.getValue())
+        .build();
   }
 
   /**
@@ -376,7 +410,7 @@ public class OcppConfigurationObserver16 implements OcppObserver {
     var currentChargepoint = chargePointManager.getCurrentChargepoint();
     var comparison = targetFirmwareVersion.compareTo(firmwareVersion);
     if (comparison > 0) {
-      var firmwares = firmwareRepository.findAllByTypeAllowedAsc(typeAllowed);
+      var firmwares = referenceDataCache.firmwaresCompatibleWith(typeAllowed);
       for (var firmware : firmwares) {
         if (firmware.getVersion().compareTo(firmwareVersion) > 0) {
           logger.info(new BusinessLog(
@@ -403,7 +437,7 @@ public class OcppConfigurationObserver16 implements OcppObserver {
               + ") : skipping to CONFIGURATION"));
       return null;
     } else if (comparison < 0) {
-      var firmwares = firmwareRepository.findAllByTypeAllowedDesc(typeAllowed);
+      var firmwares = referenceDataCache.firmwaresCompatibleWith(typeAllowed).reversed();
       for (var firmware : firmwares) {
         if (firmware.getVersion().compareTo(firmwareVersion) < 0) {
           logger.info(new BusinessLog(
@@ -496,29 +530,10 @@ public class OcppConfigurationObserver16 implements OcppObserver {
   private void loadKeyValue() {
     var currentChargepoint = chargePointManager.getCurrentChargepoint();
     // The change configuration list is empty, so we load the configuration
-    var configuration = currentChargepoint.getConfiguration().getConfiguration();
-    var mapper = new ObjectMapper();
+    ConfigurationDocument document;
     try {
-      // Cast
-      HashMap<String, String> configMap = mapper.readValue(configuration, HashMap.class);
-      configMap.forEach((key, value) -> {
-        var configMessage = new ChangeConfigurationBuilder()
-            .withKey(ConfigurationTranscriptor.idToEnum(Integer.parseInt(key))
-                .getOcpp16Key()
-                .getFirmwareKeyAccordingToVersion(firmwareVersion))
-            .withValue(value)
-            .build();
-        queue.add(configMessage);
-        logger.info(new BusinessLog(
-            null,
-            currentChargepoint,
-            BusinessLogEntity.Category.CONFIG,
-            "added configuration in the waiting list for the chargepoint ("
-                + currentChargepoint.getSerialNumberChargePoint()
-                + ") : "
-                + configMessage));
-      });
-    } catch (JsonProcessingException e) {
+      document = currentChargepoint.getConfiguration().getDocument();
+    } catch (IllegalArgumentException e) {
       logger.error(new BusinessLog(
           null,
           currentChargepoint,
@@ -526,6 +541,19 @@ public class OcppConfigurationObserver16 implements OcppObserver {
           "couldn't read configuration for the chargepoint ("
               + currentChargepoint.getSerialNumberChargePoint()
               + "): " + e.getMessage()));
+      return;
+    }
+    changes = document.entries();
+    nextChange = 0;
+    for (var change : changes) {
+      logger.info(new BusinessLog(
+          null,
+          currentChargepoint,
+          BusinessLogEntity.Category.CONFIG,
+          "added configuration in the waiting list for the chargepoint ("
+              + currentChargepoint.getSerialNumberChargePoint()
+              + ") : "
+              + changeConfiguration(change)));
     }
   }
 
@@ -534,9 +562,9 @@ public class OcppConfigurationObserver16 implements OcppObserver {
     if (currentChargepoint == null) {
       return processResetRequest();
     }
-    chargePointManager.setCurrentChargepoint(
+    chargePointManager.setCurrentChargepoint(referenceDataCache.attachConfiguration(
         chargepointRepository.findBySerialNumberChargePointAndConstructor(
-            currentChargepoint.getSerialNumberChargePoint(), currentChargepoint.getConstructor()));
+            currentChargepoint.getSerialNumberChargePoint(), currentChargepoint.getConstructor())));
     currentChargepoint = chargePointManager.getCurrentChargepoint();
     var step = currentChargepoint.getStep();
     var status = currentChargepoint.getStatus();
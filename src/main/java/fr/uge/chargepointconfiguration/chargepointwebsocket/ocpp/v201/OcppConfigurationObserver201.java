@@ -25,15 +25,10 @@ package fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201;
 import static fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.RegistrationStatusEnum.ACCEPTED;
 import static fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.RegistrationStatusEnum.REJECTED;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import fr.uge.chargepointconfiguration.chargepoint.Chargepoint;
 import fr.uge.chargepointconfiguration.chargepoint.ChargepointRepository;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ChargePointManager;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.OcppMessageSender;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.WebSocketMessage;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.WebSocketRequestMessage;
-import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.MessageType;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppMessage;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppObserver;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.BootNotificationResponse.BootNotificationResponseBuilder;
@@ -41,39 +36,47 @@ import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.Component.
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.SetVariableData.SetVariableDataBuilder;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.SetVariablesRequest.SetVariablesRequestBuilder;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.Variable.VariableBuilder;
-import fr.uge.chargepointconfiguration.tools.JsonParser;
+import fr.uge.chargepointconfiguration.configuration.ReferenceDataCache;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
+import java.util.Set;
 
 /**
  * Defines the OCPP configuration message for the visitor.
  */
 public class OcppConfigurationObserver201 implements OcppObserver {
-  private static final JsonParser jsonParser = new JsonParser();
+  private static final Set<Class<? extends OcppMessage>> HANDLED_MESSAGES =
+      Set.of(BootNotificationRequest.class, SetVariablesResponse.class);
   private final OcppMessageSender sender;
   private final ChargePointManager chargePointManager;
   private final ChargepointRepository chargepointRepository;
-  private final Queue<SetVariableData> queue = new LinkedList<>();
+  private final ReferenceDataCache referenceDataCache;
 
   /**
    * Constructor for the OCPP 2.0 configuration observer.
    *
    * @param sender                websocket channel to send message
    * @param chargepointRepository charge point repository
+   * @param referenceDataCache    cache of the configurations
    */
   public OcppConfigurationObserver201(
       OcppMessageSender sender,
       ChargePointManager chargePointManager,
-      ChargepointRepository chargepointRepository) {
+      ChargepointRepository chargepointRepository,
+      ReferenceDataCache referenceDataCache) {
     this.sender = sender;
     this.chargePointManager = chargePointManager;
     this.chargepointRepository = chargepointRepository;
+    this.referenceDataCache = referenceDataCache;
+  }
+
+  @Override
+  public boolean handles(Class<? extends OcppMessage> type) {
+    return HANDLED_MESSAGES.contains(type);
   }
 
   @Override
@@ -98,10 +101,10 @@ public class OcppConfigurationObserver201 implements OcppObserver {
       throws IOException {
 
     // Get charge point from database
-    chargePointManager.setCurrentChargepoint(
+    chargePointManager.setCurrentChargepoint(referenceDataCache.attachConfiguration(
         chargepointRepository.findBySerialNumberChargePointAndConstructor(
             bootNotificationRequest.getChargingStation().getSerialNumber(),
-            bootNotificationRequest.getChargingStation().getVendorName()));
+            bootNotificationRequest.getChargingStation().getVendorName())));
     var currentChargepoint = chargePointManager.getCurrentChargepoint();
     // If charge point is not found then skip it
     if (currentChargepoint == null) {
@@ -158,25 +161,21 @@ public class OcppConfigurationObserver201 implements OcppObserver {
       chargePointManager.notifyStatusUpdate();
       return;
     }
-    var mapper = new ObjectMapper();
-    HashMap<String, HashMap<String, String>> configMap;
+    Map<String, Map<String, String>> variables;
     try {
-      configMap = mapper.readValue(configuration.getConfiguration(), HashMap.class);
-    } catch (JsonProcessingException e) {
+      variables = configuration.getDocument().ocpp201Variables();
+    } catch (IllegalArgumentException e) {
       return;
     }
-    for (var component : configMap.keySet()) {
-      var componentConfig = configMap.get(component);
-      for (var key : componentConfig.keySet()) {
-        var value = componentConfig.get(key);
-        queue.add(new SetVariableDataBuilder()
-            .withAttributeValue(value)
-            .withComponent(new ComponentBuilder().withName(component).build())
-            .withVariable(new VariableBuilder().withName(key).build())
-            .build());
-      }
-    }
-    if (queue.isEmpty()) {
+    var setVariableData = new ArrayList<SetVariableData>();
+    variables.forEach((component, componentVariables) ->
+        componentVariables.forEach((variable, value) -> setVariableData.add(
+            new SetVariableDataBuilder()
+                .withAttributeValue(value)
+                .withComponent(new ComponentBuilder().withName(component).build())
+                .withVariable(new VariableBuilder().withName(variable).build())
+                .build())));
+    if (setVariableData.isEmpty()) {
       currentChargepoint.setStatus(Chargepoint.StatusProcess.FINISHED);
       chargepointRepository.save(currentChargepoint);
       // Dispatch information to users
@@ -187,19 +186,10 @@ public class OcppConfigurationObserver201 implements OcppObserver {
       chargepointRepository.save(currentChargepoint);
       // Dispatch information to users
       chargePointManager.notifyStatusUpdate();
-      var setVariableData = new ArrayList<
-          fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.SetVariableData>();
-      while (!queue.isEmpty()) {
-        setVariableData.add(queue.poll());
-      }
       var setVariableRequest =
           new SetVariablesRequestBuilder().withSetVariableData(setVariableData).build();
+      // The sender keeps the request pending
       sender.sendMessage(setVariableRequest, chargePointManager);
-      chargePointManager.setPendingRequest(new WebSocketRequestMessage(
-          MessageType.REQUEST.getCallType(),
-          chargePointManager.getCurrentId(),
-          WebSocketMessage.MessageTypeRequest.SET_VARIABLES_REQUEST,
-          jsonParser.objectToJsonString(setVariableRequest)));
     }
   }
 
@@ -23,15 +23,20 @@
 package fr.uge.chargepointconfiguration.configuration;
 
 import fr.uge.chargepointconfiguration.firmware.Firmware;
+import fr.uge.chargepointconfiguration.shared.CountingEntityListener;
+import fr.uge.chargepointconfiguration.shared.FieldSelection;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -44,6 +49,7 @@ import org.hibernate.annotations.CreationTimestamp;
  */
 @Entity
 @Table(name = "configuration")
+@EntityListeners(CountingEntityListener.class)
 public class Configuration {
 
   public static final int NO_CONFIG_ID = -1;
@@ -69,10 +75,13 @@ public class Configuration {
   @Column(name = "configuration", nullable = false)
   private String configuration;
 
-  @ManyToOne(cascade = CascadeType.ALL)
+  @ManyToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   @JoinColumn(name = "id_firmware", referencedColumnName = "id_firmware")
   private Firmware firmware;
 
+  @Transient
+  private ConfigurationDocument document;
+
   /**
    * Configuration's constructor.
    *
@@ -154,6 +163,30 @@ public class Configuration {
 
   public void setConfiguration(String configuration) {
     this.configuration = configuration;
+    document = null;
+  }
+
+  /**
+   * Sets the configuration from an already parsed document.
+   *
+   * @param document the parsed configuration.
+   */
+  public void setDocument(ConfigurationDocument document) {
+    this.configuration = document.source();
+    this.document = document;
+  }
+
+  /**
+   * Returns the parsed configuration, only parsed once for each edit.
+   *
+   * @return the {@link ConfigurationDocument} of this configuration.
+   * @throws IllegalArgumentException if the stored JSON is invalid.
+   */
+  public ConfigurationDocument getDocument() {
+    if (document == null || !document.source().equals(configuration)) {
+      document = ConfigurationDocument.of(id, lastEdit, configuration);
+    }
+    return document;
   }
 
   public Firmware getFirmware() {
@@ -187,13 +220,33 @@ public class Configuration {
   }
 
   public ConfigurationDto toDto() {
+    return toDto(FieldSelection.ALL);
+  }
+
+  /**
+   * Converts the configuration into its DTO.<br>
+   * The configuration keys are only translated, and the firmware only loaded, when selected.
+   *
+   * @param fields the properties requested.
+   * @return the {@link ConfigurationDto}.
+   */
+  public ConfigurationDto toDto(FieldSelection fields) {
     return new ConfigurationDto(
         id,
         name,
         description,
         Timestamp.valueOf(lastEdit),
-        ConfigurationDto.replaceIntToKey(configuration),
-        firmware == null ? null : firmware.toDto());
+        fields.includes("configuration") ? displayedConfiguration() : null,
+        firmware == null || !fields.includes("firmware") ? null : firmware.toDto());
+  }
+
+  private String displayedConfiguration() {
+    try {
+      return getDocument().display();
+    } catch (IllegalArgumentException e) {
+      // A configuration stored before the validation of the JSON is shown as is
+      return configuration;
+    }
   }
 
   @Override
@@ -22,9 +22,14 @@
  */
 package fr.uge.chargepointconfiguration.configuration;
 
+import fr.uge.chargepointconfiguration.shared.CacheStatisticsDto;
+import fr.uge.chargepointconfiguration.shared.FieldSelection;
 import fr.uge.chargepointconfiguration.shared.PageDto;
+import fr.uge.chargepointconfiguration.shared.SerializedSnapshots;
+import fr.uge.chargepointconfiguration.shared.TotalMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -57,20 +62,31 @@ import org.springframework.web.bind.annotation.RestController;
 public class ConfigurationController {
 
   private final ConfigurationService configurationService;
+  private final SerializedSnapshots serializedSnapshots;
+  private final ReferenceDataCache referenceDataCache;
 
   /**
    * ConfigurationController's constructor.
    *
    * @param configurationService A ConfigurationService doing database manipulations.
+   * @param serializedSnapshots The serialized list of all the configurations.
+   * @param referenceDataCache The cache of the configurations read by the chargepoints.
    */
   @Autowired
-  public ConfigurationController(ConfigurationService configurationService) {
+  public ConfigurationController(
+      ConfigurationService configurationService,
+      SerializedSnapshots serializedSnapshots,
+      ReferenceDataCache referenceDataCache) {
     this.configurationService = configurationService;
+    this.serializedSnapshots = serializedSnapshots;
+    this.referenceDataCache = referenceDataCache;
   }
 
   /**
-   * Returns a list of all configuration without the configuration.
+   * Returns a list of all configuration without the configuration.<br>
+   * The complete list is served from a snapshot, with an ETag.
    *
+   * @param fields The properties to return, all of them if empty.
    * @return A list of all the configuration.
    */
   @Operation(summary = "Get all configuration")
@@ -80,13 +96,24 @@ public class ConfigurationController {
       content =
           @Content(
               mediaType = "application/json",
-              schema = @Schema(implementation = ConfigurationDto.class)))
+              array = @ArraySchema(schema = @Schema(implementation = ConfigurationDto.class))))
   @GetMapping(value = "/all")
   @PreAuthorize("hasRole('VISUALIZER')")
-  public List<ConfigurationDto> getAllConfiguration() {
-    return configurationService.getAllConfigurations().stream()
-        .map(Configuration::toDto)
-        .toList();
+  public ResponseEntity<List<ConfigurationDto>> getAllConfiguration(
+      @Parameter(description = "Comma-separated properties to return, all of them if empty.")
+          @RequestParam(required = false, defaultValue = "")
+          String fields) {
+    var selection = FieldSelection.parse(fields, ConfigurationDto.class);
+    if (fields.isBlank()) {
+      return serializedSnapshots.respond(
+          Configuration.class,
+          () -> configurationService.getAllConfigurations(selection).stream()
+              .map(Configuration::toDto)
+              .toList());
+    }
+    return ResponseEntity.ok(configurationService.getAllConfigurations(selection).stream()
+        .map(configuration -> configuration.toDto(selection))
+        .toList());
   }
 
   /**
@@ -224,6 +251,47 @@ public class ConfigurationController {
         .toList();
   }
 
+  /**
+   * Validates several configurations at once, without saving them.<br>
+   * Used before bulk imports or migrations of configurations.
+   *
+   * @param configurations The JSON of each configuration.
+   * @return the violations of each configuration, in the same order.
+   */
+  @Operation(summary = "Validate several configurations")
+  @ApiResponse(
+      responseCode = "200",
+      description = "The violations of each configuration.",
+      content =
+          @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ConfigurationValidationDto.class)))
+  @PostMapping("/validate")
+  @PreAuthorize("hasRole('EDITOR')")
+  public List<ConfigurationValidationDto> validateConfigurations(
+      @RequestBody List<String> configurations) {
+    return configurationService.validateAll(configurations);
+  }
+
+  /**
+   * Returns the statistics of the cache of the reference data read by the chargepoints.
+   *
+   * @return the hits, misses and evictions of each cache.
+   */
+  @Operation(summary = "Get the statistics of the reference data cache")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Found the statistics of the reference data cache.",
+      content =
+          @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = CacheStatisticsDto.class)))
+  @GetMapping(value = "/cache")
+  @PreAuthorize("hasRole('ADMINISTRATOR')")
+  public List<CacheStatisticsDto> getCacheStatistics() {
+    return referenceDataCache.statistics();
+  }
+
   /**
    * Search for {@link ConfigurationDto} with a pagination.
    *
@@ -262,15 +330,26 @@ public class ConfigurationController {
           String order,
       @Parameter(description = "The request used to search.")
           @RequestParam(required = false, defaultValue = "")
-          String request) {
-    var total = configurationService.countTotalWithFilter(request);
+          String request,
+      @Parameter(description = "How the total must be computed : EXACT, ESTIMATED or NONE.")
+          @RequestParam(required = false, defaultValue = "EXACT")
+          TotalMode totalMode,
+      @Parameter(description = "Comma-separated properties to return, all of them if empty.")
+          @RequestParam(required = false, defaultValue = "")
+          String fields) {
+    var selection = FieldSelection.parse(fields, ConfigurationDto.class);
+    var total = totalMode.resolve(
+        () -> configurationService.countTotalWithFilter(request),
+        () -> configurationService.estimateTotalWithFilter(request));
     var totalElement = configurationService.count();
 
     var data = configurationService
         .search(
-            request, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(order), sortBy)))
+            request,
+            PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(order), sortBy)),
+            selection)
         .stream()
-        .map(Configuration::toDto)
+        .map(configuration -> configuration.toDto(selection))
         .toList();
 
     return new PageDto<>(total, totalElement, page, size, data);
@@ -0,0 +1,224 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.configuration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.uge.chargepointconfiguration.shared.BoundedCache;
+import fr.uge.chargepointconfiguration.shared.CacheStatisticsDto;
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The parsed form of the JSON stored in {@link Configuration}, whose keys are the ids of
+ * the {@link ConfigurationTranscriptor}.<br>
+ * A document is immutable and parsed once for each (id, last edit) of a configuration ;
+ * the form displayed to the users and the OCPP 2.0.1 variables are rendered at parse time,
+ * so the consumers never read the JSON again.
+ */
+public final class ConfigurationDocument {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final TypeReference<LinkedHashMap<String, Object>> FIELDS =
+      new TypeReference<>() {};
+  private static final Map<String, ConfigurationTranscriptor> TRANSCRIPTORS_BY_KEY =
+      Arrays.stream(ConfigurationTranscriptor.values())
+          .collect(Collectors.toUnmodifiableMap(
+              transcriptor -> String.valueOf(transcriptor.getId()), Function.identity()));
+  private static final BoundedCache<DocumentKey, ConfigurationDocument> DOCUMENTS =
+      new BoundedCache<>("configurationDocuments", 1024);
+
+  private final String source;
+  private final Map<ConfigurationTranscriptor, String> values;
+  private final List<Map.Entry<ConfigurationTranscriptor, String>> entries;
+  private final List<String> unknownKeys;
+  private final String display;
+  private final Map<String, Map<String, String>> ocpp201Variables;
+
+  private record DocumentKey(int id, LocalDateTime lastEdit) {}
+
+  private ConfigurationDocument(
+      String source,
+      Map<ConfigurationTranscriptor, String> values,
+      List<String> unknownKeys,
+      String display) {
+    this.source = source;
+    this.values = Collections.unmodifiableMap(values);
+    this.entries = values.entrySet().stream()
+        .<Map.Entry<ConfigurationTranscriptor, String>>map(
+            entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()))
+        .toList();
+    this.unknownKeys = List.copyOf(unknownKeys);
+    this.display = display;
+    var variables = new LinkedHashMap<String, Map<String, String>>();
+    values.forEach((transcriptor, value) -> {
+      // Keys without OCPP 2.0.1 variable can not be sent to these chargepoints
+      if (transcriptor.hasOcpp20Variable()) {
+        variables
+            .computeIfAbsent(transcriptor.getComponentName(), component -> new LinkedHashMap<>())
+            .put(transcriptor.getOcpp20Key(), value);
+      }
+    });
+    variables.replaceAll(
+        (component, componentVariables) -> Collections.unmodifiableMap(componentVariables));
+    this.ocpp201Variables = Collections.unmodifiableMap(variables);
+  }
+
+  /**
+   * Parses the JSON of a configuration.<br>
+   * The keys which are not the id of a {@link ConfigurationTranscriptor} are kept apart.
+   *
+   * @param json the JSON of the configuration, an object of string values.
+   * @return the parsed document.
+   * @throws IllegalArgumentException if the JSON is not an object of scalar values.
+   */
+  public static ConfigurationDocument parse(String json) {
+    Objects.requireNonNull(json);
+    Map<String, Object> fields;
+    try {
+      fields = MAPPER.readValue(json, FIELDS);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Invalid configuration JSON : " + json, e);
+    }
+    if (fields == null) {
+      throw new IllegalArgumentException("Invalid configuration JSON : " + json);
+    }
+    var values = new LinkedHashMap<ConfigurationTranscriptor, String>();
+    var unknownKeys = new ArrayList<String>();
+    var display = new LinkedHashMap<String, String>();
+    fields.forEach((key, value) -> {
+      if (value instanceof Map<?, ?> || value instanceof List<?>) {
+        throw new IllegalArgumentException("The value of the key " + key + " is not a scalar");
+      }
+      var text = value == null ? null : value.toString();
+      var transcriptor = TRANSCRIPTORS_BY_KEY.get(key);
+      if (transcriptor == null) {
+        unknownKeys.add(key);
+        display.put(key, text);
+      } else {
+        values.put(transcriptor, text);
+        display.put(transcriptor.getFullName(), text);
+      }
+    });
+    try {
+      return new ConfigurationDocument(
+          json, values, unknownKeys, MAPPER.writeValueAsString(display));
+    } catch (JsonProcessingException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * Returns the document of a stored configuration, parsing it only if the configuration
+   * was edited since the last call.
+   *
+   * @param id       the id of the configuration.
+   * @param lastEdit the last edit of the configuration.
+   * @param json     the JSON of the configuration.
+   * @return the parsed document.
+   * @throws IllegalArgumentException if the JSON is not an object of scalar values.
+   */
+  static ConfigurationDocument of(int id, LocalDateTime lastEdit, String json) {
+    Objects.requireNonNull(json);
+    if (lastEdit == null) {
+      return parse(json);
+    }
+    var document = DOCUMENTS.get(new DocumentKey(id, lastEdit), key -> parse(json));
+    // Two edits in the same second share the same last edit once stored
+    return document.source.equals(json) ? document : parse(json);
+  }
+
+  /**
+   * Returns the statistics of the cache of the parsed documents.
+   *
+   * @return the {@link CacheStatisticsDto} of the documents.
+   */
+  public static CacheStatisticsDto statistics() {
+    return DOCUMENTS.statistics();
+  }
+
+  /**
+   * Returns the JSON this document was parsed from.
+   *
+   * @return the source JSON.
+   */
+  public String source() {
+    return source;
+  }
+
+  /**
+   * Returns the value of each known key, in the order of the JSON.
+   *
+   * @return an unmodifiable map of the values.
+   */
+  public Map<ConfigurationTranscriptor, String> values() {
+    return values;
+  }
+
+  /**
+   * Returns the value of each known key as a list, in the order of the JSON.<br>
+   * A chargepoint being configured only keeps its position in this shared list.
+   *
+   * @return an unmodifiable list of the values.
+   */
+  public List<Map.Entry<ConfigurationTranscriptor, String>> entries() {
+    return entries;
+  }
+
+  /**
+   * Returns the keys which are not the id of a {@link ConfigurationTranscriptor}.
+   *
+   * @return the unknown keys, in the order of the JSON.
+   */
+  public List<String> unknownKeys() {
+    return unknownKeys;
+  }
+
+  /**
+   * Returns the JSON shown to the users, the ids being replaced by the full names.
+   *
+   * @return the JSON displayed.
+   */
+  public String display() {
+    return display;
+  }
+
+  /**
+   * Returns the values to set on an OCPP 2.0.1 chargepoint, by component and variable.
+   *
+   * @return an unmodifiable map of the variables of each component.
+   */
+  public Map<String, Map<String, String>> ocpp201Variables() {
+    return ocpp201Variables;
+  }
+}
@@ -22,10 +22,16 @@
  */
 package fr.uge.chargepointconfiguration.configuration;
 
+import fr.uge.chargepointconfiguration.shared.SliceSpecificationExecutor;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
@@ -37,8 +43,20 @@ import org.springframework.stereotype.Repository;
 public interface ConfigurationRepository
     extends CrudRepository<Configuration, Integer>,
         PagingAndSortingRepository<Configuration, Integer>,
-        JpaSpecificationExecutor<Configuration> {
+        JpaSpecificationExecutor<Configuration>,
+        SliceSpecificationExecutor<Configuration> {
+  @EntityGraph(attributePaths = "firmware")
   List<Configuration> findAllByOrderByIdDesc();
 
   Page<Configuration> findAllByOrderByIdDesc(Pageable pageable);
+
+  /**
+   * Returns a configuration with its firmware and the types allowed of the firmware, read-only.
+   *
+   * @param id the id of the configuration.
+   * @return the configuration, or empty if there is none with this id.
+   */
+  @EntityGraph(attributePaths = {"firmware", "firmware.typesAllowed"})
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  Optional<Configuration> findWithFirmwareById(int id);
 }
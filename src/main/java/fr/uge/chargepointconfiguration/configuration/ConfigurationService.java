@@ -22,22 +22,23 @@
  */
 package fr.uge.chargepointconfiguration.configuration;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
 import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
 import fr.uge.chargepointconfiguration.firmware.FirmwareRepository;
 import fr.uge.chargepointconfiguration.logs.CustomLogger;
 import fr.uge.chargepointconfiguration.logs.sealed.BusinessLog;
 import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.shared.EntityCountRegistry;
+import fr.uge.chargepointconfiguration.shared.FieldSelection;
 import fr.uge.chargepointconfiguration.shared.SearchUtils;
-import fr.uge.chargepointconfiguration.tools.JsonParser;
+import fr.uge.chargepointconfiguration.shared.SerializedSnapshots;
 import fr.uge.chargepointconfiguration.user.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
 
 /**
@@ -50,31 +51,39 @@ public class ConfigurationService {
   private final FirmwareRepository firmwareRepository;
   private final UserService userService;
   private final CustomLogger logger;
-  private final JsonParser jsonParser;
-
-  record ConfigurationJson(
-      @JsonProperty("1") String lightIntensity,
-      @JsonProperty("4") String localAuthList,
-      @JsonProperty("5") String stationMaxCurrent,
-      @JsonProperty("6") String stationPassword) {}
+  private final EntityCountRegistry entityCountRegistry;
+  private final SerializedSnapshots serializedSnapshots;
+  private final ReferenceDataCache referenceDataCache;
+  private final ConfigurationValidator configurationValidator;
 
   /**
    * ConfigurationService's constructor.
    *
    * @param configurationRepository A ConfigurationRepository accessing to database.
    * @param firmwareRepository      A FirmwareRepository accessing to database.
+   * @param entityCountRegistry     The in-memory counts of the entities.
+   * @param serializedSnapshots     The serialized lists of configurations.
+   * @param referenceDataCache      The cache of the configurations read by the chargepoints.
+   * @param configurationValidator  The validator of the configurations.
    */
   @Autowired
   public ConfigurationService(
       ConfigurationRepository configurationRepository,
       FirmwareRepository firmwareRepository,
       UserService userService,
-      CustomLogger logger) {
+      CustomLogger logger,
+      EntityCountRegistry entityCountRegistry,
+      SerializedSnapshots serializedSnapshots,
+      ReferenceDataCache referenceDataCache,
+      ConfigurationValidator configurationValidator) {
     this.configurationRepository = configurationRepository;
     this.firmwareRepository = firmwareRepository;
     this.userService = userService;
     this.logger = logger;
-    this.jsonParser = new JsonParser();
+    this.entityCountRegistry = entityCountRegistry;
+    this.serializedSnapshots = serializedSnapshots;
+    this.referenceDataCache = referenceDataCache;
+    this.configurationValidator = configurationValidator;
   }
 
   /**
@@ -93,13 +102,16 @@ public class ConfigurationService {
         .orElseThrow(() -> new EntityNotFoundException(
             "Aucun firmware avec l'id " + createConfigurationDto.firmware()));
 
-    checkerConfig(createConfigurationDto);
-
-    var configuration = configurationRepository.save(new Configuration(
+    var document = configurationValidator.validate(createConfigurationDto.configuration());
+    var created = new Configuration(
         createConfigurationDto.name(),
         createConfigurationDto.description(),
-        createConfigurationDto.configuration(),
-        firmware));
+        document.source(),
+        firmware);
+    created.setDocument(document);
+    var configuration = configurationRepository.save(created);
+    serializedSnapshots.invalidate(Configuration.class);
+    referenceDataCache.invalidate(Configuration.class);
     logger.info(new BusinessLog(
         userService.getAuthenticatedUser(),
         null,
@@ -108,39 +120,14 @@ public class ConfigurationService {
     return configuration.toDto();
   }
 
-  private void checkerConfig(CreateConfigurationDto createConfigurationDto) {
-    var confJson =
-        jsonParser.stringToObject(ConfigurationJson.class, createConfigurationDto.configuration());
-
-    var transcriptorsById = Arrays.stream(ConfigurationTranscriptor.values())
-        .collect(Collectors.toMap(ConfigurationTranscriptor::getId, e -> e));
-
-    Arrays.stream(confJson.getClass().getDeclaredFields()).forEach(field -> {
-      try {
-        if (field.get(confJson) == null) {
-          return;
-        }
-      } catch (IllegalAccessException e) {
-        throw new AssertionError(e);
-      }
-      String key = field.getAnnotation(JsonProperty.class).value();
-      try {
-        var idTranscriptor = Integer.parseInt(key);
-        var valid = field
-            .get(confJson)
-            .toString()
-            .matches(transcriptorsById.get(idTranscriptor).getRegexRule());
-        if (!valid) {
-          throw new BadRequestException(
-              "Le champs \"" + transcriptorsById.get(idTranscriptor).getFullName()
-                  + "\" ne respecte pas ses contraintes.");
-        }
-      } catch (NumberFormatException e) {
-        throw new BadRequestException("La clé " + key + " n'existe pas", e);
-      } catch (IllegalAccessException e) {
-        throw new AssertionError(e);
-      }
-    });
+  /**
+   * Validates several configurations without saving them.
+   *
+   * @param configurations the JSON of each configuration.
+   * @return the violations of each configuration, in the same order.
+   */
+  public List<ConfigurationValidationDto> validateAll(List<String> configurations) {
+    return configurationValidator.validateAll(configurations);
   }
 
   /**
@@ -155,11 +142,11 @@ public class ConfigurationService {
         .findById(id)
         .orElseThrow(() -> new EntityNotFoundException("Aucune configuration avec l'id " + id));
 
-    checkerConfig(configurationDto);
+    var document = configurationValidator.validate(configurationDto.configuration());
 
     configuration.setName(configurationDto.name());
     configuration.setDescription(configurationDto.description());
-    configuration.setConfiguration(configurationDto.configuration());
+    configuration.setDocument(document);
     configuration.setLastEdit(LocalDateTime.now());
 
     configuration.setFirmware(firmwareRepository
@@ -168,11 +155,13 @@ public class ConfigurationService {
             "Aucun firmware avec l'id " + configurationDto.firmware())));
 
     var result = configurationRepository.save(configuration);
+    serializedSnapshots.invalidate(Configuration.class);
+    referenceDataCache.invalidate(Configuration.class);
     logger.info(new BusinessLog(
         userService.getAuthenticatedUser(),
         null,
         BusinessLogEntity.Category.CONFIG,
-        "Configuration updated : " + configuration));
+        "Configuration updated : " + result));
 
     return result;
   }
@@ -180,10 +169,15 @@ public class ConfigurationService {
   /**
    * Get all the configurations.
    *
+   * @param fields the properties requested, the firmware is only joined if selected.
    * @return A list of configurations.
    */
-  public List<Configuration> getAllConfigurations() {
-    return configurationRepository.findAllByOrderByIdDesc().stream().toList();
+  public List<Configuration> getAllConfigurations(FieldSelection fields) {
+    if (fields.includes("firmware")) {
+      return configurationRepository.findAllByOrderByIdDesc();
+    }
+    return Streamable.of(configurationRepository.findAll(Sort.by(Sort.Direction.DESC, "id")))
+        .toList();
   }
 
   /**
@@ -204,6 +198,23 @@ public class ConfigurationService {
    * @return the amount of entities with the constraint of the given request
    */
   public long countTotalWithFilter(String request) {
+    return entityCountRegistry.countWithFilter(
+        Configuration.class, request, () -> countInDatabase(request));
+  }
+
+  /**
+   * Estimate the number of entities with the constraint of the given request.<br>
+   * The last known count is reused, even if entities were created since then.
+   *
+   * @param request the request used to search
+   * @return the estimated amount of entities with the constraint of the given request
+   */
+  public long estimateTotalWithFilter(String request) {
+    return entityCountRegistry.estimateWithFilter(
+        Configuration.class, request, () -> countInDatabase(request));
+  }
+
+  private long countInDatabase(String request) {
     try {
       var condition = SearchUtils.computeSpecification(request, Configuration.class);
       return configurationRepository.count(condition);
@@ -213,7 +224,7 @@ public class ConfigurationService {
   }
 
   public long count() {
-    return configurationRepository.count();
+    return entityCountRegistry.count(Configuration.class, configurationRepository::count);
   }
 
   /**
@@ -221,12 +232,15 @@ public class ConfigurationService {
    *
    * @param request  the request used to search
    * @param pageable The page requested
+   * @param fields   the properties requested, the firmware is only joined if selected
    * @return the list of corresponding {@link Configuration}
    */
-  public List<Configuration> search(String request, PageRequest pageable) {
+  public List<Configuration> search(String request, PageRequest pageable, FieldSelection fields) {
+    SearchUtils.checkSort(pageable.getSort(), Configuration.class);
     try {
       var condition = SearchUtils.computeSpecification(request, Configuration.class);
-      return configurationRepository.findAll(condition, pageable).stream().toList();
+      var fetches = fields.includes("firmware") ? new String[] {"firmware"} : new String[0];
+      return configurationRepository.findSlice(condition, pageable, fetches).getContent();
     } catch (IllegalArgumentException e) {
       throw new BadRequestException("Requête invalide pour les filtres : " + request, e);
     }
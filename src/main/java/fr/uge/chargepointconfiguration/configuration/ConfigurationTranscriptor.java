@@ -66,6 +66,9 @@ public enum ConfigurationTranscriptor {
       "SecurityCtrlr",
       "^(?!.*[\\\\\",]).{10,40}$");
 
+  // Written instead of the OCPP 2.0.1 key and component while they are not known
+  private static final String UNKNOWN_OCPP20 = "UNKNOWN";
+
   private final int id;
   private final String fullName;
   private final FirmwareKey ocpp16Key;
@@ -144,6 +147,18 @@ public enum ConfigurationTranscriptor {
     return componentName;
   }
 
+  /**
+   * Returns whether the configuration can be sent to an OCPP 2.0.1 chargepoint.
+   *
+   * @return false if the OCPP 2.0.1 key or component is missing or not known yet.
+   */
+  public boolean hasOcpp20Variable() {
+    return !ocpp20Key.isEmpty()
+        && !componentName.isEmpty()
+        && !ocpp20Key.equals(UNKNOWN_OCPP20)
+        && !componentName.equals(UNKNOWN_OCPP20);
+  }
+
   /**
    * Returns the configuration's regex rule for the value.
    *
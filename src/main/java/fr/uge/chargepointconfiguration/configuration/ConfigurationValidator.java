@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.configuration;
+
+import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validates the configurations against the rules of the {@link ConfigurationTranscriptor}.<br>
+ * The rules are compiled once when the validator is built and the values are read from the
+ * parsed {@link ConfigurationDocument}, so validating a configuration only runs its matchers.
+ */
+@Component
+public class ConfigurationValidator {
+
+  private final Map<ConfigurationTranscriptor, Pattern> rules =
+      new EnumMap<>(ConfigurationTranscriptor.class);
+
+  /**
+   * ConfigurationValidator's constructor, compiling the rule of each transcriptor.
+   */
+  public ConfigurationValidator() {
+    for (var transcriptor : ConfigurationTranscriptor.values()) {
+      rules.put(transcriptor, Pattern.compile(transcriptor.getRegexRule()));
+    }
+  }
+
+  /**
+   * Parses and validates a configuration.
+   *
+   * @param json the JSON of the configuration.
+   * @return the parsed configuration.
+   * @throws BadRequestException with the first violation if the configuration is invalid.
+   */
+  public ConfigurationDocument validate(String json) {
+    Objects.requireNonNull(json);
+    ConfigurationDocument document;
+    try {
+      document = ConfigurationDocument.parse(json);
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("La configuration n'est pas un JSON valide", e);
+    }
+    var violations = violations(document);
+    if (!violations.isEmpty()) {
+      throw new BadRequestException(violations.getFirst());
+    }
+    return document;
+  }
+
+  /**
+   * Validates several configurations at once, the invalid ones do not stop the validation.
+   *
+   * @param jsons the JSON of each configuration.
+   * @return the violations of each configuration, in the same order.
+   */
+  public List<ConfigurationValidationDto> validateAll(List<String> jsons) {
+    Objects.requireNonNull(jsons);
+    var results = new ArrayList<ConfigurationValidationDto>(jsons.size());
+    for (var i = 0; i < jsons.size(); i++) {
+      var json = jsons.get(i);
+      List<String> violations;
+      try {
+        violations = json == null
+            ? List.of("La configuration n'est pas un JSON valide")
+            : violations(ConfigurationDocument.parse(json));
+      } catch (IllegalArgumentException e) {
+        violations = List.of("La configuration n'est pas un JSON valide");
+      }
+      results.add(new ConfigurationValidationDto(i, violations));
+    }
+    return results;
+  }
+
+  /**
+   * Returns the violations of a parsed configuration.
+   *
+   * @param document the parsed configuration.
+   * @return the message of each violation, empty if the configuration is valid.
+   */
+  public List<String> violations(ConfigurationDocument document) {
+    Objects.requireNonNull(document);
+    var violations = new ArrayList<String>();
+    for (var key : document.unknownKeys()) {
+      violations.add("La clé " + key + " n'existe pas");
+    }
+    document.values().forEach((transcriptor, value) -> {
+      if (value != null && !rules.get(transcriptor).matcher(value).matches()) {
+        violations.add(
+            "Le champs \"" + transcriptor.getFullName() + "\" ne respecte pas ses contraintes.");
+      }
+    });
+    return violations;
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.configuration;
+
+import fr.uge.chargepointconfiguration.chargepoint.Chargepoint;
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointRepository;
+import fr.uge.chargepointconfiguration.firmware.Firmware;
+import fr.uge.chargepointconfiguration.firmware.FirmwareRepository;
+import fr.uge.chargepointconfiguration.shared.BoundedCache;
+import fr.uge.chargepointconfiguration.shared.CacheStatisticsDto;
+import fr.uge.chargepointconfiguration.typeallowed.TypeAllowed;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local cache of the reference data read by the OCPP exchanges : the configurations with their
+ * firmware and types allowed, and the firmwares compatible with each type allowed.<br>
+ * The cached entities are detached and fully loaded ; they are shared between the chargepoints,
+ * so they are read without dirty checking and their collections are unmodifiable. The services
+ * invalidate them after each write.
+ */
+@Component
+public class ReferenceDataCache {
+  private final ChargepointRepository chargepointRepository;
+  private final ConfigurationRepository configurationRepository;
+  private final FirmwareRepository firmwareRepository;
+  private final BoundedCache<Integer, Configuration> configurations;
+  private final BoundedCache<Integer, List<Firmware>> firmwaresByTypeAllowed;
+
+  /**
+   * ReferenceDataCache's constructor.
+   *
+   * @param chargepointRepository   A ChargepointRepository accessing to database.
+   * @param configurationRepository A ConfigurationRepository accessing to database.
+   * @param firmwareRepository      A FirmwareRepository accessing to database.
+   * @param maxEntries              The maximum number of entries of each cache.
+   */
+  @Autowired
+  public ReferenceDataCache(
+      ChargepointRepository chargepointRepository,
+      ConfigurationRepository configurationRepository,
+      FirmwareRepository firmwareRepository,
+      @Value("${reference-cache.max-entries:256}") int maxEntries) {
+    this.chargepointRepository = chargepointRepository;
+    this.configurationRepository = configurationRepository;
+    this.firmwareRepository = firmwareRepository;
+    this.configurations = new BoundedCache<>("configurations", maxEntries);
+    this.firmwaresByTypeAllowed = new BoundedCache<>("firmwaresByTypeAllowed", maxEntries);
+  }
+
+  /**
+   * Replaces the lazy configuration of the given chargepoint by the cached one.<br>
+   * If the configuration cannot be cached, the chargepoint is read again with its whole
+   * configuration. The chargepoint can then be read outside any transaction.
+   *
+   * @param chargepoint the chargepoint read from the database, may be null.
+   * @return the chargepoint with a loaded configuration, null if it does not exist anymore.
+   */
+  public Chargepoint attachConfiguration(Chargepoint chargepoint) {
+    if (chargepoint == null || chargepoint.getConfiguration() == null) {
+      return chargepoint;
+    }
+    var configuration = configuration(chargepoint.getConfiguration().getId());
+    if (configuration == null) {
+      // The lazy configuration would fail outside the transaction
+      return chargepointRepository.findWithConfigurationById(chargepoint.getId());
+    }
+    chargepoint.setConfiguration(configuration);
+    return chargepoint;
+  }
+
+  /**
+   * Returns the configuration, with its firmware and the types allowed of the firmware.<br>
+   * The configuration is shared and must only be read.
+   *
+   * @param id the id of the configuration.
+   * @return the configuration, or null if there is none with this id.
+   */
+  public Configuration configuration(int id) {
+    return configurations.get(
+        id, key -> configurationRepository.findWithFirmwareById(key)
+            .map(ReferenceDataCache::readOnly)
+            .orElse(null));
+  }
+
+  /**
+   * Returns the firmwares compatible with the given type allowed, sorted by ascending version.
+   * <br>
+   * The firmwares are shared and must only be read.
+   *
+   * @param typeAllowed the type allowed.
+   * @return the unmodifiable list of the compatible firmwares.
+   */
+  public List<Firmware> firmwaresCompatibleWith(TypeAllowed typeAllowed) {
+    return firmwaresByTypeAllowed.get(
+        typeAllowed.getId(),
+        key -> firmwareRepository.findAllByTypeAllowedAsc(typeAllowed).stream()
+            .map(ReferenceDataCache::readOnly)
+            .toList());
+  }
+
+  private static Configuration readOnly(Configuration configuration) {
+    readOnly(configuration.getFirmware());
+    return configuration;
+  }
+
+  private static Firmware readOnly(Firmware firmware) {
+    firmware.setTypesAllowed(Collections.unmodifiableSet(firmware.getTypesAllowed()));
+    return firmware;
+  }
+
+  /**
+   * Invalidates the cached data depending on the given types of entities.
+   *
+   * @param types the types of the entities which changed.
+   */
+  public void invalidate(Class<?>... types) {
+    var changed = Set.of(types);
+    if (changed.contains(Configuration.class) || changed.contains(Firmware.class)) {
+      configurations.clear();
+    }
+    if (changed.contains(Firmware.class) || changed.contains(TypeAllowed.class)) {
+      firmwaresByTypeAllowed.clear();
+    }
+  }
+
+  /**
+   * Returns the statistics of the caches.
+   *
+   * @return the list of the {@link CacheStatisticsDto}.
+   */
+  public List<CacheStatisticsDto> statistics() {
+    return List.of(
+        configurations.statistics(),
+        firmwaresByTypeAllowed.statistics(),
+        ConfigurationDocument.statistics());
+  }
+}
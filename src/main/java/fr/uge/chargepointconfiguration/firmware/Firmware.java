@@ -22,11 +22,13 @@
  */
 package fr.uge.chargepointconfiguration.firmware;
 
+import fr.uge.chargepointconfiguration.shared.CountingEntityListener;
+import fr.uge.chargepointconfiguration.shared.FieldSelection;
 import fr.uge.chargepointconfiguration.typeallowed.TypeAllowed;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -37,6 +39,7 @@ import jakarta.persistence.Table;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.hibernate.annotations.BatchSize;
 
 /**
  * Firmware class represents a firmware in the database via JPA.<br>
@@ -45,6 +48,7 @@ import java.util.stream.Collectors;
  */
 @Entity
 @Table(name = "firmware")
+@EntityListeners(CountingEntityListener.class)
 public class Firmware {
 
   @Id
@@ -61,7 +65,8 @@ public class Firmware {
   @Column(name = "constructor", nullable = false, length = 45)
   private String constructor;
 
-  @ManyToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @ManyToMany(cascade = CascadeType.ALL)
+  @BatchSize(size = 64)
   @JoinTable(
       name = "compatibility",
       joinColumns = @JoinColumn(name = "id_firmware"),
@@ -147,12 +152,25 @@ public class Firmware {
   }
 
   public FirmwareDto toDto() {
+    return toDto(FieldSelection.ALL);
+  }
+
+  /**
+   * Converts the firmware into its DTO.<br>
+   * The types allowed are left null, and not loaded, when they are not selected.
+   *
+   * @param fields the properties requested.
+   * @return the {@link FirmwareDto}.
+   */
+  public FirmwareDto toDto(FieldSelection fields) {
     return new FirmwareDto(
         id,
         url,
         version,
         constructor,
-        typesAllowed.stream().map(TypeAllowed::toDto).collect(Collectors.toSet()));
+        fields.includes("typesAllowed")
+            ? typesAllowed.stream().map(TypeAllowed::toDto).collect(Collectors.toSet())
+            : null);
   }
 
   @Override
@@ -22,10 +22,13 @@
  */
 package fr.uge.chargepointconfiguration.firmware;
 
+import fr.uge.chargepointconfiguration.shared.FieldSelection;
 import fr.uge.chargepointconfiguration.shared.PageDto;
-import fr.uge.chargepointconfiguration.typeallowed.TypeAllowed;
+import fr.uge.chargepointconfiguration.shared.SerializedSnapshots;
+import fr.uge.chargepointconfiguration.shared.TotalMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -33,7 +36,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -58,20 +60,26 @@ import org.springframework.web.bind.annotation.RestController;
 public class FirmwareController {
 
   private final FirmwareService firmwareService;
+  private final SerializedSnapshots serializedSnapshots;
 
   /**
    * FirmwareController's constructor.
    *
    * @param firmwareService A FirmwareRepository.
+   * @param serializedSnapshots The serialized list of all the firmwares.
    */
   @Autowired
-  public FirmwareController(FirmwareService firmwareService) {
+  public FirmwareController(
+      FirmwareService firmwareService, SerializedSnapshots serializedSnapshots) {
     this.firmwareService = firmwareService;
+    this.serializedSnapshots = serializedSnapshots;
   }
 
   /**
-   * Returns all the firmwares.
+   * Returns all the firmwares.<br>
+   * The complete list is served from a snapshot, with an ETag.
    *
+   * @param fields The properties to return, all of them if empty.
    * @return A list of all the firmwares.
    */
   @Operation(summary = "Get all the firmwares")
@@ -81,11 +89,22 @@ public class FirmwareController {
       content =
           @Content(
               mediaType = "application/json",
-              schema = @Schema(implementation = FirmwareDto.class)))
+              array = @ArraySchema(schema = @Schema(implementation = FirmwareDto.class))))
   @GetMapping(value = "/all")
   @PreAuthorize("hasRole('EDITOR')")
-  public List<FirmwareDto> getAllFirmwares() {
-    return firmwareService.getAllFirmwares().stream().map(Firmware::toDto).toList();
+  public ResponseEntity<List<FirmwareDto>> getAllFirmwares(
+      @Parameter(description = "Comma-separated properties to return, all of them if empty.")
+          @RequestParam(required = false, defaultValue = "")
+          String fields) {
+    var selection = FieldSelection.parse(fields, FirmwareDto.class);
+    if (fields.isBlank()) {
+      return serializedSnapshots.respond(
+          Firmware.class,
+          () -> firmwareService.getAllFirmwares(selection).stream().map(Firmware::toDto).toList());
+    }
+    return ResponseEntity.ok(firmwareService.getAllFirmwares(selection).stream()
+        .map(firmware -> firmware.toDto(selection))
+        .toList());
   }
 
   /**
@@ -152,20 +171,24 @@ public class FirmwareController {
           String order,
       @Parameter(description = "The request used to search.")
           @RequestParam(required = false, defaultValue = "")
-          String request) {
-    var total = firmwareService.countTotalWithFilter(request);
+          String request,
+      @Parameter(description = "How the total must be computed : EXACT, ESTIMATED or NONE.")
+          @RequestParam(required = false, defaultValue = "EXACT")
+          TotalMode totalMode,
+      @Parameter(description = "Comma-separated properties to return, all of them if empty.")
+          @RequestParam(required = false, defaultValue = "")
+          String fields) {
+    var selection = FieldSelection.parse(fields, FirmwareDto.class);
+    var total = totalMode.resolve(
+        () -> firmwareService.countTotalWithFilter(request),
+        () -> firmwareService.estimateTotalWithFilter(request));
     var totalElement = firmwareService.count();
 
     var data = firmwareService
         .search(
             request, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(order), sortBy)))
         .stream()
-        .map(entity -> new FirmwareDto(
-            entity.getId(),
-            entity.getUrl(),
-            entity.getVersion(),
-            entity.getConstructor(),
-            entity.getTypesAllowed().stream().map(TypeAllowed::toDto).collect(Collectors.toSet())))
+        .map(firmware -> firmware.toDto(selection))
         .toList();
 
     return new PageDto<>(total, totalElement, page, size, data);
@@ -22,13 +22,18 @@
  */
 package fr.uge.chargepointconfiguration.firmware;
 
+import fr.uge.chargepointconfiguration.shared.SliceSpecificationExecutor;
 import fr.uge.chargepointconfiguration.typeallowed.TypeAllowed;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
@@ -39,7 +44,8 @@ import org.springframework.data.repository.query.Param;
 public interface FirmwareRepository
     extends CrudRepository<Firmware, Integer>,
         PagingAndSortingRepository<Firmware, Integer>,
-        JpaSpecificationExecutor<Firmware> {
+        JpaSpecificationExecutor<Firmware>,
+        SliceSpecificationExecutor<Firmware> {
 
   /**
    * Returns a Firmware from the database according to the version.
@@ -50,7 +56,8 @@ public interface FirmwareRepository
   Firmware findByVersion(String version);
 
   /**
-   * Returns all the firmwares from the database according to the compatibility table.
+   * Returns all the firmwares from the database according to the compatibility table,
+   * read-only.
    *
    * @param typeAllowed {@link TypeAllowed} which is the compatibility for a firmware.
    * @return {@link Firmware}.
@@ -60,26 +67,15 @@ public interface FirmwareRepository
           select f from Firmware f \
           join f.typesAllowed \
           where :typeAllowed member of f.typesAllowed order by f.version asc""")
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
   List<Firmware> findAllByTypeAllowedAsc(@Param("typeAllowed") TypeAllowed typeAllowed);
 
   /**
-   * Returns all the firmwares from the database according to the compatibility table.
-   *
-   * @param typeAllowed {@link TypeAllowed} which is the compatibility for a firmware.
-   * @return {@link Firmware}.
-   */
-  @Query(
-      """
-          select f from Firmware f \
-          join f.typesAllowed \
-          where :typeAllowed member of f.typesAllowed order by f.version desc""")
-  List<Firmware> findAllByTypeAllowedDesc(@Param("typeAllowed") TypeAllowed typeAllowed);
-
-  /**
-   * Return a list of registered Firmwares from database.
+   * Return a list of registered Firmwares from database, with their types allowed.
    *
    * @return A list of Firmwares or an empty list if no firmwares are registered.
    */
+  @EntityGraph(attributePaths = "typesAllowed")
   List<Firmware> findAllByOrderByIdDesc();
 
   Page<Firmware> findAllByOrderByIdDesc(Pageable pageable);
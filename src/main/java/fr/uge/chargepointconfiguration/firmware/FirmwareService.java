@@ -22,20 +22,30 @@
  */
 package fr.uge.chargepointconfiguration.firmware;
 
+import fr.uge.chargepointconfiguration.configuration.Configuration;
+import fr.uge.chargepointconfiguration.configuration.ReferenceDataCache;
 import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
 import fr.uge.chargepointconfiguration.errors.exceptions.EntityAlreadyExistingException;
 import fr.uge.chargepointconfiguration.errors.exceptions.EntityNotFoundException;
 import fr.uge.chargepointconfiguration.logs.CustomLogger;
 import fr.uge.chargepointconfiguration.logs.sealed.BusinessLog;
 import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.shared.EntityCountRegistry;
+import fr.uge.chargepointconfiguration.shared.FieldSelection;
 import fr.uge.chargepointconfiguration.shared.SearchUtils;
+import fr.uge.chargepointconfiguration.shared.SerializedSnapshots;
 import fr.uge.chargepointconfiguration.typeallowed.TypeAllowed;
+import fr.uge.chargepointconfiguration.typeallowed.TypeAllowedDto;
 import fr.uge.chargepointconfiguration.typeallowed.TypeAllowedRepository;
 import fr.uge.chargepointconfiguration.user.UserService;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
 
 /**
@@ -47,6 +57,9 @@ public class FirmwareService {
   private final TypeAllowedRepository typeAllowedRepository;
   private final UserService userService;
   private final CustomLogger logger;
+  private final EntityCountRegistry entityCountRegistry;
+  private final SerializedSnapshots serializedSnapshots;
+  private final ReferenceDataCache referenceDataCache;
 
   /**
    * Constructor for {@link FirmwareService}.
@@ -55,21 +68,39 @@ public class FirmwareService {
    * @param typeAllowedRepository {@link TypeAllowedRepository}
    * @param userService {@link UserService}
    * @param logger {@link CustomLogger}
+   * @param entityCountRegistry {@link EntityCountRegistry}
+   * @param serializedSnapshots {@link SerializedSnapshots}
+   * @param referenceDataCache {@link ReferenceDataCache}
    */
   @Autowired
   public FirmwareService(
       FirmwareRepository firmwareRepository,
       TypeAllowedRepository typeAllowedRepository,
       UserService userService,
-      CustomLogger logger) {
+      CustomLogger logger,
+      EntityCountRegistry entityCountRegistry,
+      SerializedSnapshots serializedSnapshots,
+      ReferenceDataCache referenceDataCache) {
     this.firmwareRepository = firmwareRepository;
     this.typeAllowedRepository = typeAllowedRepository;
     this.userService = userService;
     this.logger = logger;
+    this.entityCountRegistry = entityCountRegistry;
+    this.serializedSnapshots = serializedSnapshots;
+    this.referenceDataCache = referenceDataCache;
   }
 
-  public List<Firmware> getAllFirmwares() {
-    return firmwareRepository.findAllByOrderByIdDesc();
+  /**
+   * Get all the firmwares.
+   *
+   * @param fields the properties requested, the types allowed are only joined if selected.
+   * @return A list of firmwares.
+   */
+  public List<Firmware> getAllFirmwares(FieldSelection fields) {
+    if (fields.includes("typesAllowed")) {
+      return firmwareRepository.findAllByOrderByIdDesc();
+    }
+    return Streamable.of(firmwareRepository.findAll(Sort.by(Sort.Direction.DESC, "id"))).toList();
   }
 
   public Firmware getFirmwareById(int id) {
@@ -85,6 +116,23 @@ public class FirmwareService {
    * @return the amount of entities with the constraint of the given request
    */
   public long countTotalWithFilter(String request) {
+    return entityCountRegistry.countWithFilter(
+        Firmware.class, request, () -> countInDatabase(request));
+  }
+
+  /**
+   * Estimate the number of entities with the constraint of the given request.<br>
+   * The last known count is reused, even if entities were created since then.
+   *
+   * @param request the request used to search
+   * @return the estimated amount of entities with the constraint of the given request
+   */
+  public long estimateTotalWithFilter(String request) {
+    return entityCountRegistry.estimateWithFilter(
+        Firmware.class, request, () -> countInDatabase(request));
+  }
+
+  private long countInDatabase(String request) {
     try {
       var condition = SearchUtils.computeSpecification(request, Firmware.class);
       return firmwareRepository.count(condition);
@@ -94,7 +142,7 @@ public class FirmwareService {
   }
 
   public long count() {
-    return firmwareRepository.count();
+    return entityCountRegistry.count(Firmware.class, firmwareRepository::count);
   }
 
   /**
@@ -105,9 +153,10 @@ public class FirmwareService {
    * @return the list of corresponding {@link Firmware}
    */
   public List<Firmware> search(String request, PageRequest pageable) {
+    SearchUtils.checkSort(pageable.getSort(), Firmware.class);
     try {
       var condition = SearchUtils.computeSpecification(request, Firmware.class);
-      return firmwareRepository.findAll(condition, pageable).stream().toList();
+      return firmwareRepository.findSlice(condition, pageable).getContent();
     } catch (IllegalArgumentException e) {
       throw new BadRequestException("Requête invalide pour les filtres : " + request, e);
     }
@@ -126,18 +175,15 @@ public class FirmwareService {
     if (createFirmwareDto.typesAllowed().isEmpty()) {
       throw new BadRequestException("Aucun modèle compatible n'est renseigné.");
     }
-    var typesAllowed = new HashSet<TypeAllowed>();
-    createFirmwareDto.typesAllowed().forEach(typeAllowedDto -> typeAllowedRepository
-        .findById(typeAllowedDto.id())
-        .ifPresentOrElse(typesAllowed::add, () -> {
-          throw new EntityNotFoundException(
-              "Aucun modèle compatible avec l'id " + typeAllowedDto.id());
-        }));
+    var typesAllowed = findTypesAllowed(createFirmwareDto);
     var firmware = firmwareRepository.save(new Firmware(
         createFirmwareDto.url(),
         createFirmwareDto.version(),
         createFirmwareDto.constructor(),
         typesAllowed));
+    // The configurations embed their firmware
+    serializedSnapshots.invalidate(Firmware.class, Configuration.class);
+    referenceDataCache.invalidate(Firmware.class);
 
     logger.info(new BusinessLog(
         userService.getAuthenticatedUser(),
@@ -170,13 +216,7 @@ public class FirmwareService {
           "Un firmware avec l'URL existe déjà : " + createFirmwareDto.url());
     }
 
-    var typesAllowed = new HashSet<TypeAllowed>();
-    createFirmwareDto.typesAllowed().forEach(typeAllowedDto -> typeAllowedRepository
-        .findById(typeAllowedDto.id())
-        .ifPresentOrElse(typesAllowed::add, () -> {
-          throw new EntityNotFoundException(
-              "Aucun modèle compatible avec l'id " + typeAllowedDto.id());
-        }));
+    var typesAllowed = findTypesAllowed(createFirmwareDto);
 
     var firmware = firmwareRepository
         .findById(id)
@@ -187,16 +227,35 @@ public class FirmwareService {
     firmware.setUrl(createFirmwareDto.url());
     firmware.setTypesAllowed(typesAllowed);
     var result = firmwareRepository.save(firmware);
-
+    serializedSnapshots.invalidate(Firmware.class, Configuration.class);
+    referenceDataCache.invalidate(Firmware.class);
     logger.info(new BusinessLog(
         userService.getAuthenticatedUser(),
         null,
         BusinessLogEntity.Category.FIRM,
-        "Firmware updated : " + firmware));
+        "Firmware updated : " + result));
 
     return result;
   }
 
+  /**
+   * Fetch all the types allowed of the given firmware in a single query.
+   *
+   * @param createFirmwareDto the firmware information containing the types allowed.
+   * @return the set of the {@link TypeAllowed} entities.
+   */
+  private Set<TypeAllowed> findTypesAllowed(CreateFirmwareDto createFirmwareDto) {
+    var ids = createFirmwareDto.typesAllowed().stream().map(TypeAllowedDto::id).toList();
+    var typesAllowed = new HashSet<TypeAllowed>();
+    typeAllowedRepository.findAllById(ids).forEach(typesAllowed::add);
+    if (typesAllowed.size() != new HashSet<>(ids).size()) {
+      var found = typesAllowed.stream().map(TypeAllowed::getId).collect(Collectors.toSet());
+      var missing = ids.stream().filter(id -> !found.contains(id)).findFirst().orElseThrow();
+      throw new EntityNotFoundException("Aucun modèle compatible avec l'id " + missing);
+    }
+    return typesAllowed;
+  }
+
   private static void checkFieldsFirmware(CreateFirmwareDto newValues) {
     if (newValues.version().isBlank()
         || newValues.url().isBlank()
@@ -25,33 +25,85 @@ package fr.uge.chargepointconfiguration.logs;
 import fr.uge.chargepointconfiguration.logs.sealed.BusinessLog;
 import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
 import fr.uge.chargepointconfiguration.logs.sealed.Log;
+import fr.uge.chargepointconfiguration.logs.sealed.LogContext;
 import fr.uge.chargepointconfiguration.logs.sealed.LogEntity;
 import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLog;
 import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 /**
- * A CustomLogger storing and displaying differents logs.
+ * A CustomLogger storing and displaying differents logs.<br>
+ * The technical logs less specific than the level of their component are dropped. The levels
+ * are read from the properties :<br>
+ * - logs.level.technical.default ;<br>
+ * - logs.level.technical.component.&lt;COMPONENT&gt;.<br>
+ * The business logs are the trace of the actions of the users and chargepoints, they are
+ * always kept.<br>
+ * The technical logs can be given as a template with {} placeholders or as a supplier : the
+ * message is only built, and the log only allocated, when the level is enabled.
  */
 @Component
 public class CustomLogger {
 
+  private static final String PREFIX = "logs.level.";
+
   private final Logger logger = LogManager.getLogger("BRS-Configurator");
 
   private final CustomLoggerService customLoggerService;
 
+  private final Map<TechnicalLogEntity.Component, Level> technicalLevels =
+      new EnumMap<>(TechnicalLogEntity.Component.class);
+
   /**
    * CustomLogger's constructor.
    *
    * @param customLoggerService A CustomLogService.
+   * @param environment         The environment containing the level properties.
    */
   @Autowired
-  CustomLogger(CustomLoggerService customLoggerService) {
+  CustomLogger(CustomLoggerService customLoggerService, Environment environment) {
     this.customLoggerService = customLoggerService;
+    Objects.requireNonNull(environment);
+    var technicalDefault = read(environment, "technical.default", Level.ALL);
+    for (var component : TechnicalLogEntity.Component.values()) {
+      technicalLevels.put(
+          component,
+          read(environment, "technical.component." + component.name(), technicalDefault));
+    }
+  }
+
+  private static Level read(Environment environment, String key, Level defaultLevel) {
+    var value = environment.getProperty(PREFIX + key);
+    if (value == null || value.isBlank()) {
+      return defaultLevel;
+    }
+    var level = Level.getLevel(value.strip().toUpperCase(Locale.ROOT));
+    if (level == null) {
+      throw new IllegalStateException("Unknown level for " + PREFIX + key + " : " + value);
+    }
+    return level;
+  }
+
+  /**
+   * Checks if the technical logs of the given level and component are kept.
+   *
+   * @param level     The level of the log.
+   * @param component The component of the log.
+   * @return true if the log would be stored and displayed.
+   */
+  public boolean isEnabled(Level level, TechnicalLogEntity.Component component) {
+    return level.isMoreSpecificThan(technicalLevels.get(component));
   }
 
   private void log(LogEntity logEntity) {
@@ -66,18 +118,146 @@ public class CustomLogger {
    * @param log   The log going to be stored and displayed.
    */
   public void log(Level level, Log log) {
+    log(level, log, LogContext.EMPTY);
+  }
+
+  /**
+   * Store a log with a custom level and its structured fields, store it in database and then
+   * display it.<br>
+   * The business logs only keep the OCPP action of the context.
+   *
+   * @param level   The log going to be stored and displayed.
+   * @param log     The log going to be stored and displayed.
+   * @param context The structured fields of the log.
+   */
+  public void log(Level level, Log log, LogContext context) {
+    Objects.requireNonNull(context);
     switch (log) {
-      case BusinessLog businessLog -> log(new BusinessLogEntity(
-          businessLog.user(),
-          businessLog.chargepoint(),
-          businessLog.category(),
-          level.name(),
-          businessLog.completeLog()));
+      case TechnicalLog technicalLog when !isEnabled(level, technicalLog.component()) -> {
+        // Dropped
+      }
+      case BusinessLog businessLog -> {
+        var entity = new BusinessLogEntity(
+            businessLog.user(),
+            businessLog.chargepoint(),
+            businessLog.category(),
+            level.name(),
+            businessLog.completeLog());
+        entity.setOcppAction(context.ocppAction());
+        log(entity);
+      }
       case TechnicalLog technicalLog -> log(new TechnicalLogEntity(
-          technicalLog.component(), level.name(), technicalLog.completeLog()));
+          technicalLog.component(), level.name(), technicalLog.completeLog(), context));
+    }
+  }
+
+  /**
+   * Store a technical log with a custom level if it is enabled, the message being given by a
+   * supplier called only in this case.
+   *
+   * @param level     The level of the log.
+   * @param component The component of the log.
+   * @param message   The supplier of the message.
+   */
+  public void log(Level level, TechnicalLogEntity.Component component, Supplier<String> message) {
+    if (isEnabled(level, component)) {
+      log(new TechnicalLogEntity(component, level.name(), message.get(), LogContext.EMPTY));
     }
   }
 
+  /**
+   * Store a technical log with a custom level if it is enabled, the {} of the template being
+   * replaced by the argument only in this case.
+   *
+   * @param level     The level of the log.
+   * @param component The component of the log.
+   * @param template  The message, with a {} placeholder.
+   * @param argument  The argument of the placeholder.
+   */
+  public void log(
+      Level level, TechnicalLogEntity.Component component, String template, Object argument) {
+    if (isEnabled(level, component)) {
+      log(level, component, LogContext.EMPTY, template, new Object[] {argument});
+    }
+  }
+
+  /**
+   * Store a technical log with a custom level if it is enabled, the {} of the template being
+   * replaced by the arguments only in this case.
+   *
+   * @param level     The level of the log.
+   * @param component The component of the log.
+   * @param template  The message, with two {} placeholders.
+   * @param first     The argument of the first placeholder.
+   * @param second    The argument of the second placeholder.
+   */
+  public void log(
+      Level level,
+      TechnicalLogEntity.Component component,
+      String template,
+      Object first,
+      Object second) {
+    if (isEnabled(level, component)) {
+      log(level, component, LogContext.EMPTY, template, new Object[] {first, second});
+    }
+  }
+
+  /**
+   * Store a technical log with a custom level and its structured fields if it is enabled, the
+   * {} of the template being replaced by the arguments only in this case.
+   *
+   * @param level     The level of the log.
+   * @param component The component of the log.
+   * @param context   The structured fields of the log.
+   * @param template  The message, with two {} placeholders.
+   * @param first     The argument of the first placeholder.
+   * @param second    The argument of the second placeholder.
+   */
+  public void log(
+      Level level,
+      TechnicalLogEntity.Component component,
+      LogContext context,
+      String template,
+      Object first,
+      Object second) {
+    if (isEnabled(level, component)) {
+      log(level, component, context, template, new Object[] {first, second});
+    }
+  }
+
+  /**
+   * Store a technical log with a custom level if it is enabled, the {} of the template being
+   * replaced by the arguments only in this case.
+   *
+   * @param level     The level of the log.
+   * @param component The component of the log.
+   * @param template  The message, with three {} placeholders.
+   * @param first     The argument of the first placeholder.
+   * @param second    The argument of the second placeholder.
+   * @param third     The argument of the third placeholder.
+   */
+  public void log(
+      Level level,
+      TechnicalLogEntity.Component component,
+      String template,
+      Object first,
+      Object second,
+      Object third) {
+    if (isEnabled(level, component)) {
+      log(level, component, LogContext.EMPTY, template, new Object[] {first, second, third});
+    }
+  }
+
+  private void log(
+      Level level,
+      TechnicalLogEntity.Component component,
+      LogContext context,
+      String template,
+      Object[] arguments) {
+    log(new TechnicalLogEntity(
+        component, level.name(), ParameterizedMessage.format(template, arguments), context));
+  }
+
   /**
    * Store a log with a fatal level, store it in database and then display it.
    *
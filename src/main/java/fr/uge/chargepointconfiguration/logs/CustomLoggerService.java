@@ -23,6 +23,8 @@
 package fr.uge.chargepointconfiguration.logs;
 
 import fr.uge.chargepointconfiguration.logs.business.BusinessLogRepository;
+import fr.uge.chargepointconfiguration.logs.index.LogTextIndex;
+import fr.uge.chargepointconfiguration.logs.rollup.LogRollupService;
 import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
 import fr.uge.chargepointconfiguration.logs.sealed.LogEntity;
 import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
@@ -40,17 +42,28 @@ public class CustomLoggerService {
 
   private final TechnicalLogRepository technicalLogRepository;
 
+  private final LogRollupService logRollupService;
+
+  private final LogTextIndex logTextIndex;
+
   /**
    * CustomLoggerService's constructor.
    *
    * @param businessLogRepository A BusinessLogRepository accessing to database.
    * @param technicalLogRepository A TechnicalLogRepository accessing to database.
+   * @param logRollupService A LogRollupService counting the saved logs.
+   * @param logTextIndex The full-text index of the logs.
    */
   @Autowired
   public CustomLoggerService(
-      BusinessLogRepository businessLogRepository, TechnicalLogRepository technicalLogRepository) {
+      BusinessLogRepository businessLogRepository,
+      TechnicalLogRepository technicalLogRepository,
+      LogRollupService logRollupService,
+      LogTextIndex logTextIndex) {
     this.businessLogRepository = businessLogRepository;
     this.technicalLogRepository = technicalLogRepository;
+    this.logRollupService = logRollupService;
+    this.logTextIndex = logTextIndex;
   }
 
   /**
@@ -60,9 +73,12 @@ public class CustomLoggerService {
    * @return The used log.
    */
   public LogEntity save(LogEntity log) {
-    return switch (log) {
+    LogEntity saved = switch (log) {
       case BusinessLogEntity businessLogEntity -> businessLogRepository.save(businessLogEntity);
       case TechnicalLogEntity technicalLogEntity -> technicalLogRepository.save(technicalLogEntity);
     };
+    logRollupService.record(saved);
+    logTextIndex.add(saved);
+    return saved;
   }
 }
@@ -22,24 +22,37 @@
  */
 package fr.uge.chargepointconfiguration.logs.business;
 
+import fr.uge.chargepointconfiguration.logs.rollup.LogHistogramDto;
+import fr.uge.chargepointconfiguration.logs.rollup.LogRollupService;
+import fr.uge.chargepointconfiguration.logs.rollup.RollupGranularity;
 import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.shared.EntityExporter;
+import fr.uge.chargepointconfiguration.shared.ExportColumn;
+import fr.uge.chargepointconfiguration.shared.ExportFormat;
+import fr.uge.chargepointconfiguration.shared.FieldSelection;
 import fr.uge.chargepointconfiguration.shared.PageDto;
+import fr.uge.chargepointconfiguration.shared.TotalMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDateTime;
 import java.util.List;
+import org.apache.logging.log4j.Level;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Controller for business log.
@@ -49,16 +62,39 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Business Log", description = "The business log API")
 public class BusinessLogController {
 
+  private static final List<ExportColumn<BusinessLogEntity>> EXPORT_COLUMNS = List.of(
+      new ExportColumn<>("id", BusinessLogEntity::getId),
+      new ExportColumn<>("date", BusinessLogEntity::getDate),
+      new ExportColumn<>("user", log -> log.getUser() == null ? null : log.getUser().getId()),
+      new ExportColumn<>(
+          "chargepoint",
+          log -> log.getChargepoint() == null ? null : log.getChargepoint().getId()),
+      new ExportColumn<>("category", BusinessLogEntity::getCategory),
+      new ExportColumn<>("level", BusinessLogEntity::getLevel),
+      new ExportColumn<>("completeLog", BusinessLogEntity::getCompleteLog),
+      new ExportColumn<>("ocppAction", BusinessLogEntity::getOcppAction));
+
   private final BusinessLogService businessLogService;
 
+  private final LogRollupService logRollupService;
+
+  private final EntityExporter entityExporter;
+
   /**
    * BusinessLogController's constructor.
    *
    * @param businessLogService A BusinessLogService.
+   * @param logRollupService A LogRollupService.
+   * @param entityExporter An EntityExporter.
    */
   @Autowired
-  public BusinessLogController(BusinessLogService businessLogService) {
+  public BusinessLogController(
+      BusinessLogService businessLogService,
+      LogRollupService logRollupService,
+      EntityExporter entityExporter) {
     this.businessLogService = businessLogService;
+    this.logRollupService = logRollupService;
+    this.entityExporter = entityExporter;
   }
 
   /**
@@ -116,17 +152,106 @@ public class BusinessLogController {
           String order,
       @Parameter(description = "The request used to search.")
           @RequestParam(required = false, defaultValue = "")
-          String request) {
-    var total = businessLogService.countTotalWithFilter(request);
+          String request,
+      @Parameter(description = "How the total must be computed : EXACT, ESTIMATED or NONE.")
+          @RequestParam(required = false, defaultValue = "EXACT")
+          TotalMode totalMode,
+      @Parameter(description = "Comma-separated properties to return, all of them if empty.")
+          @RequestParam(required = false, defaultValue = "")
+          String fields) {
+    var selection = FieldSelection.parse(fields, BusinessLogDto.class);
+    var total = totalMode.resolve(
+        () -> businessLogService.countTotalWithFilter(request),
+        () -> businessLogService.estimateTotalWithFilter(request));
     var totalElement = businessLogService.count();
 
     var data = businessLogService
         .search(
             request, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(order), sortBy)))
         .stream()
-        .map(BusinessLogEntity::toDto)
+        .map(log -> log.toDto(selection))
         .toList();
 
     return new PageDto<>(total, totalElement, page, size, data);
   }
+
+  /**
+   * Returns the amount of business logs per category and per time bucket.
+   *
+   * @param granularity The size of the buckets.
+   * @param from The inclusive start of the range.
+   * @param to The exclusive end of the range.
+   * @param category The category, all of them if absent.
+   * @param chargepointId The id of the chargepoint, all of them if absent.
+   * @param level The level, all of them if absent.
+   * @return the non-empty buckets, sorted by date.
+   */
+  @Operation(summary = "Get the histogram of the business logs")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Found the histogram of the business logs",
+      content = {
+        @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = LogHistogramDto.class))
+      })
+  @GetMapping(value = "/histogram")
+  @PreAuthorize("hasRole('VISUALIZER')")
+  public List<LogHistogramDto> getHistogram(
+      @Parameter(description = "Size of the buckets : MINUTE, HOUR or DAY.")
+          @RequestParam(required = false, defaultValue = "HOUR")
+          RollupGranularity granularity,
+      @Parameter(description = "Inclusive start of the range.")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime from,
+      @Parameter(description = "Exclusive end of the range.")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime to,
+      @Parameter(description = "The category of the logs.") @RequestParam(required = false)
+          BusinessLogEntity.Category category,
+      @Parameter(description = "The id of the chargepoint.") @RequestParam(required = false)
+          Integer chargepointId,
+      @Parameter(description = "The level of the logs.") @RequestParam(required = false)
+          Level level) {
+    return logRollupService.businessHistogram(
+        granularity, from, to, category, chargepointId, level == null ? null : level.name());
+  }
+
+  /**
+   * Exports the business logs matching the request, without loading them all in memory.
+   *
+   * @param format The format of the export.
+   * @param gzip Whether the export is compressed.
+   * @param request The request used to filter.
+   * @return the streamed export.
+   */
+  @Operation(summary = "Export the business logs")
+  @ApiResponse(responseCode = "200", description = "The business logs are streamed")
+  @GetMapping(value = "/export")
+  @PreAuthorize("hasRole('VISUALIZER')")
+  public ResponseEntity<StreamingResponseBody> export(
+      @Parameter(description = "The format of the export : NDJSON or CSV.")
+          @RequestParam(required = false, defaultValue = "NDJSON")
+          ExportFormat format,
+      @Parameter(description = "Whether the export is compressed with gzip.")
+          @RequestParam(required = false, defaultValue = "false")
+          boolean gzip,
+      @Parameter(description = "The request used to filter.")
+          @RequestParam(required = false, defaultValue = "")
+          String request) {
+    return entityExporter.export(
+        "business-logs",
+        BusinessLogEntity.class,
+        businessLogService.specification(request),
+        format,
+        gzip,
+        EXPORT_COLUMNS,
+        BusinessLogEntity::toDto,
+        "user",
+        "chargepoint",
+        "chargepoint.configuration",
+        "chargepoint.configuration.firmware");
+  }
 }
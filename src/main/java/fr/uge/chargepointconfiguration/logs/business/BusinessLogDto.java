@@ -36,6 +36,7 @@ import java.sql.Timestamp;
  * @param chargepoint Chargepoint implied with this log, null if not.
  * @param category {@link BusinessLogEntity.Category}
  * @param completeLog All the log in one String.
+ * @param ocppAction The name of the OCPP action implied with this log, null if not.
  */
 public record BusinessLogDto(
     int id,
@@ -44,4 +45,5 @@ public record BusinessLogDto(
     ChargepointDto chargepoint,
     BusinessLogEntity.Category category,
     String level,
-    String completeLog) {}
+    String completeLog,
+    String ocppAction) {}
@@ -23,14 +23,22 @@
 package fr.uge.chargepointconfiguration.logs.business;
 
 import fr.uge.chargepointconfiguration.chargepoint.Chargepoint;
+import fr.uge.chargepointconfiguration.logs.index.LogText;
 import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.shared.SliceSpecificationExecutor;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository for the business log.
@@ -39,16 +47,81 @@ import org.springframework.stereotype.Repository;
 public interface BusinessLogRepository
     extends CrudRepository<BusinessLogEntity, Integer>,
         PagingAndSortingRepository<BusinessLogEntity, Integer>,
-        JpaSpecificationExecutor<BusinessLogEntity> {
+        JpaSpecificationExecutor<BusinessLogEntity>,
+        SliceSpecificationExecutor<BusinessLogEntity> {
+
+  Page<BusinessLogEntity> findAllByOrderByIdDesc(Pageable pageable);
+
+  List<BusinessLogEntity> findAllByChargepointOrderByIdDesc(Chargepoint chargepointId);
 
   /**
-   * Method to return all business logs.
+   * Returns the date of the oldest business log of a level.<br>
+   * A single level is read at a time, so the retention index answers it directly.
    *
-   * @return a list of all business logs.
+   * @param level the level of the logs.
+   * @return the oldest date, null if there is no such business log.
    */
-  List<BusinessLogEntity> findAllByOrderByIdDesc();
+  @Query("select min(b.date) from BusinessLogEntity b where b.level = :level")
+  LocalDateTime findOldestDate(@Param("level") String level);
 
-  Page<BusinessLogEntity> findAllByOrderByIdDesc(Pageable pageable);
+  /**
+   * Returns the ids of the first business logs of some levels created in the given time range,
+   * sorted by id.
+   *
+   * @param levels   the names of the {@link org.apache.logging.log4j.Level} to read.
+   * @param from     the inclusive start of the range.
+   * @param to       the exclusive end of the range.
+   * @param pageable the amount of ids to read.
+   * @return the ids of the business logs.
+   */
+  @Query("""
+      select b.id from BusinessLogEntity b
+      where b.level in :levels and b.date >= :from and b.date < :to
+      order by b.id
+      """)
+  List<Integer> findIdsInRange(
+      @Param("levels") Collection<String> levels,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to,
+      Pageable pageable);
 
-  List<BusinessLogEntity> findAllByChargepointOrderByIdDesc(Chargepoint chargepointId);
+  /**
+   * Deletes, in one statement and one transaction, the business logs with the given ids.
+   *
+   * @param ids the ids of the business logs.
+   * @return the amount of deleted business logs.
+   */
+  @Transactional
+  @Modifying
+  @Query("delete from BusinessLogEntity b where b.id in :ids")
+  int deleteByIds(@Param("ids") Collection<Integer> ids);
+
+  /**
+   * Returns the texts of the logs with an id greater than the given one, sorted by id.
+   *
+   * @param id       The id after which the logs are read.
+   * @param pageable The amount of logs to read.
+   * @return the texts of the logs.
+   */
+  @Query("""
+      select new fr.uge.chargepointconfiguration.logs.index.LogText(b.id, b.completeLog)
+      from BusinessLogEntity b where b.id > :id order by b.id
+      """)
+  List<LogText> findTextsAfter(@Param("id") int id, Pageable pageable);
+
+  /**
+   * Returns the highest id of the logs.
+   *
+   * @return the highest id, 0 if there is no log.
+   */
+  @Query("select coalesce(max(b.id), 0) from BusinessLogEntity b")
+  int findMaxId();
+
+  /**
+   * Returns the lowest id of the logs.
+   *
+   * @return the lowest id, 0 if there is no log.
+   */
+  @Query("select coalesce(min(b.id), 0) from BusinessLogEntity b")
+  int findMinId();
 }
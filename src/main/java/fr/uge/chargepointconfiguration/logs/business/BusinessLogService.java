@@ -25,11 +25,14 @@ package fr.uge.chargepointconfiguration.logs.business;
 import fr.uge.chargepointconfiguration.chargepoint.ChargepointRepository;
 import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
 import fr.uge.chargepointconfiguration.errors.exceptions.EntityNotFoundException;
+import fr.uge.chargepointconfiguration.logs.index.LogTextIndex;
 import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.shared.EntityCountRegistry;
 import fr.uge.chargepointconfiguration.shared.SearchUtils;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 /**
@@ -42,17 +45,28 @@ public class BusinessLogService {
 
   private final ChargepointRepository chargepointRepository;
 
+  private final EntityCountRegistry entityCountRegistry;
+
+  private final LogTextIndex logTextIndex;
+
   /**
    * BusinessLogService's constructor.
    *
    * @param businessLogRepository A BusinessLogRepository accessing to database.
    * @param chargepointRepository A ChargepointRepository accessing to database.
+   * @param entityCountRegistry   The in-memory counts of the entities.
+   * @param logTextIndex          The full-text index of the logs.
    */
   @Autowired
   public BusinessLogService(
-      BusinessLogRepository businessLogRepository, ChargepointRepository chargepointRepository) {
+      BusinessLogRepository businessLogRepository,
+      ChargepointRepository chargepointRepository,
+      EntityCountRegistry entityCountRegistry,
+      LogTextIndex logTextIndex) {
     this.businessLogRepository = businessLogRepository;
     this.chargepointRepository = chargepointRepository;
+    this.entityCountRegistry = entityCountRegistry;
+    this.logTextIndex = logTextIndex;
   }
 
   /**
@@ -75,16 +89,28 @@ public class BusinessLogService {
    * @return the amount of entities with the constraint of the given request
    */
   public long countTotalWithFilter(String request) {
-    try {
-      var condition = SearchUtils.computeSpecification(request, BusinessLogEntity.class);
-      return businessLogRepository.count(condition);
-    } catch (IllegalArgumentException e) {
-      throw new BadRequestException("Requête invalide pour les filtres : " + request, e);
-    }
+    return entityCountRegistry.countWithFilter(
+        BusinessLogEntity.class, request, () -> countInDatabase(request));
+  }
+
+  /**
+   * Estimate the number of entities with the constraint of the given request.<br>
+   * The last known count is reused, even if entities were created since then.
+   *
+   * @param request the request used to search
+   * @return the estimated amount of entities with the constraint of the given request
+   */
+  public long estimateTotalWithFilter(String request) {
+    return entityCountRegistry.estimateWithFilter(
+        BusinessLogEntity.class, request, () -> countInDatabase(request));
+  }
+
+  private long countInDatabase(String request) {
+    return businessLogRepository.count(specification(request));
   }
 
   public long count() {
-    return businessLogRepository.count();
+    return entityCountRegistry.count(BusinessLogEntity.class, businessLogRepository::count);
   }
 
   /**
@@ -95,9 +121,20 @@ public class BusinessLogService {
    * @return the list of corresponding {@link BusinessLogEntity}
    */
   public List<BusinessLogEntity> search(String request, PageRequest pageable) {
+    SearchUtils.checkSort(pageable.getSort(), BusinessLogEntity.class);
+    return businessLogRepository.findSlice(specification(request), pageable).getContent();
+  }
+
+  /**
+   * Computes the JPA specification of the given request.
+   *
+   * @param request the request used to search
+   * @return the specification matching the entities with the constraint of the given request
+   */
+  public Specification<BusinessLogEntity> specification(String request) {
     try {
-      var condition = SearchUtils.computeSpecification(request, BusinessLogEntity.class);
-      return businessLogRepository.findAll(condition, pageable).stream().toList();
+      return logTextIndex.restrictBusiness(
+          request, SearchUtils.computeSpecification(request, BusinessLogEntity.class));
     } catch (IllegalArgumentException e) {
       throw new BadRequestException("Requête invalide pour les filtres : " + request, e);
     }
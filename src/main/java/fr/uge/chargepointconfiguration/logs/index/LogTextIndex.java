@@ -0,0 +1,211 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.index;
+
+import fr.uge.chargepointconfiguration.logs.business.BusinessLogRepository;
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.logs.sealed.LogEntity;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import fr.uge.chargepointconfiguration.logs.technical.TechnicalLogRepository;
+import fr.uge.chargepointconfiguration.shared.SearchCriteria;
+import fr.uge.chargepointconfiguration.shared.SearchUtils;
+import jakarta.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.IntSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+/**
+ * Full-text index over the complete log of the technical and business logs.<br>
+ * A <code>completeLog:`text`</code> criterion of a search request is first answered by
+ * the index, the database query is then restricted to the ids of the candidates and to the
+ * rows saved since the last indexed one, so the <code>LIKE '%text%'</code> is only evaluated
+ * on those rows instead of the whole table.<br>
+ * The index only holds the logs.index.max-rows most recent logs. When the table extends below
+ * them, the search is left to the database alone, so max-rows must cover the retention window
+ * for the index to help.
+ * <br>
+ * The index is built in the background when the application is ready, then updated by the
+ * {@link fr.uge.chargepointconfiguration.logs.CustomLoggerService} on every saved log.
+ * It is local to a node : the logs written by another node, or bypassing the service, are
+ * never indexed, so it must not be enabled when several nodes share the log tables.
+ */
+@Component
+public class LogTextIndex {
+
+  private static final String TEXT_FIELD = "completeLog";
+  private static final int REBUILD_BATCH_SIZE = 1_000;
+
+  private final TechnicalLogRepository technicalLogRepository;
+  private final BusinessLogRepository businessLogRepository;
+  private final int maxCandidates;
+  private final int maxRows;
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(
+      Thread.ofPlatform().name("log-index").daemon().factory());
+  private volatile TrigramIndex technicalIndex;
+  private volatile TrigramIndex businessIndex;
+  private volatile boolean ready;
+
+  /**
+   * LogTextIndex's constructor.
+   *
+   * @param technicalLogRepository A TechnicalLogRepository accessing to database.
+   * @param businessLogRepository  A BusinessLogRepository accessing to database.
+   * @param maxCandidates          Above this amount of candidates, the database is queried
+   *                               without the help of the index.
+   * @param maxRows                The amount of most recent logs of each kind kept in the index.
+   */
+  @Autowired
+  public LogTextIndex(
+      TechnicalLogRepository technicalLogRepository,
+      BusinessLogRepository businessLogRepository,
+      @Value("${logs.index.max-candidates:1000}") int maxCandidates,
+      @Value("${logs.index.max-rows:100000}") int maxRows) {
+    this.technicalLogRepository = Objects.requireNonNull(technicalLogRepository);
+    this.businessLogRepository = Objects.requireNonNull(businessLogRepository);
+    this.maxCandidates = maxCandidates;
+    this.maxRows = maxRows;
+    this.technicalIndex = new TrigramIndex(maxRows, 0);
+    this.businessIndex = new TrigramIndex(maxRows, 0);
+  }
+
+  /**
+   * Indexes a saved log.
+   *
+   * @param log The saved log.
+   */
+  public void add(LogEntity log) {
+    switch (log) {
+      case TechnicalLogEntity technicalLog ->
+          technicalIndex.add(technicalLog.getId(), technicalLog.getCompleteLog());
+      case BusinessLogEntity businessLog ->
+          businessIndex.add(businessLog.getId(), businessLog.getCompleteLog());
+    }
+  }
+
+  /**
+   * Rebuilds the whole index from the database, in the background.<br>
+   * The searches do not use the index until the rebuild is over.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    executor.execute(() -> {
+      ready = false;
+      // Published before the loading, so the logs saved meanwhile are indexed too.
+      technicalIndex = emptyIndex(technicalLogRepository.findMaxId());
+      businessIndex = emptyIndex(businessLogRepository.findMaxId());
+      load(technicalIndex, technicalLogRepository::findTextsAfter);
+      load(businessIndex, businessLogRepository::findTextsAfter);
+      ready = true;
+    });
+  }
+
+  boolean ready() {
+    return ready;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private TrigramIndex emptyIndex(int maxId) {
+    return new TrigramIndex(maxRows, Math.max(0, maxId - maxRows + 1));
+  }
+
+  private static void load(
+      TrigramIndex index, BiFunction<Integer, Pageable, List<LogText>> findTextsAfter) {
+    var lastId = index.firstId() - 1;
+    List<LogText> batch;
+    do {
+      batch = findTextsAfter.apply(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+      for (var text : batch) {
+        index.add(text.id(), text.completeLog());
+        lastId = text.id();
+      }
+    } while (batch.size() == REBUILD_BATCH_SIZE);
+  }
+
+  /**
+   * Restricts a technical log search to the candidates of its text criteria.
+   *
+   * @param request   The search request.
+   * @param condition The specification computed from the request.
+   * @return the restricted specification.
+   */
+  public Specification<TechnicalLogEntity> restrictTechnical(
+      String request, Specification<TechnicalLogEntity> condition) {
+    return restrict(technicalIndex, technicalLogRepository::findMinId, request, condition);
+  }
+
+  /**
+   * Restricts a business log search to the candidates of its text criteria.
+   *
+   * @param request   The search request.
+   * @param condition The specification computed from the request.
+   * @return the restricted specification.
+   */
+  public Specification<BusinessLogEntity> restrictBusiness(
+      String request, Specification<BusinessLogEntity> condition) {
+    return restrict(businessIndex, businessLogRepository::findMinId, request, condition);
+  }
+
+  private <T> Specification<T> restrict(
+      TrigramIndex index, IntSupplier findMinId, String request, Specification<T> condition) {
+    if (!ready) {
+      return condition;
+    }
+    for (var criteria : SearchUtils.parseCriteria(request)) {
+      if (!criteria.key().equals(TEXT_FIELD)
+          || criteria.operation() != SearchCriteria.Operation.CONTAINS) {
+        continue;
+      }
+      var candidates = index.candidates(criteria.value().toString(), maxCandidates);
+      if (candidates.isEmpty()) {
+        continue;
+      }
+      if (findMinId.getAsInt() < candidates.get().firstId()) {
+        // The older rows are not indexed, restricting the search would miss them
+        return condition;
+      }
+      var ids = Arrays.stream(candidates.get().ids()).boxed().toList();
+      var lastId = candidates.get().lastId();
+      condition = condition.and((root, query, builder) -> {
+        var newer = builder.greaterThan(root.get("id"), lastId);
+        return ids.isEmpty() ? newer : builder.or(root.get("id").in(ids), newer);
+      });
+    }
+    return condition;
+  }
+}
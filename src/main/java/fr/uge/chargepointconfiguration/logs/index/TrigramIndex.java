@@ -0,0 +1,291 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory inverted index from the trigrams of a text to the ids of the rows containing it.
+ * <br>
+ * The candidates returned for a query are a superset of the rows a case and accent insensitive
+ * <code>LIKE '%query%'</code> matches, they must still be checked against the database:
+ * <ul>
+ *   <li>texts and queries are compared once lowercased and stripped of their accents ;</li>
+ *   <li>a row whose text keeps other non ASCII characters is always a candidate ;</li>
+ *   <li>the index can not help a query with a LIKE wildcard or a non ASCII character.</li>
+ * </ul>
+ * Only the most recent rows are indexed, the older ones are left to the database.
+ * Ids of deleted rows may remain in the index until they are evicted, they are harmless
+ * since the candidates are only used to restrict a database query.<br>
+ * Added rows are queued without locking and indexed by the next search.
+ */
+final class TrigramIndex {
+
+  private static final int GRAM = 3;
+  private static final int MAX_QUEUED = 1_024;
+  private static final Pattern IGNORED = Pattern.compile("[\\p{M}\\p{Cf}]+");
+
+  /**
+   * The candidates of a query.
+   *
+   * @param ids     The sorted ids of the indexed rows which may contain the query.
+   * @param firstId The lowest indexed id, the rows below it are not covered by the index.
+   * @param lastId  The highest indexed id, the rows above it are not indexed yet.
+   */
+  record Candidates(int[] ids, int firstId, int lastId) {}
+
+  private record Row(int id, String text) {}
+
+  private static final class Postings {
+    private int[] ids = new int[4];
+    private int size;
+
+    private void add(int id) {
+      if (size > 0 && ids[size - 1] >= id) {
+        // Out of order, e.g. while the index is rebuilt.
+        var index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+          return;
+        }
+        insert(-index - 1, id);
+        return;
+      }
+      insert(size, id);
+    }
+
+    private void insert(int index, int id) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      System.arraycopy(ids, index, ids, index + 1, size - index);
+      ids[index] = id;
+      size++;
+    }
+
+    private boolean contains(int id) {
+      return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    private void removeBelow(int firstId) {
+      var index = Arrays.binarySearch(ids, 0, size, firstId);
+      var removed = index >= 0 ? index : -index - 1;
+      System.arraycopy(ids, removed, ids, 0, size - removed);
+      size -= removed;
+    }
+  }
+
+  private final int maxRows;
+  private final Queue<Row> queued = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queuedCount = new AtomicInteger();
+  private final ReentrantLock lock = new ReentrantLock();
+  // Guarded by the lock.
+  private final Map<String, Postings> postings = new HashMap<>();
+  private final Postings unfolded = new Postings();
+  private int firstId;
+  private int lastId;
+
+  /**
+   * TrigramIndex's constructor.
+   *
+   * @param maxRows The amount of most recent ids kept in the index.
+   * @param firstId The lowest id indexed, the older rows are not loaded in the index.
+   */
+  TrigramIndex(int maxRows, int firstId) {
+    if (maxRows <= 0) {
+      throw new IllegalArgumentException("The amount of indexed rows must be positive.");
+    }
+    this.maxRows = maxRows;
+    this.firstId = firstId;
+  }
+
+  private static String fold(String text) {
+    var decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+    return IGNORED.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+  }
+
+  private static boolean isAscii(String text) {
+    return text.chars().allMatch(c -> c < 0x80);
+  }
+
+  private static boolean hasWildcard(String query) {
+    return query.indexOf('%') >= 0 || query.indexOf('_') >= 0 || query.indexOf('\\') >= 0;
+  }
+
+  private static Set<String> trigrams(String folded) {
+    var result = new HashSet<String>();
+    for (var i = 0; i + GRAM <= folded.length(); i++) {
+      result.add(folded.substring(i, i + GRAM));
+    }
+    return result;
+  }
+
+  /**
+   * Indexes the text of a row.<br>
+   * The row is only queued, it is indexed by the next search.
+   *
+   * @param id   The id of the row.
+   * @param text The text of the row.
+   */
+  void add(int id, String text) {
+    Objects.requireNonNull(text);
+    queued.add(new Row(id, text));
+    if (queuedCount.incrementAndGet() >= MAX_QUEUED && lock.tryLock()) {
+      try {
+        drain();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Returns the lowest id covered by the index.
+   *
+   * @return the lowest indexed id, the older rows are not in the index.
+   */
+  int firstId() {
+    lock.lock();
+    try {
+      return firstId;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the ids of the rows which may contain the query.
+   *
+   * @param query         The searched text.
+   * @param maxCandidates Above this amount of candidates, the index is not selective enough.
+   * @return the candidates, or an empty optional if the index can not help, because the query
+   *         is too short, has a wildcard or a non ASCII character, or matches too many rows.
+   */
+  Optional<Candidates> candidates(String query, int maxCandidates) {
+    Objects.requireNonNull(query);
+    if (hasWildcard(query)) {
+      return Optional.empty();
+    }
+    var folded = fold(query);
+    if (!isAscii(folded)) {
+      return Optional.empty();
+    }
+    var grams = trigrams(folded);
+    if (grams.isEmpty()) {
+      return Optional.empty();
+    }
+    lock.lock();
+    try {
+      drain();
+      var lists = new ArrayList<Postings>(grams.size());
+      for (var gram : grams) {
+        var list = postings.get(gram);
+        if (list == null) {
+          return candidates(new int[0], maxCandidates);
+        }
+        lists.add(list);
+      }
+      lists.sort((a, b) -> Integer.compare(a.size, b.size));
+      var smallest = lists.getFirst();
+      var result = new int[smallest.size];
+      var size = 0;
+      for (var i = 0; i < smallest.size; i++) {
+        var id = smallest.ids[i];
+        var inAll = true;
+        for (var j = 1; j < lists.size() && inAll; j++) {
+          inAll = lists.get(j).contains(id);
+        }
+        if (inAll) {
+          result[size++] = id;
+        }
+      }
+      return candidates(Arrays.copyOf(result, size), maxCandidates);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Optional<Candidates> candidates(int[] matching, int maxCandidates) {
+    if (matching.length + unfolded.size > maxCandidates) {
+      return Optional.empty();
+    }
+    var ids = Arrays.copyOf(matching, matching.length + unfolded.size);
+    System.arraycopy(unfolded.ids, 0, ids, matching.length, unfolded.size);
+    Arrays.sort(ids);
+    return Optional.of(new Candidates(ids, firstId, lastId));
+  }
+
+  private void drain() {
+    Row row;
+    while ((row = queued.poll()) != null) {
+      queuedCount.decrementAndGet();
+      index(row);
+    }
+    // Some slack, so the eviction does not run for each added row.
+    if (lastId - firstId >= maxRows + maxRows / 4) {
+      evict(lastId - maxRows + 1);
+    }
+  }
+
+  private void index(Row row) {
+    if (row.id() < firstId) {
+      return;
+    }
+    lastId = Math.max(lastId, row.id());
+    var folded = fold(row.text());
+    if (!isAscii(folded)) {
+      // The collation may match its other characters with ASCII ones, e.g. "ß" and "ss".
+      unfolded.add(row.id());
+      return;
+    }
+    for (var gram : trigrams(folded)) {
+      postings.computeIfAbsent(gram, g -> new Postings()).add(row.id());
+    }
+  }
+
+  private void evict(int newFirstId) {
+    firstId = newFirstId;
+    unfolded.removeBelow(firstId);
+    var iterator = postings.values().iterator();
+    while (iterator.hasNext()) {
+      var list = iterator.next();
+      list.removeBelow(firstId);
+      if (list.size == 0) {
+        iterator.remove();
+      }
+    }
+  }
+}
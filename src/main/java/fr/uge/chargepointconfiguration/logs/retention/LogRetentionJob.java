@@ -0,0 +1,219 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.retention;
+
+import fr.uge.chargepointconfiguration.logs.CustomLogger;
+import fr.uge.chargepointconfiguration.logs.business.BusinessLogRepository;
+import fr.uge.chargepointconfiguration.logs.rollup.LogRollupService;
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLog;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import fr.uge.chargepointconfiguration.logs.technical.TechnicalLogRepository;
+import fr.uge.chargepointconfiguration.shared.EntityCountRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job deleting the logs older than their {@link LogRetentionPolicy retention}.<br>
+ * The logs are deleted one day at a time and per group of levels sharing the same retention,
+ * by batches of at most logs.retention.batch-size ids, each deleted in its own short
+ * transaction, never row by row nor in one unbounded statement.<br>
+ * The log tables are not partitioned by date : the retention depends on the level and on the
+ * component, so a day of logs can not be dropped as a whole, and MySQL does not allow foreign
+ * keys, which business_logs has, on a partitioned table.
+ */
+@Component
+public class LogRetentionJob {
+
+  private final TechnicalLogRepository technicalLogRepository;
+  private final BusinessLogRepository businessLogRepository;
+  private final LogRetentionPolicy logRetentionPolicy;
+  private final LogRollupService logRollupService;
+  private final EntityCountRegistry entityCountRegistry;
+  private final CustomLogger logger;
+  private final int batchSize;
+  private final Clock clock = Clock.systemDefaultZone();
+
+  /**
+   * LogRetentionJob's constructor.
+   *
+   * @param technicalLogRepository A TechnicalLogRepository accessing to database.
+   * @param businessLogRepository  A BusinessLogRepository accessing to database.
+   * @param logRetentionPolicy     The retention of each kind of log.
+   * @param logRollupService       The service maintaining the log rollups.
+   * @param entityCountRegistry    The in-memory counts of the entities.
+   * @param logger                 The logger reporting the purge.
+   * @param batchSize              The maximum amount of logs deleted by a statement.
+   */
+  @Autowired
+  public LogRetentionJob(
+      TechnicalLogRepository technicalLogRepository,
+      BusinessLogRepository businessLogRepository,
+      LogRetentionPolicy logRetentionPolicy,
+      LogRollupService logRollupService,
+      EntityCountRegistry entityCountRegistry,
+      CustomLogger logger,
+      @Value("${logs.retention.batch-size:1000}") int batchSize) {
+    this.technicalLogRepository = Objects.requireNonNull(technicalLogRepository);
+    this.businessLogRepository = Objects.requireNonNull(businessLogRepository);
+    this.logRetentionPolicy = Objects.requireNonNull(logRetentionPolicy);
+    this.logRollupService = Objects.requireNonNull(logRollupService);
+    this.entityCountRegistry = Objects.requireNonNull(entityCountRegistry);
+    this.logger = Objects.requireNonNull(logger);
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batch size must be positive : " + batchSize);
+    }
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Deletes the expired logs, every day at the time given by the property logs.retention.cron.
+   */
+  @Scheduled(cron = "${logs.retention.cron:0 0 3 * * *}")
+  public void purge() {
+    purge(LocalDateTime.now(clock));
+  }
+
+  /**
+   * Deletes the logs and the minute rollups which are expired at the given date.
+   *
+   * @param now The date used to compute the expiration of the logs.
+   * @return the amount of deleted logs.
+   */
+  public long purge(LocalDateTime now) {
+    Objects.requireNonNull(now);
+    var technical = purgeTechnicalLogs(now);
+    var business = purgeBusinessLogs(now);
+    logRollupService.purgeMinuteRollups(now);
+    if (technical > 0) {
+      entityCountRegistry.invalidate(TechnicalLogEntity.class);
+    }
+    if (business > 0) {
+      entityCountRegistry.invalidate(BusinessLogEntity.class);
+    }
+    if (technical + business > 0) {
+      logger.info(new TechnicalLog(
+          TechnicalLogEntity.Component.DATABASE,
+          "Log retention : " + technical + " technical logs and "
+              + business + " business logs deleted"));
+    }
+    return technical + business;
+  }
+
+  private long purgeTechnicalLogs(LocalDateTime now) {
+    var deleted = 0L;
+    for (var component : TechnicalLogEntity.Component.values()) {
+      var levelsByRetention =
+          groupByRetention(level -> logRetentionPolicy.technicalRetention(component, level));
+      for (var entry : levelsByRetention.entrySet()) {
+        var levels = entry.getValue();
+        deleted += deleteDayByDay(
+            oldestOf(levels, level -> technicalLogRepository.findOldestDate(component, level)),
+            now.minus(entry.getKey()),
+            (from, to) -> technicalLogRepository.findIdsInRange(
+                component, levels, from, to, PageRequest.of(0, batchSize)),
+            technicalLogRepository::deleteByIds);
+      }
+    }
+    return deleted;
+  }
+
+  private long purgeBusinessLogs(LocalDateTime now) {
+    var deleted = 0L;
+    var levelsByRetention = groupByRetention(logRetentionPolicy::businessRetention);
+    for (var entry : levelsByRetention.entrySet()) {
+      var levels = entry.getValue();
+      deleted += deleteDayByDay(
+          oldestOf(levels, businessLogRepository::findOldestDate),
+          now.minus(entry.getKey()),
+          (from, to) -> businessLogRepository.findIdsInRange(
+              levels, from, to, PageRequest.of(0, batchSize)),
+          businessLogRepository::deleteByIds);
+    }
+    return deleted;
+  }
+
+  // Each group starts at its own oldest log, not at the oldest log of the table
+  private static LocalDateTime oldestOf(
+      List<String> levels, Function<String, LocalDateTime> findOldestDate) {
+    LocalDateTime oldest = null;
+    for (var level : levels) {
+      var date = findOldestDate.apply(level);
+      if (date != null && (oldest == null || date.isBefore(oldest))) {
+        oldest = date;
+      }
+    }
+    return oldest;
+  }
+
+  private static Map<Duration, List<String>> groupByRetention(
+      Function<String, Optional<Duration>> retentionOfLevel) {
+    var levelsByRetention = new HashMap<Duration, List<String>>();
+    for (var level : LogRetentionPolicy.LEVELS) {
+      retentionOfLevel.apply(level).ifPresent(retention -> levelsByRetention
+          .computeIfAbsent(retention, r -> new ArrayList<>())
+          .add(level));
+    }
+    return levelsByRetention;
+  }
+
+  private long deleteDayByDay(
+      LocalDateTime oldest,
+      LocalDateTime limit,
+      BiFunction<LocalDateTime, LocalDateTime, List<Integer>> findIdsInRange,
+      ToIntFunction<List<Integer>> deleteByIds) {
+    if (oldest == null) {
+      return 0;
+    }
+    var deleted = 0L;
+    var day = oldest.toLocalDate().atStartOfDay();
+    while (day.isBefore(limit)) {
+      var nextDay = day.plusDays(1);
+      var end = nextDay.isBefore(limit) ? nextDay : limit;
+      List<Integer> ids;
+      do {
+        ids = findIdsInRange.apply(day, end);
+        if (!ids.isEmpty()) {
+          deleted += deleteByIds.applyAsInt(ids);
+        }
+      } while (ids.size() == batchSize);
+      day = nextDay;
+    }
+    return deleted;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.retention;
+
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.Level;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * How long the logs are kept in the database.<br>
+ * The durations are ISO-8601 durations (P30D, PT12H...) read from the properties :<br>
+ * - logs.retention.technical.default ;<br>
+ * - logs.retention.technical.level.&lt;LEVEL&gt; ;<br>
+ * - logs.retention.technical.component.&lt;COMPONENT&gt; ;<br>
+ * - logs.retention.business.default ;<br>
+ * - logs.retention.business.level.&lt;LEVEL&gt;.<br>
+ * When both a level and a component retention apply, the shortest one wins.
+ * Logs without any retention are kept forever.
+ */
+@Component
+public class LogRetentionPolicy {
+
+  private static final String PREFIX = "logs.retention.";
+
+  /**
+   * The names of the levels written by the CustomLogger.
+   */
+  static final List<String> LEVELS = Stream.of(
+          Level.FATAL, Level.ERROR, Level.WARN, Level.INFO, Level.DEBUG, Level.TRACE)
+      .map(Level::name)
+      .toList();
+
+  private final Map<TechnicalLogEntity.Component, Map<String, Duration>> technicalRetentions =
+      new EnumMap<>(TechnicalLogEntity.Component.class);
+
+  private final Map<String, Duration> businessRetentions = new HashMap<>();
+
+  /**
+   * LogRetentionPolicy's constructor.
+   *
+   * @param environment The environment containing the retention properties.
+   */
+  @Autowired
+  public LogRetentionPolicy(Environment environment) {
+    Objects.requireNonNull(environment);
+    var technicalDefault = read(environment, "technical.default");
+    for (var component : TechnicalLogEntity.Component.values()) {
+      var byComponent = read(environment, "technical.component." + component.name());
+      var retentions = new HashMap<String, Duration>();
+      for (var level : LEVELS) {
+        var byLevel = read(environment, "technical.level." + level);
+        shortest(byLevel, byComponent)
+            .or(() -> technicalDefault)
+            .ifPresent(retention -> retentions.put(level, retention));
+      }
+      technicalRetentions.put(component, Map.copyOf(retentions));
+    }
+    var businessDefault = read(environment, "business.default");
+    for (var level : LEVELS) {
+      read(environment, "business.level." + level)
+          .or(() -> businessDefault)
+          .ifPresent(retention -> businessRetentions.put(level, retention));
+    }
+  }
+
+  private static Optional<Duration> read(Environment environment, String key) {
+    var value = environment.getProperty(PREFIX + key);
+    if (value == null || value.isBlank()) {
+      return Optional.empty();
+    }
+    var duration = Duration.parse(value.strip());
+    if (duration.isNegative()) {
+      throw new IllegalStateException("Negative retention for " + PREFIX + key);
+    }
+    return Optional.of(duration);
+  }
+
+  private static Optional<Duration> shortest(Optional<Duration> first, Optional<Duration> second) {
+    if (first.isEmpty()) {
+      return second;
+    }
+    if (second.isEmpty()) {
+      return first;
+    }
+    return Optional.of(first.get().compareTo(second.get()) <= 0 ? first.get() : second.get());
+  }
+
+  /**
+   * Returns the retention of the technical logs of the given component and level.
+   *
+   * @param component The component of the logs.
+   * @param level     The name of the level of the logs.
+   * @return the retention, or an empty optional if those logs are kept forever.
+   */
+  public Optional<Duration> technicalRetention(
+      TechnicalLogEntity.Component component, String level) {
+    return Optional.ofNullable(technicalRetentions.get(component).get(level));
+  }
+
+  /**
+   * Returns the retention of the business logs of the given level.
+   *
+   * @param level The name of the level of the logs.
+   * @return the retention, or an empty optional if those logs are kept forever.
+   */
+  public Optional<Duration> businessRetention(String level) {
+    return Optional.ofNullable(businessRetentions.get(level));
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.rollup;
+
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Amount of business logs written during a time bucket, for a category, a chargepoint
+ * and a level.<br>
+ * The chargepoint is only kept by id, so the rollups outlive the deleted chargepoints.
+ */
+@Entity
+@Table(
+    name = "business_log_rollups",
+    uniqueConstraints = @UniqueConstraint(
+        columnNames = {"granularity", "bucket", "category", "chargepoint_id", "level"}))
+public class BusinessLogRollup {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id")
+  private int id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "granularity", nullable = false)
+  private RollupGranularity granularity;
+
+  @Column(name = "bucket", nullable = false)
+  private LocalDateTime bucket;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "category", nullable = false)
+  private BusinessLogEntity.Category category;
+
+  @Column(name = "chargepoint_id")
+  private Integer chargepointId;
+
+  @Column(name = "level", nullable = false)
+  private String level;
+
+  @Column(name = "total", nullable = false)
+  private long total;
+
+  /**
+   * BusinessLogRollup's constructor.
+   *
+   * @param granularity   The size of the bucket.
+   * @param bucket        The start of the bucket.
+   * @param category      The category of the logs.
+   * @param chargepointId The id of the chargepoint of the logs, null if there is none.
+   * @param level         The level of the logs.
+   */
+  public BusinessLogRollup(
+      RollupGranularity granularity,
+      LocalDateTime bucket,
+      BusinessLogEntity.Category category,
+      Integer chargepointId,
+      String level) {
+    this.granularity = Objects.requireNonNull(granularity);
+    this.bucket = Objects.requireNonNull(bucket);
+    this.category = Objects.requireNonNull(category);
+    this.chargepointId = chargepointId;
+    this.level = Objects.requireNonNull(level);
+  }
+
+  /**
+   * Empty constructor. Should not be called.
+   */
+  public BusinessLogRollup() {}
+
+  public LocalDateTime getBucket() {
+    return bucket;
+  }
+
+  public BusinessLogEntity.Category getCategory() {
+    return category;
+  }
+
+  public long getTotal() {
+    return total;
+  }
+
+  public void add(long delta) {
+    total += delta;
+  }
+}
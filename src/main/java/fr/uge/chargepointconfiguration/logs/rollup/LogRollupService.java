@@ -0,0 +1,331 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.rollup;
+
+import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.logs.sealed.LogEntity;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the log rollups.<br>
+ * Every saved log increments in-memory counters, one per granularity, which are added
+ * to the rollup tables by a scheduled flush. The histograms are answered from the rollup
+ * tables and the counters not flushed yet, the log tables are never scanned.
+ */
+@Service
+public class LogRollupService {
+
+  private static final List<RollupGranularity> STORED_GRANULARITIES =
+      List.of(RollupGranularity.MINUTE, RollupGranularity.HOUR);
+
+  private record TechnicalKey(
+      RollupGranularity granularity,
+      LocalDateTime bucket,
+      TechnicalLogEntity.Component component,
+      String level) {}
+
+  private record BusinessKey(
+      RollupGranularity granularity,
+      LocalDateTime bucket,
+      BusinessLogEntity.Category category,
+      Integer chargepointId,
+      String level) {}
+
+  private final Map<TechnicalKey, Long> pendingTechnical = new ConcurrentHashMap<>();
+  private final Map<BusinessKey, Long> pendingBusiness = new ConcurrentHashMap<>();
+  private final TechnicalLogRollupRepository technicalLogRollupRepository;
+  private final BusinessLogRollupRepository businessLogRollupRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration minuteRetention;
+
+  /**
+   * LogRollupService's constructor.
+   *
+   * @param technicalLogRollupRepository A TechnicalLogRollupRepository accessing to database.
+   * @param businessLogRollupRepository  A BusinessLogRollupRepository accessing to database.
+   * @param transactionManager           The manager of the transaction of each flush.
+   * @param minuteRetention              How long the minute rollups are kept.
+   */
+  @Autowired
+  public LogRollupService(
+      TechnicalLogRollupRepository technicalLogRollupRepository,
+      BusinessLogRollupRepository businessLogRollupRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${logs.rollup.minute-retention:P7D}") Duration minuteRetention) {
+    this.technicalLogRollupRepository = Objects.requireNonNull(technicalLogRollupRepository);
+    this.businessLogRollupRepository = Objects.requireNonNull(businessLogRollupRepository);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.minuteRetention = Objects.requireNonNull(minuteRetention);
+  }
+
+  /**
+   * Counts a saved log in the rollups.
+   *
+   * @param log The saved log.
+   */
+  public void record(LogEntity log) {
+    switch (log) {
+      case TechnicalLogEntity technicalLog -> {
+        var date = dateOf(technicalLog.getDate());
+        for (var granularity : STORED_GRANULARITIES) {
+          pendingTechnical.merge(
+              new TechnicalKey(
+                  granularity,
+                  granularity.bucketOf(date),
+                  technicalLog.getComponent(),
+                  technicalLog.getLevel()),
+              1L,
+              Long::sum);
+        }
+      }
+      case BusinessLogEntity businessLog -> {
+        var date = dateOf(businessLog.getDate());
+        var chargepoint = businessLog.getChargepoint();
+        for (var granularity : STORED_GRANULARITIES) {
+          pendingBusiness.merge(
+              new BusinessKey(
+                  granularity,
+                  granularity.bucketOf(date),
+                  businessLog.getCategory(),
+                  chargepoint == null ? null : chargepoint.getId(),
+                  businessLog.getLevel()),
+              1L,
+              Long::sum);
+        }
+      }
+    }
+  }
+
+  private static LocalDateTime dateOf(LocalDateTime date) {
+    return date == null ? LocalDateTime.now() : date;
+  }
+
+  /**
+   * Adds the in-memory counters to the rollup tables,
+   * at the rate given by the property logs.rollup.flush-delay.<br>
+   * The counters are written in one transaction, with one update statement per existing
+   * rollup and an insert for the new ones ; if it fails, they are put back so the next flush
+   * writes them.
+   */
+  @Scheduled(
+      fixedDelayString = "${logs.rollup.flush-delay:PT10S}",
+      initialDelayString = "${logs.rollup.flush-delay:PT10S}")
+  public synchronized void flush() {
+    var technical = drain(pendingTechnical);
+    var business = drain(pendingBusiness);
+    if (technical.isEmpty() && business.isEmpty()) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        technical.forEach(this::writeTechnical);
+        business.forEach(this::writeBusiness);
+      });
+    } catch (RuntimeException e) {
+      technical.forEach((key, delta) -> pendingTechnical.merge(key, delta, Long::sum));
+      business.forEach((key, delta) -> pendingBusiness.merge(key, delta, Long::sum));
+      throw e;
+    }
+  }
+
+  private static <K> Map<K, Long> drain(Map<K, Long> pending) {
+    var drained = new LinkedHashMap<K, Long>();
+    for (var key : List.copyOf(pending.keySet())) {
+      // remove is atomic with the merge done by record, no increment can be lost.
+      var delta = pending.remove(key);
+      if (delta != null) {
+        drained.put(key, delta);
+      }
+    }
+    return drained;
+  }
+
+  private void writeTechnical(TechnicalKey key, long delta) {
+    var updated = technicalLogRollupRepository.increment(
+        key.granularity(), key.bucket(), key.component(), key.level(), delta);
+    if (updated == 0) {
+      var rollup = new TechnicalLogRollup(
+          key.granularity(), key.bucket(), key.component(), key.level());
+      rollup.add(delta);
+      technicalLogRollupRepository.save(rollup);
+    }
+  }
+
+  private void writeBusiness(BusinessKey key, long delta) {
+    var updated = businessLogRollupRepository.increment(
+        key.granularity(), key.bucket(), key.category(), key.chargepointId(), key.level(), delta);
+    if (updated == 0) {
+      var rollup = new BusinessLogRollup(
+          key.granularity(), key.bucket(), key.category(), key.chargepointId(), key.level());
+      rollup.add(delta);
+      businessLogRollupRepository.save(rollup);
+    }
+  }
+
+  /**
+   * Returns the histogram of the technical logs, with one series per component.
+   *
+   * @param granularity The size of the buckets.
+   * @param from        The inclusive start of the range.
+   * @param to          The exclusive end of the range.
+   * @param component   The component, null for all of them.
+   * @param level       The level, null for all of them.
+   * @return the non-empty buckets, sorted by date. Only the stored buckets entirely within
+   *         the range are counted.
+   */
+  public List<LogHistogramDto> technicalHistogram(
+      RollupGranularity granularity,
+      LocalDateTime from,
+      LocalDateTime to,
+      TechnicalLogEntity.Component component,
+      String level) {
+    checkRange(granularity, from, to);
+    var stored = granularity.stored();
+    var start = stored.firstBucketFrom(from);
+    var end = stored.bucketOf(to);
+    var histogram = new Histogram(granularity);
+    if (!start.isBefore(end)) {
+      return histogram.toList();
+    }
+    technicalLogRollupRepository.findRange(stored, start, end, component, level)
+        .forEach(rollup -> histogram.add(
+            rollup.getBucket(), rollup.getComponent().name(), rollup.getTotal()));
+    pendingTechnical.forEach((key, delta) -> {
+      if (key.granularity() == stored
+          && isWithin(key.bucket(), start, end)
+          && (component == null || key.component() == component)
+          && (level == null || key.level().equals(level))) {
+        histogram.add(key.bucket(), key.component().name(), delta);
+      }
+    });
+    return histogram.toList();
+  }
+
+  /**
+   * Returns the histogram of the business logs, with one series per category.
+   *
+   * @param granularity   The size of the buckets.
+   * @param from          The inclusive start of the range.
+   * @param to            The exclusive end of the range.
+   * @param category      The category, null for all of them.
+   * @param chargepointId The id of the chargepoint, null for all of them.
+   * @param level         The level, null for all of them.
+   * @return the non-empty buckets, sorted by date. Only the stored buckets entirely within
+   *         the range are counted.
+   */
+  public List<LogHistogramDto> businessHistogram(
+      RollupGranularity granularity,
+      LocalDateTime from,
+      LocalDateTime to,
+      BusinessLogEntity.Category category,
+      Integer chargepointId,
+      String level) {
+    checkRange(granularity, from, to);
+    var stored = granularity.stored();
+    var start = stored.firstBucketFrom(from);
+    var end = stored.bucketOf(to);
+    var histogram = new Histogram(granularity);
+    if (!start.isBefore(end)) {
+      return histogram.toList();
+    }
+    businessLogRollupRepository.findRange(stored, start, end, category, chargepointId, level)
+        .forEach(rollup -> histogram.add(
+            rollup.getBucket(), rollup.getCategory().name(), rollup.getTotal()));
+    pendingBusiness.forEach((key, delta) -> {
+      if (key.granularity() == stored
+          && isWithin(key.bucket(), start, end)
+          && (category == null || key.category() == category)
+          && (chargepointId == null || chargepointId.equals(key.chargepointId()))
+          && (level == null || key.level().equals(level))) {
+        histogram.add(key.bucket(), key.category().name(), delta);
+      }
+    });
+    return histogram.toList();
+  }
+
+  private static boolean isWithin(LocalDateTime bucket, LocalDateTime start, LocalDateTime end) {
+    return !bucket.isBefore(start) && bucket.isBefore(end);
+  }
+
+  private static void checkRange(
+      RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+    Objects.requireNonNull(granularity);
+    Objects.requireNonNull(from);
+    Objects.requireNonNull(to);
+    if (!from.isBefore(to)) {
+      throw new BadRequestException("La date de début doit précéder la date de fin.");
+    }
+  }
+
+  /**
+   * Deletes the minute rollups older than the property logs.rollup.minute-retention.
+   *
+   * @param now The date used to compute the expiration of the rollups.
+   * @return the amount of deleted rollups.
+   */
+  public int purgeMinuteRollups(LocalDateTime now) {
+    var limit = now.minus(minuteRetention);
+    return technicalLogRollupRepository.deleteOlderThan(RollupGranularity.MINUTE, limit)
+        + businessLogRollupRepository.deleteOlderThan(RollupGranularity.MINUTE, limit);
+  }
+
+  private static final class Histogram {
+    private record Point(LocalDateTime start, String series) {}
+
+    private final RollupGranularity granularity;
+    private final Map<Point, Long> totals = new TreeMap<>(
+        Comparator.comparing(Point::start).thenComparing(Point::series));
+
+    private Histogram(RollupGranularity granularity) {
+      this.granularity = granularity;
+    }
+
+    private void add(LocalDateTime bucket, String series, long total) {
+      totals.merge(new Point(granularity.bucketOf(bucket), series), total, Long::sum);
+    }
+
+    private List<LogHistogramDto> toList() {
+      var result = new ArrayList<LogHistogramDto>(totals.size());
+      totals.forEach((point, total) ->
+          result.add(new LogHistogramDto(point.start(), point.series(), total)));
+      return result;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.rollup;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Size of the time buckets of the log rollups.<br>
+ * MINUTE and HOUR are stored in the rollup tables, DAY is computed from the HOUR rollups.
+ */
+public enum RollupGranularity {
+  MINUTE,
+  HOUR,
+  DAY;
+
+  /**
+   * Returns the start of the bucket containing the given date.
+   *
+   * @param date A date.
+   * @return the start of the bucket.
+   */
+  public LocalDateTime bucketOf(LocalDateTime date) {
+    return switch (this) {
+      case MINUTE -> date.truncatedTo(ChronoUnit.MINUTES);
+      case HOUR -> date.truncatedTo(ChronoUnit.HOURS);
+      case DAY -> date.truncatedTo(ChronoUnit.DAYS);
+    };
+  }
+
+  /**
+   * Returns the start of the first bucket which does not begin before the given date.
+   *
+   * @param date A date.
+   * @return the given date if it starts a bucket, otherwise the start of the next bucket.
+   */
+  public LocalDateTime firstBucketFrom(LocalDateTime date) {
+    var start = bucketOf(date);
+    if (start.equals(date)) {
+      return start;
+    }
+    return switch (this) {
+      case MINUTE -> start.plusMinutes(1);
+      case HOUR -> start.plusHours(1);
+      case DAY -> start.plusDays(1);
+    };
+  }
+
+  /**
+   * Returns the granularity of the rows read to answer a query at this granularity.
+   *
+   * @return the stored granularity.
+   */
+  public RollupGranularity stored() {
+    return this == DAY ? HOUR : this;
+  }
+}
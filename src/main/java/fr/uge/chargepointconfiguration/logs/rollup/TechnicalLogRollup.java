@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.rollup;
+
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Amount of technical logs written during a time bucket, for a component and a level.
+ */
+@Entity
+@Table(
+    name = "technical_log_rollups",
+    uniqueConstraints =
+        @UniqueConstraint(columnNames = {"granularity", "bucket", "component", "level"}))
+public class TechnicalLogRollup {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id")
+  private int id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "granularity", nullable = false)
+  private RollupGranularity granularity;
+
+  @Column(name = "bucket", nullable = false)
+  private LocalDateTime bucket;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "component", nullable = false)
+  private TechnicalLogEntity.Component component;
+
+  @Column(name = "level", nullable = false)
+  private String level;
+
+  @Column(name = "total", nullable = false)
+  private long total;
+
+  /**
+   * TechnicalLogRollup's constructor.
+   *
+   * @param granularity The size of the bucket.
+   * @param bucket      The start of the bucket.
+   * @param component   The component of the logs.
+   * @param level       The level of the logs.
+   */
+  public TechnicalLogRollup(
+      RollupGranularity granularity,
+      LocalDateTime bucket,
+      TechnicalLogEntity.Component component,
+      String level) {
+    this.granularity = Objects.requireNonNull(granularity);
+    this.bucket = Objects.requireNonNull(bucket);
+    this.component = Objects.requireNonNull(component);
+    this.level = Objects.requireNonNull(level);
+  }
+
+  /**
+   * Empty constructor. Should not be called.
+   */
+  public TechnicalLogRollup() {}
+
+  public LocalDateTime getBucket() {
+    return bucket;
+  }
+
+  public TechnicalLogEntity.Component getComponent() {
+    return component;
+  }
+
+  public long getTotal() {
+    return total;
+  }
+
+  public void add(long delta) {
+    total += delta;
+  }
+}
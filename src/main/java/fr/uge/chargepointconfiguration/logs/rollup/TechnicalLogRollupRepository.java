@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.rollup;
+
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for the technical log rollups.
+ */
+@Repository
+public interface TechnicalLogRollupRepository extends CrudRepository<TechnicalLogRollup, Integer> {
+
+  /**
+   * Adds a delta to the total of a rollup, in one statement.
+   *
+   * @param granularity The size of the bucket.
+   * @param bucket      The start of the bucket.
+   * @param component   The component of the logs.
+   * @param level       The level of the logs.
+   * @param delta       The amount of logs to add.
+   * @return 1 if the rollup was updated, 0 if it does not exist yet.
+   */
+  @Transactional
+  @Modifying
+  @Query("""
+      update TechnicalLogRollup r set r.total = r.total + :delta
+      where r.granularity = :granularity and r.bucket = :bucket
+        and r.component = :component and r.level = :level
+      """)
+  int increment(
+      @Param("granularity") RollupGranularity granularity,
+      @Param("bucket") LocalDateTime bucket,
+      @Param("component") TechnicalLogEntity.Component component,
+      @Param("level") String level,
+      @Param("delta") long delta);
+
+  /**
+   * Returns the rollups of a time range, optionally restricted to a component and a level.
+   *
+   * @param granularity The stored granularity.
+   * @param from        The inclusive start of the range.
+   * @param to          The exclusive end of the range.
+   * @param component   The component, null for all of them.
+   * @param level       The level, null for all of them.
+   * @return the rollups, sorted by bucket.
+   */
+  @Query("""
+      select r from TechnicalLogRollup r
+      where r.granularity = :granularity and r.bucket >= :from and r.bucket < :to
+        and (:component is null or r.component = :component)
+        and (:level is null or r.level = :level)
+      order by r.bucket
+      """)
+  List<TechnicalLogRollup> findRange(
+      @Param("granularity") RollupGranularity granularity,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to,
+      @Param("component") TechnicalLogEntity.Component component,
+      @Param("level") String level);
+
+  @Transactional
+  @Modifying
+  @Query("""
+      delete from TechnicalLogRollup r where r.granularity = :granularity and r.bucket < :limit
+      """)
+  int deleteOlderThan(
+      @Param("granularity") RollupGranularity granularity, @Param("limit") LocalDateTime limit);
+}
@@ -24,15 +24,20 @@ package fr.uge.chargepointconfiguration.logs.sealed;
 
 import fr.uge.chargepointconfiguration.chargepoint.Chargepoint;
 import fr.uge.chargepointconfiguration.logs.business.BusinessLogDto;
+import fr.uge.chargepointconfiguration.shared.CountingEntityListener;
+import fr.uge.chargepointconfiguration.shared.FieldSelection;
+import fr.uge.chargepointconfiguration.shared.NotSearchable;
 import fr.uge.chargepointconfiguration.user.User;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -48,7 +53,15 @@ import org.hibernate.annotations.CreationTimestamp;
  * a charge point, a firmware version and the complete log.
  */
 @Entity
-@Table(name = "business_logs")
+@Table(
+    name = "business_logs",
+    indexes = {
+      @Index(name = "idx_business_logs_date", columnList = "date"),
+      @Index(name = "idx_business_logs_retention", columnList = "level, date"),
+      @Index(name = "idx_business_logs_chargepoint", columnList = "chargepoint_id, date"),
+      @Index(name = "idx_business_logs_action", columnList = "ocpp_action, date")
+    })
+@EntityListeners(CountingEntityListener.class)
 public final class BusinessLogEntity implements LogEntity {
 
   /**
@@ -78,6 +91,7 @@ public final class BusinessLogEntity implements LogEntity {
    * The quote for user ("user") are here to specify the database H2 that
    * user isn't the key word user, but a field user in the database.
    */
+  @NotSearchable
   @ManyToOne(cascade = CascadeType.MERGE)
   @JoinColumn(name = "user_id", referencedColumnName = "id", columnDefinition = "int default NULL")
   private User user = null;
@@ -99,6 +113,9 @@ public final class BusinessLogEntity implements LogEntity {
   @Column(name = "complete_log", nullable = false)
   private String completeLog;
 
+  @Column(name = "ocpp_action")
+  private String ocppAction;
+
   /**
    * BusinessLog's constructor.
    *
@@ -185,6 +202,14 @@ public final class BusinessLogEntity implements LogEntity {
     this.level = level;
   }
 
+  public String getOcppAction() {
+    return ocppAction;
+  }
+
+  public void setOcppAction(String ocppAction) {
+    this.ocppAction = ocppAction;
+  }
+
   public String getCompleteLog() {
     return completeLog;
   }
@@ -223,14 +248,26 @@ public final class BusinessLogEntity implements LogEntity {
   }
 
   public BusinessLogDto toDto() {
+    return toDto(FieldSelection.ALL);
+  }
+
+  /**
+   * Converts the log into its DTO.<br>
+   * The user and the chargepoint are left null when they are not selected.
+   *
+   * @param fields the properties requested.
+   * @return the {@link BusinessLogDto}.
+   */
+  public BusinessLogDto toDto(FieldSelection fields) {
     return new BusinessLogDto(
         this.id,
         Timestamp.valueOf(date),
-        user != null ? this.user.toDto() : null,
-        chargepoint != null ? this.chargepoint.toDto() : null,
+        user != null && fields.includes("user") ? this.user.toDto() : null,
+        chargepoint != null && fields.includes("chargepoint") ? this.chargepoint.toDto() : null,
         this.category,
         this.level,
-        this.completeLog);
+        this.completeLog,
+        this.ocppAction);
   }
 
   @Override
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.sealed;
+
+import fr.uge.chargepointconfiguration.logs.CustomLogger;
+import java.util.Objects;
+
+/**
+ * The structured fields of a log, stored in their own indexed columns by the
+ * {@link CustomLogger} instead of being written in the complete log.<br>
+ * Every field is null when it does not apply to the log.
+ *
+ * @param chargepointId The id of the chargepoint.
+ * @param sessionId     The id of the websocket session of the chargepoint.
+ * @param ocppAction    The name of the OCPP action.
+ * @param messageId     The id of the OCPP message.
+ * @param direction     Whether the message was received or sent by the server.
+ * @param durationMs    The time between the request and its response, in milliseconds.
+ */
+public record LogContext(
+    Integer chargepointId,
+    String sessionId,
+    String ocppAction,
+    Long messageId,
+    TechnicalLogEntity.Direction direction,
+    Long durationMs) {
+
+  /**
+   * The context of a log without any structured field.
+   */
+  public static final LogContext EMPTY = new LogContext(null, null, null, null, null, null);
+
+  /**
+   * Returns the context of a message received from a chargepoint.
+   *
+   * @param chargepointId The id of the chargepoint, null if unknown.
+   * @param sessionId     The id of the websocket session.
+   * @param ocppAction    The name of the OCPP action, null if unknown.
+   * @param messageId     The id of the message.
+   * @return the {@link LogContext} of the message.
+   */
+  public static LogContext inbound(
+      Integer chargepointId, String sessionId, String ocppAction, long messageId) {
+    Objects.requireNonNull(sessionId);
+    return new LogContext(
+        chargepointId, sessionId, ocppAction, messageId, TechnicalLogEntity.Direction.INBOUND,
+        null);
+  }
+
+  /**
+   * Returns the context of a message sent to a chargepoint.
+   *
+   * @param chargepointId The id of the chargepoint, null if unknown.
+   * @param sessionId     The id of the websocket session.
+   * @param ocppAction    The name of the OCPP action, null if unknown.
+   * @param messageId     The id of the message.
+   * @return the {@link LogContext} of the message.
+   */
+  public static LogContext outbound(
+      Integer chargepointId, String sessionId, String ocppAction, long messageId) {
+    Objects.requireNonNull(sessionId);
+    return new LogContext(
+        chargepointId, sessionId, ocppAction, messageId, TechnicalLogEntity.Direction.OUTBOUND,
+        null);
+  }
+
+  /**
+   * Returns the context of a log about an OCPP action.
+   *
+   * @param ocppAction The name of the OCPP action.
+   * @return the {@link LogContext} of the action.
+   */
+  public static LogContext action(String ocppAction) {
+    Objects.requireNonNull(ocppAction);
+    return new LogContext(null, null, ocppAction, null, null, null);
+  }
+
+  /**
+   * Returns a copy of this context with the given duration.
+   *
+   * @param durationMs The time between the request and its response, in milliseconds.
+   * @return the new {@link LogContext}.
+   */
+  public LogContext withDuration(long durationMs) {
+    return new LogContext(chargepointId, sessionId, ocppAction, messageId, direction, durationMs);
+  }
+}
@@ -23,13 +23,16 @@
 package fr.uge.chargepointconfiguration.logs.sealed;
 
 import fr.uge.chargepointconfiguration.logs.technical.TechnicalLogDto;
+import fr.uge.chargepointconfiguration.shared.CountingEntityListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
@@ -39,10 +42,21 @@ import org.hibernate.annotations.CreationTimestamp;
 
 /**
  * Technical class represents a technical log in the database via JPA.<br>
- * A technical log has an id, a date, a component, a criticality and the complete log.
+ * A technical log has an id, a date, a component, a criticality and the complete log.<br>
+ * The logs about the OCPP messages also have the structured fields of their {@link LogContext},
+ * stored in indexed columns so they can be searched without scanning the complete logs.
  */
 @Entity
-@Table(name = "technical_logs")
+@Table(
+    name = "technical_logs",
+    indexes = {
+      @Index(name = "idx_technical_logs_date", columnList = "date"),
+      @Index(name = "idx_technical_logs_retention", columnList = "component, level, date"),
+      @Index(name = "idx_technical_logs_chargepoint", columnList = "chargepoint_id, date"),
+      @Index(name = "idx_technical_logs_session", columnList = "session_id, date"),
+      @Index(name = "idx_technical_logs_action", columnList = "ocpp_action, date")
+    })
+@EntityListeners(CountingEntityListener.class)
 public final class TechnicalLogEntity implements LogEntity {
 
   /**
@@ -60,6 +74,16 @@ public final class TechnicalLogEntity implements LogEntity {
     DATABASE
   }
 
+  /**
+   * Direction of the OCPP message of the log.<br>
+   * - INBOUND : received from the chargepoint ;<br>
+   * - OUTBOUND : sent to the chargepoint.
+   */
+  public enum Direction {
+    INBOUND,
+    OUTBOUND
+  }
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   @Column(name = "id")
@@ -79,6 +103,25 @@ public final class TechnicalLogEntity implements LogEntity {
   @Column(name = "complete_log", nullable = false)
   private String completeLog;
 
+  @Column(name = "chargepoint_id")
+  private Integer chargepointId;
+
+  @Column(name = "session_id")
+  private String sessionId;
+
+  @Column(name = "ocpp_action")
+  private String ocppAction;
+
+  @Column(name = "message_id")
+  private Long messageId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "direction")
+  private Direction direction;
+
+  @Column(name = "duration_ms")
+  private Long durationMs;
+
   /**
    * TechnicalLog's constructor.
    *
@@ -93,6 +136,25 @@ public final class TechnicalLogEntity implements LogEntity {
     date = LocalDateTime.now();
   }
 
+  /**
+   * TechnicalLog's constructor with the structured fields.
+   *
+   * @param component {@link Component}
+   * @param level String version of {@link Level}
+   * @param completeLog All the log in a String.
+   * @param context The structured fields of the log.
+   */
+  public TechnicalLogEntity(
+      Component component, String level, String completeLog, LogContext context) {
+    this(component, level, completeLog);
+    chargepointId = context.chargepointId();
+    sessionId = context.sessionId();
+    ocppAction = context.ocppAction();
+    messageId = context.messageId();
+    direction = context.direction();
+    durationMs = context.durationMs();
+  }
+
   /**
    * Empty constructor. Should not be called.
    */
@@ -188,6 +250,60 @@ public final class TechnicalLogEntity implements LogEntity {
     this.completeLog = completeLog;
   }
 
+  /**
+   * Get the id of the chargepoint of the log.
+   *
+   * @return chargepointId, null if the log is not about a chargepoint.
+   */
+  public Integer getChargepointId() {
+    return chargepointId;
+  }
+
+  /**
+   * Get the id of the websocket session of the log.
+   *
+   * @return sessionId, null if the log is not about a session.
+   */
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  /**
+   * Get the OCPP action of the log.
+   *
+   * @return ocppAction, null if the log is not about an OCPP message.
+   */
+  public String getOcppAction() {
+    return ocppAction;
+  }
+
+  /**
+   * Get the id of the OCPP message of the log.
+   *
+   * @return messageId, null if the log is not about an OCPP message.
+   */
+  public Long getMessageId() {
+    return messageId;
+  }
+
+  /**
+   * Get the direction of the OCPP message of the log.
+   *
+   * @return {@link Direction}, null if the log is not about an OCPP message.
+   */
+  public Direction getDirection() {
+    return direction;
+  }
+
+  /**
+   * Get the time between the request and the response of the log.
+   *
+   * @return durationMs, null if the log is not about a response.
+   */
+  public Long getDurationMs() {
+    return durationMs;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -225,6 +341,17 @@ public final class TechnicalLogEntity implements LogEntity {
   }
 
   public TechnicalLogDto toDto() {
-    return new TechnicalLogDto(id, Timestamp.valueOf(date), component, level, completeLog);
+    return new TechnicalLogDto(
+        id,
+        Timestamp.valueOf(date),
+        component,
+        level,
+        completeLog,
+        chargepointId,
+        sessionId,
+        ocppAction,
+        messageId,
+        direction,
+        durationMs);
   }
 }
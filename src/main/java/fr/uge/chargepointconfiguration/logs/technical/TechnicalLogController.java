@@ -22,25 +22,37 @@
  */
 package fr.uge.chargepointconfiguration.logs.technical;
 
+import fr.uge.chargepointconfiguration.logs.rollup.LogHistogramDto;
+import fr.uge.chargepointconfiguration.logs.rollup.LogRollupService;
+import fr.uge.chargepointconfiguration.logs.rollup.RollupGranularity;
 import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import fr.uge.chargepointconfiguration.shared.EntityExporter;
+import fr.uge.chargepointconfiguration.shared.ExportColumn;
+import fr.uge.chargepointconfiguration.shared.ExportFormat;
+import fr.uge.chargepointconfiguration.shared.FieldSelection;
 import fr.uge.chargepointconfiguration.shared.PageDto;
+import fr.uge.chargepointconfiguration.shared.TotalMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.apache.logging.log4j.Level;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Controller for technical log.
@@ -50,16 +62,40 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Technical log", description = "The technical log API")
 public class TechnicalLogController {
 
+  private static final List<ExportColumn<TechnicalLogEntity>> EXPORT_COLUMNS = List.of(
+      new ExportColumn<>("id", TechnicalLogEntity::getId),
+      new ExportColumn<>("date", TechnicalLogEntity::getDate),
+      new ExportColumn<>("component", TechnicalLogEntity::getComponent),
+      new ExportColumn<>("level", TechnicalLogEntity::getLevel),
+      new ExportColumn<>("completeLog", TechnicalLogEntity::getCompleteLog),
+      new ExportColumn<>("chargepointId", TechnicalLogEntity::getChargepointId),
+      new ExportColumn<>("sessionId", TechnicalLogEntity::getSessionId),
+      new ExportColumn<>("ocppAction", TechnicalLogEntity::getOcppAction),
+      new ExportColumn<>("messageId", TechnicalLogEntity::getMessageId),
+      new ExportColumn<>("direction", TechnicalLogEntity::getDirection),
+      new ExportColumn<>("durationMs", TechnicalLogEntity::getDurationMs));
+
   private final TechnicalLogService technicalLogService;
 
+  private final LogRollupService logRollupService;
+
+  private final EntityExporter entityExporter;
+
   /**
    * TechnicalLogController's constructor.
    *
    * @param technicalLogService a TechnicalLogService.
+   * @param logRollupService a LogRollupService.
+   * @param entityExporter an EntityExporter.
    */
   @Autowired
-  public TechnicalLogController(TechnicalLogService technicalLogService) {
+  public TechnicalLogController(
+      TechnicalLogService technicalLogService,
+      LogRollupService logRollupService,
+      EntityExporter entityExporter) {
     this.technicalLogService = technicalLogService;
+    this.logRollupService = logRollupService;
+    this.entityExporter = entityExporter;
   }
 
   /**
@@ -126,8 +162,17 @@ public class TechnicalLogController {
           String order,
       @Parameter(description = "The request used to search.")
           @RequestParam(required = false, defaultValue = "")
-          String request) {
-    var total = technicalLogService.countTotalWithFilter(request);
+          String request,
+      @Parameter(description = "How the total must be computed : EXACT, ESTIMATED or NONE.")
+          @RequestParam(required = false, defaultValue = "EXACT")
+          TotalMode totalMode,
+      @Parameter(description = "Comma-separated properties to return, all of them if empty.")
+          @RequestParam(required = false, defaultValue = "")
+          String fields) {
+    FieldSelection.parse(fields, TechnicalLogDto.class);
+    var total = totalMode.resolve(
+        () -> technicalLogService.countTotalWithFilter(request),
+        () -> technicalLogService.estimateTotalWithFilter(request));
     var totalElement = technicalLogService.count();
 
     var data = technicalLogService
@@ -139,4 +184,78 @@ public class TechnicalLogController {
 
     return new PageDto<>(total, totalElement, page, size, data);
   }
+
+  /**
+   * Returns the amount of technical logs per component and per time bucket.
+   *
+   * @param granularity The size of the buckets.
+   * @param from The inclusive start of the range.
+   * @param to The exclusive end of the range.
+   * @param component The component, all of them if absent.
+   * @param level The level, all of them if absent.
+   * @return the non-empty buckets, sorted by date.
+   */
+  @Operation(summary = "Get the histogram of the technical logs")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Found the histogram of the technical logs",
+      content = {
+        @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = LogHistogramDto.class))
+      })
+  @GetMapping(value = "/histogram")
+  @PreAuthorize("hasRole('EDITOR')")
+  public List<LogHistogramDto> getHistogram(
+      @Parameter(description = "Size of the buckets : MINUTE, HOUR or DAY.")
+          @RequestParam(required = false, defaultValue = "HOUR")
+          RollupGranularity granularity,
+      @Parameter(description = "Inclusive start of the range.")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime from,
+      @Parameter(description = "Exclusive end of the range.")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime to,
+      @Parameter(description = "The component of the logs.")
+          @RequestParam(required = false)
+          TechnicalLogEntity.Component component,
+      @Parameter(description = "The level of the logs.") @RequestParam(required = false)
+          Level level) {
+    return logRollupService.technicalHistogram(
+        granularity, from, to, component, level == null ? null : level.name());
+  }
+
+  /**
+   * Exports the technical logs matching the request, without loading them all in memory.
+   *
+   * @param format The format of the export.
+   * @param gzip Whether the export is compressed.
+   * @param request The request used to filter.
+   * @return the streamed export.
+   */
+  @Operation(summary = "Export the technical logs")
+  @ApiResponse(responseCode = "200", description = "The technical logs are streamed")
+  @GetMapping(value = "/export")
+  @PreAuthorize("hasRole('EDITOR')")
+  public ResponseEntity<StreamingResponseBody> export(
+      @Parameter(description = "The format of the export : NDJSON or CSV.")
+          @RequestParam(required = false, defaultValue = "NDJSON")
+          ExportFormat format,
+      @Parameter(description = "Whether the export is compressed with gzip.")
+          @RequestParam(required = false, defaultValue = "false")
+          boolean gzip,
+      @Parameter(description = "The request used to filter.")
+          @RequestParam(required = false, defaultValue = "")
+          String request) {
+    return entityExporter.export(
+        "technical-logs",
+        TechnicalLogEntity.class,
+        technicalLogService.specification(request),
+        format,
+        gzip,
+        EXPORT_COLUMNS,
+        TechnicalLogEntity::toDto);
+  }
 }
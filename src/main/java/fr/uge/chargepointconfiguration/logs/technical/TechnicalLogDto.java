@@ -34,10 +34,22 @@ import org.apache.logging.log4j.Level;
  * @param component {@link TechnicalLogEntity.Component}
  * @param level {@link Level}
  * @param completeLog All the log in one String.
+ * @param chargepointId The id of the chargepoint, null if not.
+ * @param sessionId The id of the websocket session, null if not.
+ * @param ocppAction The name of the OCPP action, null if not.
+ * @param messageId The id of the OCPP message, null if not.
+ * @param direction {@link TechnicalLogEntity.Direction}, null if not.
+ * @param durationMs The time between the request and its response, null if not.
  */
 public record TechnicalLogDto(
     int id,
     Timestamp date,
     TechnicalLogEntity.Component component,
     String level,
-    String completeLog) {}
+    String completeLog,
+    Integer chargepointId,
+    String sessionId,
+    String ocppAction,
+    Long messageId,
+    TechnicalLogEntity.Direction direction,
+    Long durationMs) {}
@@ -22,15 +22,23 @@
  */
 package fr.uge.chargepointconfiguration.logs.technical;
 
+import fr.uge.chargepointconfiguration.logs.index.LogText;
 import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import fr.uge.chargepointconfiguration.shared.SliceSpecificationExecutor;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.apache.logging.log4j.Level;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository for technical log.
@@ -39,14 +47,8 @@ import org.springframework.stereotype.Repository;
 public interface TechnicalLogRepository
     extends CrudRepository<TechnicalLogEntity, Integer>,
         PagingAndSortingRepository<TechnicalLogEntity, Integer>,
-        JpaSpecificationExecutor<TechnicalLogEntity> {
-
-  /**
-   * Method to return all technical logs.
-   *
-   * @return a list of all technical logs.
-   */
-  List<TechnicalLogEntity> findAllByOrderByIdDesc();
+        JpaSpecificationExecutor<TechnicalLogEntity>,
+        SliceSpecificationExecutor<TechnicalLogEntity> {
 
   Page<TechnicalLogEntity> findAllByOrderByIdDesc(Pageable pageable);
 
@@ -61,10 +63,80 @@ public interface TechnicalLogRepository
       TechnicalLogEntity.Component component, String level);
 
   /**
-   * Method to return all technical logs by the criticality.
+   * Returns the date of the oldest technical log of a component and a level.<br>
+   * A single level is read at a time, so the retention index answers it directly.
    *
-   * @param level {@link Level}
-   * @return the list of technical logs by criticality.
+   * @param component the type of component in the system.
+   * @param level     the level of the logs.
+   * @return the oldest date, null if there is no such technical log.
+   */
+  @Query("""
+      select min(t.date) from TechnicalLogEntity t
+      where t.component = :component and t.level = :level
+      """)
+  LocalDateTime findOldestDate(
+      @Param("component") TechnicalLogEntity.Component component, @Param("level") String level);
+
+  /**
+   * Returns the ids of the first technical logs of a component and some levels
+   * created in the given time range, sorted by id.
+   *
+   * @param component the type of component in the system.
+   * @param levels    the names of the {@link Level} to read.
+   * @param from      the inclusive start of the range.
+   * @param to        the exclusive end of the range.
+   * @param pageable  the amount of ids to read.
+   * @return the ids of the technical logs.
+   */
+  @Query("""
+      select t.id from TechnicalLogEntity t
+      where t.component = :component and t.level in :levels and t.date >= :from and t.date < :to
+      order by t.id
+      """)
+  List<Integer> findIdsInRange(
+      @Param("component") TechnicalLogEntity.Component component,
+      @Param("levels") Collection<String> levels,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to,
+      Pageable pageable);
+
+  /**
+   * Deletes, in one statement and one transaction, the technical logs with the given ids.
+   *
+   * @param ids the ids of the technical logs.
+   * @return the amount of deleted technical logs.
+   */
+  @Transactional
+  @Modifying
+  @Query("delete from TechnicalLogEntity t where t.id in :ids")
+  int deleteByIds(@Param("ids") Collection<Integer> ids);
+
+  /**
+   * Returns the texts of the logs with an id greater than the given one, sorted by id.
+   *
+   * @param id       The id after which the logs are read.
+   * @param pageable The amount of logs to read.
+   * @return the texts of the logs.
+   */
+  @Query("""
+      select new fr.uge.chargepointconfiguration.logs.index.LogText(t.id, t.completeLog)
+      from TechnicalLogEntity t where t.id > :id order by t.id
+      """)
+  List<LogText> findTextsAfter(@Param("id") int id, Pageable pageable);
+
+  /**
+   * Returns the highest id of the logs.
+   *
+   * @return the highest id, 0 if there is no log.
+   */
+  @Query("select coalesce(max(t.id), 0) from TechnicalLogEntity t")
+  int findMaxId();
+
+  /**
+   * Returns the lowest id of the logs.
+   *
+   * @return the lowest id, 0 if there is no log.
    */
-  List<TechnicalLogEntity> findAllByLevelOrderByIdDesc(String level);
+  @Query("select coalesce(min(t.id), 0) from TechnicalLogEntity t")
+  int findMinId();
 }
@@ -23,12 +23,15 @@
 package fr.uge.chargepointconfiguration.logs.technical;
 
 import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
+import fr.uge.chargepointconfiguration.logs.index.LogTextIndex;
 import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import fr.uge.chargepointconfiguration.shared.EntityCountRegistry;
 import fr.uge.chargepointconfiguration.shared.SearchUtils;
 import java.util.List;
 import org.apache.logging.log4j.Level;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 /**
@@ -39,9 +42,25 @@ public class TechnicalLogService {
 
   private final TechnicalLogRepository technicalLogRepository;
 
+  private final EntityCountRegistry entityCountRegistry;
+
+  private final LogTextIndex logTextIndex;
+
+  /**
+   * TechnicalLogService's constructor.
+   *
+   * @param technicalLogRepository A TechnicalLogRepository accessing to database.
+   * @param entityCountRegistry    The in-memory counts of the entities.
+   * @param logTextIndex           The full-text index of the logs.
+   */
   @Autowired
-  public TechnicalLogService(TechnicalLogRepository technicalLogRepository) {
+  public TechnicalLogService(
+      TechnicalLogRepository technicalLogRepository,
+      EntityCountRegistry entityCountRegistry,
+      LogTextIndex logTextIndex) {
     this.technicalLogRepository = technicalLogRepository;
+    this.entityCountRegistry = entityCountRegistry;
+    this.logTextIndex = logTextIndex;
   }
 
   public List<TechnicalLogEntity> getTechnicalLogByComponentAndLevel(
@@ -56,16 +75,28 @@ public class TechnicalLogService {
    * @return the amount of entities with the constraint of the given request
    */
   public long countTotalWithFilter(String request) {
-    try {
-      var condition = SearchUtils.computeSpecification(request, TechnicalLogEntity.class);
-      return technicalLogRepository.count(condition);
-    } catch (IllegalArgumentException e) {
-      throw new BadRequestException("Requête invalide pour les filtres : " + request, e);
-    }
+    return entityCountRegistry.countWithFilter(
+        TechnicalLogEntity.class, request, () -> countInDatabase(request));
+  }
+
+  /**
+   * Estimate the number of entities with the constraint of the given request.<br>
+   * The last known count is reused, even if entities were created since then.
+   *
+   * @param request the request used to search
+   * @return the estimated amount of entities with the constraint of the given request
+   */
+  public long estimateTotalWithFilter(String request) {
+    return entityCountRegistry.estimateWithFilter(
+        TechnicalLogEntity.class, request, () -> countInDatabase(request));
+  }
+
+  private long countInDatabase(String request) {
+    return technicalLogRepository.count(specification(request));
   }
 
   public long count() {
-    return technicalLogRepository.count();
+    return entityCountRegistry.count(TechnicalLogEntity.class, technicalLogRepository::count);
   }
 
   /**
@@ -76,9 +107,20 @@ public class TechnicalLogService {
    * @return the list of corresponding {@link TechnicalLogEntity}
    */
   public List<TechnicalLogEntity> search(String request, PageRequest pageable) {
+    SearchUtils.checkSort(pageable.getSort(), TechnicalLogEntity.class);
+    return technicalLogRepository.findSlice(specification(request), pageable).getContent();
+  }
+
+  /**
+   * Computes the JPA specification of the given request.
+   *
+   * @param request the request used to search
+   * @return the specification matching the entities with the constraint of the given request
+   */
+  public Specification<TechnicalLogEntity> specification(String request) {
     try {
-      var condition = SearchUtils.computeSpecification(request, TechnicalLogEntity.class);
-      return technicalLogRepository.findAll(condition, pageable).stream().toList();
+      return logTextIndex.restrictTechnical(
+          request, SearchUtils.computeSpecification(request, TechnicalLogEntity.class));
     } catch (IllegalArgumentException e) {
       throw new BadRequestException("Requête invalide pour les filtres : " + request, e);
     }
@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.security;
+
+import fr.uge.chargepointconfiguration.user.User;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues the bearer tokens of the machine clients and authenticates their requests.<br>
+ * A token is an opaque random value, only its SHA-256 digest is kept in memory with the
+ * authenticated user, so authenticating a request is a map lookup instead of a BCrypt
+ * verification. The tokens do not survive a restart of the server.<br>
+ * A user holds a bounded number of tokens, issuing one more revokes the oldest,
+ * and the expired tokens are purged periodically.
+ */
+@Component
+public class BearerTokenService {
+
+  private static final int TOKEN_BYTES = 32;
+
+  private record IssuedToken(int userId, Authentication authentication, LocalDateTime expiration) {
+    boolean isExpired(LocalDateTime now) {
+      return expiration.isBefore(now);
+    }
+  }
+
+  /**
+   * The authentication of a request carrying a token, told apart from the other ones
+   * so a token cannot be used to issue new tokens.
+   */
+  private static final class TokenAuthentication extends UsernamePasswordAuthenticationToken {
+    private static final long serialVersionUID = 1L;
+
+    private TokenAuthentication(UserDetailsImpl details) {
+      super(details, null, details.getAuthorities());
+    }
+  }
+
+  private final ConcurrentHashMap<String, IssuedToken> tokens = new ConcurrentHashMap<>();
+  private final SecureRandom random = new SecureRandom();
+  private final Duration ttl;
+  private final int maxPerUser;
+
+  /**
+   * BearerTokenService's constructor.
+   *
+   * @param ttl        How long an issued token is valid.
+   * @param maxPerUser The maximum number of valid tokens of a user.
+   */
+  @Autowired
+  public BearerTokenService(
+      @Value("${security.token.ttl:PT12H}") Duration ttl,
+      @Value("${security.token.max-per-user:16}") int maxPerUser) {
+    if (ttl.isZero() || ttl.isNegative()) {
+      throw new IllegalArgumentException("The validity of the tokens must be positive.");
+    }
+    if (maxPerUser <= 0) {
+      throw new IllegalArgumentException("The maximum number of tokens must be positive.");
+    }
+    this.ttl = ttl;
+    this.maxPerUser = maxPerUser;
+  }
+
+  /**
+   * Issues a new token for the given user.
+   *
+   * @param user The user authenticated by the token.
+   * @return the token and its expiration.
+   */
+  public synchronized TokenDto issue(User user) {
+    Objects.requireNonNull(user);
+    var now = LocalDateTime.now();
+    var issuedToUser = tokens.entrySet().stream()
+        .filter(entry -> entry.getValue().userId() == user.getId())
+        .sorted(Comparator.comparing(entry -> entry.getValue().expiration()))
+        .map(Map.Entry::getKey)
+        .toList();
+    for (var i = 0; i <= issuedToUser.size() - maxPerUser; i++) {
+      tokens.remove(issuedToUser.get(i));
+    }
+    var bytes = new byte[TOKEN_BYTES];
+    random.nextBytes(bytes);
+    var token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    var authentication = new TokenAuthentication(new UserDetailsImpl(user));
+    var expiration = now.plus(ttl);
+    tokens.put(digest(token), new IssuedToken(user.getId(), authentication, expiration));
+    return new TokenDto(token, expiration);
+  }
+
+  /**
+   * Tells whether the authentication comes from a bearer token.
+   *
+   * @param authentication The authentication of the request.
+   * @return true if the request was authenticated by a token.
+   */
+  public static boolean isToken(Authentication authentication) {
+    return authentication instanceof TokenAuthentication;
+  }
+
+  /**
+   * Forgets the expired tokens.
+   */
+  @Scheduled(fixedDelayString = "${security.token.purge-interval:PT10M}")
+  public void purgeExpired() {
+    var now = LocalDateTime.now();
+    tokens.values().removeIf(issued -> issued.isExpired(now));
+  }
+
+  /**
+   * Returns the user authenticated by the token.
+   *
+   * @param token The token sent by the client.
+   * @return the authenticated user, empty if the token is unknown or expired.
+   */
+  public Optional<Authentication> authenticate(String token) {
+    Objects.requireNonNull(token);
+    var digest = digest(token);
+    var issued = tokens.get(digest);
+    if (issued == null) {
+      return Optional.empty();
+    }
+    if (issued.isExpired(LocalDateTime.now())) {
+      tokens.remove(digest);
+      return Optional.empty();
+    }
+    return Optional.of(issued.authentication());
+  }
+
+  /**
+   * Revokes all the tokens of a user.
+   *
+   * @param userId The id of the user.
+   */
+  public void revokeUser(int userId) {
+    tokens.values().removeIf(issued -> issued.userId() == userId);
+  }
+
+  private static String digest(String token) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256")
+          .digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
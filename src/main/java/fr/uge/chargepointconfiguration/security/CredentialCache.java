@@ -0,0 +1,147 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.security;
+
+import fr.uge.chargepointconfiguration.shared.BoundedCache;
+import fr.uge.chargepointconfiguration.shared.CacheStatisticsDto;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the successful verifications of credentials for a short time, so the clients
+ * sending their credentials on each request do not pay a BCrypt verification every time.<br>
+ * The entries are keyed by an HMAC of the username and the password, with a key drawn at
+ * startup, so neither the passwords nor a digest usable outside this process are kept.<br>
+ * The verifications of a user must be forgotten whenever it is modified.
+ */
+@Component
+public class CredentialCache {
+
+  private static final String ALGORITHM = "HmacSHA256";
+
+  private record Verification(Authentication authentication, Instant expiration) {}
+
+  private final BoundedCache<String, Verification> verifications;
+  private final Duration ttl;
+  private final SecretKeySpec key;
+
+  /**
+   * CredentialCache's constructor.
+   *
+   * @param ttl        How long a verification is remembered, zero disables the cache.
+   * @param maxEntries The maximum number of remembered verifications.
+   */
+  @Autowired
+  public CredentialCache(
+      @Value("${security.credential-cache.ttl:PT5M}") Duration ttl,
+      @Value("${security.credential-cache.max-entries:1024}") int maxEntries) {
+    this.ttl = Objects.requireNonNull(ttl);
+    this.verifications = new BoundedCache<>("credentialVerifications", maxEntries);
+    var secret = new byte[32];
+    new SecureRandom().nextBytes(secret);
+    this.key = new SecretKeySpec(secret, ALGORITHM);
+  }
+
+  /**
+   * Returns the remembered result of the verification of the credentials,
+   * or verifies them if they were not verified recently.<br>
+   * A failed verification is never remembered.
+   *
+   * @param credentials The authentication holding the username and the password.
+   * @param verifier    The verification of the credentials.
+   * @return the authenticated user.
+   */
+  public Authentication authenticate(
+      Authentication credentials, UnaryOperator<Authentication> verifier) {
+    Objects.requireNonNull(credentials);
+    Objects.requireNonNull(verifier);
+    if (ttl.isZero() || ttl.isNegative() || !(credentials.getCredentials() instanceof String)) {
+      return verifier.apply(credentials);
+    }
+    var digest = digest(credentials.getName(), (String) credentials.getCredentials());
+    var now = Instant.now();
+    var verification = verifications.get(digest, d -> verify(credentials, verifier, now));
+    if (verification.expiration().isBefore(now)) {
+      verifications.remove(digest);
+      verification = verifications.get(digest, d -> verify(credentials, verifier, now));
+    }
+    return verification.authentication();
+  }
+
+  /**
+   * Forgets all the verifications, the next requests verify their credentials again.
+   */
+  public void clear() {
+    verifications.clear();
+  }
+
+  /**
+   * Forgets the verifications of a user, its next requests verify their credentials again.
+   *
+   * @param userId The id of the modified user.
+   */
+  public void forget(int userId) {
+    verifications.removeIf(verification ->
+        verification.authentication().getPrincipal() instanceof UserDetailsImpl details
+            && details.getUserId() == userId);
+  }
+
+  /**
+   * Returns the statistics of the cache.
+   *
+   * @return the {@link CacheStatisticsDto} of the verifications.
+   */
+  public CacheStatisticsDto statistics() {
+    return verifications.statistics();
+  }
+
+  private Verification verify(
+      Authentication credentials, UnaryOperator<Authentication> verifier, Instant now) {
+    return new Verification(verifier.apply(credentials), now.plus(ttl));
+  }
+
+  private String digest(String username, String password) {
+    try {
+      var mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      mac.update(username.getBytes(StandardCharsets.UTF_8));
+      mac.update((byte) 0);
+      return Base64.getEncoder().encodeToString(
+          mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(ALGORITHM + " is not available", e);
+    }
+  }
+}
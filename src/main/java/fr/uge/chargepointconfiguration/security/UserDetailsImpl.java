@@ -47,6 +47,26 @@ public class UserDetailsImpl implements UserDetails {
     this.user = user;
   }
 
+  /**
+   * Returns the id of the connected user.
+   *
+   * @return the id of the connected user.
+   */
+  public int getUserId() {
+    return user.getId();
+  }
+
+  /**
+   * Returns the connected user, as loaded when it was authenticated.<br>
+   * Its sessions, tokens and cached credentials are dropped whenever it is modified,
+   * so it is never older than the last change of the user.
+   *
+   * @return the connected user.
+   */
+  public User getUser() {
+    return user;
+  }
+
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
     var authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().name());
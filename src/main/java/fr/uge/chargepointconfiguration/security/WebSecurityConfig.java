@@ -25,10 +25,12 @@ package fr.uge.chargepointconfiguration.security;
 import fr.uge.chargepointconfiguration.user.UserRepository;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -36,10 +38,15 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.core.GrantedAuthorityDefaults;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.session.SessionRegistryImpl;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.session.HttpSessionEventPublisher;
 
 /**
  * Security configuration for endpoints of backend.
@@ -49,8 +56,33 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableMethodSecurity
 public class WebSecurityConfig {
 
+  /**
+   * Minimal filter chain of the chargepoint connections : they are not authenticated,
+   * so the handshake skips the session, the security context and the request cache.
+   */
+  @Bean
+  @Order(1)
+  SecurityFilterChain ocppFilterChain(HttpSecurity http) throws Exception {
+    http.securityMatcher("/ocpp/**")
+        .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
+        .sessionManagement(session -> session
+            .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+        .securityContext(AbstractHttpConfigurer::disable)
+        .requestCache(AbstractHttpConfigurer::disable)
+        .anonymous(AbstractHttpConfigurer::disable)
+        .csrf(AbstractHttpConfigurer::disable);
+    return http.build();
+  }
+
+  /**
+   * Filter chain of the users.<br>
+   * The sessions are registered so they can be expired when their user is modified.
+   */
   @Bean
-  SecurityFilterChain apiFilterChain(HttpSecurity http) throws Exception {
+  @Order(2)
+  SecurityFilterChain apiFilterChain(
+      HttpSecurity http, BearerTokenService bearerTokenService, SessionRegistry sessionRegistry)
+      throws Exception {
     http.authorizeHttpRequests(authorize -> authorize
             .requestMatchers("/api/**")
             .authenticated()
@@ -59,8 +91,6 @@ public class WebSecurityConfig {
             .permitAll()
             .requestMatchers("/", "/logout", "/about")
             .permitAll()
-            .requestMatchers("/ocpp/**")
-            .permitAll()
             .anyRequest()
             .authenticated())
         .formLogin(formLogin -> formLogin
@@ -71,11 +101,28 @@ public class WebSecurityConfig {
             // see :
             // https://docs.spring.io/spring-security/site/docs/current/api/org/springframework/security/config/annotation/web/configurers/AbstractAuthenticationFilterConfigurer.html#defaultSuccessUrl(java.lang.String,boolean)
             .loginProcessingUrl("/authentication/login/process"))
+        .sessionManagement(session -> session
+            .maximumSessions(-1)
+            .sessionRegistry(sessionRegistry)
+            .expiredUrl("/"))
         .csrf(AbstractHttpConfigurer::disable) // TODO csrf propre
-        .httpBasic(Customizer.withDefaults());
+        .httpBasic(Customizer.withDefaults())
+        .addFilterBefore(
+            new BearerTokenFilter(bearerTokenService), BasicAuthenticationFilter.class);
     return http.build();
   }
 
+  @Bean
+  SessionRegistry sessionRegistry() {
+    return new SessionRegistryImpl();
+  }
+
+  // lets the session registry forget the sessions destroyed by the container
+  @Bean
+  static HttpSessionEventPublisher httpSessionEventPublisher() {
+    return new HttpSessionEventPublisher();
+  }
+
   @Bean
   static GrantedAuthorityDefaults grantedAuthorityDefaults() {
     return new GrantedAuthorityDefaults(""); // none
@@ -109,16 +156,19 @@ public class WebSecurityConfig {
 
   /**
    * Provides the authentication service for the app to let users connects thanks to their username.
+   * <br>The successful verifications are remembered by the {@link CredentialCache}.
    *
-   * @param userRepository The user's repository.
+   * @param userRepository  The user's repository.
+   * @param credentialCache The cache of the verified credentials.
    * @return An authentication provider for the user.
    */
   @Bean
-  public DaoAuthenticationProvider authenticationProvider(UserRepository userRepository) {
+  public AuthenticationProvider authenticationProvider(
+      UserRepository userRepository, CredentialCache credentialCache) {
     DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
     authProvider.setUserDetailsService(userDetailsService(userRepository));
     authProvider.setPasswordEncoder(passwordEncoder());
-    return authProvider;
+    return new CachingAuthenticationProvider(authProvider, credentialCache);
   }
 
   @Bean
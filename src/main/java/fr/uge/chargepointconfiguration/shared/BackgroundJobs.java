@@ -0,0 +1,175 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import fr.uge.chargepointconfiguration.logs.CustomLogger;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLog;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the long bulk operations outside the HTTP requests and keeps their status.<br>
+ * The jobs are run one at a time, in their submission order, so several large operations
+ * never compete for the database ; only the status of the most recent jobs is kept,
+ * along with the status of every job which is not finished yet.
+ */
+@Component
+public class BackgroundJobs {
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(
+      Thread.ofPlatform().name("background-job").daemon().factory());
+  private final Map<String, JobStatusDto> jobs = new LinkedHashMap<>();
+  private final int maxJobs;
+  private final CustomLogger logger;
+
+  /**
+   * BackgroundJobs's constructor.
+   *
+   * @param logger  The logger reporting the failed jobs.
+   * @param maxJobs The amount of job status kept.
+   */
+  @Autowired
+  public BackgroundJobs(
+      CustomLogger logger, @Value("${jobs.max-kept:100}") int maxJobs) {
+    this.logger = Objects.requireNonNull(logger);
+    if (maxJobs <= 0) {
+      throw new IllegalArgumentException("The amount of job status kept must be positive.");
+    }
+    this.maxJobs = maxJobs;
+  }
+
+  /**
+   * Submits a job, run once the previous jobs are over.
+   *
+   * @param task The job, returning the amount of processed entities.
+   * @return the status of the submitted job.
+   */
+  public JobStatusDto submit(LongSupplier task) {
+    Objects.requireNonNull(task);
+    var status = register();
+    executor.execute(() -> {
+      try {
+        execute(status, task);
+      } catch (RuntimeException e) {
+        logger.error(new TechnicalLog(
+            TechnicalLogEntity.Component.BACKEND,
+            "Background job " + status.id() + " failed : " + e.getMessage()));
+      }
+    });
+    return status;
+  }
+
+  /**
+   * Runs a job in the current thread, its status is kept like the submitted ones.
+   *
+   * @param task The job, returning the amount of processed entities.
+   * @return the status of the finished job.
+   * @throws RuntimeException the exception thrown by the job, once its failure is recorded.
+   */
+  public JobStatusDto run(LongSupplier task) {
+    Objects.requireNonNull(task);
+    return execute(register(), task);
+  }
+
+  /**
+   * Returns the status of a job.
+   *
+   * @param id The id of the job.
+   * @return the status of the job, empty if it is unknown or too old.
+   */
+  public Optional<JobStatusDto> status(String id) {
+    Objects.requireNonNull(id);
+    synchronized (jobs) {
+      return Optional.ofNullable(jobs.get(id));
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  private JobStatusDto register() {
+    var status = new JobStatusDto(
+        UUID.randomUUID().toString(),
+        JobStatusDto.State.PENDING,
+        0,
+        null,
+        LocalDateTime.now(),
+        null);
+    update(status);
+    return status;
+  }
+
+  private JobStatusDto execute(JobStatusDto status, LongSupplier task) {
+    update(new JobStatusDto(
+        status.id(), JobStatusDto.State.RUNNING, 0, null, status.submitted(), null));
+    try {
+      var processed = task.getAsLong();
+      var done = new JobStatusDto(
+          status.id(),
+          JobStatusDto.State.DONE,
+          processed,
+          null,
+          status.submitted(),
+          LocalDateTime.now());
+      update(done);
+      return done;
+    } catch (RuntimeException e) {
+      update(new JobStatusDto(
+          status.id(),
+          JobStatusDto.State.FAILED,
+          0,
+          e.getMessage(),
+          status.submitted(),
+          LocalDateTime.now()));
+      throw e;
+    }
+  }
+
+  private void update(JobStatusDto status) {
+    synchronized (jobs) {
+      jobs.put(status.id(), status);
+      // Only the finished jobs older than the kept ones are evicted, a job still pending or
+      // running is kept as its client is polling for its end
+      var iterator = jobs.values().iterator();
+      for (var older = jobs.size() - maxJobs; older > 0; older--) {
+        if (iterator.next().finished() != null) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+}
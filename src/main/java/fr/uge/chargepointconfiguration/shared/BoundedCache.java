@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A local cache keeping a bounded number of entries, evicting the least recently used.<br>
+ * The values are loaded outside the lock ; a value loaded while the cache was cleared is not
+ * kept, so an invalidation is never hidden by a concurrent load.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class BoundedCache<K, V> {
+  private final String name;
+  private final int maxSize;
+  private final LinkedHashMap<K, V> entries;
+  private long generation;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * BoundedCache's constructor.
+   *
+   * @param name    the name of the cache, used in the statistics
+   * @param maxSize the maximum number of entries
+   */
+  public BoundedCache(String name, int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be positive : " + maxSize);
+    }
+    this.name = Objects.requireNonNull(name);
+    this.maxSize = maxSize;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        if (size() > BoundedCache.this.maxSize) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached value of the key, loading it if absent.<br>
+   * A null value is returned as is and not cached.
+   *
+   * @param key    the key
+   * @param loader the function loading the value of a missing key
+   * @return the value of the key
+   */
+  public V get(K key, Function<? super K, ? extends V> loader) {
+    Objects.requireNonNull(key);
+    long loadGeneration;
+    synchronized (this) {
+      var value = entries.get(key);
+      if (value != null) {
+        hits++;
+        return value;
+      }
+      misses++;
+      loadGeneration = generation;
+    }
+    var value = loader.apply(key);
+    if (value != null) {
+      synchronized (this) {
+        if (generation == loadGeneration) {
+          entries.put(key, value);
+        }
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Removes the entry of the key, if present.
+   *
+   * @param key the key
+   */
+  public synchronized void remove(K key) {
+    entries.remove(Objects.requireNonNull(key));
+  }
+
+  /**
+   * Removes the entries whose value matches the predicate.<br>
+   * Like {@link #clear()}, the values being loaded meanwhile are not kept.
+   *
+   * @param filter the values to remove
+   */
+  public synchronized void removeIf(Predicate<? super V> filter) {
+    Objects.requireNonNull(filter);
+    generation++;
+    entries.values().removeIf(filter);
+  }
+
+  /**
+   * Removes all the entries.
+   */
+  public synchronized void clear() {
+    generation++;
+    entries.clear();
+  }
+
+  /**
+   * Returns the statistics of the cache.
+   *
+   * @return the current {@link CacheStatisticsDto}
+   */
+  public synchronized CacheStatisticsDto statistics() {
+    return new CacheStatisticsDto(name, entries.size(), maxSize, hits, misses, evictions);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import java.util.Objects;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener keeping the {@link EntityCountRegistry} up to date.<br>
+ * A change is only recorded once its transaction is committed, so a rolled back insert
+ * is never counted.<br>
+ * Add it with {@code @EntityListeners} on every entity exposed through a search endpoint.
+ */
+@Component
+public class CountingEntityListener {
+
+  private final EntityCountRegistry entityCountRegistry;
+
+  @Autowired
+  public CountingEntityListener(EntityCountRegistry entityCountRegistry) {
+    this.entityCountRegistry = Objects.requireNonNull(entityCountRegistry);
+  }
+
+  @PostPersist
+  public void onPersist(Object entity) {
+    var type = Hibernate.getClass(entity);
+    afterCommit(() -> entityCountRegistry.onInsert(type));
+  }
+
+  @PostRemove
+  public void onRemove(Object entity) {
+    var type = Hibernate.getClass(entity);
+    afterCommit(() -> entityCountRegistry.onDelete(type));
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads the records of a CSV content one by one, the counterpart of the CSV exports.<br>
+ * Fields are separated by commas, may be quoted with double quotes (a quote being escaped
+ * by another one) and records are separated by LF or CRLF.
+ */
+public class CsvReader {
+
+  private final Reader reader;
+  private long line = 1;
+  private long recordLine;
+
+  /**
+   * CsvReader's constructor.
+   *
+   * @param reader The reader of the content, it should be buffered.
+   */
+  public CsvReader(Reader reader) {
+    this.reader = Objects.requireNonNull(reader);
+  }
+
+  /**
+   * Reads the next record.
+   *
+   * @return the fields of the record, or null at the end of the content.
+   * @throws IOException if the content can not be read.
+   */
+  public List<String> next() throws IOException {
+    var c = read();
+    if (c == -1) {
+      return null;
+    }
+    recordLine = line;
+    var fields = new ArrayList<String>();
+    var field = new StringBuilder();
+    var quoted = false;
+    for (;; c = read()) {
+      if (quoted) {
+        if (c == -1) {
+          // Unterminated quote, the record ends with the content
+          quoted = false;
+        } else if (c != '"') {
+          field.append((char) c);
+          continue;
+        } else {
+          c = read();
+          if (c == '"') {
+            field.append('"');
+            continue;
+          }
+          quoted = false;
+        }
+      }
+      if (c == -1 || c == '\n') {
+        var length = field.length();
+        if (length != 0 && field.charAt(length - 1) == '\r') {
+          field.setLength(length - 1);
+        }
+        fields.add(field.toString());
+        return fields;
+      }
+      if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else {
+        field.append((char) c);
+      }
+    }
+  }
+
+  /**
+   * Returns the line where the last record read starts, the first line being 1.
+   *
+   * @return the line of the last record.
+   */
+  public long line() {
+    return recordLine;
+  }
+
+  private int read() throws IOException {
+    var c = reader.read();
+    if (c == '\n') {
+      line++;
+    }
+    return c;
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the amount of rows of each searchable entity in memory.<br>
+ * The unfiltered totals are loaded once from the database, then maintained by
+ * {@link CountingEntityListener} on every committed insert and delete, and periodically
+ * reloaded to correct any drift.<br>
+ * The filtered totals are memoized, keyed by the search request, until their TTL : the exact
+ * counts for a short time, the estimations for longer. They are kept when the table changes,
+ * as the log tables change on every frame. As the requests come from the clients,
+ * only the most recently used ones are kept for each entity.
+ */
+@Component
+public class EntityCountRegistry {
+
+  private final Map<Class<?>, Counter> totals = new ConcurrentHashMap<>();
+
+  private final Map<Class<?>, BoundedCache<String, MemoizedCount>> filteredTotals =
+      new ConcurrentHashMap<>();
+
+  private final Duration memoTtl;
+
+  private final Duration estimateTtl;
+
+  private final int memoMaxEntries;
+
+  private final Clock clock;
+
+  private record MemoizedCount(long value, long computedAt) {}
+
+  private record Counter(AtomicLong value, LongSupplier loader) {}
+
+  /**
+   * EntityCountRegistry's constructor.
+   *
+   * @param memoTtl        How long a filtered count can be reused without querying the database.
+   * @param estimateTtl    How long a filtered count can be reused as an estimation.
+   * @param memoMaxEntries The maximum amount of filtered counts kept for each entity.
+   */
+  @Autowired
+  public EntityCountRegistry(
+      @Value("${search.count.memo-ttl:PT2S}") Duration memoTtl,
+      @Value("${search.count.estimate-ttl:PT5M}") Duration estimateTtl,
+      @Value("${search.count.memo-max-entries:256}") int memoMaxEntries) {
+    this(memoTtl, estimateTtl, memoMaxEntries, Clock.systemUTC());
+  }
+
+  EntityCountRegistry(
+      Duration memoTtl, Duration estimateTtl, int memoMaxEntries, Clock clock) {
+    if (memoMaxEntries <= 0) {
+      throw new IllegalArgumentException("memoMaxEntries must be positive : " + memoMaxEntries);
+    }
+    this.memoTtl = Objects.requireNonNull(memoTtl);
+    this.estimateTtl = Objects.requireNonNull(estimateTtl);
+    this.memoMaxEntries = memoMaxEntries;
+    this.clock = Objects.requireNonNull(clock);
+  }
+
+  /**
+   * Returns the unfiltered amount of rows of the given entity.<br>
+   * The loader is called the first time, to seed the counter, then by {@link #reseed()}.
+   *
+   * @param entity The entity class.
+   * @param loader The database count used to seed the counter.
+   * @return the amount of rows of the entity.
+   */
+  public long count(Class<?> entity, LongSupplier loader) {
+    Objects.requireNonNull(loader);
+    return totals
+        .computeIfAbsent(
+            Objects.requireNonNull(entity),
+            e -> new Counter(new AtomicLong(loader.getAsLong()), loader))
+        .value()
+        .get();
+  }
+
+  /**
+   * Reloads the unfiltered totals from the database.<br>
+   * The listeners miss the rows written by other nodes or by statements bypassing the entities,
+   * so the counters are periodically reseeded rather than trusted forever.
+   */
+  @Scheduled(
+      fixedDelayString = "${search.count.reseed-interval:PT10M}",
+      initialDelayString = "${search.count.reseed-interval:PT10M}")
+  public void reseed() {
+    totals.forEach((entity, counter) -> counter.value().set(counter.loader().getAsLong()));
+  }
+
+  /**
+   * Returns the amount of rows of the given entity matching the request.<br>
+   * A value computed less than the configured TTL ago is reused,
+   * an empty request is answered by the in-memory counter.
+   *
+   * @param entity  The entity class.
+   * @param request The search request.
+   * @param loader  The filtered database count.
+   * @return the amount of rows matching the request.
+   */
+  public long countWithFilter(Class<?> entity, String request, LongSupplier loader) {
+    return memoizedCount(entity, request, loader, memoTtl.toMillis());
+  }
+
+  /**
+   * Returns an estimation of the amount of rows of the given entity matching the request.<br>
+   * A memoized value is reused for the estimation TTL, even if entities were created since
+   * then, the database is only queried when the request has not been counted for that long.
+   *
+   * @param entity  The entity class.
+   * @param request The search request.
+   * @param loader  The filtered database count.
+   * @return the estimated amount of rows matching the request.
+   */
+  public long estimateWithFilter(Class<?> entity, String request, LongSupplier loader) {
+    return memoizedCount(entity, request, loader, estimateTtl.toMillis());
+  }
+
+  private long memoizedCount(
+      Class<?> entity, String request, LongSupplier loader, long maxAgeMillis) {
+    Objects.requireNonNull(entity);
+    Objects.requireNonNull(request);
+    Objects.requireNonNull(loader);
+    var key = request.strip();
+    if (key.isEmpty()) {
+      return count(entity, loader);
+    }
+    var memo = filteredTotals.computeIfAbsent(
+        entity, e -> new BoundedCache<>(e.getSimpleName() + " counts", memoMaxEntries));
+    var now = clock.millis();
+    var cached = memo.get(key, k -> new MemoizedCount(loader.getAsLong(), now));
+    if (now - cached.computedAt() <= maxAgeMillis) {
+      return cached.value();
+    }
+    memo.remove(key);
+    return memo.get(key, k -> new MemoizedCount(loader.getAsLong(), clock.millis())).value();
+  }
+
+  /**
+   * Records the committed insertion of a row of the given entity.<br>
+   * The memoized filtered counts are kept until their TTL.
+   *
+   * @param entity The entity class.
+   */
+  public void onInsert(Class<?> entity) {
+    update(entity, 1);
+  }
+
+  /**
+   * Records the committed deletion of a row of the given entity.<br>
+   * The memoized filtered counts are kept until their TTL.
+   *
+   * @param entity The entity class.
+   */
+  public void onDelete(Class<?> entity) {
+    update(entity, -1);
+  }
+
+  /**
+   * Forgets every count of the given entity, the next call will query the database.<br>
+   * Must be called after bulk statements which do not go through the entity listeners.
+   *
+   * @param entity The entity class.
+   */
+  public void invalidate(Class<?> entity) {
+    totals.remove(entity);
+    filteredTotals.remove(entity);
+  }
+
+  private void update(Class<?> entity, long delta) {
+    // A counter which has not been seeded yet will read the right value from the database.
+    var total = totals.get(entity);
+    if (total != null) {
+      total.value().accumulateAndGet(delta, (current, d) -> Math.max(0, current + d));
+    }
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Streams the entities matching a {@link Specification} straight into the HTTP response.<br>
+ * The rows are read by pages of increasing ids, each one in its own short read-only
+ * transaction with its associations joined, and written once the transaction is over :
+ * a slow client never keeps a database connection, and the heap used by an export
+ * does not depend on the amount of exported rows.<br>
+ * The exports do not use the global timeout of the asynchronous requests but their own,
+ * <code>export.timeout</code>.
+ */
+@Component
+public class EntityExporter {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final int pageSize;
+  private final Duration timeout;
+
+  private record Page(List<String> lines, Object lastId) {}
+
+  /**
+   * EntityExporter's constructor.
+   *
+   * @param entityManager      The entity manager reading the pages.
+   * @param transactionManager The transaction manager opening a transaction for each page.
+   * @param objectMapper       The mapper writing the NDJSON lines.
+   * @param pageSize           The amount of rows read by each transaction.
+   * @param timeout            How long an export can last.
+   */
+  @Autowired
+  public EntityExporter(
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper,
+      @Value("${export.page-size:500}") int pageSize,
+      @Value("${export.timeout:PT1H}") Duration timeout) {
+    this.entityManager = Objects.requireNonNull(entityManager);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.objectMapper = Objects.requireNonNull(objectMapper);
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("The page size must be positive.");
+    }
+    this.pageSize = pageSize;
+    this.timeout = Objects.requireNonNull(timeout);
+  }
+
+  /**
+   * Builds the response streaming the entities matching the specification, sorted by id.
+   *
+   * @param name          The name of the exported file, without extension.
+   * @param entity        The class of the exported entity.
+   * @param specification The filter of the export.
+   * @param format        The format of the export.
+   * @param gzip          Whether the response is compressed.
+   * @param columns       The columns of the CSV format.
+   * @param toJson        The object written as JSON by the NDJSON format.
+   * @param fetches       The associations read by the columns or the JSON, joined in each page.
+   * @param <T> The type of the exported entity
+   * @return the streaming response.
+   */
+  public <T> ResponseEntity<StreamingResponseBody> export(
+      String name,
+      Class<T> entity,
+      Specification<T> specification,
+      ExportFormat format,
+      boolean gzip,
+      List<ExportColumn<T>> columns,
+      Function<? super T, ?> toJson,
+      String... fetches) {
+    Objects.requireNonNull(name);
+    Objects.requireNonNull(entity);
+    Objects.requireNonNull(specification);
+    Objects.requireNonNull(format);
+    Objects.requireNonNull(columns);
+    Objects.requireNonNull(toJson);
+    Objects.requireNonNull(fetches);
+    StreamingResponseBody body = outputStream -> {
+      var compressed = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : null;
+      var writer = new BufferedWriter(
+          new OutputStreamWriter(
+              compressed == null ? outputStream : compressed, StandardCharsets.UTF_8),
+          BUFFER_SIZE);
+      if (format == ExportFormat.CSV) {
+        writer.write(csvLine(columns.stream().map(ExportColumn::name).toList()));
+      }
+      Object lastId = null;
+      while (true) {
+        var after = lastId;
+        var page = transactionTemplate.execute(status ->
+            readPage(entity, specification, after, format, columns, toJson, fetches));
+        for (var line : Objects.requireNonNull(page).lines()) {
+          writer.write(line);
+        }
+        if (page.lines().size() < pageSize) {
+          break;
+        }
+        lastId = page.lastId();
+      }
+      writer.flush();
+      if (compressed != null) {
+        compressed.finish();
+      }
+    };
+    scopeTimeout();
+    var response = ResponseEntity.ok()
+        .contentType(format.mediaType())
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + name + "." + format.extension() + "\"");
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response.body(body);
+  }
+
+  /**
+   * Replaces the timeout of the asynchronous request streaming the export,
+   * before the streaming starts.
+   */
+  private void scopeTimeout() {
+    if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request) {
+      var asyncWebRequest =
+          WebAsyncUtils.getAsyncManager(request.getRequest()).getAsyncWebRequest();
+      if (asyncWebRequest != null) {
+        asyncWebRequest.setTimeout(timeout.toMillis());
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Page readPage(
+      Class<T> entity,
+      Specification<T> specification,
+      Object after,
+      ExportFormat format,
+      List<ExportColumn<T>> columns,
+      Function<? super T, ?> toJson,
+      String... fetches) {
+    var builder = entityManager.getCriteriaBuilder();
+    var query = builder.createQuery(entity);
+    var root = query.from(entity);
+    SliceRepository.fetch(root, fetches);
+    var predicate = specification.toPredicate(root, query, builder);
+    var id = root.<Comparable<Object>>get("id");
+    if (after != null) {
+      var next = builder.greaterThan(id, (Comparable<Object>) after);
+      predicate = predicate == null ? next : builder.and(predicate, next);
+    }
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    query.orderBy(builder.asc(id));
+    var rows = entityManager.createQuery(query)
+        .setMaxResults(pageSize)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .getResultList();
+    var lines = new ArrayList<String>(rows.size());
+    try {
+      for (var row : rows) {
+        lines.add(switch (format) {
+          case NDJSON -> objectMapper.writeValueAsString(toJson.apply(row)) + '\n';
+          case CSV -> csvLine(columns.stream().map(column -> column.value().apply(row)).toList());
+        });
+      }
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+    var lastId = rows.isEmpty()
+        ? after
+        : entityManager.getEntityManagerFactory().getPersistenceUnitUtil()
+            .getIdentifier(rows.getLast());
+    // The persistence context may outlive the transaction when it is bound to the request
+    entityManager.clear();
+    return new Page(lines, lastId);
+  }
+
+  private static String csvLine(List<?> values) {
+    var line = new StringBuilder();
+    for (var i = 0; i < values.size(); i++) {
+      if (i != 0) {
+        line.append(',');
+      }
+      var value = values.get(i);
+      if (value != null) {
+        line.append(escapeCsv(value.toString()));
+      }
+    }
+    return line.append("\r\n").toString();
+  }
+
+  private static String escapeCsv(String value) {
+    if (value.indexOf(',') < 0
+        && value.indexOf('"') < 0
+        && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
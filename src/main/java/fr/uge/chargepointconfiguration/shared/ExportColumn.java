@@ -0,0 +1,47 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A column of a CSV export.
+ *
+ * @param name  the name of the column, written in the header
+ * @param value the function extracting the value of the column, may return null
+ * @param <T> The type of the exported entity
+ */
+public record ExportColumn<T>(String name, Function<? super T, ?> value) {
+
+  /**
+   * ExportColumn's constructor.
+   *
+   * @param name  the name of the column, written in the header
+   * @param value the function extracting the value of the column, may return null
+   */
+  public ExportColumn {
+    Objects.requireNonNull(name);
+    Objects.requireNonNull(value);
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formats of the exports and imports.<br>
+ * - NDJSON : one JSON object per line, the same object as the search endpoints ;<br>
+ * - CSV : a header line then one line per entity.
+ */
+public enum ExportFormat {
+  NDJSON(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"), "ndjson"),
+  CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+  private final MediaType mediaType;
+  private final String extension;
+
+  ExportFormat(MediaType mediaType, String extension) {
+    this.mediaType = mediaType;
+    this.extension = extension;
+  }
+
+  public MediaType mediaType() {
+    return mediaType;
+  }
+
+  public String extension() {
+    return extension;
+  }
+}
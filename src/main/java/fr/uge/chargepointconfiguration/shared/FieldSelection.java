@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * The properties of a DTO requested by a client with the {@code fields} parameter.<br>
+ * The entities only compute (and load) the associations which are selected,
+ * and {@link #filter()} keeps only the selected properties in the response.
+ */
+public final class FieldSelection {
+
+  /**
+   * Selection of every property, used when the client does not give any field.
+   */
+  public static final FieldSelection ALL = new FieldSelection(null, null);
+
+  /**
+   * Id of the Jackson filter given to the DTOs, which serializes everything by default.
+   */
+  public static final String FILTER = "fieldSelection";
+
+  private final Class<? extends Record> type;
+  private final List<RecordComponent> components;
+
+  private FieldSelection(Class<? extends Record> type, List<RecordComponent> components) {
+    this.type = type;
+    this.components = components;
+  }
+
+  /**
+   * Parses the comma-separated list of fields requested for the given DTO.
+   *
+   * @param fields the fields requested, all of them if blank
+   * @param type   the DTO returned by the endpoint
+   * @return the selection of the requested fields
+   * @throws BadRequestException if a field is not a property of the DTO
+   */
+  public static FieldSelection parse(String fields, Class<? extends Record> type) {
+    Objects.requireNonNull(type);
+    if (fields == null || fields.isBlank()) {
+      return ALL;
+    }
+    var requested = Arrays.stream(fields.split(","))
+        .map(String::trim)
+        .filter(field -> !field.isEmpty())
+        .collect(Collectors.toSet());
+    var components = Arrays.stream(type.getRecordComponents())
+        .filter(component -> requested.remove(component.getName()))
+        .toList();
+    if (!requested.isEmpty()) {
+      throw new BadRequestException("Champs inconnus pour la sélection : " + requested);
+    }
+    return new FieldSelection(type, components);
+  }
+
+  /**
+   * Tells if the given property has been requested.
+   *
+   * @param field the name of the property
+   * @return true if the property must be computed
+   */
+  public boolean includes(String field) {
+    return components == null
+        || components.stream().anyMatch(component -> component.getName().equals(field));
+  }
+
+  /**
+   * Jackson filter keeping only the selected properties of the DTO, not those of the nested DTOs.
+   *
+   * @return the filter to register under {@link #FILTER}
+   */
+  public PropertyFilter filter() {
+    return new SimpleBeanPropertyFilter() {
+      @Override
+      public void serializeAsField(
+          Object pojo, JsonGenerator generator, SerializerProvider provider, PropertyWriter writer)
+          throws Exception {
+        if (type == null || !type.equals(pojo.getClass()) || includes(writer.getName())) {
+          writer.serializeAsField(pojo, generator, provider);
+        } else if (!generator.canOmitFields()) {
+          writer.serializeAsOmittedField(pojo, generator, provider);
+        }
+      }
+    };
+  }
+}
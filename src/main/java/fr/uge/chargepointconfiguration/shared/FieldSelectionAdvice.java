@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import java.util.Arrays;
+import java.util.Collection;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Serializes only the properties requested with the {@code fields} parameter.<br>
+ * The endpoints keep returning their typed DTOs, the unselected properties are left out
+ * of the DTOs of the response, whether it is a list or a {@link PageDto}.
+ */
+@RestControllerAdvice
+public class FieldSelectionAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+  /**
+   * Name of the request parameter holding the selected properties.
+   */
+  public static final String PARAMETER = "fields";
+
+  @Override
+  public boolean supports(
+      MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    var method = returnType.getMethod();
+    return super.supports(returnType, converterType)
+        && method != null
+        && Arrays.stream(method.getParameters())
+            .anyMatch(parameter -> parameter.getName().equals(PARAMETER)
+                && parameter.isAnnotationPresent(RequestParam.class));
+  }
+
+  @Override
+  protected void beforeBodyWriteInternal(
+      MappingJacksonValue bodyContainer,
+      MediaType contentType,
+      MethodParameter returnType,
+      ServerHttpRequest request,
+      ServerHttpResponse response) {
+    if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+      return;
+    }
+    var fields = servletRequest.getServletRequest().getParameter(PARAMETER);
+    var value = bodyContainer.getValue();
+    var elements = value instanceof PageDto<?> page ? page.data() : value;
+    if (fields == null
+        || fields.isBlank()
+        || !(elements instanceof Collection<?> collection)
+        || !(collection.stream().findFirst().orElse(null) instanceof Record dto)) {
+      return;
+    }
+    var selection = FieldSelection.parse(fields, dto.getClass());
+    bodyContainer.setFilters(
+        new SimpleFilterProvider().addFilter(FieldSelection.FILTER, selection.filter()));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the Jackson filter of the {@link FieldSelection} on the mapper of the application.
+ */
+@Configuration
+public class FieldSelectionConfig {
+
+  /**
+   * Gives the filter to every record.
+   *
+   * @return the module declaring the filter of the records
+   */
+  @Bean
+  public Module fieldSelectionModule() {
+    return new SimpleModule("FieldSelection") {
+      @Override
+      public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        context.insertAnnotationIntrospector(new RecordFilter());
+      }
+    };
+  }
+
+  /**
+   * Serializes all the properties of the records, unless {@link FieldSelectionAdvice} replaces
+   * the filter for a response.
+   *
+   * @return the customizer of the application mapper
+   */
+  @Bean
+  public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilter() {
+    return builder -> builder.filters(
+        new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+  }
+
+  private static final class RecordFilter extends NopAnnotationIntrospector {
+    @Override
+    public Object findFilterId(Annotated annotated) {
+      return annotated instanceof AnnotatedClass && annotated.getRawType().isRecord()
+          ? FieldSelection.FILTER
+          : null;
+    }
+  }
+}
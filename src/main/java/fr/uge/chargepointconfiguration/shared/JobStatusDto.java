@@ -0,0 +1,58 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import java.time.LocalDateTime;
+
+/**
+ * The status of a {@link BackgroundJobs background job}.
+ *
+ * @param id        The id of the job.
+ * @param state     The state of the job.
+ * @param processed The amount of entities processed by the job, once done.
+ * @param error     The reason of the failure, null if the job did not fail.
+ * @param submitted When the job was submitted.
+ * @param finished  When the job ended, null if it is not over.
+ */
+public record JobStatusDto(
+    String id,
+    State state,
+    long processed,
+    String error,
+    LocalDateTime submitted,
+    LocalDateTime finished) {
+
+  /**
+   * The states of a job.<br>
+   * PENDING : the job waits for the previous ones.<br>
+   * RUNNING : the job is running.<br>
+   * DONE : the job ended successfully.<br>
+   * FAILED : the job ended with an error.
+   */
+  public enum State {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+  }
+}
@@ -28,7 +28,9 @@ import java.util.Objects;
 /**
  * A record to represent a page of data.
  *
- * @param total total amount of element
+ * @param total total amount of element matching the request,
+ *              or {@link #UNKNOWN_TOTAL} when it has not been computed
+ * @param totalElement total amount of element, without any filter
  * @param page which page is displayed
  * @param size asked size of the page (not necessarily effective size)
  * @param data list of T containing the actual data
@@ -37,17 +39,23 @@ import java.util.Objects;
  */
 public record PageDto<T>(long total, long totalElement, int page, int size, List<T> data) {
 
+  /**
+   * Value of the total when the client asked not to count the matching elements.
+   */
+  public static final long UNKNOWN_TOTAL = -1;
+
   /**
    * Default constructor for a page containing a list of T.
    *
-   * @param total total amount of element
+   * @param total total amount of element matching the request, or {@link #UNKNOWN_TOTAL}
+   * @param totalElement total amount of element, without any filter
    * @param page which page is displayed
    * @param size asked size of the page (not necessarily effective size)
    * @param data list of T containing the actual data
    */
   public PageDto {
     Objects.requireNonNull(data);
-    if (total < 0 || page < 0 || size < 0) {
+    if ((total < 0 && total != UNKNOWN_TOTAL) || totalElement < 0 || page < 0 || size < 0) {
       throw new IllegalArgumentException("Illegal negative value.");
     }
   }
@@ -38,11 +38,12 @@ public record SearchCriteria(String key, Operation operation, Object value) {
     MORE_THAN,
     LESS_THAN,
     CONTAINS,
+    EQUALS,
     UNKNOWN;
 
     /**
      * Get an {@link Operation} from a string.<br>
-     * Can be "<", ">" or ":"
+     * Can be "<", ">", ":" or "="
      *
      * @param string the given string
      * @return The corresponding operation, UNKNOWN if unknown
@@ -52,6 +53,7 @@ public record SearchCriteria(String key, Operation operation, Object value) {
         case "<" -> LESS_THAN;
         case ">" -> MORE_THAN;
         case ":" -> CONTAINS;
+        case "=" -> EQUALS;
         default -> UNKNOWN;
       };
     }
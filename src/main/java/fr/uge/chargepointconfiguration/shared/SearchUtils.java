@@ -22,42 +22,61 @@
  */
 package fr.uge.chargepointconfiguration.shared;
 
+import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.lang.reflect.Field;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.regex.Pattern;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 /**
  * A utility class to help searching with filters.
  */
 public class SearchUtils {
+  private static final Pattern DOT = Pattern.compile("\\.");
 
   /**
    * Method that computes the {@link Specification} for JPA, based on a given request.<br>
-   * The request given must match the pattern <code>(\w+?)(:|<|>)(\`([^\`]+)\`)</code><br>
+   * The request given must match the pattern <code>([\w.]+?)(:|<|>|=)(\`([^\`]+)\`)</code><br>
    * Here are some examples :
    * <pre>
    *   - key:`value`
    *   - name:`John`,age<`18`
+   *   - ocppAction=`ChangeConfiguration`,chargepoint.constructor=`Alfen BV`
    * </pre><br>
-   * Each given parameter must match the name of an attribute of the given entity.<br>
+   * Each given parameter must match the name of an attribute of the given entity, or a path
+   * of attributes separated by dots to filter on an entity it refers to.
+   * The attributes marked {@link NotSearchable} cannot be part of a path.<br>
+   * ":" searches the strings containing the value, "=" searches the exact value, so it can
+   * use the index of the column.<br>
    *
    * @param request A string formatted with a specific pattern to determine the request
    * @param entity The entity to filter on
    * @param <T> The type of the entity
    * @return The JPA specification to use
-   * @throws IllegalArgumentException if the request contains fields not declared in the entity
+   * @throws IllegalArgumentException if the request contains fields not declared in the entity,
+   *     or not searchable, or values which do not fit their field
    */
   public static <T> Specification<T> computeSpecification(String request, Class<T> entity) {
     Objects.requireNonNull(request);
     Objects.requireNonNull(entity);
 
     var params = getSearchCriteria(request);
-    checkFieldsInEntity(entity, params);
 
-    var conditions =
-        params.stream().<Specification<T>>map(SearchUtils::getSpecification).toList();
+    // The values are converted here rather than when the repository runs the specification,
+    // so a value which does not fit its field is rejected like an unknown field
+    var conditions = params.stream()
+        .map(criteria -> typed(criteria, checkPath(entity, criteria.key())))
+        .<Specification<T>>map(SearchUtils::getSpecification)
+        .toList();
 
     // default condition
     Specification<T> condition = (root, query, criteriaBuilder) -> null;
@@ -69,57 +88,143 @@ public class SearchUtils {
     return condition;
   }
 
+  /**
+   * Parses the criteria of a request, without checking them against an entity.
+   *
+   * @param request A string formatted with a specific pattern to determine the request
+   * @return The criteria of the request, in the order of the request
+   */
+  public static List<SearchCriteria> parseCriteria(String request) {
+    Objects.requireNonNull(request);
+    return List.copyOf(getSearchCriteria(request));
+  }
+
   private static <T> Specification<T> getSpecification(SearchCriteria criteria) {
-    return (root, query, builder) -> switch (criteria.operation()) {
+    return (root, query, builder) -> getPredicate(path(root, criteria.key()), criteria, builder);
+  }
+
+  private static <Y> Path<Y> path(Root<?> root, String key) {
+    var names = DOT.split(key);
+    Path<Y> path = root.get(names[0]);
+    for (var i = 1; i < names.length; i++) {
+      path = path.get(names[i]);
+    }
+    return path;
+  }
+
+  private static SearchCriteria typed(SearchCriteria criteria, Class<?> type) {
+    var value = criteria.value().toString();
+    var converted = switch (criteria.operation()) {
+      case MORE_THAN, LESS_THAN -> type == LocalDateTime.class ? parseDate(value) : value;
+      case CONTAINS -> type == String.class ? value : convert(type, value);
+      case EQUALS -> convert(type, value);
+      case UNKNOWN -> value;
+    };
+    return new SearchCriteria(criteria.key(), criteria.operation(), converted);
+  }
+
+  private static Predicate getPredicate(
+      Path<String> path, SearchCriteria criteria, CriteriaBuilder builder) {
+    var value = criteria.value();
+    return switch (criteria.operation()) {
       case MORE_THAN -> {
-        if (root.get(criteria.key()).getJavaType() == LocalDateTime.class) {
-          yield builder.greaterThanOrEqualTo(
-              root.get(criteria.key()).as(LocalDateTime.class),
-              LocalDateTime.parse(criteria.value().toString()));
+        if (value instanceof LocalDateTime date) {
+          yield builder.greaterThanOrEqualTo(path.as(LocalDateTime.class), date);
         } else {
-          yield builder.greaterThanOrEqualTo(
-              root.get(criteria.key()), criteria.value().toString());
+          yield builder.greaterThanOrEqualTo(path, value.toString());
         }
       }
       case LESS_THAN -> {
-        if (root.get(criteria.key()).getJavaType() == LocalDateTime.class) {
-          yield builder.lessThanOrEqualTo(
-              root.get(criteria.key()).as(LocalDateTime.class),
-              LocalDateTime.parse(criteria.value().toString()));
+        if (value instanceof LocalDateTime date) {
+          yield builder.lessThanOrEqualTo(path.as(LocalDateTime.class), date);
         } else {
-          yield builder.lessThanOrEqualTo(
-              root.get(criteria.key()), criteria.value().toString());
+          yield builder.lessThanOrEqualTo(path, value.toString());
         }
       }
       case CONTAINS -> {
-        if (root.get(criteria.key()).getJavaType() == String.class) {
-          yield builder.like(root.get(criteria.key()), "%" + criteria.value() + "%");
-        } else if (root.get(criteria.key()).getJavaType() == LocalDateTime.class) {
-          yield builder.equal(
-              root.get(criteria.key()).as(LocalDateTime.class),
-              LocalDateTime.parse(criteria.value().toString()));
+        if (path.getJavaType() == String.class) {
+          yield builder.like(path, "%" + value + "%");
         } else {
-          yield builder.equal(root.get(criteria.key()), criteria.value());
+          yield builder.equal(path, value);
         }
       }
+      case EQUALS -> builder.equal(path, value);
       case UNKNOWN -> null;
     };
   }
 
-  private static <T> void checkFieldsInEntity(Class<T> clazz, ArrayList<SearchCriteria> params) {
-    params.stream().map(SearchCriteria::key).forEach(field -> {
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Object convert(Class<?> type, String value) {
+    if (type == String.class) {
+      return value;
+    }
+    if (type.isEnum()) {
+      return Enum.valueOf((Class<? extends Enum>) type, value);
+    }
+    if (type == Integer.class || type == int.class) {
+      return Integer.valueOf(value);
+    }
+    if (type == Long.class || type == long.class) {
+      return Long.valueOf(value);
+    }
+    if (type == Boolean.class || type == boolean.class) {
+      return Boolean.valueOf(value);
+    }
+    if (type == LocalDateTime.class) {
+      return parseDate(value);
+    }
+    return value;
+  }
+
+  private static LocalDateTime parseDate(String value) {
+    try {
+      return LocalDateTime.parse(value);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid date : " + value, e);
+    }
+  }
+
+  /**
+   * Checks that the properties of the sort are searchable paths of the given entity.
+   *
+   * @param sort   the sort requested
+   * @param entity the entity to sort
+   * @throws BadRequestException if a property is not a searchable path of the entity
+   */
+  public static void checkSort(Sort sort, Class<?> entity) {
+    Objects.requireNonNull(sort);
+    Objects.requireNonNull(entity);
+    for (var order : sort) {
       try {
-        var ignore = clazz.getDeclaredField(field);
+        checkPath(entity, order.getProperty());
+      } catch (IllegalArgumentException e) {
+        throw new BadRequestException("Impossible de trier par : " + order.getProperty(), e);
+      }
+    }
+  }
+
+  private static Class<?> checkPath(Class<?> entity, String key) {
+    Class<?> type = entity;
+    for (var name : DOT.split(key)) {
+      Field field;
+      try {
+        field = type.getDeclaredField(name);
       } catch (NoSuchFieldException e) {
         throw new IllegalArgumentException(
-            "Field %s not found in class %s.".formatted(field, clazz.getName()), e);
+            "Field %s not found in class %s.".formatted(name, type.getName()), e);
+      }
+      if (field.isAnnotationPresent(NotSearchable.class)) {
+        throw new IllegalArgumentException(
+            "Field %s of class %s is not searchable.".formatted(name, type.getName()));
       }
-    });
+      type = field.getType();
+    }
+    return type;
   }
 
   private static ArrayList<SearchCriteria> getSearchCriteria(String request) {
     var pattern =
-        Pattern.compile("(\\w+?)(:|<|>)(\\`([^\\`]+)\\`)", Pattern.UNICODE_CHARACTER_CLASS);
+        Pattern.compile("([\\w.]+?)(:|<|>|=)(\\`([^\\`]+)\\`)", Pattern.UNICODE_CHARACTER_CLASS);
     var matcher = pattern.matcher(request + ",");
     var params = new ArrayList<SearchCriteria>();
 
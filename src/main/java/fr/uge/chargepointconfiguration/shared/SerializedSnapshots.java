@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the DTO lists of the collections which rarely change (configurations, firmwares,
+ * types allowed), with a strong ETag computed from their serialized JSON.<br>
+ * A snapshot is versioned per entity type : the services bump the version on each mutation,
+ * and the next read rebuilds the snapshot. As the response carries the ETag,
+ * Spring answers 304 by itself when the client sends a matching {@code If-None-Match}.
+ */
+@Component
+public class SerializedSnapshots {
+  private final ObjectMapper objectMapper;
+  private final Map<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+  private record Snapshot(long version, String etag, List<?> body) {}
+
+  /**
+   * SerializedSnapshots's constructor.
+   *
+   * @param objectMapper the {@link ObjectMapper} used by the controllers.
+   */
+  @Autowired
+  public SerializedSnapshots(ObjectMapper objectMapper) {
+    this.objectMapper = Objects.requireNonNull(objectMapper);
+  }
+
+  /**
+   * Returns the response of the given collection, rebuilt if it has been invalidated.
+   *
+   * @param type   the type of the entities in the collection.
+   * @param loader the loader of the DTOs, called only if the snapshot is outdated.
+   * @param <T>    the type of the DTOs, always the same for a given entity type.
+   * @return the list of the DTOs with its ETag.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> ResponseEntity<List<T>> respond(Class<?> type, Supplier<List<T>> loader) {
+    var snapshot = snapshot(type, loader);
+    return ResponseEntity.ok()
+        .eTag(snapshot.etag())
+        .body((List<T>) snapshot.body());
+  }
+
+  /**
+   * Invalidates the snapshots of the given types, after a mutation.
+   *
+   * @param types the types of the entities which changed.
+   */
+  public void invalidate(Class<?>... types) {
+    for (var type : types) {
+      versionOf(type).incrementAndGet();
+    }
+  }
+
+  private Snapshot snapshot(Class<?> type, Supplier<? extends List<?>> loader) {
+    // Read the version before loading, so a mutation during the load is never hidden
+    var version = versionOf(type).get();
+    var snapshot = snapshots.get(type);
+    if (snapshot != null && snapshot.version() == version) {
+      return snapshot;
+    }
+    var rebuilt = serialize(version, loader.get());
+    snapshots.merge(type, rebuilt, (old, next) -> old.version() >= next.version() ? old : next);
+    return rebuilt;
+  }
+
+  private AtomicLong versionOf(Class<?> type) {
+    return versions.computeIfAbsent(type, key -> new AtomicLong());
+  }
+
+  private Snapshot serialize(long version, List<?> body) {
+    try {
+      var json = objectMapper.writeValueAsBytes(body);
+      var digest = MessageDigest.getInstance("SHA-256").digest(json);
+      var etag = '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + '"';
+      return new Snapshot(version, etag, List.copyOf(body));
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Unable to serialize the snapshot", e);
+    }
+  }
+}
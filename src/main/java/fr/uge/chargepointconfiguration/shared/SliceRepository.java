@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.FetchParent;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import java.util.regex.Pattern;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+/**
+ * Base class of the repositories, adding {@link SliceSpecificationExecutor}
+ * to the default implementation of Spring Data.
+ *
+ * @param <T> the type of the entities
+ * @param <I> the type of the ids
+ */
+public class SliceRepository<T, I> extends SimpleJpaRepository<T, I>
+    implements SliceSpecificationExecutor<T> {
+  private static final Pattern DOT = Pattern.compile("\\.");
+
+  /**
+   * SliceRepository's constructor, called by Spring Data for each repository.
+   *
+   * @param entityInformation the metadata of the entity
+   * @param entityManager     the entity manager
+   */
+  public SliceRepository(JpaEntityInformation<T, ?> entityInformation,
+                         EntityManager entityManager) {
+    super(entityInformation, entityManager);
+  }
+
+  @Override
+  public Slice<T> findSlice(Specification<T> specification, Pageable pageable, String... fetches) {
+    Specification<T> fetching = (root, query, builder) -> {
+      fetch(root, fetches);
+      return specification == null ? null : specification.toPredicate(root, query, builder);
+    };
+    var query = getQuery(fetching, pageable.getSort());
+    if (pageable.isUnpaged()) {
+      return new SliceImpl<>(query.getResultList());
+    }
+    query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+    query.setMaxResults(pageable.getPageSize() + 1);
+    var content = query.getResultList();
+    var hasNext = content.size() > pageable.getPageSize();
+    return new SliceImpl<>(
+        hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+  }
+
+  /**
+   * Joins the given associations in the query of the root.
+   *
+   * @param root    the root of the query
+   * @param fetches the associations to join, as dotted paths
+   */
+  static void fetch(Root<?> root, String... fetches) {
+    for (var path : fetches) {
+      FetchParent<?, ?> parent = root;
+      for (var attribute : DOT.split(path)) {
+        parent = parent.fetch(attribute, JoinType.LEFT);
+      }
+    }
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Searches the entities matching a specification, one slice at a time.<br>
+ * Unlike {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor#findAll(
+ * Specification, Pageable)}, no count query is run : the totals are computed apart,
+ * by the {@link EntityCountRegistry}, according to the {@link TotalMode} requested.
+ *
+ * @param <T> the type of the entities
+ */
+public interface SliceSpecificationExecutor<T> {
+
+  /**
+   * Returns the slice of the entities matching the specification.<br>
+   * One more row than the size of the page is read to know if there is a next slice.
+   *
+   * @param specification the constraints of the search, may be null
+   * @param pageable      the slice requested
+   * @param fetches       the associations to join in the same query, as dotted paths
+   * @return the slice of the entities
+   */
+  Slice<T> findSlice(Specification<T> specification, Pageable pageable, String... fetches);
+}
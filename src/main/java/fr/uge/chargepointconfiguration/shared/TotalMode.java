@@ -0,0 +1,53 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import java.util.function.LongSupplier;
+
+/**
+ * How the total of a {@link PageDto} must be computed.<br>
+ * - EXACT : the filtered count, memoized for a short time ;<br>
+ * - ESTIMATED : the memoized filtered count, whatever its age ; it is only counted again
+ * when the table changed since, or when the request was evicted from the memo ;<br>
+ * - NONE : no count at all, the total is {@link PageDto#UNKNOWN_TOTAL}.
+ */
+public enum TotalMode {
+  EXACT,
+  ESTIMATED,
+  NONE;
+
+  /**
+   * Computes the total of a page according to this mode.
+   *
+   * @param exact     The exact count.
+   * @param estimated The estimated count.
+   * @return the total to put in the page.
+   */
+  public long resolve(LongSupplier exact, LongSupplier estimated) {
+    return switch (this) {
+      case EXACT -> exact.getAsLong();
+      case ESTIMATED -> estimated.getAsLong();
+      case NONE -> PageDto.UNKNOWN_TOTAL;
+    };
+  }
+}
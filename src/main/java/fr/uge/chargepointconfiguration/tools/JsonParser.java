@@ -24,6 +24,8 @@ package fr.uge.chargepointconfiguration.tools;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.util.Objects;
@@ -41,6 +43,28 @@ public class JsonParser {
 
   public JsonParser() {}
 
+  /**
+   * Returns a reader of the given type, with its deserializer already resolved.
+   *
+   * @param type type of the objects to read
+   * @return the reader of the type, to be reused
+   */
+  public static ObjectReader readerFor(Class<?> type) {
+    Objects.requireNonNull(type);
+    return mapper.readerFor(type);
+  }
+
+  /**
+   * Returns a writer of the given type, with its serializer already resolved.
+   *
+   * @param type type of the objects to write
+   * @return the writer of the type, to be reused
+   */
+  public static ObjectWriter writerFor(Class<?> type) {
+    Objects.requireNonNull(type);
+    return mapper.writerFor(type);
+  }
+
   /**
    * Transform object to formatted JSON string.
    *
@@ -76,4 +100,41 @@ public class JsonParser {
           "Unable to parse JSON string to object : " + e.getMessage(), e);
     }
   }
+
+  /**
+   * Transform object to formatted JSON string with a prepared writer.
+   *
+   * @param writer writer of the type of the object, from {@link #writerFor(Class)}
+   * @param object object to transform
+   * @return the string formatted
+   */
+  public String write(ObjectWriter writer, Object object) {
+    Objects.requireNonNull(writer);
+    Objects.requireNonNull(object);
+    try {
+      return writer.writeValueAsString(object);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(
+          "Unable to parse object to JSON string : " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Transform a JSON string to object with a prepared reader.
+   *
+   * @param reader  reader of the type of the object, from {@link #readerFor(Class)}
+   * @param content json string that represent the object
+   * @param <T>     type of the object generated
+   * @return a new instance of object
+   */
+  public <T> T read(ObjectReader reader, String content) {
+    Objects.requireNonNull(reader);
+    Objects.requireNonNull(content);
+    try {
+      return reader.readValue(content);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(
+          "Unable to parse JSON string to object : " + e.getMessage(), e);
+    }
+  }
 }
@@ -68,6 +68,10 @@ public class TypeAllowed {
    */
   public TypeAllowed() {}
 
+  public int getId() {
+    return id;
+  }
+
   public String getConstructor() {
     return constructor;
   }
@@ -22,7 +22,9 @@
  */
 package fr.uge.chargepointconfiguration.typeallowed;
 
+import fr.uge.chargepointconfiguration.shared.SerializedSnapshots;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -47,19 +49,24 @@ import org.springframework.web.bind.annotation.RestController;
 public class TypeAllowedController {
 
   private final TypeAllowedService typeAllowedService;
+  private final SerializedSnapshots serializedSnapshots;
 
   /**
    * FirmwareController's constructor.
    *
    * @param typeAllowedService A FirmwareRepository.
+   * @param serializedSnapshots The serialized list of all the types allowed.
    */
   @Autowired
-  public TypeAllowedController(TypeAllowedService typeAllowedService) {
+  public TypeAllowedController(
+      TypeAllowedService typeAllowedService, SerializedSnapshots serializedSnapshots) {
     this.typeAllowedService = typeAllowedService;
+    this.serializedSnapshots = serializedSnapshots;
   }
 
   /**
-   * Returns a list of all type allowed.
+   * Returns a list of all type allowed.<br>
+   * The list is served from a snapshot, with an ETag.
    *
    * @return A list of all type allowed.
    */
@@ -70,12 +77,14 @@ public class TypeAllowedController {
       content = {
         @Content(
             mediaType = "application/json",
-            schema = @Schema(implementation = TypeAllowedDto.class))
+            array = @ArraySchema(schema = @Schema(implementation = TypeAllowedDto.class)))
       })
   @GetMapping(value = "/all")
   @PreAuthorize("hasRole('EDITOR')")
-  public List<TypeAllowedDto> getAllTypeAllowed() {
-    return typeAllowedService.getAll().stream().map(TypeAllowed::toDto).toList();
+  public ResponseEntity<List<TypeAllowedDto>> getAllTypeAllowed() {
+    return serializedSnapshots.respond(
+        TypeAllowed.class,
+        () -> typeAllowedService.getAll().stream().map(TypeAllowed::toDto).toList());
   }
 
   @Operation(summary = "Create a new type allowed")
@@ -22,6 +22,8 @@
  */
 package fr.uge.chargepointconfiguration.typeallowed;
 
+import fr.uge.chargepointconfiguration.configuration.ReferenceDataCache;
+import fr.uge.chargepointconfiguration.shared.SerializedSnapshots;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -33,15 +35,24 @@ import org.springframework.stereotype.Service;
 public class TypeAllowedService {
 
   private final TypeAllowedRepository typeAllowedRepository;
+  private final SerializedSnapshots serializedSnapshots;
+  private final ReferenceDataCache referenceDataCache;
 
   /**
    * TypeAllowedService's constructor.
    *
    * @param typeAllowedRepository A ConfigurationRepository accessing to database.
+   * @param serializedSnapshots The serialized lists of types allowed.
+   * @param referenceDataCache The cache of the firmwares compatible with each type allowed.
    */
   @Autowired
-  public TypeAllowedService(TypeAllowedRepository typeAllowedRepository) {
+  public TypeAllowedService(
+      TypeAllowedRepository typeAllowedRepository,
+      SerializedSnapshots serializedSnapshots,
+      ReferenceDataCache referenceDataCache) {
     this.typeAllowedRepository = typeAllowedRepository;
+    this.serializedSnapshots = serializedSnapshots;
+    this.referenceDataCache = referenceDataCache;
   }
 
   /**
@@ -60,7 +71,10 @@ public class TypeAllowedService {
    * @return the saved type allowed
    */
   public TypeAllowed save(CreateTypeAllowedDto typeAllowedDto) {
-    return typeAllowedRepository.save(
+    var typeAllowed = typeAllowedRepository.save(
         new TypeAllowed(typeAllowedDto.constructor(), typeAllowedDto.type()));
+    serializedSnapshots.invalidate(TypeAllowed.class);
+    referenceDataCache.invalidate(TypeAllowed.class);
+    return typeAllowed;
   }
 }
@@ -22,8 +22,11 @@
  */
 package fr.uge.chargepointconfiguration.user;
 
+import fr.uge.chargepointconfiguration.shared.CountingEntityListener;
+import fr.uge.chargepointconfiguration.shared.NotSearchable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -40,6 +43,7 @@ import org.hibernate.annotations.SQLRestriction;
  */
 @Entity
 @Table(name = "app_user")
+@EntityListeners(CountingEntityListener.class)
 @SQLDelete(sql = """
       update app_user
       set is_deleted = true
@@ -75,6 +79,7 @@ public class User {
   @Column(name = "firstname", nullable = false, length = 45)
   private String firstName;
 
+  @NotSearchable
   @Column(name = "password", nullable = false)
   private String password;
 
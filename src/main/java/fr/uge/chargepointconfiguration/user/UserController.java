@@ -22,7 +22,9 @@
  */
 package fr.uge.chargepointconfiguration.user;
 
+import fr.uge.chargepointconfiguration.security.TokenDto;
 import fr.uge.chargepointconfiguration.shared.PageDto;
+import fr.uge.chargepointconfiguration.shared.TotalMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -158,6 +160,7 @@ public class UserController {
    *                the {@link UserDto}.
    * @param request the request used to search
    * @param order   The order of the sort. Must be "asc" or "desc".
+   * @param totalMode How the total of the page must be computed.
    * @return A page containing a list of {@link UserDto}
    */
   @Operation(summary = "Search for users")
@@ -184,8 +187,13 @@ public class UserController {
           String order,
       @Parameter(description = "The request used to search.")
           @RequestParam(required = false, defaultValue = "")
-          String request) {
-    var total = userService.countWithFilters(request);
+          String request,
+      @Parameter(description = "How the total must be computed : EXACT, ESTIMATED or NONE.")
+          @RequestParam(required = false, defaultValue = "EXACT")
+          TotalMode totalMode) {
+    var total = totalMode.resolve(
+        () -> userService.countWithFilters(request),
+        () -> userService.estimateTotalWithFilter(request));
     var totalElement = userService.count();
 
     var data = userService
@@ -246,4 +254,37 @@ public class UserController {
     userService.delete(id);
     return new ResponseEntity<>(HttpStatus.NO_CONTENT);
   }
+
+  /**
+   * Issues a bearer token for the current user.
+   *
+   * @return the token to send in the header "Authorization: Bearer".
+   */
+  @Operation(summary = "Issue a bearer token for the current user.")
+  @ApiResponse(
+      responseCode = "201",
+      description = "The token is issued",
+      content =
+          @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = TokenDto.class)))
+  @PostMapping("/token")
+  @PreAuthorize("hasRole('VISUALIZER')")
+  public ResponseEntity<TokenDto> issueToken() {
+    return new ResponseEntity<>(userService.issueToken(), HttpStatus.CREATED);
+  }
+
+  /**
+   * Revokes all the bearer tokens of the current user.
+   *
+   * @return an empty response.
+   */
+  @Operation(summary = "Revoke the bearer tokens of the current user.")
+  @ApiResponse(responseCode = "204", description = "The tokens are revoked")
+  @DeleteMapping("/token")
+  @PreAuthorize("hasRole('VISUALIZER')")
+  public ResponseEntity<Void> revokeTokens() {
+    userService.revokeTokens();
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  }
 }
@@ -22,6 +22,7 @@
  */
 package fr.uge.chargepointconfiguration.user;
 
+import fr.uge.chargepointconfiguration.shared.SliceSpecificationExecutor;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -37,7 +38,8 @@ import org.springframework.stereotype.Repository;
 public interface UserRepository
     extends CrudRepository<User, Integer>,
         PagingAndSortingRepository<User, Integer>,
-        JpaSpecificationExecutor<User> {
+        JpaSpecificationExecutor<User>,
+        SliceSpecificationExecutor<User> {
 
   /**
    * Returns a User from the database according to the email.
@@ -25,16 +25,24 @@ package fr.uge.chargepointconfiguration.user;
 import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
 import fr.uge.chargepointconfiguration.errors.exceptions.EntityAlreadyExistingException;
 import fr.uge.chargepointconfiguration.errors.exceptions.EntityNotFoundException;
+import fr.uge.chargepointconfiguration.errors.exceptions.ForbiddenOperationException;
 import fr.uge.chargepointconfiguration.errors.exceptions.IllegalOperationException;
 import fr.uge.chargepointconfiguration.logs.CustomLogger;
 import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLog;
 import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import fr.uge.chargepointconfiguration.security.BearerTokenService;
+import fr.uge.chargepointconfiguration.security.CredentialCache;
+import fr.uge.chargepointconfiguration.security.TokenDto;
+import fr.uge.chargepointconfiguration.security.UserDetailsImpl;
+import fr.uge.chargepointconfiguration.shared.EntityCountRegistry;
 import fr.uge.chargepointconfiguration.shared.SearchUtils;
 import java.util.List;
 import java.util.regex.Pattern;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -47,6 +55,10 @@ public class UserService {
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
   private final CustomLogger logger;
+  private final EntityCountRegistry entityCountRegistry;
+  private final CredentialCache credentialCache;
+  private final BearerTokenService bearerTokenService;
+  private final SessionRegistry sessionRegistry;
 
   /**
    * Constructor for {@link UserService}.
@@ -54,13 +66,27 @@ public class UserService {
    * @param userRepository {@link UserRepository}
    * @param passwordEncoder {@link PasswordEncoder}
    * @param logger {@link CustomLogger}
+   * @param entityCountRegistry {@link EntityCountRegistry}
+   * @param credentialCache {@link CredentialCache}
+   * @param bearerTokenService {@link BearerTokenService}
+   * @param sessionRegistry {@link SessionRegistry}
    */
   @Autowired
   public UserService(
-      UserRepository userRepository, PasswordEncoder passwordEncoder, CustomLogger logger) {
+      UserRepository userRepository,
+      PasswordEncoder passwordEncoder,
+      CustomLogger logger,
+      EntityCountRegistry entityCountRegistry,
+      CredentialCache credentialCache,
+      BearerTokenService bearerTokenService,
+      SessionRegistry sessionRegistry) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
     this.logger = logger;
+    this.entityCountRegistry = entityCountRegistry;
+    this.credentialCache = credentialCache;
+    this.bearerTokenService = bearerTokenService;
+    this.sessionRegistry = sessionRegistry;
   }
 
   /**
@@ -88,6 +114,7 @@ public class UserService {
     user.setPassword(passwordEncoder.encode(changePasswordUserDto.newPassword()));
 
     var result = userRepository.save(user);
+    forgetCredentials(user.getId());
     logger.info(new TechnicalLog(
         TechnicalLogEntity.Component.BACKEND, "Password updated for user : " + user.getId()));
 
@@ -111,16 +138,45 @@ public class UserService {
   }
 
   /**
-   * Retrieve info in database for the current user.
+   * Returns the current user.<br>
+   * An authenticated user is read from its principal without querying the database,
+   * the principal being dropped whenever the user is modified.
    *
    * @return Details about the current user.
    */
   public User getAuthenticatedUser() {
     var authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication.getPrincipal() instanceof UserDetailsImpl details) {
+      return details.getUser();
+    }
     var email = authentication.getName();
     return userRepository.findByEmail(email);
   }
 
+  /**
+   * Issues a bearer token for the current user, to authenticate the scripted clients
+   * without sending the password on every request.
+   *
+   * @return the issued token.
+   */
+  public TokenDto issueToken() {
+    if (BearerTokenService.isToken(SecurityContextHolder.getContext().getAuthentication())) {
+      throw new ForbiddenOperationException("Un jeton ne peut pas créer d'autres jetons");
+    }
+    var user = getAuthenticatedUser();
+    var token = bearerTokenService.issue(user);
+    logger.info(new TechnicalLog(
+        TechnicalLogEntity.Component.BACKEND, "Token issued for user : " + user.getId()));
+    return token;
+  }
+
+  /**
+   * Revokes all the bearer tokens of the current user.
+   */
+  public void revokeTokens() {
+    bearerTokenService.revokeUser(getAuthenticatedUser().getId());
+  }
+
   /**
    * Update the role of the user.
    *
@@ -136,6 +192,7 @@ public class UserService {
     }
     user.setRole(role);
     var result = userRepository.save(user);
+    forgetCredentials(user.getId());
 
     logger.info(new TechnicalLog(
         TechnicalLogEntity.Component.BACKEND,
@@ -151,6 +208,23 @@ public class UserService {
    * @return the count of entities with the request
    */
   public long countWithFilters(String request) {
+    return entityCountRegistry.countWithFilter(
+        User.class, request, () -> countInDatabase(request));
+  }
+
+  /**
+   * Estimate the number of entities with the constraint of the given request.<br>
+   * The last known count is reused, even if entities were created since then.
+   *
+   * @param request the request used to search
+   * @return the estimated amount of entities with the constraint of the given request
+   */
+  public long estimateTotalWithFilter(String request) {
+    return entityCountRegistry.estimateWithFilter(
+        User.class, request, () -> countInDatabase(request));
+  }
+
+  private long countInDatabase(String request) {
     try {
       var condition = SearchUtils.computeSpecification(request, User.class);
       return userRepository.count(condition);
@@ -160,7 +234,7 @@ public class UserService {
   }
 
   public long count() {
-    return userRepository.count();
+    return entityCountRegistry.count(User.class, userRepository::count);
   }
 
   /**
@@ -171,9 +245,10 @@ public class UserService {
    * @return the list of corresponding {@link User}
    */
   public List<User> search(String request, PageRequest pageable) {
+    SearchUtils.checkSort(pageable.getSort(), User.class);
     try {
       var condition = SearchUtils.computeSpecification(request, User.class);
-      return userRepository.findAll(condition, pageable).stream().toList();
+      return userRepository.findSlice(condition, pageable).getContent();
     } catch (IllegalArgumentException e) {
       throw new BadRequestException("Requête invalide pour les filtres : " + request, e);
     }
@@ -234,6 +309,21 @@ public class UserService {
     }
     var user = getById(id);
     userRepository.delete(user);
+    forgetCredentials(id);
+  }
+
+  /**
+   * Forgets the verified credentials, revokes the tokens and expires the sessions
+   * of a modified user, so the next request is authenticated against the database again.
+   */
+  private void forgetCredentials(int id) {
+    credentialCache.forget(id);
+    bearerTokenService.revokeUser(id);
+    sessionRegistry.getAllPrincipals().stream()
+        .filter(principal -> principal instanceof UserDetailsImpl details
+            && details.getUserId() == id)
+        .flatMap(principal -> sessionRegistry.getAllSessions(principal, false).stream())
+        .forEach(SessionInformation::expireNow);
   }
 
   private User getById(int id) {
@@ -22,17 +22,25 @@
  */
 package fr.uge.chargepointconfiguration.chargepoint;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import fr.uge.chargepointconfiguration.shared.SearchStatements;
+import fr.uge.chargepointconfiguration.tools.JsonParser;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.*;
@@ -42,9 +50,14 @@ import org.springframework.test.web.servlet.*;
 @WithMockUser
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class ChargepointControllerTest {
+  private static final JsonParser jsonParser = new JsonParser();
+
   @Autowired
   private MockMvc mvc;
 
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
   @Test
   @Disabled
   void getAllChargepoints() {}
@@ -138,4 +151,283 @@ class ChargepointControllerTest {
         .andExpect(jsonPath("$.data[0].clientId", is("stéphane borne (l'historien)")))
         .andExpect(jsonPath("$.data[1].clientId", is("nom de la borne")));
   }
+
+  @Test
+  @WithMockUser(roles = "VISUALIZER")
+  void getPageWithoutTotal() throws Exception {
+    mvc.perform(get("/api/chargepoint/search")
+            .queryParam("size", "2")
+            .queryParam("page", "0")
+            .queryParam("request", "clientId:`les`")
+            .queryParam("totalMode", "NONE"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total", is(-1)))
+        .andExpect(jsonPath("$.totalElement", is(8)))
+        .andExpect(jsonPath("$.data", hasSize(2)));
+  }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void countsAreUpdatedOnCreation() throws Exception {
+    mvc.perform(get("/api/chargepoint/search").queryParam("request", "type:`Single`"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total", is(4)))
+        .andExpect(jsonPath("$.totalElement", is(8)));
+
+    mvc.perform(post("/api/chargepoint/create")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(jsonParser.objectToJsonString(
+                new CreateChargepointDto("new-serial", "Eve Single S-line", "Alfen", "new", -1))))
+        .andExpect(status().isCreated());
+
+    // The filtered total is memoized until its TTL, the total of the table is kept up to date
+    mvc.perform(get("/api/chargepoint/search").queryParam("request", "type:`Single`"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total", is(4)))
+        .andExpect(jsonPath("$.totalElement", is(9)));
+    mvc.perform(get("/api/chargepoint/search")
+            .queryParam("request", "type:`Single`,constructor:`Alfen`"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total", is(5)));
+  }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void importCsvReportsRejectedRows() throws Exception {
+    mvc.perform(get("/api/chargepoint/search"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElement", is(8)));
+
+    mvc.perform(post("/api/chargepoint/import")
+            .queryParam("format", "CSV")
+            .contentType("text/csv")
+            .content(
+                """
+                serialNumber,type,constructor,clientId,configuration\r
+                NEW0000001,Eve Single S-line,Alfen BV,"importée, \"\"première\"\"",2\r
+                ACE0000001,Eve Single S-line,Alfen BV,doublon,\r
+                NEW0000002,Eve Single S-line,Alfen BV,,\r
+                NEW0000003,Eve Single S-line,Alfen BV,trois,42\r
+                NEW0000001,Eve Single S-line,Alfen BV,doublon du fichier,\r
+                NEW0000004,Eve Double S-line,Alfen BV,quatre,\r
+                """))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported", is(2)))
+        .andExpect(jsonPath("$.errors[*].line", contains(3, 4, 5, 6)));
+
+    mvc.perform(get("/api/chargepoint/search")
+            .queryParam("request", "serialNumberChargePoint:`NEW`")
+            .queryParam("sortBy", "serialNumberChargePoint"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total", is(2)))
+        .andExpect(jsonPath("$.totalElement", is(10)))
+        .andExpect(jsonPath("$.data[0].clientId", is("importée, \"première\"")))
+        .andExpect(jsonPath("$.data[0].configuration.id", is(2)))
+        .andExpect(jsonPath("$.data[1].configuration").doesNotExist());
+  }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void importNdjson() throws Exception {
+    mvc.perform(post("/api/chargepoint/import")
+            .contentType("application/x-ndjson")
+            .content(
+                """
+                {"serialNumber":"NEW0000001","type":"t","constructor":"c","clientId":"a","configuration":-1}
+                not json
+
+                {"serialNumber":"NEW0000002","type":"t","constructor":"c","clientId":"b","configuration":1}
+                """))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported", is(2)))
+        .andExpect(jsonPath("$.errors", hasSize(1)))
+        .andExpect(jsonPath("$.errors[0].line", is(2)));
+
+    mvc.perform(post("/api/chargepoint/import")
+            .queryParam("format", "CSV")
+            .content("serialNumber,type\n"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void importOnlyRejectsTheDuplicatesOfInsertedRows() throws Exception {
+    jdbcTemplate.execute(
+        "ALTER TABLE chargepoint ADD CONSTRAINT refused CHECK (client_id <> 'refusée')");
+    var businessLogs = countBusinessLogs();
+
+    mvc.perform(post("/api/chargepoint/import")
+            .queryParam("format", "CSV")
+            .contentType("text/csv")
+            .content(
+                """
+                serialNumber,type,constructor,clientId,configuration
+                NEW0000001,Eve Single S-line,Alfen BV,refusée,
+                NEW0000001,Eve Single S-line,Alfen BV,acceptée,
+                NEW0000001,Eve Single S-line,Alfen BV,doublon,
+                """))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported", is(1)))
+        .andExpect(jsonPath("$.errors[*].line", contains(2, 4)));
+
+    mvc.perform(get("/api/chargepoint/search")
+            .queryParam("request", "serialNumberChargePoint:`NEW`"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[*].clientId", contains("acceptée")));
+    assertEquals(businessLogs + 1, countBusinessLogs());
+  }
+
+  private int countBusinessLogs() {
+    return jdbcTemplate.queryForObject("SELECT count(*) FROM business_logs", Integer.class);
+  }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void assignConfigurationToSelection() throws Exception {
+    var result = mvc.perform(post("/api/chargepoint/bulk/configuration")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(jsonParser.objectToJsonString(
+                new BulkAssignmentDto("clientId:`les`", null, 1))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.state", is("DONE")))
+        .andExpect(jsonPath("$.processed", is(2)))
+        .andReturn();
+    var id = jsonParser.stringToObject(Map.class, result.getResponse().getContentAsString())
+        .get("id");
+
+    mvc.perform(get("/api/chargepoint/bulk/" + id))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.state", is("DONE")));
+    mvc.perform(get("/api/chargepoint/8"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.configuration.id", is(1)))
+        .andExpect(jsonPath("$.status.step", is("FIRMWARE")))
+        .andExpect(jsonPath("$.status.status", is("PENDING")));
+
+    mvc.perform(post("/api/chargepoint/bulk/configuration")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(jsonParser.objectToJsonString(
+                new BulkAssignmentDto("", List.of(1, 8), -1))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.processed", is(2)));
+    mvc.perform(get("/api/chargepoint/8"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.configuration").doesNotExist());
+
+    mvc.perform(post("/api/chargepoint/bulk/configuration")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(jsonParser.objectToJsonString(new BulkAssignmentDto(null, null, 1))))
+        .andExpect(status().isBadRequest());
+    mvc.perform(post("/api/chargepoint/bulk/configuration")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(jsonParser.objectToJsonString(new BulkAssignmentDto(null, List.of(1), 42))))
+        .andExpect(status().isNotFound());
+    mvc.perform(get("/api/chargepoint/bulk/unknown")).andExpect(status().isNotFound());
+  }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void assignConfigurationThroughAssociation() throws Exception {
+    mvc.perform(post("/api/chargepoint/bulk/configuration")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(jsonParser.objectToJsonString(
+                new BulkAssignmentDto("configuration.name:`voisins`", null, 1))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.state", is("DONE")))
+        .andExpect(jsonPath("$.processed", is(2)));
+    mvc.perform(get("/api/chargepoint/6"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.configuration.id", is(1)))
+        .andExpect(jsonPath("$.status.step", is("FIRMWARE")));
+  }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void malformedSelectionChangesNothing() throws Exception {
+    var configuring = configuringChargepoints();
+    for (var request : List.of("type:Single", "type~`Single`", ",")) {
+      mvc.perform(post("/api/chargepoint/bulk/configuration")
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(jsonParser.objectToJsonString(new BulkAssignmentDto(request, null, 1))))
+          .andExpect(status().isBadRequest());
+    }
+    // A bulk assignment moves the chargepoints to the firmware step
+    assertEquals(configuring, configuringChargepoints());
+  }
+
+  private Object configuringChargepoints() throws Exception {
+    var result = mvc.perform(get("/api/chargepoint/search")
+            .queryParam("request", "step=`CONFIGURATION`"))
+        .andExpect(status().isOk())
+        .andReturn();
+    return jsonParser.stringToObject(Map.class, result.getResponse().getContentAsString())
+        .get("total");
+  }
+
+  @Test
+  @WithMockUser(roles = "VISUALIZER")
+  void exportCsvWithFilter() throws Exception {
+    var result = mvc.perform(get("/api/chargepoint/export")
+            .queryParam("format", "CSV")
+            .queryParam("request", "clientId:`les`"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("text/csv;charset=UTF-8"))
+        .andExpect(content().string(
+            """
+            id,serialNumber,type,constructor,clientId,configuration,lastUpdate,error,state,step,status\r
+            2,ACE0000002,Eve Double S-line,Alfen BV,dépasse les bornes,2,2024-03-08T10:34:09,,false,\
+            CONFIGURATION,PROCESSING\r
+            8,ACE0000008,Eve Single S-line,Alfen BV,les bornés,2,2024-03-08T10:34:09,,true,FIRMWARE,\
+            FAILED\r
+            """));
+  }
+
+  @Test
+  @WithMockUser(roles = "VISUALIZER")
+  void exportReadsEveryPage() throws Exception {
+    var result = mvc.perform(get("/api/chargepoint/export"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    // The export has its own timeout
+    assertEquals(3_600_000, result.getRequest().getAsyncContext().getTimeout());
+
+    var lines = mvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString()
+        .lines()
+        .toList();
+    // 8 chargepoints in pages of 3
+    assertEquals(8, lines.size());
+    assertTrue(lines.getLast().startsWith("{\"id\":8,"), lines.getLast());
+    assertTrue(lines.get(1).contains("\"configuration\":{"), lines.get(1));
+  }
+
+  @Test
+  @WithMockUser(roles = "VISUALIZER")
+  void searchRunsConstantStatements() throws Exception {
+    SearchStatements.assertConstant(mvc, "/api/chargepoint/search", "1", "8");
+  }
+
+  @Test
+  @WithMockUser(roles = "VISUALIZER")
+  void getPageWithFields() throws Exception {
+    mvc.perform(get("/api/chargepoint/search")
+            .queryParam("size", "2")
+            .queryParam("fields", "id,clientId"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data", hasSize(2)))
+        .andExpect(jsonPath("$.data[0].*", hasSize(2)))
+        .andExpect(jsonPath("$.data[0].id", is(1)))
+        .andExpect(jsonPath("$.data[0].clientId", is("borne to be alive")))
+        .andExpect(jsonPath("$.data[1].configuration").doesNotExist());
+
+    mvc.perform(get("/api/chargepoint/search").queryParam("fields", "id,unknown"))
+        .andExpect(status().isBadRequest());
+  }
 }
@@ -27,10 +27,12 @@ import static fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.Firm
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import fr.uge.chargepointconfiguration.chargepoint.Chargepoint;
 import fr.uge.chargepointconfiguration.chargepoint.ChargepointRepository;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.MessageType;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppActionRegistry;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppMessage;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppVersion;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.BootNotification.BootNotificationBuilder;
@@ -42,7 +44,7 @@ import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.Reset;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.UpdateFirmware;
 import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.UpdateFirmwareResponse;
 import fr.uge.chargepointconfiguration.configuration.ConfigurationTranscriptor;
-import fr.uge.chargepointconfiguration.firmware.FirmwareRepository;
+import fr.uge.chargepointconfiguration.configuration.ReferenceDataCache;
 import fr.uge.chargepointconfiguration.logs.CustomLogger;
 import fr.uge.chargepointconfiguration.tools.JsonParser;
 import jakarta.validation.Validator;
@@ -72,7 +74,7 @@ public class ChargepointManagerTest {
   private ChargepointRepository chargepointRepository;
 
   @Autowired
-  private FirmwareRepository firmwareRepository;
+  private ReferenceDataCache referenceDataCache;
 
   @Autowired
   private CustomLogger customLogger;
@@ -91,13 +93,13 @@ public class ChargepointManagerTest {
             var request = new WebSocketRequestMessage(
                 MessageType.REQUEST.getCallType(),
                 chargePointManager.getCurrentId(),
-                WebSocketMessage.MessageTypeRequest.ocppMessageToEnum(ocppMessage),
+                OcppActionRegistry.actionName(ocppMessage),
                 jsonParser.objectToJsonString(ocppMessage));
             chargePointManager.setPendingRequest(request);
           }
         },
         chargepointRepository,
-        firmwareRepository,
+        referenceDataCache,
         customLogger);
   }
 
@@ -117,7 +119,7 @@ public class ChargepointManagerTest {
             }
           },
           chargepointRepository,
-          firmwareRepository,
+          referenceDataCache,
           customLogger);
     });
   }
@@ -181,7 +183,7 @@ public class ChargepointManagerTest {
     var request = new WebSocketRequestMessage(
         MessageType.REQUEST.getCallType(),
         chargepointManager.getCurrentId(),
-        WebSocketMessage.MessageTypeRequest.ocppMessageToEnum(bootNotifMessage),
+        OcppActionRegistry.actionName(bootNotifMessage),
         jsonParser.objectToJsonString(bootNotifMessage));
     var sentMessage = chargepointManager.processMessage(request);
     var actualResponse = (BootNotificationResponse) sentMessage.orElseThrow();
@@ -205,7 +207,7 @@ public class ChargepointManagerTest {
     var request = new WebSocketRequestMessage(
         MessageType.REQUEST.getCallType(),
         chargepointManager.getCurrentId(),
-        WebSocketMessage.MessageTypeRequest.ocppMessageToEnum(bootNotifMessage),
+        OcppActionRegistry.actionName(bootNotifMessage),
         jsonParser.objectToJsonString(bootNotifMessage));
     var sentMessage = chargepointManager.processMessage(request);
     var actualResponse = (BootNotificationResponse) sentMessage.orElseThrow();
@@ -213,6 +215,26 @@ public class ChargepointManagerTest {
     assertEquals(BootNotificationResponse.Status.ACCEPTED, actualResponse.getStatus());
   }
 
+  /**
+   * A message which does not fit its schema or which has no handler should be ignored,
+   * without failing the session nor changing the current id.
+   */
+  @Test
+  public void onMessageShouldIgnoreMalformedAndUnhandledMessages() throws IOException {
+    var chargepointManager = instantiate();
+    var vendorBootNotification = new WebSocketRequestMessage(
+        MessageType.REQUEST.getCallType(),
+        7,
+        "BootNotification",
+        "{\"chargePointVendor\":\"Alfen BV\",\"chargePointModel\":\"Borne to be alive\","
+            + "\"vendorExtension\":\"ACE0000001\"}");
+    assertTrue(chargepointManager.processMessage(vendorBootNotification).isEmpty());
+    var heartbeat = new WebSocketRequestMessage(
+        MessageType.REQUEST.getCallType(), 42, "Heartbeat", "{\"unknown\":true}");
+    assertTrue(chargepointManager.processMessage(heartbeat).isEmpty());
+    assertEquals(1, chargepointManager.getCurrentId());
+  }
+
   /**
    * In this test, the chargepoint should have {@link UpdateFirmware} sent
    * until it is done.
@@ -230,7 +252,7 @@ public class ChargepointManagerTest {
     var request = new WebSocketRequestMessage(
         MessageType.REQUEST.getCallType(),
         chargepointManager.getCurrentId(),
-        WebSocketMessage.MessageTypeRequest.ocppMessageToEnum(bootNotifMessage),
+        OcppActionRegistry.actionName(bootNotifMessage),
         jsonParser.objectToJsonString(bootNotifMessage));
     var sentMessage = chargepointManager.processMessage(request);
     var actualResponse = (UpdateFirmware) sentMessage.orElseThrow();
@@ -248,7 +270,7 @@ public class ChargepointManagerTest {
     request = new WebSocketRequestMessage(
         MessageType.REQUEST.getCallType(),
         chargepointManager.getCurrentId(),
-        WebSocketMessage.MessageTypeRequest.ocppMessageToEnum(statusFromTheChargepoint),
+        OcppActionRegistry.actionName(statusFromTheChargepoint),
         jsonParser.objectToJsonString(statusFromTheChargepoint));
     sentMessage = chargepointManager.processMessage(request);
     var reset = (Reset) sentMessage.orElseThrow();
@@ -264,7 +286,7 @@ public class ChargepointManagerTest {
     request = new WebSocketRequestMessage(
         MessageType.REQUEST.getCallType(),
         chargepointManager.getCurrentId(),
-        WebSocketMessage.MessageTypeRequest.ocppMessageToEnum(bootNotifMessage),
+        OcppActionRegistry.actionName(bootNotifMessage),
         jsonParser.objectToJsonString(bootNotifMessage));
     sentMessage = chargepointManager.processMessage(request);
     actualResponse = (UpdateFirmware) sentMessage.orElseThrow();
@@ -282,7 +304,7 @@ public class ChargepointManagerTest {
     request = new WebSocketRequestMessage(
         MessageType.REQUEST.getCallType(),
         chargepointManager.getCurrentId(),
-        WebSocketMessage.MessageTypeRequest.ocppMessageToEnum(statusFromTheChargepoint),
+        OcppActionRegistry.actionName(statusFromTheChargepoint),
         jsonParser.objectToJsonString(statusFromTheChargepoint));
     sentMessage = chargepointManager.processMessage(request);
     reset = (Reset) sentMessage.orElseThrow();
@@ -298,7 +320,7 @@ public class ChargepointManagerTest {
     request = new WebSocketRequestMessage(
         MessageType.REQUEST.getCallType(),
         chargepointManager.getCurrentId(),
-        WebSocketMessage.MessageTypeRequest.ocppMessageToEnum(bootNotifMessage),
+        OcppActionRegistry.actionName(bootNotifMessage),
         jsonParser.objectToJsonString(bootNotifMessage));
     sentMessage = chargepointManager.processMessage(request);
     assertEquals(ChangeConfiguration.class, sentMessage.orElseThrow().getClass());
@@ -327,7 +349,7 @@ public class ChargepointManagerTest {
     var request = new WebSocketRequestMessage(
         MessageType.REQUEST.getCallType(),
         chargepointManager.getCurrentId(),
-        WebSocketMessage.MessageTypeRequest.ocppMessageToEnum(bootNotifMessage),
+        OcppActionRegistry.actionName(bootNotifMessage),
         jsonParser.objectToJsonString(bootNotifMessage));
     var sentMessage = chargepointManager.processMessage(request);
     assertEquals(ChangeConfiguration.class, sentMessage.orElseThrow().getClass());
@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.Component;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.SetVariableData;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.SetVariablesRequest;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.Variable;
+import jakarta.validation.Validation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Measures the cost of the validation of one OCPP message.<br>
+ * Run with <code>mvn test -Dtest=MessageValidatorBenchmark -Dbenchmark=true</code>.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MessageValidatorBenchmark {
+  private static final int MESSAGES = 10_000;
+  private static final int ROUNDS = 20;
+
+  private static List<SetVariablesRequest> messages() {
+    var messages = new ArrayList<SetVariablesRequest>(MESSAGES);
+    for (var i = 0; i < MESSAGES; i++) {
+      var data = new ArrayList<SetVariableData>();
+      for (var j = 0; j < 5; j++) {
+        data.add(new SetVariableData.SetVariableDataBuilder()
+            .withAttributeValue("value-" + i)
+            .withComponent(new Component.ComponentBuilder().withName("Component" + j).build())
+            .withVariable(new Variable.VariableBuilder().withName("Variable" + j).build())
+            .build());
+      }
+      messages.add(new SetVariablesRequest.SetVariablesRequestBuilder()
+          .withSetVariableData(data)
+          .build());
+    }
+    return messages;
+  }
+
+  // Keeps the results alive so the validations are not optimized away
+  private long sink;
+
+  private void measure(String name, LongSupplier validation) {
+    var best = Long.MAX_VALUE;
+    for (var round = 0; round < ROUNDS; round++) {
+      var start = System.nanoTime();
+      sink += validation.getAsLong();
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf("%s : %d ns per message%n", name, best / MESSAGES);
+  }
+
+  @Test
+  void validationCost() {
+    var messages = messages();
+    try (var factory = Validation.buildDefaultValidatorFactory()) {
+      var validator = factory.getValidator();
+      var compiled = new MessageValidator(validator, true);
+      measure("reflective validator",
+          () -> messages.stream().filter(message -> validator.validate(message).isEmpty()).count());
+      measure("compiled validator",
+          () -> messages.stream().filter(message -> compiled.validate(message).isEmpty()).count());
+      var disabled = new MessageValidator(validator, false);
+      measure("outbound validation disabled",
+          () -> messages.stream()
+              .filter(message -> disabled.validateOutbound(message).isEmpty())
+              .count());
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.BootNotification;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.Component;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.DCChargingParameters;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.SetVariableData;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.SetVariablesRequest;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.Variable;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MessageValidatorTest {
+  private static ValidatorFactory factory;
+  private static Validator validator;
+
+  @BeforeAll
+  static void setUp() {
+    factory = Validation.buildDefaultValidatorFactory();
+    validator = factory.getValidator();
+  }
+
+  @AfterAll
+  static void tearDown() {
+    factory.close();
+  }
+
+  private static Set<String> compiledPaths(Object message) {
+    return new MessageValidator(validator, true).validate(message).stream()
+        .map(violation -> violation.substring(0, violation.indexOf(':')))
+        .collect(Collectors.toSet());
+  }
+
+  private static Set<String> reflectivePaths(Object message) {
+    return validator.validate(message).stream()
+        .map(violation -> violation.getPropertyPath().toString())
+        .collect(Collectors.toSet());
+  }
+
+  @DisplayName("Should not find any violation in a valid message")
+  @Test
+  public void validMessageHasNoViolation() {
+    var bootNotification = new BootNotification.BootNotificationBuilder()
+        .withChargePointVendor("Alfen BV")
+        .withChargePointModel("Eve Single S-line")
+        .build();
+    assertTrue(new MessageValidator(validator, true).validate(bootNotification).isEmpty());
+  }
+
+  @DisplayName("Should find the same violations as the validator on a top level property")
+  @Test
+  public void findsTopLevelViolations() {
+    var empty = new SetVariablesRequest.SetVariablesRequestBuilder()
+        .withSetVariableData(List.of())
+        .build();
+    assertEquals(Set.of("setVariableData"), compiledPaths(empty));
+    assertEquals(reflectivePaths(empty), compiledPaths(empty));
+    var missing = new BootNotification.BootNotificationBuilder()
+        .withChargePointVendor("a".repeat(21))
+        .build();
+    assertEquals(reflectivePaths(missing), compiledPaths(missing));
+  }
+
+  @DisplayName("Should find the same violations as the validator in the nested objects")
+  @Test
+  public void findsNestedViolations() {
+    var data = new SetVariableData.SetVariableDataBuilder()
+        .withAttributeValue("a".repeat(1001))
+        .withComponent(new Component.ComponentBuilder().build())
+        .withVariable(new Variable.VariableBuilder().withName("HeartbeatInterval").build())
+        .build();
+    var request = new SetVariablesRequest.SetVariablesRequestBuilder()
+        .withSetVariableData(List.of(data))
+        .build();
+    assertEquals(
+        Set.of("setVariableData[0].attributeValue", "setVariableData[0].component.name"),
+        compiledPaths(request));
+    assertEquals(reflectivePaths(request), compiledPaths(request));
+  }
+
+  @DisplayName("Should find the same violations as the validator on the numeric bounds")
+  @Test
+  public void findsDecimalViolations() {
+    var parameters = new DCChargingParameters();
+    parameters.setEvMaxCurrent(-1);
+    parameters.setEvMaxVoltage(400);
+    parameters.setStateOfCharge(101);
+    assertEquals(reflectivePaths(parameters), compiledPaths(parameters));
+    assertTrue(compiledPaths(parameters).contains("stateOfCharge"));
+  }
+
+  @DisplayName("Should not validate the outbound messages when it is disabled")
+  @Test
+  public void outboundValidationCanBeDisabled() {
+    var invalid = new SetVariablesRequest.SetVariablesRequestBuilder().build();
+    assertTrue(new MessageValidator(validator, false).validateOutbound(invalid).isEmpty());
+    assertEquals(1, new MessageValidator(validator, true).validateOutbound(invalid).size());
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class OcppCompressionPolicyTest {
+
+  @Test
+  void offerIsKeptWhenEnabled() {
+    var policy = new OcppCompressionPolicy(true, true, List.of());
+    assertEquals(
+        List.of("permessage-deflate; client_max_window_bits"),
+        policy.rewriteOffer(List.of("permessage-deflate; client_max_window_bits"), "Eve"));
+  }
+
+  @Test
+  void offerIsRemovedForDisabledModels() {
+    var policy = new OcppCompressionPolicy(true, true, List.of(" Eve Single S-line "));
+    assertFalse(policy.isEnabledFor("eve single s-line"));
+    assertTrue(policy.isEnabledFor("Eve Single Pro-line"));
+    assertEquals(
+        List.of(), policy.rewriteOffer(List.of("permessage-deflate"), "Eve Single S-line"));
+    assertEquals(
+        List.of("x-other"),
+        policy.rewriteOffer(List.of("permessage-deflate, x-other"), "Eve Single S-line"));
+  }
+
+  @Test
+  void offerIsRemovedWhenDisabled() {
+    var policy = new OcppCompressionPolicy(false, true, List.of());
+    assertEquals(List.of(), policy.rewriteOffer(List.of("permessage-deflate"), null));
+  }
+
+  @Test
+  void noContextTakeoverIsRequested() {
+    var policy = new OcppCompressionPolicy(true, false, List.of());
+    assertEquals(
+        List.of("permessage-deflate; server_no_context_takeover; client_no_context_takeover"),
+        policy.rewriteOffer(List.of("permessage-deflate; server_no_context_takeover"), null));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OcppCompressionTest {
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private OcppWebSocketHandler handler;
+
+  private CompressionStatisticsDto connect(String identity) throws Exception {
+    var headers = new WebSocketHttpHeaders();
+    headers.setSecWebSocketProtocol("ocpp1.6");
+    headers.setSecWebSocketExtensions(List.of(new WebSocketExtension("permessage-deflate")));
+    var session = new StandardWebSocketClient()
+        .execute(
+            new TextWebSocketHandler(), headers, URI.create("ws://localhost:" + port + "/ocpp/"
+                + identity))
+        .get(10, TimeUnit.SECONDS);
+    try {
+      // The server registers the session after answering the handshake
+      for (var attempt = 0; attempt < 50; attempt++) {
+        var statistics = handler.compressionStatistics().stream()
+            .filter(s -> s.identity().equals(identity))
+            .findFirst();
+        if (statistics.isPresent()) {
+          return statistics.orElseThrow();
+        }
+        Thread.sleep(100);
+      }
+      throw new AssertionError("No session for " + identity);
+    } finally {
+      session.close();
+    }
+  }
+
+  @Test
+  void compressionIsNegotiatedWithKnownChargepoints() throws Exception {
+    var statistics = connect("ACE0000001");
+    assertTrue(statistics.negotiated());
+    assertEquals("Eve Single S-line", statistics.model());
+  }
+
+  @Test
+  void unknownChargepointIsRefused() {
+    assertThrows(ExecutionException.class, () -> connect("UNKNOWN"));
+  }
+}
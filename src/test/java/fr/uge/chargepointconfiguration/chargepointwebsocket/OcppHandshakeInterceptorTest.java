@@ -0,0 +1,163 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import fr.uge.chargepointconfiguration.chargepoint.Chargepoint;
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointIdentity;
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointRepository;
+import java.util.HashMap;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class OcppHandshakeInterceptorTest {
+
+  @Autowired
+  private MockMvc mvc;
+
+  @Autowired
+  private OcppHandshakeInterceptor interceptor;
+
+  @Autowired
+  private OcppWebSocketHandler handler;
+
+  @Autowired
+  private ChargepointRepository chargepointRepository;
+
+  @Test
+  void identityIsTheFirstSegmentAfterOcpp() {
+    assertEquals(
+        Optional.of("ACE0000001"), OcppHandshakeInterceptor.identity("/ocpp/ACE0000001"));
+    assertEquals(Optional.of("ACE 01"), OcppHandshakeInterceptor.identity("/ocpp/ACE%2001/"));
+    assertEquals(Optional.of("ACE+01"), OcppHandshakeInterceptor.identity("/ocpp/ACE+01"));
+    assertEquals(Optional.empty(), OcppHandshakeInterceptor.identity("/other"));
+  }
+
+  @Test
+  void blankOrMalformedIdentityIsEmpty() {
+    assertEquals(Optional.empty(), OcppHandshakeInterceptor.identity("/ocpp/"));
+    assertEquals(Optional.empty(), OcppHandshakeInterceptor.identity("/ocpp/%20"));
+    assertEquals(Optional.empty(), OcppHandshakeInterceptor.identity("/ocpp/ACE%zz01"));
+    assertEquals(Optional.empty(), OcppHandshakeInterceptor.identity("/ocpp/ACE%2"));
+  }
+
+  @Test
+  void unknownChargepointIsRejectedBeforeUpgrade() throws Exception {
+    mvc.perform(get("/ocpp/UNKNOWN")
+            .header("Upgrade", "websocket")
+            .header("Connection", "Upgrade")
+            .header("Sec-WebSocket-Version", "13")
+            .header("Sec-WebSocket-Key", "dGhlIHNhbXBsZSBub25jZQ=="))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void knownChargepointIsIdentified() {
+    var attributes = new HashMap<String, Object>();
+    assertTrue(interceptor.beforeHandshake(
+        request("/ocpp/ACE0000001"), response(), handler, attributes));
+    var identity = (ChargepointIdentity) attributes.get(
+        OcppHandshakeInterceptor.IDENTITY_ATTRIBUTE);
+    assertEquals("Alfen BV", identity.constructor());
+  }
+
+  @Test
+  void configuredChargepointIsIdentifiedByItsClientId() {
+    var attributes = new HashMap<String, Object>();
+    assertTrue(interceptor.beforeHandshake(
+        request("/ocpp/borne%20to%20be%20alive"), response(), handler, attributes));
+    var identity = (ChargepointIdentity) attributes.get(
+        OcppHandshakeInterceptor.IDENTITY_ATTRIBUTE);
+    assertEquals("ACE0000001", identity.serialNumber());
+  }
+
+  @Test
+  void chargepointWithoutIdentityIsRejected() {
+    var response = new MockHttpServletResponse();
+    assertFalse(interceptor.beforeHandshake(
+        request("/ocpp/"), new ServletServerHttpResponse(response), handler, new HashMap<>()));
+    assertEquals(400, response.getStatus());
+  }
+
+  @Test
+  void malformedIdentityIsRejectedBeforeUpgrade() throws Exception {
+    mvc.perform(get("/ocpp/ACE%zz01")
+            .header("Upgrade", "websocket")
+            .header("Connection", "Upgrade")
+            .header("Sec-WebSocket-Version", "13")
+            .header("Sec-WebSocket-Key", "dGhlIHNhbXBsZSBub25jZQ=="))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void serialNumberSharedByConstructorsIsAccepted() {
+    chargepointRepository.save(
+        new Chargepoint("ACE0000001", "Other model", "Other vendor", "other", null));
+    var attributes = new HashMap<String, Object>();
+    assertTrue(interceptor.beforeHandshake(
+        request("/ocpp/ACE0000001"), response(), handler, attributes));
+    assertNull(attributes.get(OcppHandshakeInterceptor.IDENTITY_ATTRIBUTE));
+  }
+
+  @Test
+  void savedChargepointIsKnownAtOnce() {
+    assertFalse(interceptor.beforeHandshake(
+        request("/ocpp/NEW0000001"), response(), handler, new HashMap<>()));
+    var chargepoint = chargepointRepository.save(
+        new Chargepoint("NEW0000001", "Eve Single Pro-line", "Alfen BV", "new", null));
+    assertTrue(interceptor.beforeHandshake(
+        request("/ocpp/NEW0000001"), response(), handler, new HashMap<>()));
+    chargepoint.setSerialNumberChargePoint("NEW0000002");
+    chargepointRepository.save(chargepoint);
+    assertFalse(interceptor.beforeHandshake(
+        request("/ocpp/NEW0000001"), response(), handler, new HashMap<>()));
+    assertTrue(interceptor.beforeHandshake(
+        request("/ocpp/NEW0000002"), response(), handler, new HashMap<>()));
+  }
+
+  private static ServletServerHttpRequest request(String path) {
+    return new ServletServerHttpRequest(new MockHttpServletRequest("GET", path));
+  }
+
+  private static ServletServerHttpResponse response() {
+    return new ServletServerHttpResponse(new MockHttpServletResponse());
+  }
+}
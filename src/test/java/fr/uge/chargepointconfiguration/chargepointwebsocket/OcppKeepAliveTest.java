@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OcppKeepAliveTest {
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private OcppWebSocketHandler handler;
+
+  private WebSocketSession connect(String identity) throws Exception {
+    var headers = new WebSocketHttpHeaders();
+    headers.setSecWebSocketProtocol("ocpp1.6");
+    var session = new StandardWebSocketClient()
+        .execute(
+            new TextWebSocketHandler(), headers, URI.create("ws://localhost:" + port + "/ocpp/"
+                + identity))
+        .get(10, TimeUnit.SECONDS);
+    // The server registers the session after answering the handshake
+    await(() -> isLive(identity));
+    return session;
+  }
+
+  private boolean isLive(String identity) {
+    return handler.liveSessions("", null, "connectedSince", false).stream()
+        .anyMatch(s -> identity.equals(s.serialNumber()));
+  }
+
+  private static void await(BooleanSupplier condition) throws Exception {
+    for (var attempt = 0; attempt < 50; attempt++) {
+      if (condition.getAsBoolean()) {
+        return;
+      }
+      Thread.sleep(100);
+    }
+    fail("timed out");
+  }
+
+  @Test
+  void pongsAreTimed() throws Exception {
+    var session = connect("ACE0000002");
+    try {
+      var samples = handler.roundTripStatistics().samples();
+      handler.keepAlive(System.nanoTime());
+      await(() -> handler.roundTripStatistics().samples() > samples);
+      var statistics = handler.roundTripStatistics();
+      assertTrue(statistics.p50Micros() > 0);
+      assertTrue(statistics.maxMicros() >= statistics.p99Micros());
+      await(() -> handler.liveSessions("ACE0000002", null, "connectedSince", false).stream()
+          .anyMatch(s -> s.rttP50Micros() != null));
+      assertTrue(session.isOpen());
+    } finally {
+      session.close();
+    }
+  }
+
+  @Test
+  void silentSessionsAreClosed() throws Exception {
+    var session = connect("ACE0000003");
+    var reaped = handler.roundTripStatistics().reapedSessions();
+    handler.keepAlive(System.nanoTime() + Duration.ofHours(1).toNanos());
+    assertFalse(isLive("ACE0000003"));
+    assertEquals(reaped + 1, handler.roundTripStatistics().reapedSessions());
+    await(() -> !session.isOpen());
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class OcppSessionControllerTest {
+  private static final String BOOT_NOTIFICATION = """
+      [2,"1","BootNotification",{"chargePointVendor":"Alfen BV",\
+      "chargePointModel":"Eve Double S-line","chargePointSerialNumber":"ACE0000002",\
+      "firmwareVersion":"5.8.1-4123"}]""";
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private MockMvc mvc;
+
+  @Autowired
+  private OcppWebSocketHandler handler;
+
+  private WebSocketSession connect(String identity, BlockingQueue<String> received)
+      throws Exception {
+    var headers = new WebSocketHttpHeaders();
+    headers.setSecWebSocketProtocol("ocpp1.6");
+    var client = new TextWebSocketHandler() {
+      @Override
+      protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        received.add(message.getPayload());
+      }
+    };
+    return new StandardWebSocketClient()
+        .execute(client, headers, URI.create("ws://localhost:" + port + "/ocpp/" + identity))
+        .get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMINISTRATOR")
+  void outboundStatistics() throws Exception {
+    mvc.perform(get("/api/session/outbound"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.sessions").value(0))
+        .andExpect(jsonPath("$.bufferSizeLimit").value(65536));
+  }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void outboundStatisticsAreForAdministrators() throws Exception {
+    mvc.perform(get("/api/session/outbound")).andExpect(status().isForbidden());
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMINISTRATOR")
+  void liveSessions() throws Exception {
+    var received = new LinkedBlockingQueue<String>();
+    var session = connect("ACE0000002", received);
+    try {
+      session.sendMessage(new TextMessage(BOOT_NOTIFICATION));
+      // The boot is answered, then the firmware is up to date and the configuration is sent
+      assertNotNull(received.poll(10, TimeUnit.SECONDS));
+      var request = received.poll(10, TimeUnit.SECONDS);
+      assertNotNull(request);
+      assertTrue(request.contains("\"ChangeConfiguration\""));
+
+      mvc.perform(get("/api/session/live")
+              .param("filter", "ACE0000002")
+              .param("ocppVersion", "V1_6")
+              .param("sortBy", "bytesIn")
+              .param("order", "desc"))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$", hasSize(1)))
+          .andExpect(jsonPath("$[0].chargepointId").value(2))
+          .andExpect(jsonPath("$[0].serialNumber").value("ACE0000002"))
+          .andExpect(jsonPath("$[0].ocppVersion").value("V1_6"))
+          .andExpect(jsonPath("$[0].messagesIn").value(1))
+          .andExpect(jsonPath("$[0].messagesOut").value(2))
+          .andExpect(jsonPath("$[0].bytesIn")
+              .value(BOOT_NOTIFICATION.getBytes(StandardCharsets.UTF_8).length))
+          .andExpect(jsonPath("$[0].pendingAction").value("ChangeConfiguration"))
+          .andExpect(jsonPath("$[0].pendingRequestAgeMs").isNumber())
+          .andExpect(jsonPath("$[0].step").value("CONFIGURATION"))
+          .andExpect(jsonPath("$[0].rttP50Micros").value(nullValue()));
+    } finally {
+      session.close();
+    }
+    // The other tests expect no open session
+    for (var attempt = 0; attempt < 50 && handler.outboundStatistics().sessions() != 0; attempt++) {
+      Thread.sleep(100);
+    }
+    assertEquals(0, handler.outboundStatistics().sessions());
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMINISTRATOR")
+  void roundTripStatistics() throws Exception {
+    mvc.perform(get("/api/session/rtt"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.p99Micros").isNumber())
+        .andExpect(jsonPath("$.reapedSessions").isNumber());
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMINISTRATOR")
+  void liveSessionsWithUnknownSort() throws Exception {
+    mvc.perform(get("/api/session/live").param("sortBy", "password"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void liveSessionsAreForAdministrators() throws Exception {
+    mvc.perform(get("/api/session/live")).andExpect(status().isForbidden());
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointIdentity;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+@SpringBootTest(properties = {
+    "ocpp.send.buffer-size-limit=4",
+    "ocpp.send.time-limit=PT1H"})
+class OcppWebSocketHandlerTest {
+
+  @Autowired
+  private OcppWebSocketHandler handler;
+
+  /**
+   * A websocket session whose sends block until it is released.
+   */
+  private static final class BlockedSession implements WebSocketSession {
+    private final HttpHeaders headers = new HttpHeaders();
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final CountDownLatch sending = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+    private final CompletableFuture<CloseStatus> closed = new CompletableFuture<>();
+
+    private BlockedSession() {
+      headers.add("Sec-Websocket-Protocol", "ocpp1.6");
+      attributes.put(OcppHandshakeInterceptor.IDENTITY_ATTRIBUTE,
+          new ChargepointIdentity(
+              2, "ACE0000002", "dépasse les bornes", "Alfen BV", "Eve Double S-line", 2));
+    }
+
+    @Override
+    public String getId() {
+      return "blocked";
+    }
+
+    @Override
+    public URI getUri() {
+      return null;
+    }
+
+    @Override
+    public HttpHeaders getHandshakeHeaders() {
+      return headers;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+      return attributes;
+    }
+
+    @Override
+    public Principal getPrincipal() {
+      return null;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+      return null;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+      return null;
+    }
+
+    @Override
+    public String getAcceptedProtocol() {
+      return "ocpp1.6";
+    }
+
+    @Override
+    public void setTextMessageSizeLimit(int messageSizeLimit) {
+      // no limit
+    }
+
+    @Override
+    public int getTextMessageSizeLimit() {
+      return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+      // no limit
+    }
+
+    @Override
+    public int getBinaryMessageSizeLimit() {
+      return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public List<WebSocketExtension> getExtensions() {
+      return List.of();
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws InterruptedIOException {
+      sending.countDown();
+      try {
+        released.await();
+      } catch (InterruptedException e) {
+        throw new InterruptedIOException();
+      }
+    }
+
+    @Override
+    public boolean isOpen() {
+      return !closed.isDone();
+    }
+
+    @Override
+    public void close() {
+      close(CloseStatus.NORMAL);
+    }
+
+    @Override
+    public void close(CloseStatus status) {
+      closed.complete(status);
+    }
+  }
+
+  @Test
+  void overflowingSessionIsTerminated() throws Exception {
+    var session = new BlockedSession();
+    handler.afterConnectionEstablished(session);
+    var overflows = handler.outboundStatistics().overflows();
+    // The first ping blocks its thread in the middle of the send
+    var blocked = CompletableFuture.runAsync(() -> handler.keepAlive(System.nanoTime()));
+    try {
+      assertTrue(session.sending.await(10, TimeUnit.SECONDS));
+      // The second ping is buffered, over the limit of the session
+      handler.keepAlive(System.nanoTime());
+
+      assertEquals(CloseStatus.SESSION_NOT_RELIABLE, session.closed.get(10, TimeUnit.SECONDS));
+      assertEquals(overflows + 1, handler.outboundStatistics().overflows());
+      assertTrue(handler.liveSessions("", null, "connectedSince", false).isEmpty());
+    } finally {
+      session.released.countDown();
+      blocked.get(10, TimeUnit.SECONDS);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RoundTripHistogramTest {
+
+  @Test
+  void bucketsCoverEveryDuration() {
+    for (var precision = 0; precision <= 2; precision++) {
+      var histogram = new RoundTripHistogram(precision);
+      for (var micros = 0L; micros < 1 << 20; micros++) {
+        var bucket = histogram.bucket(micros);
+        assertTrue(histogram.lowerBound(bucket) <= micros, precision + " " + micros);
+        assertTrue(micros < histogram.lowerBound(bucket + 1), precision + " " + micros);
+      }
+      assertEquals(histogram.buckets() - 1, histogram.bucket(Long.MAX_VALUE));
+    }
+    assertEquals(104, new RoundTripHistogram(2).buckets());
+    assertEquals(28, new RoundTripHistogram(0).buckets());
+  }
+
+  @Test
+  void percentilesAreWithinAQuarter() {
+    var histogram = new RoundTripHistogram(2);
+    assertEquals(0, histogram.percentileMicros(0.5));
+    for (var millis = 1; millis <= 100; millis++) {
+      histogram.record(millis * 1_000_000L);
+    }
+    assertEquals(100, histogram.samples());
+    assertEquals(100_000, histogram.maxMicros());
+    var p50 = histogram.percentileMicros(0.5);
+    assertTrue(p50 >= 50_000 && p50 <= 62_500, "" + p50);
+    var p99 = histogram.percentileMicros(0.99);
+    assertTrue(p99 >= 99_000 && p99 <= 100_000, "" + p99);
+  }
+}
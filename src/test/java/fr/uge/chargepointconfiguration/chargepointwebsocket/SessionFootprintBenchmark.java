@@ -0,0 +1,213 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointIdentity;
+import java.lang.ref.Reference;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * Measures the heap kept by the application for each idle chargepoint session.<br>
+ * The sessions are fake {@link IdleSession}s given directly to the handler : the measure
+ * does not include the Tomcat WsSession, its buffers nor the socket, only the state of the
+ * handler, of the ChargePointManager and of its observers.<br>
+ * This state includes the Chargepoint JPA entity read at boot, each session holding its own
+ * instance, while the configuration of the entity is shared through the ReferenceDataCache.<br>
+ * The chargepoints boot and are left waiting for the answer to their first configuration
+ * request, the heap is measured before and after. The fake sessions, their headers and their
+ * attributes, identity included, are created before the first measure, so they are excluded :
+ * the container allocates them, and the identity is shared with the ChargepointIdentityIndex.
+ * The technical logs are disabled, the business logs are deleted before each measure and their
+ * text index is bounded : the test database is in memory and would count their rows.
+ * Run with <code>mvn test -Dtest=SessionFootprintBenchmark -Dbenchmark=true</code>.
+ */
+@SpringBootTest(properties = {
+    "logs.level.technical.default=OFF",
+    "logs.index.max-rows=1"})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SessionFootprintBenchmark {
+  private static final int WARMUP = 500;
+  private static final int SESSIONS = 5_000;
+  private static final String BOOT_NOTIFICATION = """
+      [2,"1","BootNotification",{"chargePointVendor":"Alfen BV",\
+      "chargePointModel":"Eve Double S-line","chargePointSerialNumber":"ACE0000002",\
+      "firmwareVersion":"5.8.1-4123"}]""";
+
+  @Autowired
+  private OcppWebSocketHandler handler;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /**
+   * A websocket session without connection, the messages sent to it are dropped.
+   */
+  private record IdleSession(
+      String getId, HttpHeaders getHandshakeHeaders, Map<String, Object> getAttributes)
+      implements WebSocketSession {
+
+    IdleSession(int id) {
+      this(Integer.toString(id), new HttpHeaders(), new HashMap<>());
+      getHandshakeHeaders.add("Sec-Websocket-Protocol", "ocpp1.6");
+      getAttributes.put(OcppHandshakeInterceptor.IDENTITY_ATTRIBUTE,
+          new ChargepointIdentity(
+              2, "ACE0000002", "dépasse les bornes", "Alfen BV", "Eve Double S-line", 2));
+    }
+
+    @Override
+    public URI getUri() {
+      return null;
+    }
+
+    @Override
+    public Principal getPrincipal() {
+      return null;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+      return null;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+      return null;
+    }
+
+    @Override
+    public String getAcceptedProtocol() {
+      return "ocpp1.6";
+    }
+
+    @Override
+    public void setTextMessageSizeLimit(int messageSizeLimit) {
+      // no limit
+    }
+
+    @Override
+    public int getTextMessageSizeLimit() {
+      return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+      // no limit
+    }
+
+    @Override
+    public int getBinaryMessageSizeLimit() {
+      return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public List<WebSocketExtension> getExtensions() {
+      return List.of();
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) {
+      // dropped
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+
+    @Override
+    public void close(CloseStatus status) {
+      // nothing to close
+    }
+  }
+
+  private long usedHeap() throws InterruptedException {
+    jdbcTemplate.update("DELETE FROM business_logs");
+    var runtime = Runtime.getRuntime();
+    for (var i = 0; i < 5; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static List<IdleSession> open(int first, int count) {
+    var sessions = new ArrayList<IdleSession>(count);
+    for (var i = first; i < first + count; i++) {
+      sessions.add(new IdleSession(i));
+    }
+    return sessions;
+  }
+
+  private void boot(List<IdleSession> sessions) throws Exception {
+    for (var session : sessions) {
+      handler.afterConnectionEstablished(session);
+      handler.handleTextMessage(session, new TextMessage(BOOT_NOTIFICATION));
+    }
+  }
+
+  @Test
+  void bytesPerIdleSession() throws Exception {
+    boot(open(0, WARMUP));
+    var sessions = open(WARMUP, SESSIONS);
+    long before;
+    long after;
+    try {
+      before = usedHeap();
+      boot(sessions);
+      after = usedHeap();
+    } finally {
+      // Keeps the fake sessions reachable until the measure
+      Reference.reachabilityFence(sessions);
+    }
+    var perSession = (after - before) / SESSIONS;
+    System.out.printf(
+        "%d bytes of handler state per idle session, Chargepoint entity included,"
+            + " %d MiB for 100k sessions, without the container sessions, their headers"
+            + " and their attributes (identity included)%n",
+        perSession, perSession * 100_000 / (1024 * 1024));
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointIdentity;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.OcppVersion;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class SessionStatisticsTest {
+
+  @Test
+  void utf8LengthMatchesTheEncodedSize() {
+    for (var text : new String[] {"", "BootNotification", "Réponse à 25 €", "🔌 plug"}) {
+      assertEquals(text.getBytes(StandardCharsets.UTF_8).length,
+          SessionStatistics.utf8Length(text), text);
+    }
+  }
+
+  @Test
+  void countsTheMessagesOfEachDirection() {
+    var since = Instant.parse("2024-05-01T10:00:00Z");
+    var statistics = new SessionStatistics(
+        "42",
+        new ChargepointIdentity(1, "ALF-001", "borne", "Alfen BV", "Eve Single", null),
+        OcppVersion.V1_6,
+        new InetSocketAddress("10.0.0.1", 4242),
+        since);
+    var empty = statistics.toDto(null);
+    assertEquals(0, empty.messagesIn());
+    assertNull(empty.lastMessageAt());
+
+    statistics.recordInbound("[2,\"1\",\"Heartbeat\",{}]");
+    statistics.recordInbound("é");
+    statistics.recordOutbound("[3,\"1\",{}]");
+    var dto = statistics.toDto(null);
+    assertEquals("42", dto.sessionId());
+    assertEquals(1, dto.chargepointId());
+    assertEquals("ALF-001", dto.serialNumber());
+    assertEquals(OcppVersion.V1_6, dto.ocppVersion());
+    assertEquals(since, dto.connectedSince());
+    assertEquals("/10.0.0.1:4242", dto.remoteAddress());
+    assertEquals(2, dto.messagesIn());
+    assertEquals(1, dto.messagesOut());
+    assertEquals(24, dto.bytesIn());
+    assertEquals(10, dto.bytesOut());
+    assertNotNull(dto.lastMessageAt());
+    assertNull(dto.pendingAction());
+    assertNull(dto.step());
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.uge.chargepointconfiguration.chargepointwebsocket.WebSocketRequestMessage;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.WebSocketResponseMessage;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.BootNotification;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.Heartbeat;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.ResetResponse;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.UpdateFirmwareResponse;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.SetVariablesRequest;
+import fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v201.SetVariablesResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OcppActionRegistryTest {
+
+  @DisplayName("Should find the classes of an OCPP 1.6 action")
+  @Test
+  public void findsActionOfVersion16() {
+    var action = OcppActionRegistry.of(OcppVersion.V1_6).find("BootNotification").orElseThrow();
+    assertEquals(BootNotification.class, action.request());
+    assertEquals(
+        fr.uge.chargepointconfiguration.chargepointwebsocket.ocpp.v16.BootNotificationResponse
+            .class,
+        action.response());
+  }
+
+  @DisplayName("Should find the classes of an OCPP 2.0.1 action")
+  @Test
+  public void findsActionOfVersion201() {
+    var action = OcppActionRegistry.of(OcppVersion.V2_0_1).find("SetVariables").orElseThrow();
+    assertEquals(SetVariablesRequest.class, action.request());
+    assertEquals(SetVariablesResponse.class, action.response());
+  }
+
+  @DisplayName("Should register every schema of the version")
+  @Test
+  public void registersEverySchema() {
+    assertEquals(28, OcppActionRegistry.of(OcppVersion.V1_6).size());
+    assertEquals(64, OcppActionRegistry.of(OcppVersion.V2_0_1).size());
+  }
+
+  @DisplayName("Should prepare the reader and the writer of each class of an action")
+  @Test
+  public void preparesReadersAndWriters() {
+    for (var version : OcppVersion.values()) {
+      for (var action : OcppActionRegistry.of(version).actions()) {
+        assertEquals(action.request() == null, action.requestReader() == null);
+        assertEquals(action.request() == null, action.requestWriter() == null);
+        assertEquals(action.response() == null, action.responseReader() == null);
+        assertEquals(action.response() == null, action.responseWriter() == null);
+      }
+    }
+    var parser = OcppMessageParser.instantiateFromVersion(OcppVersion.V1_6);
+    var request = new WebSocketRequestMessage(2, 1, "Reset", "{\"type\":\"Hard\"}");
+    var reset = parser.parseRequestMessage(request).orElseThrow();
+    assertEquals("{\"type\":\"Hard\"}", parser.transform(reset));
+    assertEquals("{\"status\":\"Accepted\"}", parser.transform(
+        new ResetResponse.ResetResponseBuilder().withStatus(ResetResponse.Status.ACCEPTED)
+            .build()));
+  }
+
+  @DisplayName("Should return an empty optional for an unknown action")
+  @Test
+  public void unknownActionIsEmpty() {
+    assertTrue(OcppActionRegistry.of(OcppVersion.V1_6).find("SetVariables").isEmpty());
+    assertTrue(OcppActionRegistry.of(OcppVersion.V2_0_1).find("Unknown").isEmpty());
+  }
+
+  @DisplayName("Should return the action name of a message")
+  @Test
+  public void returnsActionName() {
+    assertEquals("BootNotification", OcppActionRegistry.actionName(
+        new BootNotification.BootNotificationBuilder().build()));
+    assertEquals("SetVariables", OcppActionRegistry.actionName(
+        new SetVariablesRequest.SetVariablesRequestBuilder().build()));
+    assertEquals("Reset", OcppActionRegistry.actionName(new ResetResponse()));
+  }
+
+  @DisplayName("Should throw an exception for a message which is not an OCPP action")
+  @Test
+  public void unknownMessageThrowsException() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> OcppActionRegistry.actionName(new OcppMessageRequest() {}));
+  }
+
+  @DisplayName("Should parse a message which has no dedicated handler")
+  @Test
+  public void parsesMessageWithoutHandler() {
+    var parser = OcppMessageParser.instantiateFromVersion(OcppVersion.V1_6);
+    var request = new WebSocketRequestMessage(2, 1, "Heartbeat", "{}");
+    assertTrue(parser.parseRequestMessage(request).orElseThrow() instanceof Heartbeat);
+    var response = new WebSocketResponseMessage(3, 2, "{\"status\":\"Accepted\"}");
+    var reset = new WebSocketRequestMessage(2, 2, "Reset", "{\"type\":\"Hard\"}");
+    assertTrue(parser.parseResponseMessage(reset.messageName(), response).orElseThrow()
+        instanceof ResetResponse);
+    assertTrue(parser.parseResponseMessage(null, response).isEmpty());
+  }
+
+  @DisplayName("Should only read the payload of the accepted messages")
+  @Test
+  public void parsesOnlyAcceptedMessages() {
+    var parser = OcppMessageParser.instantiateFromVersion(OcppVersion.V1_6);
+    var vendorRequest = new WebSocketRequestMessage(
+        2, 1, "BootNotification", "{\"chargePointVendor\":\"Alfen BV\",\"unknown\":true}");
+    assertTrue(parser.parseRequestMessage(vendorRequest, type -> false).isEmpty());
+    assertThrows(
+        IllegalArgumentException.class, () -> parser.parseRequestMessage(vendorRequest));
+    var vendorResponse = new WebSocketResponseMessage(3, 2, "{\"vendorExtension\":1}");
+    assertTrue(parser.parseResponseMessage("UpdateFirmware", vendorResponse).orElseThrow()
+        instanceof UpdateFirmwareResponse);
+  }
+}
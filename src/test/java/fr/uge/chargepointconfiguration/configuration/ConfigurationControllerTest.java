@@ -27,6 +27,9 @@ import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import fr.uge.chargepointconfiguration.shared.SearchStatements;
+import fr.uge.chargepointconfiguration.tools.JsonParser;
+import java.util.List;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,6 +45,8 @@ import org.springframework.test.web.servlet.*;
 @WithMockUser
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class ConfigurationControllerTest {
+  private static final JsonParser jsonParser = new JsonParser();
+
   @Autowired
   private MockMvc mvc;
 
@@ -136,4 +141,49 @@ class ConfigurationControllerTest {
         .andExpect(jsonPath("$.data", hasSize(1)))
         .andExpect(jsonPath("$.data[0].id", is(1)));
   }
+
+  @Test
+  @WithMockUser(roles = "VISUALIZER")
+  void searchRunsConstantStatements() throws Exception {
+    SearchStatements.assertConstant(mvc, "/api/configuration/search", "1", "5");
+  }
+
+  @Test
+  @WithMockUser(roles = "VISUALIZER")
+  void getAllWithFields() throws Exception {
+    mvc.perform(get("/api/configuration/all").queryParam("fields", "id,name"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(5)))
+        .andExpect(jsonPath("$[0].*", hasSize(2)))
+        .andExpect(jsonPath("$[0].id", is(5)))
+        .andExpect(jsonPath("$[0].name", is("configuration voisins")));
+  }
+
+  @Test
+  @WithMockUser(roles = "VISUALIZER")
+  void getAllWithFieldsKeepsTheNestedProperties() throws Exception {
+    mvc.perform(get("/api/configuration/all").queryParam("fields", "id,firmware"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].*", hasSize(2)))
+        .andExpect(jsonPath("$[0].firmware.*", hasSize(5)));
+  }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void createChecksTheConfiguration() throws Exception {
+    for (var configuration : List.of("{\"1\":\"101\"}", "{\"42\":\"1\"}", "not json")) {
+      mvc.perform(post("/api/configuration/create")
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(jsonParser.objectToJsonString(
+                  new CreateConfigurationDto("new", "", configuration, 1))))
+          .andExpect(status().isBadRequest());
+    }
+
+    mvc.perform(post("/api/configuration/create")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(jsonParser.objectToJsonString(
+                new CreateConfigurationDto("new", "", "{\"1\":\"42\"}", 1))))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.configuration", is("{\"Intensité de la LED\":\"42\"}")));
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ConfigurationDocumentTest {
+
+  @Test
+  void parseRendersTheDisplayAndOcppForms() {
+    var document = ConfigurationDocument.parse(
+        "{\"1\":\"100\",\"3\":\"Borne-Test\",\"4\":\"true\",\"9\":\"x\"}");
+    assertEquals(
+        List.of(
+            ConfigurationTranscriptor.LIGHT_INTENSITY,
+            ConfigurationTranscriptor.CHARGEPOINT_IDENTITY,
+            ConfigurationTranscriptor.LOCAL_AUTH_LIST),
+        List.copyOf(document.values().keySet()));
+    assertEquals(List.of("9"), document.unknownKeys());
+    assertEquals(
+        "{\"Intensité de la LED\":\"100\",\"Nom de la borne\":\"Borne-Test\","
+            + "\"Activer la liste des badges d'authentification ?\":\"true\",\"9\":\"x\"}",
+        document.display());
+    assertEquals(
+        Map.of(
+            "SecurityCtrlr", Map.of("Identity", "Borne-Test"),
+            "LocalAuthListCtrlr", Map.of("LocalAuthListEnabled", "true")),
+        document.ocpp201Variables());
+    assertEquals(List.copyOf(document.values().entrySet()), document.entries());
+  }
+
+  @Test
+  void parseRejectsInvalidJson() {
+    assertThrows(IllegalArgumentException.class, () -> ConfigurationDocument.parse("{\"1\":"));
+    assertThrows(IllegalArgumentException.class, () -> ConfigurationDocument.parse("[]"));
+    assertThrows(
+        IllegalArgumentException.class, () -> ConfigurationDocument.parse("{\"1\":{\"a\":1}}"));
+  }
+
+  @Test
+  void documentIsParsedOncePerEdit() {
+    var edit = LocalDateTime.of(2024, 1, 1, 0, 0);
+    var document = ConfigurationDocument.of(1_000, edit, "{\"1\":\"10\"}");
+    assertSame(document, ConfigurationDocument.of(1_000, edit, "{\"1\":\"10\"}"));
+
+    var edited = ConfigurationDocument.of(1_000, edit, "{\"1\":\"20\"}");
+    assertEquals("20", edited.values().get(ConfigurationTranscriptor.LIGHT_INTENSITY));
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Measures the cost of the validation of one configuration.<br>
+ * Run with <code>mvn test -Dtest=ConfigurationValidatorBenchmark -Dbenchmark=true</code>.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ConfigurationValidatorBenchmark {
+  private static final int CONFIGURATIONS = 10_000;
+  private static final int ROUNDS = 20;
+
+  private static List<String> configurations() {
+    var random = new Random(0);
+    var configurations = new ArrayList<String>(CONFIGURATIONS);
+    for (var i = 0; i < CONFIGURATIONS; i++) {
+      configurations.add("{\"1\":\"" + random.nextInt(120) + "\",\"3\":\"Borne-" + i
+          + "\",\"6\":\"password-" + i + "\"}");
+    }
+    return configurations;
+  }
+
+  // Keeps the results alive so the validations are not optimized away
+  private long sink;
+
+  private void measure(String name, List<String> configurations, LongSupplier validation) {
+    var best = Long.MAX_VALUE;
+    for (var round = 0; round < ROUNDS; round++) {
+      var start = System.nanoTime();
+      sink += validation.getAsLong();
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf("%s : %d ns per configuration%n", name, best / configurations.size());
+  }
+
+  @Test
+  void validationCost() {
+    var configurations = configurations();
+    var validator = new ConfigurationValidator();
+    var documents = configurations.stream().map(ConfigurationDocument::parse).toList();
+
+    measure("parse and validate", configurations,
+        () -> validator.validateAll(configurations).stream()
+            .filter(result -> result.errors().isEmpty())
+            .count());
+    measure("validate parsed, precompiled rules", configurations,
+        () -> documents.stream()
+            .filter(document -> validator.violations(document).isEmpty())
+            .count());
+    measure("validate parsed, String.matches", configurations,
+        () -> documents.stream()
+            .filter(document -> document.values().entrySet().stream().allMatch(
+                entry -> entry.getValue().matches(entry.getKey().getRegexRule())))
+            .count());
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ConfigurationValidatorTest {
+  private final ConfigurationValidator validator = new ConfigurationValidator();
+
+  @Test
+  void validateReturnsTheDocument() {
+    var document = validator.validate("{\"1\":\"42\",\"6\":\"a-long-password\"}");
+    assertEquals("42", document.values().get(ConfigurationTranscriptor.LIGHT_INTENSITY));
+
+    var exception =
+        assertThrows(BadRequestException.class, () -> validator.validate("{\"1\":\"101\"}"));
+    assertEquals(
+        "Le champs \"Intensité de la LED\" ne respecte pas ses contraintes.",
+        exception.getMessage());
+  }
+
+  @Test
+  void validateAllReportsEachConfiguration() {
+    var results = validator.validateAll(
+        List.of("{\"1\":\"100\"}", "{\"1\":\"-1\",\"42\":\"1\"}", "{"));
+    assertEquals(
+        List.of(
+            new ConfigurationValidationDto(0, List.of()),
+            new ConfigurationValidationDto(
+                1,
+                List.of(
+                    "La clé 42 n'existe pas",
+                    "Le champs \"Intensité de la LED\" ne respecte pas ses contraintes.")),
+            new ConfigurationValidationDto(
+                2, List.of("La configuration n'est pas un JSON valide"))),
+        results);
+  }
+}
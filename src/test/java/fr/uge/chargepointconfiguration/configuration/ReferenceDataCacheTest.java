@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import fr.uge.chargepointconfiguration.chargepoint.ChargepointRepository;
+import fr.uge.chargepointconfiguration.firmware.Firmware;
+import fr.uge.chargepointconfiguration.shared.StatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ReferenceDataCacheTest {
+  @Autowired
+  private ChargepointRepository chargepointRepository;
+
+  @Autowired
+  private ReferenceDataCache referenceDataCache;
+
+  @Test
+  void bootOfChargepointsSharingAConfigurationReadsItOnce() throws Exception {
+    var first = referenceDataCache.attachConfiguration(
+        chargepointRepository.findBySerialNumberChargePointAndConstructor(
+            "ACE0000002", "Alfen BV"));
+    // Readable outside any transaction
+    var firmware = first.getConfiguration().getFirmware();
+    assertEquals(2, firmware.getTypesAllowed().size());
+
+    var statements = StatementCounter.count(() -> {
+      var second = referenceDataCache.attachConfiguration(
+          chargepointRepository.findBySerialNumberChargePointAndConstructor(
+              "ACE0000008", "Alfen BV"));
+      assertEquals(first.getConfiguration(), second.getConfiguration());
+    });
+    assertEquals(1, statements);
+
+    var statistics = referenceDataCache.statistics().getFirst();
+    assertEquals(1, statistics.hits());
+    assertEquals(1, statistics.misses());
+
+    referenceDataCache.invalidate(Firmware.class);
+    referenceDataCache.configuration(2);
+    assertEquals(2, referenceDataCache.statistics().getFirst().misses());
+  }
+
+  @Test
+  void cachedEntitiesAreReadOnly() {
+    var typesAllowed = referenceDataCache.configuration(2).getFirmware().getTypesAllowed();
+    assertThrows(UnsupportedOperationException.class, typesAllowed::clear);
+    var firmware = referenceDataCache.firmwaresCompatibleWith(typesAllowed.iterator().next())
+        .getFirst();
+    assertThrows(UnsupportedOperationException.class, firmware.getTypesAllowed()::clear);
+  }
+
+  @Test
+  void uncachedConfigurationIsFetchedWithTheChargepoint() {
+    var chargepoint = chargepointRepository.findBySerialNumberChargePointAndConstructor(
+        "ACE0000002", "Alfen BV");
+    // A configuration deleted since the chargepoint was read
+    chargepoint.setConfiguration(new Configuration(42, "absente", "{}", new Firmware()));
+
+    var attached = referenceDataCache.attachConfiguration(chargepoint);
+    // Readable outside any transaction
+    assertEquals(2, attached.getConfiguration().getFirmware().getTypesAllowed().size());
+  }
+}
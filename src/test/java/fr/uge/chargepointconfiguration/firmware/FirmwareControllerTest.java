@@ -27,6 +27,7 @@ import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import fr.uge.chargepointconfiguration.shared.SearchStatements;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -124,4 +125,20 @@ class FirmwareControllerTest {
         .andExpect(jsonPath("$.data[0].id", is(3)))
         .andExpect(jsonPath("$.data[1].id", is(1)));
   }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void getAllWithFields() throws Exception {
+    mvc.perform(get("/api/firmware/all").queryParam("fields", "id,version"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(3)))
+        .andExpect(jsonPath("$[0].*", hasSize(2)))
+        .andExpect(jsonPath("$[0].id", is(3)));
+  }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void searchRunsConstantStatements() throws Exception {
+    SearchStatements.assertConstant(mvc, "/api/firmware/search", "1", "3");
+  }
 }
@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLog;
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.logs.sealed.LogEntity;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLog;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import org.apache.logging.log4j.Level;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+class CustomLoggerTest {
+  private static final int CALLS = 100_000;
+
+  // The disabled logs never reach the service, so none is needed
+  private static CustomLogger logger(MockEnvironment environment) {
+    return new CustomLogger(null, environment);
+  }
+
+  private static long allocatedBytes() {
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    return threads.getThreadAllocatedBytes(Thread.currentThread().threadId());
+  }
+
+  @DisplayName("Should use the level of the component, then the default one")
+  @Test
+  public void readsTheLevels() {
+    var logger = logger(new MockEnvironment()
+        .withProperty("logs.level.technical.default", "info")
+        .withProperty("logs.level.technical.component.BACKEND", "WARN"));
+    assertTrue(logger.isEnabled(Level.INFO, TechnicalLogEntity.Component.FRONTEND));
+    assertFalse(logger.isEnabled(Level.DEBUG, TechnicalLogEntity.Component.FRONTEND));
+    assertTrue(logger.isEnabled(Level.WARN, TechnicalLogEntity.Component.BACKEND));
+    assertFalse(logger.isEnabled(Level.INFO, TechnicalLogEntity.Component.BACKEND));
+  }
+
+  @DisplayName("Should refuse an unknown level")
+  @Test
+  public void unknownLevelThrowsException() {
+    var environment = new MockEnvironment().withProperty("logs.level.technical.default", "LOUD");
+    assertThrows(IllegalStateException.class, () -> logger(environment));
+  }
+
+  @DisplayName("Should not build the message of a disabled log")
+  @Test
+  public void disabledLogIsNotBuilt() {
+    var logger = logger(
+        new MockEnvironment().withProperty("logs.level.technical.default", "WARN"));
+    var argument = new Object() {
+      @Override
+      public String toString() {
+        throw new AssertionError("the message was built");
+      }
+    };
+    logger.log(Level.INFO, TechnicalLogEntity.Component.BACKEND, "{}", argument);
+    logger.log(Level.INFO, TechnicalLogEntity.Component.BACKEND, "{} {}", argument, argument);
+    logger.log(
+        Level.INFO, TechnicalLogEntity.Component.BACKEND, "{} {} {}", argument, argument, argument);
+    logger.log(Level.INFO, TechnicalLogEntity.Component.BACKEND, () -> {
+      throw new AssertionError("the message was built");
+    });
+    logger.info(new TechnicalLog(TechnicalLogEntity.Component.BACKEND, "dropped"));
+  }
+
+  @DisplayName("Should always keep the business logs")
+  @Test
+  public void businessLogsAreAlwaysKept() {
+    var saved = new ArrayList<LogEntity>();
+    var service = new CustomLoggerService(null, null, null, null) {
+      @Override
+      public LogEntity save(LogEntity log) {
+        saved.add(log);
+        return log;
+      }
+    };
+    var logger = new CustomLogger(
+        service, new MockEnvironment().withProperty("logs.level.technical.default", "OFF"));
+    logger.log(
+        Level.TRACE, new BusinessLog(null, null, BusinessLogEntity.Category.CONFIG, "kept"));
+    logger.log(Level.TRACE, new TechnicalLog(TechnicalLogEntity.Component.BACKEND, "dropped"));
+    assertEquals(1, saved.size());
+    assertEquals(
+        "kept", assertInstanceOf(BusinessLogEntity.class, saved.getFirst()).getCompleteLog());
+  }
+
+  @DisplayName("Should not allocate anything for a disabled log")
+  @Test
+  public void disabledLogDoesNotAllocate() {
+    var logger = logger(
+        new MockEnvironment().withProperty("logs.level.technical.component.BACKEND", "WARN"));
+    var remote = "127.0.0.1:8887";
+    var payload = "[2,\"1\",\"Heartbeat\",{}]";
+    for (var round = 0; round < 2; round++) {
+      var start = allocatedBytes();
+      for (var i = 0; i < CALLS; i++) {
+        logger.log(Level.INFO, TechnicalLogEntity.Component.BACKEND,
+            "received request from {}: {}", remote, payload);
+        logger.log(Level.DEBUG, TechnicalLogEntity.Component.BACKEND,
+            () -> "a constant supplier");
+      }
+      // A few bytes for the measure itself, far below one byte per call
+      assertEquals(0, (allocatedBytes() - start) / CALLS);
+    }
+  }
+}
@@ -27,6 +27,7 @@ import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.util.List;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -121,4 +122,58 @@ class BusinessLogControllerTest {
         .andExpect(jsonPath("$.data[1].id", is(3)))
         .andExpect(jsonPath("$.data[2].id", is(2)));
   }
+
+  @Test
+  @WithMockUser(roles = "VISUALIZER")
+  void getPageWithTextFilter() throws Exception {
+    mvc.perform(get("/api/log/business/search")
+            .queryParam("size", "10")
+            .queryParam("page", "0")
+            .queryParam("request", "completeLog:`message fatal`"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total", is(1)))
+        .andExpect(jsonPath("$.data", hasSize(1)))
+        .andExpect(jsonPath("$.data[0].id", is(3)));
+  }
+
+  @Test
+  @WithMockUser(roles = "VISUALIZER")
+  void getPageWithStructuredFilter() throws Exception {
+    mvc.perform(get("/api/log/business/search")
+            .queryParam("size", "10")
+            .queryParam("page", "0")
+            .queryParam("request", "ocppAction=`ChangeConfiguration`,level=`ERROR`,"
+                + "chargepoint.constructor=`Alfen BV`"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total", is(1)))
+        .andExpect(jsonPath("$.data", hasSize(1)))
+        .andExpect(jsonPath("$.data[0].id", is(2)))
+        .andExpect(jsonPath("$.data[0].ocppAction", is("ChangeConfiguration")));
+
+    mvc.perform(get("/api/log/business/search")
+            .queryParam("size", "10")
+            .queryParam("page", "0")
+            .queryParam("request", "ocppAction=`Change`"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total", is(0)));
+  }
+
+  @Test
+  @WithMockUser(roles = "VISUALIZER")
+  void getPageWithUnknownPath() throws Exception {
+    mvc.perform(get("/api/log/business/search")
+            .queryParam("request", "chargepoint.vendor=`Alfen BV`"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(roles = "VISUALIZER")
+  void usersAreNotSearchable() throws Exception {
+    for (var request : List.of("user.password>`$2a`", "user.email:`@`", "user=`1`")) {
+      mvc.perform(get("/api/log/business/search").queryParam("request", request))
+          .andExpect(status().isBadRequest());
+    }
+    mvc.perform(get("/api/log/business/search").queryParam("sortBy", "user.password"))
+        .andExpect(status().isBadRequest());
+  }
 }
@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import fr.uge.chargepointconfiguration.logs.technical.TechnicalLogRepository;
+import fr.uge.chargepointconfiguration.logs.technical.TechnicalLogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * JUnit test class for the {@link LogTextIndex}.
+ */
+@SpringBootTest
+@Transactional
+class LogTextIndexTest {
+
+  @Autowired
+  private LogTextIndex logTextIndex;
+
+  @Autowired
+  private TechnicalLogRepository technicalLogRepository;
+
+  @Autowired
+  private TechnicalLogService technicalLogService;
+
+  @Test
+  void logsSavedWithoutTheIndexAreFound() throws InterruptedException {
+    while (!logTextIndex.ready()) {
+      Thread.sleep(50);
+    }
+    var log = technicalLogRepository.save(
+        new TechnicalLogEntity(TechnicalLogEntity.Component.BACKEND, "INFO", "xyzzy hors index"));
+
+    var found = technicalLogService.search("completeLog:`xyzzy`", PageRequest.of(0, 10));
+
+    assertEquals(1, found.size());
+    assertEquals(log.getId(), found.getFirst().getId());
+  }
+}
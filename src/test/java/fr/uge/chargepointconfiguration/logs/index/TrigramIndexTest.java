@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit test class for the {@link TrigramIndex}.
+ */
+class TrigramIndexTest {
+
+  @Test
+  void candidatesContainEveryMatchingRow() {
+    var index = new TrigramIndex(100, 0);
+    index.add(3, "Connexion de la borne ACE0000001");
+    index.add(1, "Erreur de connexion");
+    index.add(2, "Mise à jour du firmware");
+
+    assertArrayEquals(new int[] {1, 3}, index.candidates("CONNEX", 10).orElseThrow().ids());
+    assertArrayEquals(new int[] {2}, index.candidates("firm", 10).orElseThrow().ids());
+    assertArrayEquals(new int[0], index.candidates("absent", 10).orElseThrow().ids());
+  }
+
+  @Test
+  void indexIsNotUsedWhenItCanNotHelp() {
+    var index = new TrigramIndex(100, 0);
+    index.add(1, "Erreur de connexion");
+    index.add(2, "Erreur de firmware");
+
+    assertTrue(index.candidates("de", 10).isEmpty());
+    assertTrue(index.candidates("Erreur", 1).isEmpty());
+    assertArrayEquals(new int[] {1, 2}, index.candidates("Erreur", 2).orElseThrow().ids());
+    assertTrue(index.candidates("", 10).isEmpty());
+  }
+
+  @Test
+  void candidatesIgnoreCaseAndAccentsLikeTheDatabase() {
+    var index = new TrigramIndex(100, 0);
+    index.add(1, "Mise à jour du firmware");
+    index.add(2, "Échec de la MISE A JOUR");
+    index.add(3, "Straße inconnue");
+
+    assertArrayEquals(
+        new int[] {1, 2, 3}, index.candidates("mise à jour", 10).orElseThrow().ids());
+    assertArrayEquals(new int[] {2, 3}, index.candidates("ECHEC", 10).orElseThrow().ids());
+    assertArrayEquals(new int[] {3}, index.candidates("absent", 10).orElseThrow().ids());
+  }
+
+  @Test
+  void indexIsNotUsedForWildcardsAndNonAsciiQueries() {
+    var index = new TrigramIndex(100, 0);
+    index.add(1, "Mise à jour du firmware");
+
+    assertTrue(index.candidates("jour%firm", 10).isEmpty());
+    assertTrue(index.candidates("du_firm", 10).isEmpty());
+    assertTrue(index.candidates("jour\\", 10).isEmpty());
+    assertTrue(index.candidates("straße", 10).isEmpty());
+  }
+
+  @Test
+  void oldestRowsAreEvicted() {
+    var index = new TrigramIndex(4, 0);
+    for (var id = 1; id <= 10; id++) {
+      index.add(id, "Erreur " + id);
+    }
+
+    var candidates = index.candidates("erreur", 10).orElseThrow();
+    assertEquals(7, candidates.firstId());
+    assertEquals(10, candidates.lastId());
+    assertArrayEquals(new int[] {7, 8, 9, 10}, candidates.ids());
+  }
+}
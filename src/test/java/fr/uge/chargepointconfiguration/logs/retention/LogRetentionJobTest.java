@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.retention;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.uge.chargepointconfiguration.logs.CustomLogger;
+import fr.uge.chargepointconfiguration.logs.business.BusinessLogRepository;
+import fr.uge.chargepointconfiguration.logs.rollup.LogRollupService;
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import fr.uge.chargepointconfiguration.logs.technical.TechnicalLogRepository;
+import fr.uge.chargepointconfiguration.shared.EntityCountRegistry;
+import fr.uge.chargepointconfiguration.shared.StatementCounter;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * JUnit test class for the {@link LogRetentionJob}.
+ */
+@SpringBootTest(properties = {
+  "logs.retention.technical.default=PT24H",
+  "logs.retention.technical.level.ERROR=P7D",
+  "logs.retention.technical.component.BACKEND=P2D",
+  "logs.retention.business.default=PT24H",
+  "logs.retention.business.level.ERROR=P7D"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class LogRetentionJobTest {
+
+  @Autowired
+  private LogRetentionJob logRetentionJob;
+
+  @Autowired
+  private TechnicalLogRepository technicalLogRepository;
+
+  @Autowired
+  private BusinessLogRepository businessLogRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private LogRetentionPolicy logRetentionPolicy;
+
+  @Autowired
+  private LogRollupService logRollupService;
+
+  @Autowired
+  private EntityCountRegistry entityCountRegistry;
+
+  @Autowired
+  private CustomLogger logger;
+
+  @Test
+  void purgeDeletesOnlyExpiredLogs() {
+    var deleted = logRetentionJob.purge(LocalDateTime.parse("2024-03-09T12:00:00"));
+
+    assertEquals(2, deleted);
+    var technicalLogs = StreamSupport.stream(technicalLogRepository.findAll().spliterator(), false)
+        .filter(log -> log.getDate().isBefore(LocalDateTime.parse("2025-01-01T00:00:00")))
+        .map(TechnicalLogEntity::getId)
+        .toList();
+    assertEquals(List.of(1, 2, 3), technicalLogs);
+    var businessLogs = StreamSupport.stream(businessLogRepository.findAll().spliterator(), false)
+        .map(BusinessLogEntity::getId)
+        .toList();
+    assertEquals(List.of(1, 2, 3), businessLogs);
+  }
+
+  @Test
+  void purgeWithoutExpiredLogsDeletesNothing() {
+    assertEquals(0, logRetentionJob.purge(LocalDateTime.parse("2024-03-08T12:00:00")));
+    assertEquals(4, technicalLogRepository.count());
+    assertEquals(4, businessLogRepository.count());
+  }
+
+  @Test
+  void purgeStartsEachGroupAtItsOwnOldestLog() throws Exception {
+    jdbcTemplate.update(
+        "insert into technical_logs (date, component, level, complete_log) values (?, ?, ?, ?)",
+        LocalDateTime.parse("2023-03-08T10:00:00"), "WEBSOCKET", "ERROR", "old error");
+
+    var deleted = new long[1];
+    var statements = StatementCounter.count(() ->
+        deleted[0] = logRetentionJob.purge(LocalDateTime.parse("2024-03-09T12:00:00")));
+
+    assertEquals(3, deleted[0]);
+    // A select per day during a year for the errors of the websocket, a few days for the other
+    // groups, and a delete per day holding expired logs
+    assertTrue(statements < 450, "statements of the purge : " + statements);
+  }
+
+  @Test
+  void purgeDeletesByBatches() {
+    for (var i = 0; i < 5; i++) {
+      jdbcTemplate.update(
+          "insert into technical_logs (date, component, level, complete_log) values (?, ?, ?, ?)",
+          LocalDateTime.parse("2024-03-07T10:00:00"), "WEBSOCKET", "INFO", "log " + i);
+    }
+    var purge = new LogRetentionJob(
+        technicalLogRepository, businessLogRepository, logRetentionPolicy, logRollupService,
+        entityCountRegistry, logger, 2);
+
+    assertEquals(7, purge.purge(LocalDateTime.parse("2024-03-09T12:00:00")));
+    assertEquals(0, jdbcTemplate.queryForObject(
+        "select count(*) from technical_logs where complete_log like 'log _'", Integer.class));
+  }
+}
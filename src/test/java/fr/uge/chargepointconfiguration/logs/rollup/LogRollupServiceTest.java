@@ -0,0 +1,177 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.logs.rollup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import fr.uge.chargepointconfiguration.errors.exceptions.BadRequestException;
+import fr.uge.chargepointconfiguration.logs.CustomLogger;
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLog;
+import fr.uge.chargepointconfiguration.logs.sealed.BusinessLogEntity;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLog;
+import fr.uge.chargepointconfiguration.logs.sealed.TechnicalLogEntity;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * JUnit test class for the {@link LogRollupService}.
+ */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class LogRollupServiceTest {
+
+  @Autowired
+  private CustomLogger logger;
+
+  @Autowired
+  private LogRollupService logRollupService;
+
+  @Autowired
+  private TechnicalLogRollupRepository technicalLogRollupRepository;
+
+  @Autowired
+  private BusinessLogRollupRepository businessLogRollupRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  void technicalHistogramCountsLoggedErrors() {
+    for (var i = 0; i < 3; i++) {
+      logger.error(new TechnicalLog(TechnicalLogEntity.Component.WEBSOCKET, "error " + i));
+    }
+    logger.info(new TechnicalLog(TechnicalLogEntity.Component.WEBSOCKET, "info"));
+    logRollupService.flush();
+    logger.error(new TechnicalLog(TechnicalLogEntity.Component.WEBSOCKET, "pending error"));
+
+    var now = LocalDateTime.now();
+    var histogram = logRollupService.technicalHistogram(
+        RollupGranularity.DAY,
+        now.minusDays(1),
+        now.plusDays(1),
+        TechnicalLogEntity.Component.WEBSOCKET,
+        "ERROR");
+
+    assertEquals(
+        List.of(new LogHistogramDto(RollupGranularity.DAY.bucketOf(now), "WEBSOCKET", 4)),
+        histogram);
+  }
+
+  @Test
+  void businessHistogramIsSplitByCategory() {
+    logger.error(new BusinessLog(null, null, BusinessLogEntity.Category.CONFIG, "config"));
+    logger.error(new BusinessLog(null, null, BusinessLogEntity.Category.FIRM, "firmware"));
+    logger.error(new BusinessLog(null, null, BusinessLogEntity.Category.CONFIG, "config"));
+
+    var now = LocalDateTime.now();
+    var histogram = logRollupService.businessHistogram(
+        RollupGranularity.MINUTE, now.minusMinutes(5), now.plusMinutes(5), null, null, "ERROR");
+
+    assertEquals(3, histogram.stream().mapToLong(LogHistogramDto::total).sum());
+    assertEquals(
+        2,
+        histogram.stream()
+            .filter(point -> point.series().equals("CONFIG"))
+            .mapToLong(LogHistogramDto::total)
+            .sum());
+  }
+
+  @Test
+  void flushesIncrementTheExistingRollups() {
+    logger.error(new BusinessLog(null, null, BusinessLogEntity.Category.CONFIG, "config"));
+    logRollupService.flush();
+    logger.error(new BusinessLog(null, null, BusinessLogEntity.Category.CONFIG, "config"));
+    logRollupService.flush();
+
+    var now = LocalDateTime.now();
+    var rollups = businessLogRollupRepository.findRange(
+        RollupGranularity.HOUR,
+        RollupGranularity.HOUR.bucketOf(now).minusHours(1),
+        now.plusHours(1),
+        BusinessLogEntity.Category.CONFIG,
+        null,
+        "ERROR");
+    assertEquals(List.of(2L), rollups.stream().map(BusinessLogRollup::getTotal).toList());
+  }
+
+  @Test
+  void histogramOnlyCountsTheBucketsWithinTheRange() {
+    logger.error(new TechnicalLog(TechnicalLogEntity.Component.WEBSOCKET, "error"));
+    var now = LocalDateTime.now();
+
+    assertEquals(
+        List.of(),
+        logRollupService.technicalHistogram(
+            RollupGranularity.MINUTE, now, now.plusHours(1), null, "ERROR"));
+    assertEquals(
+        1,
+        logRollupService.technicalHistogram(
+                RollupGranularity.MINUTE, now.minusMinutes(2), now.plusHours(1), null, "ERROR")
+            .stream()
+            .mapToLong(LogHistogramDto::total)
+            .sum());
+  }
+
+  @Test
+  void failedFlushKeepsTheCounters() {
+    var failingRepository = (TechnicalLogRollupRepository) Proxy.newProxyInstance(
+        getClass().getClassLoader(),
+        new Class<?>[] {TechnicalLogRollupRepository.class},
+        (proxy, method, arguments) -> {
+          if (method.getName().equals("save")) {
+            throw new IllegalStateException("database unavailable");
+          }
+          return method.invoke(technicalLogRollupRepository, arguments);
+        });
+    var service = new LogRollupService(
+        failingRepository, businessLogRollupRepository, transactionManager, Duration.ofDays(7));
+    service.record(new TechnicalLogEntity(TechnicalLogEntity.Component.WEBSOCKET, "ERROR", "x"));
+
+    assertThrows(IllegalStateException.class, service::flush);
+    assertThrows(IllegalStateException.class, service::flush);
+    var now = LocalDateTime.now();
+    assertEquals(
+        1,
+        service.technicalHistogram(
+                RollupGranularity.MINUTE, now.minusMinutes(5), now.plusMinutes(5), null, "ERROR")
+            .stream()
+            .mapToLong(LogHistogramDto::total)
+            .sum());
+  }
+
+  @Test
+  void histogramRejectsEmptyRange() {
+    var now = LocalDateTime.now();
+    assertThrows(
+        BadRequestException.class,
+        () -> logRollupService.technicalHistogram(RollupGranularity.HOUR, now, now, null, null));
+  }
+}
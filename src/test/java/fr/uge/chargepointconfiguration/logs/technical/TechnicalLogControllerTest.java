@@ -29,6 +29,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.List;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -129,4 +130,14 @@ class TechnicalLogControllerTest {
         .andExpect(jsonPath("$.data[1].id", is(3)))
         .andExpect(jsonPath("$.data[2].id", is(2)));
   }
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void getPageWithInvalidValues() throws Exception {
+    for (var request : List.of(
+        "direction=`FOO`", "chargepointId=`abc`", "date=`x`", "date>`x`", "component:`FOO`")) {
+      mvc.perform(get("/api/log/technical/search").queryParam("request", request))
+          .andExpect(status().isBadRequest());
+    }
+  }
 }
@@ -0,0 +1,201 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import fr.uge.chargepointconfiguration.shared.StatementCounter;
+import fr.uge.chargepointconfiguration.tools.JsonParser;
+import fr.uge.chargepointconfiguration.user.User;
+import fr.uge.chargepointconfiguration.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class BearerTokenTest {
+
+  private static final String EMAIL = "script@email";
+  private static final String PASSWORD = "Scr1pt!pass";
+  private static final JsonParser jsonParser = new JsonParser();
+
+  @Autowired
+  private MockMvc mvc;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
+  @Autowired
+  private CredentialCache credentialCache;
+
+  @BeforeEach
+  void createUser() {
+    userRepository.save(
+        new User("Script", "Client", EMAIL, passwordEncoder.encode(PASSWORD), User.Role.EDITOR));
+  }
+
+  @Test
+  void basicCredentialsAreVerifiedOnce() throws Exception {
+    var before = credentialCache.statistics();
+    mvc.perform(get("/api/user/me").with(httpBasic(EMAIL, PASSWORD))).andExpect(status().isOk());
+    mvc.perform(get("/api/user/me").with(httpBasic(EMAIL, PASSWORD)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.email").value(EMAIL));
+    var after = credentialCache.statistics();
+    assertEquals(before.misses() + 1, after.misses());
+    assertEquals(before.hits() + 1, after.hits());
+  }
+
+  @Test
+  void wrongPasswordIsNeverCached() throws Exception {
+    mvc.perform(get("/api/user/me").with(httpBasic(EMAIL, "wrong")))
+        .andExpect(status().isUnauthorized());
+    mvc.perform(get("/api/user/me").with(httpBasic(EMAIL, "wrong")))
+        .andExpect(status().isUnauthorized());
+    assertEquals(0, credentialCache.statistics().size());
+  }
+
+  @Test
+  void issuedTokenAuthenticatesUntilRevoked() throws Exception {
+    var body = mvc.perform(post("/api/user/token").with(httpBasic(EMAIL, PASSWORD)))
+        .andExpect(status().isCreated())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+    var token = jsonParser.stringToObject(TokenDto.class, body).token();
+    mvc.perform(get("/api/user/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.email").value(EMAIL));
+    mvc.perform(delete("/api/user/token").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isNoContent());
+    mvc.perform(get("/api/user/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void tokenCannotIssueTokens() throws Exception {
+    var token = issue();
+    mvc.perform(post("/api/user/token").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void oldestTokenIsRevokedBeyondTheLimit() throws Exception {
+    var first = issue();
+    for (var i = 0; i < 16; i++) {
+      issue();
+    }
+    mvc.perform(get("/api/user/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + first))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void sessionExpiresWhenTheRoleChanges() throws Exception {
+    var session = (MockHttpSession) mvc.perform(formLogin("/authentication/login/process")
+            .user(EMAIL)
+            .password(PASSWORD))
+        .andExpect(authenticated())
+        .andReturn()
+        .getRequest()
+        .getSession();
+    mvc.perform(get("/api/user/me").session(session))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.role").value("EDITOR"));
+
+    var id = userRepository.findByEmail(EMAIL).getId();
+    mvc.perform(patch("/api/user/" + id + "/role/VISUALIZER")
+            .with(user("admin@email").roles("ADMINISTRATOR")))
+        .andExpect(status().isOk());
+    mvc.perform(get("/api/user/me").session(session))
+        .andExpect(status().is3xxRedirection());
+  }
+
+  @Test
+  void sessionUserIsReadWithoutQueries() throws Exception {
+    var session = (MockHttpSession) mvc.perform(formLogin("/authentication/login/process")
+            .user(EMAIL)
+            .password(PASSWORD))
+        .andExpect(authenticated())
+        .andReturn()
+        .getRequest()
+        .getSession();
+    var statements = StatementCounter.count(() ->
+        mvc.perform(get("/api/user/me").session(session))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value(EMAIL)));
+    assertEquals(0, statements);
+  }
+
+  @Test
+  void changingUserKeepsTheCredentialsOfTheOthers() throws Exception {
+    mvc.perform(get("/api/user/me").with(httpBasic(EMAIL, PASSWORD))).andExpect(status().isOk());
+    var other = userRepository.findByEmail("visualizer@email").getId();
+    mvc.perform(patch("/api/user/" + other + "/role/EDITOR")
+            .with(user("admin@email").roles("ADMINISTRATOR")))
+        .andExpect(status().isOk());
+    var before = credentialCache.statistics();
+    mvc.perform(get("/api/user/me").with(httpBasic(EMAIL, PASSWORD))).andExpect(status().isOk());
+    assertEquals(before.hits() + 1, credentialCache.statistics().hits());
+
+    var id = userRepository.findByEmail(EMAIL).getId();
+    mvc.perform(patch("/api/user/" + id + "/role/VISUALIZER")
+            .with(user("admin@email").roles("ADMINISTRATOR")))
+        .andExpect(status().isOk());
+    before = credentialCache.statistics();
+    mvc.perform(get("/api/user/me").with(httpBasic(EMAIL, PASSWORD))).andExpect(status().isOk());
+    assertEquals(before.misses() + 1, credentialCache.statistics().misses());
+  }
+
+  private String issue() throws Exception {
+    var body = mvc.perform(post("/api/user/token").with(httpBasic(EMAIL, PASSWORD)))
+        .andExpect(status().isCreated())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+    return jsonParser.stringToObject(TokenDto.class, body).token();
+  }
+
+  @Test
+  void unknownTokenIsUnauthorized() throws Exception {
+    mvc.perform(get("/api/user/me").header(HttpHeaders.AUTHORIZATION, "Bearer unknown"))
+        .andExpect(status().isUnauthorized());
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.uge.chargepointconfiguration.logs.CustomLogger;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class BackgroundJobsTest {
+
+  @Autowired
+  private BackgroundJobs backgroundJobs;
+
+  @Autowired
+  private CustomLogger logger;
+
+  private JobStatusDto awaitEnd(String id) throws InterruptedException {
+    for (var i = 0; i < 100; i++) {
+      var status = backgroundJobs.status(id).orElseThrow();
+      if (status.finished() != null) {
+        return status;
+      }
+      Thread.sleep(50);
+    }
+    throw new AssertionError("The job " + id + " did not end");
+  }
+
+  @Test
+  void submittedJobRunsInBackground() throws InterruptedException {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var status = backgroundJobs.submit(() -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      return 42;
+    });
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    assertEquals(
+        JobStatusDto.State.RUNNING, backgroundJobs.status(status.id()).orElseThrow().state());
+
+    release.countDown();
+    var done = awaitEnd(status.id());
+    assertEquals(JobStatusDto.State.DONE, done.state());
+    assertEquals(42, done.processed());
+  }
+
+  @Test
+  void failuresAreRecorded() throws InterruptedException {
+    var submitted = backgroundJobs.submit(() -> {
+      throw new IllegalStateException("broken");
+    });
+    var failed = awaitEnd(submitted.id());
+    assertEquals(JobStatusDto.State.FAILED, failed.state());
+    assertEquals("broken", failed.error());
+
+    assertThrows(IllegalStateException.class, () -> backgroundJobs.run(() -> {
+      throw new IllegalStateException("broken");
+    }));
+    assertTrue(backgroundJobs.status("unknown").isEmpty());
+  }
+
+  @Test
+  void unfinishedJobsAreNotEvicted() throws InterruptedException {
+    var jobs = new BackgroundJobs(logger, 1);
+    var release = new CountDownLatch(1);
+    try {
+      var running = jobs.submit(() -> {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        return 1;
+      });
+      var first = jobs.run(() -> 2);
+      var second = jobs.run(() -> 3);
+      assertTrue(jobs.status(running.id()).isPresent());
+      assertTrue(jobs.status(first.id()).isEmpty());
+      assertEquals(3, jobs.status(second.id()).orElseThrow().processed());
+    } finally {
+      release.countDown();
+      jobs.shutdown();
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class EntityCountRegistryTest {
+  private static final Clock CLOCK = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+
+  @Test
+  void filteredCountsAreMemoized() {
+    var registry = new EntityCountRegistry(Duration.ofMinutes(1), Duration.ofMinutes(5), 2, CLOCK);
+    var loads = new AtomicLong();
+    for (var i = 0; i < 3; i++) {
+      assertEquals(4, registry.countWithFilter(String.class, "a:`b`", () -> {
+        loads.incrementAndGet();
+        return 4;
+      }));
+    }
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void onlyTheMostRecentRequestsAreKept() {
+    var registry = new EntityCountRegistry(Duration.ofMinutes(1), Duration.ofMinutes(5), 2, CLOCK);
+    var loads = new AtomicLong();
+    for (var request : new String[] {"a:`1`", "a:`2`", "a:`3`", "a:`3`", "a:`1`"}) {
+      registry.estimateWithFilter(String.class, request, loads::incrementAndGet);
+    }
+    // "a:`1`" was evicted by "a:`3`", so it is counted again
+    assertEquals(4, loads.get());
+  }
+
+  @Test
+  void changesKeepTheFilteredCountsUntilTheirTtl() {
+    var now = new AtomicLong();
+    var clock = new Clock() {
+      @Override
+      public ZoneId getZone() {
+        return ZoneOffset.UTC;
+      }
+
+      @Override
+      public Clock withZone(ZoneId zone) {
+        return this;
+      }
+
+      @Override
+      public Instant instant() {
+        return Instant.ofEpochMilli(now.get());
+      }
+    };
+    var registry = new EntityCountRegistry(Duration.ofMinutes(1), Duration.ofMinutes(5), 2, clock);
+    var loads = new AtomicLong();
+    registry.countWithFilter(String.class, "a:`1`", loads::incrementAndGet);
+    registry.onInsert(String.class);
+    assertEquals(1, registry.countWithFilter(String.class, "a:`1`", loads::incrementAndGet));
+
+    now.set(Duration.ofMinutes(2).toMillis());
+    assertEquals(1, registry.estimateWithFilter(String.class, "a:`1`", loads::incrementAndGet));
+    assertEquals(2, registry.countWithFilter(String.class, "a:`1`", loads::incrementAndGet));
+
+    now.set(Duration.ofMinutes(8).toMillis());
+    assertEquals(3, registry.estimateWithFilter(String.class, "a:`1`", loads::incrementAndGet));
+  }
+
+  @Test
+  void reseedReloadsTheTotals() {
+    var registry = new EntityCountRegistry(Duration.ofMinutes(1), Duration.ofMinutes(5), 2, CLOCK);
+    var rows = new AtomicLong(3);
+    assertEquals(3, registry.count(String.class, rows::get));
+    registry.onInsert(String.class);
+    assertEquals(4, registry.count(String.class, rows::get));
+
+    // The insert was rolled back, or the rows were written by another node
+    rows.set(10);
+    registry.reseed();
+    assertEquals(10, registry.count(String.class, rows::get));
+  }
+}
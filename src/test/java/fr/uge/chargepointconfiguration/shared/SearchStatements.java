@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.shared;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Checks that a search endpoint runs the same statements whatever the size of its page.
+ */
+public final class SearchStatements {
+  // The page, then one batch for its associations ; the total is not counted
+  private static final int MAX_STATEMENTS = 2;
+
+  private SearchStatements() {}
+
+  /**
+   * Requests the first page of each size, without the total, and checks the statements it runs.
+   * <br>
+   * A first request seeds the entity count, so the following ones never count the entities.
+   *
+   * @param mvc   the MockMvc of the test.
+   * @param path  the path of the search endpoint.
+   * @param sizes the sizes of the requested pages.
+   * @throws Exception if a request fails.
+   */
+  public static void assertConstant(MockMvc mvc, String path, String... sizes) throws Exception {
+    mvc.perform(get(path)).andExpect(status().isOk());
+    for (var size : sizes) {
+      var statements = StatementCounter.count(() -> mvc.perform(get(path)
+              .queryParam("size", size)
+              .queryParam("page", "0")
+              .queryParam("totalMode", "NONE"))
+          .andExpect(status().isOk()));
+      assertTrue(
+          statements <= MAX_STATEMENTS,
+          "statements for a page of " + size + " : " + statements);
+    }
+  }
+}
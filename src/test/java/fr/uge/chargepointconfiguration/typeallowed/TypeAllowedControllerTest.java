@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ * Copyright © 2024 LastProject-ESIEE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package fr.uge.chargepointconfiguration.typeallowed;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import fr.uge.chargepointconfiguration.tools.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class TypeAllowedControllerTest {
+  @Autowired
+  private MockMvc mvc;
+
+  private final JsonParser jsonParser = new JsonParser();
+
+  @Test
+  @WithMockUser(roles = "EDITOR")
+  void getAllIsNotModifiedUntilCreation() throws Exception {
+    var etag = mvc.perform(get("/api/type/all"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andReturn()
+        .getResponse()
+        .getHeader(HttpHeaders.ETAG);
+
+    mvc.perform(get("/api/type/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    mvc.perform(post("/api/type/create")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(jsonParser.objectToJsonString(
+                new CreateTypeAllowedDto("Alfen BV", "Eve Triple S-line"))))
+        .andExpect(status().isCreated());
+
+    mvc.perform(get("/api/type/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+        .andExpect(jsonPath("$", hasSize(3)));
+  }
+
+  @Test
+  void getAllIsDocumentedAsAnArray() throws Exception {
+    mvc.perform(get("/v3/api-docs"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath(
+            "$.paths['/api/type/all'].get.responses['200'].content['application/json'].schema.type",
+            is("array")))
+        .andExpect(jsonPath(
+            "$.paths['/api/firmware/all'].get.responses['200'].content['application/json']"
+                + ".schema.type",
+            is("array")));
+  }
+}
@@ -61,11 +61,11 @@ INSERT INTO chargepoint (serial_number_chargepoint, type, constructor, client_id
 ('ACE0000007', 'Eve Double S-line', 'Alfen BV', 'stéphane borne (l''historien)', 4, '2024-03-08 10:34:09', '', 1, 'FIRMWARE', 'FINISHED'),
 ('ACE0000008', 'Eve Single S-line', 'Alfen BV', 'les bornés', 2, '2024-03-08 10:34:09', '', 1, 'FIRMWARE', 'FAILED');
 
-INSERT INTO business_logs (date, complete_log, chargepoint_id, user_id, category, level) VALUES
-('2024-03-08 13:00:00', 'Un utilisateur s''est connecté', null, 1, 'LOGIN', 'INFO'),
-('2024-03-08 11:00:00', 'log qui indique un message très important', 2, 1, 'CONFIG', 'ERROR'),
-('2024-03-08 12:00:00', 'log qui indique un message fatal', 1, 2, 'FIRM', 'FATAL'),
-('2024-03-08 10:00:00', 'log qui indique un message d''info', 4, 2, 'FIRM', 'INFO');
+INSERT INTO business_logs (date, complete_log, chargepoint_id, user_id, category, level, ocpp_action) VALUES
+('2024-03-08 13:00:00', 'Un utilisateur s''est connecté', null, 1, 'LOGIN', 'INFO', null),
+('2024-03-08 11:00:00', 'log qui indique un message très important', 2, 1, 'CONFIG', 'ERROR', 'ChangeConfiguration'),
+('2024-03-08 12:00:00', 'log qui indique un message fatal', 1, 2, 'FIRM', 'FATAL', null),
+('2024-03-08 10:00:00', 'log qui indique un message d''info', 4, 2, 'FIRM', 'INFO', 'UpdateFirmware');
 
 INSERT INTO technical_logs (date, component, level, complete_log) VALUES
 ('2024-03-08 13:00:00', 'BACKEND', 'INFO', 'log technique de backend'),